@@ -3,6 +3,8 @@
  */
 package com.topcoder.onlinereview.component.datavalidator;
 
+import java.util.ResourceBundle;
+
 /**
  * <p>
  * This is an abstract <code>ObjectValidator</code> implementation which gives
@@ -41,12 +43,12 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * validator amongst other validators in a
      * composite validator for example. This is set through a dedicated setter and
      * is mutable. We can also read it
-     * through a dedicated getter. Access to this must be synchronized for
-     * thread-safety. It's initialized as an empty
+     * through a dedicated getter. It is volatile for thread-safety. It's
+     * initialized as an empty
      * <code>String</code> which means that the id has not been set.
      * </p>
      */
-    private String id = "";
+    private volatile String id = "";
 
     /**
      * <p>
@@ -57,10 +59,11 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * on a resource key (which is also initialized in the same constructor) It is
      * transient since it is not
      * serializable. It can be changed upon serialization and subsequent
-     * de-serialization.
+     * de-serialization. The instance is never modified once assigned, a new
+     * copy is assigned instead, so it is volatile and read without a lock.
      * </p>
      */
-    private BundleInfo bundleInfo;
+    private volatile BundleInfo bundleInfo;
 
     /**
      * <p>
@@ -121,7 +124,8 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * @return the validation message, possibly null
      */
     public String getValidationMessage() {
-        return getValidationMessage(bundleInfo.getMessageKey(), bundleInfo.getDefaultMessage());
+        BundleInfo info = bundleInfo;
+        return getValidationMessage(info, info.getMessageKey(), info.getDefaultMessage());
     }
 
     /**
@@ -138,15 +142,32 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * @return the validation message, possibly null
      */
     public String getValidationMessage(String messageKey, String defaultMessage) {
-        synchronized (this) {
+        return getValidationMessage(bundleInfo, messageKey, defaultMessage);
+    }
+
+    /**
+     * <p>
+     * Look up the message in the resource bundle of the given bundle
+     * information. Resource bundles are thread-safe, so no lock is needed.
+     * </p>
+     *
+     * @param info           the bundle information to use
+     * @param messageKey     The message key of the resource bundle
+     * @param defaultMessage the default message for the resource bundle
+     *
+     * @return the validation message, possibly null
+     */
+    private static String getValidationMessage(BundleInfo info, String messageKey, String defaultMessage) {
+        ResourceBundle resourceBundle = info.getResourceBundle();
+        if (resourceBundle != null && messageKey != null) {
             try {
-                return bundleInfo.getResourceBundle().getString(messageKey);
+                return resourceBundle.getString(messageKey);
             } catch (Exception e) {
                 // we choke it off
             }
-
-            return defaultMessage;
         }
+
+        return defaultMessage;
     }
 
     /**
@@ -159,9 +180,7 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * @return the id of validator
      */
     public String getId() {
-        synchronized (this.id) {
-            return id;
-        }
+        return id;
     }
 
     /**
@@ -179,9 +198,7 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
     public void setId(String id) {
         Helper.checkNull(id, "id");
 
-        synchronized (this.id) {
-            this.id = id;
-        }
+        this.id = id;
     }
 
     /**
@@ -202,9 +219,7 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
     public void setResourceBundleInfo(BundleInfo bundleInfo) {
         checkBundleInfo(bundleInfo);
 
-        synchronized (this) {
-            this.bundleInfo = copyBundleInfo(bundleInfo);
-        }
+        this.bundleInfo = copyBundleInfo(bundleInfo);
     }
 
     /**
@@ -219,9 +234,7 @@ public abstract class AbstractObjectValidator implements ObjectValidator {
      * @return current bundle info, possibly null.
      */
     public BundleInfo getBundleInfo() {
-        synchronized (this) {
-            return copyBundleInfo(bundleInfo);
-        }
+        return copyBundleInfo(bundleInfo);
     }
 
     /**
@@ -2,26 +2,56 @@
 package com.topcoder.onlinereview.component.id;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.ResultRows;
+import com.topcoder.or.util.StatsLogger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
-/** The DB helper class centralizes db operations for generating ids. */
+/**
+ * The DB helper class centralizes db operations for generating ids.
+ *
+ * <p>
+ * The id blocks are claimed in transactions of their own. A claim made by a
+ * caller inside a unit of work runs on one of the {@link #CLAIM_THREADS} claim
+ * threads, and a prefetch on one of the {@link #REFILL_THREADS} refill threads,
+ * so the id generation holds at most that many connections beyond the units of
+ * work of the callers. The connection pool of the tcs database is sized with
+ * that headroom above the units of work running at once.
+ * </p>
+ *
+ * <p>
+ * The counters of the ID sequences are logged by the {@link StatsLogger} under
+ * <code>ID sequences</code>.
+ * </p>
+ */
 @Component
 public class DBHelper {
   /** The default select sql sentence used for retrieving data from table. */
   private static final String DEFAULT_SELECT_NEXT_BLOCK = "SELECT next_block_start, block_size, exhausted FROM id_sequences WHERE name = ?";
 
-  /** The default sql sentence to update the next_block_start of the table. */
-  private static final String DEFAULT_UPDATE_NEXT_BLOCK_START = "UPDATE id_sequences SET next_block_start = ? WHERE name = ?";
-
-  /** The default sql sentence to set the exausted to 1. */
-  private static final String DEFAULT_UPDATE_EXHAUSTED = "UPDATE id_sequences SET exhausted = 1 WHERE name = ?";
+  /**
+   * The default sql sentence to update the next_block_start of the table, and
+   * the exhausted flag with it, if the next_block_start is still the one read.
+   */
+  private static final String DEFAULT_UPDATE_NEXT_BLOCK_START = "UPDATE id_sequences SET next_block_start = ?, exhausted = ? WHERE name = ? AND next_block_start = ?";
 
   /**
    * The key to the select sql sentence or the corresponding statement used for
@@ -32,28 +62,55 @@ public class DBHelper {
 
   /**
    * The key to the sql sentence or the corresponding statement to update the
-   * next_block_start of
-   * the table.
+   * next_block_start and the exhausted flag of
+   * the table, as a compare-and-set on the next_block_start read.
    */
   public static final String UPDATE_NEXT_BLOCK_START_KEY = "update_next_block_start";
 
+  /** The number of threads fetching id blocks in the background. */
+  public static final int REFILL_THREADS = 2;
+
+  /**
+   * The number of threads claiming id blocks for callers inside a unit of work,
+   * so a claim never needs a second connection on the caller's thread.
+   */
+  public static final int CLAIM_THREADS = 2;
+
   /**
-   * The key to sql sentence or the corresponding statement to set the exausted to
-   * 1.
+   * The Informix errors of a row locked by another transaction: -244 a read
+   * that failed, -107 the record locked.
    */
-  public static final String UPDATE_EXHAUSTED_KEY = "update_exhausted";
+  private static final Set<Integer> LOCK_ERROR_CODES = Set.of(-244, -107);
 
   /** the sql sentences support for generating ids */
   private Map<String, String> sqlSentences = new HashMap<>();
 
+  /** The threads fetching the next blocks of the generators ahead of time. */
+  private final ExecutorService refillExecutor = newExecutor("id-block-refill-", REFILL_THREADS);
+
+  /** The threads claiming the blocks needed at once by callers inside a unit of work. */
+  private final ExecutorService claimExecutor = newExecutor("id-block-claim-", CLAIM_THREADS);
+
+  /** The counters of the ID sequences by name. */
+  private final Map<String, IDSequenceStats> sequenceStats = new ConcurrentHashMap<>();
+
   @Autowired
   private DBAccessor dbAccessor;
 
+  @Autowired
+  private StatsLogger statsLogger;
+
   @PostConstruct
   public void postRun() {
     sqlSentences.put(SELECT_NEXT_BLOCK_KEY, DEFAULT_SELECT_NEXT_BLOCK);
     sqlSentences.put(UPDATE_NEXT_BLOCK_START_KEY, DEFAULT_UPDATE_NEXT_BLOCK_START);
-    sqlSentences.put(UPDATE_EXHAUSTED_KEY, DEFAULT_UPDATE_EXHAUSTED);
+    statsLogger.addSource("ID sequences", this::getAllSequenceStats);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refillExecutor.shutdownNow();
+    claimExecutor.shutdownNow();
   }
 
   /**
@@ -74,7 +131,7 @@ public class DBHelper {
    * @throws IDGenerationException if the connection to the database cannot be
    *                               created.
    */
-  public List<Map<String, Object>> executeQuery(String key, Object[] parameters)
+  public ResultRows executeQuery(String key, Object[] parameters)
       throws IDGenerationException {
     if ((key == null) || (key.trim().length() == 0)) {
       throw new IllegalArgumentException("The key should not be null or empty!");
@@ -83,7 +140,7 @@ public class DBHelper {
       throw new IllegalArgumentException(
           "The key is not for a required sql statement supporting id generation.");
     }
-    return dbAccessor.executeQuery(sqlSentences.get(key), parameters);
+    return dbAccessor.executeQueryForRows(sqlSentences.get(key), parameters);
   }
 
   public int executeUpdate(String key, Object[] parameters) throws IDGenerationException {
@@ -97,6 +154,91 @@ public class DBHelper {
     return dbAccessor.executeUpdate(sqlSentences.get(key), parameters);
   }
 
+  /**
+   * Runs the work in its own database transaction, committed when it returns
+   * even if the caller runs in a unit of work that is rolled back later. Inside
+   * a unit of work, the caller waits while a claim thread runs it, so the
+   * caller's thread never holds two connections of the pool.
+   *
+   * @param <T>  the type of the result
+   * @param work the work running the sql statements
+   * @return the result of the work
+   * @throws java.util.concurrent.RejectedExecutionException if the helper is
+   *                                                         shut down
+   */
+  public <T> T executeInNewUnitOfWork(Supplier<T> work) {
+    if (!dbAccessor.isInUnitOfWork()) {
+      return dbAccessor.executeInNewUnitOfWork(work);
+    }
+    try {
+      return CompletableFuture.supplyAsync(() -> dbAccessor.executeInNewUnitOfWork(work), claimExecutor).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the task on a background thread, such as the fetch of the next id
+   * block before the current one runs out.
+   *
+   * @param task the task
+   * @throws java.util.concurrent.RejectedExecutionException if the helper is
+   *                                                         shut down
+   */
+  public void executeInBackground(Runnable task) {
+    refillExecutor.execute(task);
+  }
+
+  /**
+   * Tells whether the failure is a row locked by another transaction, such as
+   * the claim of the same id block by another node, so the work can be tried
+   * again. Informix reports a locked row with its own error codes, which Spring
+   * does not translate to a locking failure.
+   *
+   * @param e the failure
+   * @return whether the failure is a lock held by another transaction
+   */
+  public static boolean isLockFailure(RuntimeException e) {
+    if (e instanceof PessimisticLockingFailureException) {
+      return true;
+    }
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException) {
+        for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+          if (LOCK_ERROR_CODES.contains(next.getErrorCode())) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the counters of the ID sequence, shared by its generators.
+   *
+   * @param idName the name of the ID sequence
+   * @return the counters
+   */
+  public IDSequenceStats getSequenceStats(String idName) {
+    return sequenceStats.computeIfAbsent(idName, name -> new IDSequenceStats());
+  }
+
+  /**
+   * Returns the counters of every ID sequence used so far.
+   *
+   * @return the counters by sequence name, sorted and unmodifiable
+   */
+  public Map<String, IDSequenceStats> getAllSequenceStats() {
+    return Collections.unmodifiableMap(new TreeMap<>(sequenceStats));
+  }
+
   /** Commits all the changes to the database. */
   public void commit() {
   }
@@ -112,4 +254,13 @@ public class DBHelper {
    */
   public void releaseDatabaseResources(boolean force) {
   }
+
+  private static ExecutorService newExecutor(String namePrefix, int size) {
+    AtomicInteger threads = new AtomicInteger();
+    return Executors.newFixedThreadPool(size, r -> {
+      Thread thread = new Thread(r, namePrefix + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
 }
@@ -1,12 +1,19 @@
 /** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
 package com.topcoder.onlinereview.component.id;
 
-import org.springframework.transaction.annotation.Transactional;
+import com.topcoder.or.util.ResultRows;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class is the core of the component and actually generates the IDs. It is
@@ -28,8 +35,27 @@ import java.util.Map;
  * made available under the JNDI name
  * &quot;java:comp/env/jdbc/com/topcoder/util/idgenerator/IDGeneratorDataSource&quot;;
  * this
- * DataSource is used to access the ID table. This class is synchronized for
- * thread-safety.
+ * DataSource is used to access the ID table.
+ *
+ * <p>
+ * This class is thread safe without blocking its callers: the ids of the
+ * current block are handed out by an atomic counter, and once a quarter of the
+ * block is left the next block is fetched on a background thread of the
+ * {@link DBHelper}. A caller only waits for the database when the next block
+ * is not there yet as the current one runs out, such as for the first block.
+ * The blocks are fetched one at a time per generator. Generators of other
+ * nodes may fetch the same sequence: a block is read and claimed in one
+ * transaction, whose update only moves the next block start if it is still the
+ * one read, and a block claimed by another node first is read again. A claim
+ * failing on the row locked by the claim of another node is lost the same way.
+ *
+ * <p>
+ * The block size adapts to how fast the ids are used: a block used up in less
+ * than half of {@link #TARGET_REFILL_SECONDS} doubles the size of the next one,
+ * a block lasting more than twice as long shrinks it in proportion. The size
+ * stays between the block size of the sequence and {@link #MAX_BLOCK_GROWTH}
+ * times that, unless the bounds are given. The fetches and the waits for them
+ * are counted in the {@link IDSequenceStats} of the sequence.
  *
  * <p>
  * Notes: the default connection name is 'DefaultSequence' for
@@ -84,17 +110,51 @@ public class IDGenerator {
   private final String idName;
 
   /**
-   * This is the next value that will be generated for this sequence. It is
-   * returned and updated by
-   * getNextID().
+   * The part of a block left when the next block is fetched, as a divisor of
+   * the block size.
    */
-  private long nextID;
+  private static final int PREFETCH_DIVISOR = 4;
+
+  /** The interval between two block fetches the block size adapts to. */
+  public static final long TARGET_REFILL_SECONDS = 30;
+
+  /** How many times the block size of the sequence a block may grow to. */
+  public static final int MAX_BLOCK_GROWTH = 16;
+
+  private static final long TARGET_REFILL_NANOS = TimeUnit.SECONDS.toNanos(TARGET_REFILL_SECONDS);
+
+  /** How many times a block is claimed before giving up, when other nodes keep claiming or locking it first. */
+  private static final int MAX_CLAIM_ATTEMPTS = 10;
+
+  /** The longest pause after a lost claim, times the number of claims lost so far. */
+  private static final long CLAIM_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  /**
+   * The block the ids are handed out from, replaced under the switch lock when
+   * it runs out.
+   */
+  private volatile Block current = new Block(0, 0);
+
+  /** The next block being fetched in the background, null if there is none. */
+  private final AtomicReference<CompletableFuture<Block>> pending = new AtomicReference<>();
+
+  /** Held while the current block is replaced, so only one caller replaces it. */
+  private final ReentrantLock switchLock = new ReentrantLock();
+
+  /** the block size, written under the monitor of this instance */
+  private volatile int blockSize = -1;
 
-  /** Indicate the ids left in the current block for the getNextID method. */
-  private int idsLeft = 0;
+  /** The smallest block size, -1 until read from the sequence; guarded by the monitor. */
+  private int minBlockSize = -1;
 
-  /** the block size */
-  private int blockSize = -1;
+  /** The largest block size, -1 until read from the sequence; guarded by the monitor. */
+  private int maxBlockSize = -1;
+
+  /** When the last block of the block size was fetched, guarded by the monitor. */
+  private long lastRefillNanos;
+
+  /** The counters of the sequence. */
+  private final IDSequenceStats stats;
 
   /**
    * Creates a new IDGeneratorImpl for the named ID sequence.
@@ -113,6 +173,7 @@ public class IDGenerator {
     nextBlockStartField = DEFAULT_NEXT_BLOCK_START;
     blockSizeField = DEFAULT_BLOCK_SIZE;
     exhaustedField = DEFAULT_EXHAUSTED;
+    stats = helper.getSequenceStats(idName);
     checkIDName();
   }
 
@@ -136,6 +197,35 @@ public class IDGenerator {
     }
 
     this.blockSize = blockSize;
+    minBlockSize = blockSize;
+    maxBlockSize = blockSize;
+  }
+
+  /**
+   * Creates a new IDGeneratorImpl for the named ID sequence whose block size
+   * adapts between the given bounds, starting at the smallest.
+   *
+   * @param idName       name of the ID sequence encapsulated by this instance.
+   * @param minBlockSize the smallest block size
+   * @param maxBlockSize the largest block size
+   * @throws IDGenerationException    if an error occurs while retrieving ID
+   *                                  sequence configuration
+   *                                  (for example, database errors)
+   * @throws IllegalArgumentException if the smallest block size is not positive
+   *                                  or the largest is smaller.
+   */
+  public IDGenerator(String idName, DBHelper helper, int minBlockSize, int maxBlockSize)
+      throws IDGenerationException {
+    this(idName, helper);
+
+    if (minBlockSize <= 0 || maxBlockSize < minBlockSize) {
+      throw new IllegalArgumentException(
+          "The block sizes should be positive and the largest not smaller than the smallest.");
+    }
+
+    this.blockSize = minBlockSize;
+    this.minBlockSize = minBlockSize;
+    this.maxBlockSize = maxBlockSize;
   }
 
   /**
@@ -147,6 +237,15 @@ public class IDGenerator {
     return idName;
   }
 
+  /**
+   * Return the counters of the ID sequence, shared with its other generators.
+   *
+   * @return the counters of the ID sequence
+   */
+  public IDSequenceStats getStats() {
+    return stats;
+  }
+
   /**
    * Returns the next ID in the ID sequence encapsulated by this instance.
    * Internal state is updated
@@ -157,17 +256,18 @@ public class IDGenerator {
    *                               example, error
    *                               while connecting to the database)
    */
-  @Transactional
-  public synchronized long getNextID() throws IDGenerationException {
-    if (idsLeft <= 0) {
-      // if no ids left,
-      // acquire a new block
-      getNextBlock();
+  public long getNextID() throws IDGenerationException {
+    while (true) {
+      Block block = current;
+      long id = block.next.getAndIncrement();
+      if (id <= block.last) {
+        if (id == block.prefetchAt) {
+          prefetch();
+        }
+        return id;
+      }
+      replace(block);
     }
-
-    --idsLeft;
-
-    return nextID++;
   }
 
   /**
@@ -179,86 +279,224 @@ public class IDGenerator {
    *                               example, error
    *                               while connecting to the database)
    */
-  public synchronized BigInteger getNextBigID() throws IDGenerationException {
+  public BigInteger getNextBigID() throws IDGenerationException {
     return BigInteger.valueOf(getNextID());
   }
 
+  /**
+   * Returns the given number of IDs of the ID sequence, in ascending order. The
+   * IDs are taken from the current block in one step; when they do not fit in
+   * it, the rest come from the next block, or from a block of their own fetched
+   * at once if they are more than a block holds. So the IDs are contiguous
+   * except where they cross from one block to the other.
+   *
+   * @param count the number of IDs
+   * @return the IDs
+   * @throws IllegalArgumentException if the count is negative
+   * @throws IDGenerationException    if an error occurs while generating the IDs
+   *                                  (for example, error while connecting to
+   *                                  the database)
+   */
+  public long[] reserve(int count) throws IDGenerationException {
+    if (count < 0) {
+      throw new IllegalArgumentException("The count should not be negative.");
+    }
+    long[] ids = new long[count];
+    int filled = 0;
+    while (filled < count) {
+      Block block = current;
+      int taken = block.take(ids, filled, count - filled);
+      if (taken > 0) {
+        if (ids[filled] <= block.prefetchAt && block.prefetchAt <= ids[filled + taken - 1]) {
+          prefetch();
+        }
+        filled += taken;
+      } else if (blockSize > 0 && count - filled > blockSize) {
+        getNextBlock(count - filled).take(ids, filled, count - filled);
+        filled = count;
+      } else {
+        replace(block);
+      }
+    }
+    return ids;
+  }
+
   /** Disposes the id generator instance. */
   public void dispose() {
     helper.releaseDatabaseResources(true);
   }
 
+  /**
+   * Starts fetching the next block in the background, unless a fetch is
+   * already pending.
+   */
+  private void prefetch() {
+    CompletableFuture<Block> refill = new CompletableFuture<>();
+    if (!pending.compareAndSet(null, refill)) {
+      return;
+    }
+    try {
+      helper.executeInBackground(() -> {
+        try {
+          refill.complete(getNextBlock(0));
+        } catch (RuntimeException e) {
+          refill.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refill.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Replaces the block that ran out with the next one, unless another caller
+   * already did.
+   *
+   * @param exhausted the block that ran out
+   * @throws IDGenerationException if the next block cannot be fetched
+   */
+  private void replace(Block exhausted) throws IDGenerationException {
+    long start = System.nanoTime();
+    switchLock.lock();
+    try {
+      if (current == exhausted) {
+        current = takeNextBlock();
+      }
+    } finally {
+      switchLock.unlock();
+      stats.recordWait(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Returns the block fetched in the background, or fetches it now if there is
+   * none or its fetch failed.
+   *
+   * @return the next block
+   * @throws IDGenerationException if the block cannot be fetched
+   */
+  private Block takeNextBlock() throws IDGenerationException {
+    CompletableFuture<Block> refill = pending.getAndSet(null);
+    if (refill != null) {
+      try {
+        return refill.join();
+      } catch (CompletionException | CancellationException e) {
+        // fetch it here, so an error that persists reaches the caller
+      }
+    }
+    return getNextBlock(0);
+  }
+
   /**
    * Reading the database for the next new start id.
    *
+   * @param size the size of the block, 0 for the block size of the sequence
+   * @return the block reserved
    * @throws IDGenerationException if an error occurs while generating the ID (for
    *                               example, error
    *                               while connecting to the database)
    */
-  private synchronized void getNextBlock() throws IDGenerationException {
+  private synchronized Block getNextBlock(int size) throws IDGenerationException {
+    long start = System.nanoTime();
+    if (size == 0) {
+      adaptBlockSize(start);
+    }
     try {
-      List<Map<String, Object>> result = helper.executeQuery(DBHelper.SELECT_NEXT_BLOCK_KEY, new Object[] { idName });
-
-      if (result.size() == 0) {
-        throw new NoSuchIDSequenceException("The specified IDName does not exist in the database.");
-      }
-
-      // if the ids are exausted yet, simply throw exception
-      Object exhaustedFieldObject = result.get(0).get(exhaustedField);
-      if (exhaustedFieldObject instanceof BigDecimal) {
-        // For old version, before 3.0.1
-        if (((BigDecimal) exhaustedFieldObject).intValue() != 0) {
-          throw new IDsExhaustedException("The ids of specified IDName are exausted yet.");
+      for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+        Block block;
+        try {
+          // the block is committed on its own, so rolling back the caller never hands its ids out twice
+          block = helper.executeInNewUnitOfWork(() -> reserveNextBlock(size));
+        } catch (RuntimeException e) {
+          if (!DBHelper.isLockFailure(e)) {
+            throw e;
+          }
+          block = null;
         }
-      } else {
-        if (((Integer) exhaustedFieldObject).intValue() != 0) {
-          throw new IDsExhaustedException("The ids of specified IDName are exausted yet.");
+        if (block != null) {
+          stats.recordRefill(block.size, System.nanoTime() - start);
+          return block;
         }
+        stats.recordConflict();
+        // a random pause, so the nodes that lost do not all read the next start at once again
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(CLAIM_BACKOFF_NANOS * (attempt + 1)));
       }
+      throw new IDGenerationException("The next block of the ID sequence was claimed or locked by others "
+          + MAX_CLAIM_ATTEMPTS + " times in a row.");
+    } finally {
+      helper.releaseDatabaseResources(false);
+    }
+  }
 
-      // otherwise, read the new block and update this id
-      Object nextBlockObject = result.get(0).get(nextBlockStartField);
-      long myNextID = 0;
-      if (nextBlockObject instanceof BigDecimal) {
-        myNextID = ((BigDecimal) nextBlockObject).longValue();
-      } else {
-        myNextID = ((Long) nextBlockObject).longValue();
+  /**
+   * Sizes the next block by how long the blocks of the block size last,
+   * within the bounds. Called under the monitor.
+   *
+   * @param now the time of the fetch
+   */
+  private void adaptBlockSize(long now) {
+    if (lastRefillNanos != 0 && blockSize > 0) {
+      long elapsed = now - lastRefillNanos;
+      if (elapsed < TARGET_REFILL_NANOS / 2) {
+        blockSize = (int) Math.min((long) blockSize * 2, maxBlockSize);
+      } else if (elapsed > TARGET_REFILL_NANOS * 2) {
+        blockSize = (int) Math.max(minBlockSize, blockSize * ((double) TARGET_REFILL_NANOS / elapsed));
       }
+    }
+    lastRefillNanos = now;
+  }
 
-      if (blockSize < 0) {
-        Object blockSizeObject = result.get(0).get(blockSizeField);
-        if (blockSizeObject instanceof BigDecimal) {
-          blockSize = ((BigDecimal) blockSizeObject).intValue();
-        } else {
-          blockSize = ((Integer) blockSizeObject).intValue();
-        }
-      }
+  /**
+   * Reads the next block start and moves it past the block in the database,
+   * unless another node moved it since it was read. The update compares the
+   * start read, so two nodes never claim the same block.
+   *
+   * @param size the size of the block, 0 for the block size of the sequence
+   * @return the reserved block, null if another node claimed it first
+   * @throws IDGenerationException if an error occurs while reserving the block
+   */
+  private Block reserveNextBlock(int size) throws IDGenerationException {
+    ResultRows result = helper.executeQuery(DBHelper.SELECT_NEXT_BLOCK_KEY, new Object[] { idName });
 
-      // if the ids left are not sufficient to make a full block,
-      // throw exception
-      if ((myNextID - 1) > (Long.MAX_VALUE - blockSize)) {
-        throw new IDsExhaustedException("The ids left are not sufficient to make a block.");
-      }
+    if (result.size() == 0) {
+      throw new NoSuchIDSequenceException("The specified IDName does not exist in the database.");
+    }
 
-      // From here, we need to consider the rollback problem while error occurs
-      // if the ids are exausted, set the flag
-      if ((myNextID - 1) >= (Long.MAX_VALUE - blockSize)) {
-        helper.executeUpdate(DBHelper.UPDATE_EXHAUSTED_KEY, new Object[] { idName });
-      }
+    // if the ids are exausted yet, simply throw exception
+    // (the columns are decimals before 3.0.1 and integers after, both are read as numbers)
+    if (result.getInt(0, result.column(exhaustedField)) != 0) {
+      throw new IDsExhaustedException("The ids of specified IDName are exausted yet.");
+    }
 
-      long myMaxBlockID = (myNextID + blockSize) - 1;
+    // otherwise, read the new block and update this id
+    long myNextID = result.getLong(0, result.column(nextBlockStartField));
 
-      // update the next block start
-      helper.executeUpdate(
-          DBHelper.UPDATE_NEXT_BLOCK_START_KEY, new Object[] { myMaxBlockID + 1, idName });
-      helper.commit();
+    if (blockSize < 0) {
+      int configured = result.getInt(0, result.column(blockSizeField));
+      minBlockSize = configured;
+      maxBlockSize = (int) Math.min((long) configured * MAX_BLOCK_GROWTH, Integer.MAX_VALUE);
+      blockSize = configured;
+    }
+    int mySize = size > 0 ? size : blockSize;
+    if (mySize == 0) {
+      throw new IDGenerationException("The block size of the ID sequence should be positive.");
+    }
 
-      // it is safe to assign all the value now
-      idsLeft = blockSize;
-      nextID = myNextID;
-    } finally {
-      helper.releaseDatabaseResources(false);
+    // if the ids left are not sufficient to make a full block,
+    // throw exception
+    if ((myNextID - 1) > (Long.MAX_VALUE - mySize)) {
+      throw new IDsExhaustedException("The ids left are not sufficient to make a block.");
     }
+
+    // if the ids are exausted, set the flag in the same statement
+    int exhausted = (myNextID - 1) >= (Long.MAX_VALUE - mySize) ? 1 : 0;
+
+    long myMaxBlockID = (myNextID + mySize) - 1;
+
+    // update the next block start, if it is still the one read
+    int updated = helper.executeUpdate(
+        DBHelper.UPDATE_NEXT_BLOCK_START_KEY, new Object[] { myMaxBlockID + 1, exhausted, idName, myNextID });
+    return updated == 0 ? null : new Block(myNextID, mySize);
   }
 
   /**
@@ -269,7 +507,7 @@ public class IDGenerator {
   private void checkIDName() throws IDGenerationException {
     // Check if the given id generator exist on the underlying persistence
     try {
-      List<Map<String, Object>> result = helper.executeQuery(DBHelper.SELECT_NEXT_BLOCK_KEY, new Object[] { idName });
+      ResultRows result = helper.executeQuery(DBHelper.SELECT_NEXT_BLOCK_KEY, new Object[] { idName });
 
       if (result.size() == 0) {
         throw new NoSuchIDSequenceException(
@@ -279,4 +517,50 @@ public class IDGenerator {
       helper.releaseDatabaseResources(false);
     }
   }
+
+  /** A block of ids reserved in the database, handed out by an atomic counter. */
+  private static final class Block {
+    /** The next id to hand out, past the last one once the block ran out. */
+    private final AtomicLong next;
+
+    /** The last id of the block. */
+    private final long last;
+
+    /** The id whose caller starts fetching the next block. */
+    private final long prefetchAt;
+
+    /** The number of ids of the block. */
+    private final int size;
+
+    private Block(long start, int size) {
+      this.size = size;
+      next = new AtomicLong(start);
+      last = start + size - 1;
+      prefetchAt = last - size / PREFETCH_DIVISOR;
+    }
+
+    /**
+     * Takes up to the wanted number of ids left in the block at once.
+     *
+     * @param ids    receives the ids taken
+     * @param offset the position of the first id taken in the array
+     * @param wanted the number of ids wanted
+     * @return the number of ids taken, 0 if the block ran out
+     */
+    private int take(long[] ids, int offset, int wanted) {
+      while (true) {
+        long start = next.get();
+        if (start > last) {
+          return 0;
+        }
+        int taken = (int) Math.min(wanted, last - start + 1);
+        if (next.compareAndSet(start, start + taken)) {
+          for (int i = 0; i < taken; i++) {
+            ids[offset + i] = start + i;
+          }
+          return taken;
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,122 @@
+/** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
+package com.topcoder.onlinereview.component.id;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of an ID sequence, shared by the generators of the sequence in
+ * this process: how often its blocks are fetched and how long that takes, how
+ * often a block was claimed or locked by another node first, how often callers
+ * wait for a block and for how long, and the size of the last block fetched.
+ */
+public final class IDSequenceStats {
+
+  private final LongAdder refills = new LongAdder();
+  private final LongAdder refillNanos = new LongAdder();
+  private final LongAdder conflicts = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+  private volatile int blockSize;
+
+  /**
+   * Record the fetch of a block.
+   *
+   * @param size  the size of the block
+   * @param nanos the time the fetch took
+   */
+  void recordRefill(int size, long nanos) {
+    refills.increment();
+    refillNanos.add(nanos);
+    blockSize = size;
+  }
+
+  /** Record a block claimed by another node between reading and updating it, or locked by its claim. */
+  void recordConflict() {
+    conflicts.increment();
+  }
+
+  /**
+   * Record a caller waiting for the next block.
+   *
+   * @param nanos the time the caller waited
+   */
+  void recordWait(long nanos) {
+    waits.increment();
+    waitNanos.add(nanos);
+    maxWaitNanos.accumulate(nanos);
+  }
+
+  /**
+   * Return the number of blocks fetched.
+   *
+   * @return the number of blocks fetched
+   */
+  public long getRefillCount() {
+    return refills.sum();
+  }
+
+  /**
+   * Return the time spent fetching blocks.
+   *
+   * @return the time of all the fetches, in milliseconds
+   */
+  public long getRefillMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(refillNanos.sum());
+  }
+
+  /**
+   * Return the number of blocks claimed or locked by another node first.
+   *
+   * @return the number of claims lost
+   */
+  public long getConflictCount() {
+    return conflicts.sum();
+  }
+
+  /**
+   * Return the number of times a caller waited for the next block.
+   *
+   * @return the number of waits
+   */
+  public long getWaitCount() {
+    return waits.sum();
+  }
+
+  /**
+   * Return the time callers spent waiting for the next block.
+   *
+   * @return the time of all the waits, in milliseconds
+   */
+  public long getWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+  }
+
+  /**
+   * Return the longest time a caller waited for the next block.
+   *
+   * @return the longest wait, in milliseconds
+   */
+  public long getMaxWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+  }
+
+  /**
+   * Return the size of the last block fetched.
+   *
+   * @return the block size, 0 before the first fetch
+   */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  @Override
+  public String toString() {
+    return "refills=" + getRefillCount() + ", refillMillis=" + getRefillMillis() + ", conflicts="
+        + getConflictCount() + ", waits=" + getWaitCount()
+        + ", waitMillis=" + getWaitMillis() + ", maxWaitMillis=" + getMaxWaitMillis() + ", blockSize="
+        + blockSize;
+  }
+}
@@ -2,9 +2,17 @@ package com.topcoder.onlinereview.component.idgenerator;
 
 import org.springframework.dao.DataAccessException;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * High/low id generator.
- * 
+ *
+ * <p>
+ * The low values of the current high value are handed out by an atomic
+ * counter. When they run out, one caller fetches the next high value while the
+ * others of this generator wait for it.
+ * </p>
+ *
  * @version 1.0
  * @author Timur Zambalayev
  */
@@ -14,12 +22,12 @@ final class HighLowIdGenerator implements IdGeneratorInterface {
     private final HighValueFetcher highValueFetcher;
     private final String tableId;
 
-    private long hi = -1;
-    private int lo;
+    /** The current high value and its next low value, replaced when it runs out. */
+    private volatile Range range;
 
     /**
      * Creates an instance of this class.
-     * 
+     *
      * @param maxLo            the maximum value for the low value.
      * @param highValueFetcher high value fetcher.
      */
@@ -27,32 +35,40 @@ final class HighLowIdGenerator implements IdGeneratorInterface {
         this.maxLo = maxLo;
         this.highValueFetcher = highValueFetcher;
         this.tableId = tableId;
+        // no high value yet, so the first caller fetches one
+        range = new Range(-1, maxLo);
     }
 
-    private void fetchHighValue() throws DataAccessException {
-        hi = highValueFetcher.nextHighValue(tableId);
-    }
-
-    public long nextId() throws DataAccessException {
-        if (hi < 0) {
-            fetchHighValue();
+    private synchronized void fetchHighValue(Range exhausted) throws DataAccessException {
+        if (range == exhausted) {
+            range = new Range(highValueFetcher.nextHighValue(tableId), 0);
         }
-        long id = combine(hi, lo, maxLo);
-        inc();
-        return id;
     }
 
-    private void inc() throws DataAccessException {
-        int newLo = lo + 1;
-        if (newLo >= maxLo) {
-            fetchHighValue();
-            newLo = 0;
+    public long nextId() throws DataAccessException {
+        while (true) {
+            Range current = range;
+            int lo = current.lo.getAndIncrement();
+            if (lo < maxLo) {
+                return combine(current.hi, lo, maxLo);
+            }
+            fetchHighValue(current);
         }
-        lo = newLo;
     }
 
     private static long combine(long hi, int lo, int maxLo) {
         return lo + maxLo * hi;
     }
 
+    /** A high value with the next of its low values. */
+    private static final class Range {
+        private final long hi;
+        private final AtomicInteger lo;
+
+        private Range(long hi, int lo) {
+            this.hi = hi;
+            this.lo = new AtomicInteger(lo);
+        }
+    }
+
 }
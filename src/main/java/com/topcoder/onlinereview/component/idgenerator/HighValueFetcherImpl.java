@@ -4,11 +4,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.topcoder.or.util.DBAccessor;
-
-import java.util.List;
-import java.util.Map;
-
-import static com.topcoder.or.util.Helper.getLong;
+import com.topcoder.or.util.ResultRows;
 
 /**
  * High value fetcher implementation.
@@ -71,14 +67,14 @@ final class HighValueFetcherImpl implements HighValueFetcher {
     }
 
     private long getCurrentHighValue(String tableId) throws DataAccessException {
-        List<Map<String, Object>> resultSet = dbAccessor.executeQuery(jdbcTemplate, selectSql, tableId);
+        ResultRows resultSet = dbAccessor.executeQueryForRows(jdbcTemplate, selectSql, tableId);
         if (resultSet.isEmpty()) {
             throw new RuntimeException("no such row in the id generation table, tableId=" + tableId);
         }
         if (resultSet.size() > 1) {
             throw new RuntimeException("more than one row in the id generation table, tableId=" + tableId);
         }
-        return getLong(resultSet.get(0), highValueColumnName);
+        return resultSet.getLong(0, resultSet.column(highValueColumnName));
     }
 
     private void insertZero(String tableId) throws DataAccessException {
@@ -1,87 +1,68 @@
 package com.topcoder.onlinereview.component.idgenerator;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
 
 import com.topcoder.or.util.DBAccessor;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * The class (singleton) for generating unique ids.
+ * The registry of the high/low id generators, one per table/sequence name.
+ *
+ * <p>
+ * Each sequence keeps its own state: its ids are handed out lock-free from the
+ * current high value, and only the callers of a sequence whose low values ran
+ * out wait for its next high value. Fetching the high value of one sequence
+ * never blocks another.
+ * </p>
  *
  * @version 1.0
  * @author Timur Zambalayev
  */
+@Component
 public final class IdGenerator {
 
-    private static final long TEN13 = 10000000000000L;
-    private static final int TEN5 = 100000;
+    /** The table of the sequences of the catalog. */
+    private static final String DEFAULT_TABLE_NAME = "sequence_object";
 
-    private static final Map<String, IdGeneratorInterface> idGeneratorMap = new HashMap<>();
+    /** The sequence name column of the sequence table. */
+    private static final String DEFAULT_USER_DEF_COLUMN_NAME = "name";
 
-    private static boolean initialized;
-    private static DBAccessor _dbAccessor;
-    private static JdbcTemplate _jdbcTemplate;
-    private static String _tableName;
-    private static String _userDefColumnName;
-    private static String _highValueColumnName;
-    private static long _maxHi;
-    private static int _maxLo;
-    private static boolean _autoInit;
+    /** The high value column of the sequence table. */
+    private static final String DEFAULT_HIGH_VALUE_COLUMN_NAME = "current_value";
 
-    private IdGenerator() {
-    }
+    private static final long DEFAULT_MAX_HI = 9999999999L;
+    private static final int DEFAULT_MAX_LO = 1;
 
-    /**
-     * Returns whether the id generator is initialized.
-     *
-     * @return whether the id generator is initialized.
-     */
-    public static synchronized boolean isInitialized() {
-        return initialized;
-    }
+    private final Map<String, IdGeneratorInterface> idGeneratorMap = new ConcurrentHashMap<>();
 
-    /**
-     * Initializes the id generator.
-     *
-     * @param jdbcTemplate data source.
-     * @throws IllegalStateException if already initialized.
-     */
-    public static void init(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate) {
-        init(dbAccessor, jdbcTemplate, "key_generation");
-    }
+    private final DBAccessor dbAccessor;
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+    private final String userDefColumnName;
+    private final String highValueColumnName;
+    private final long maxHi;
+    private final int maxLo;
+    private final boolean autoInit;
 
     /**
-     * Initializes the id generator.
+     * Creates the id generator of the catalog sequences, which are not created
+     * on first use.
      *
-     * @param jdbcTemplate data source.
-     * @param tableName    table name.
-     * @throws IllegalStateException if already initialized.
-     */
-    public static void init(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, String tableName) {
-        init(dbAccessor, jdbcTemplate, tableName, "user_def", "high_value", TEN13, TEN5);
-    }
-
-    /**
-     * Initializes the id generator.
-     *
-     * @param jdbcTemplate        data source.
-     * @param tableName           table name.
-     * @param userDefColumnName   table/sequence column name.
-     * @param highValueColumnName high value column name.
-     * @param maxHi               the maximum high value.
-     * @param maxLo               the maximum low value.
-     * @throws IllegalStateException if already initialized.
+     * @param dbAccessor the database accessor.
      */
-    public static void init(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, String tableName,
-            String userDefColumnName, String highValueColumnName, long maxHi, int maxLo) {
-        init(dbAccessor, jdbcTemplate, tableName, userDefColumnName, highValueColumnName, maxHi, maxLo, true);
+    @Autowired
+    public IdGenerator(DBAccessor dbAccessor) {
+        this(dbAccessor, dbAccessor.getTcsJdbcTemplate(), DEFAULT_TABLE_NAME, DEFAULT_USER_DEF_COLUMN_NAME,
+                DEFAULT_HIGH_VALUE_COLUMN_NAME, DEFAULT_MAX_HI, DEFAULT_MAX_LO, false);
     }
 
     /**
-     * Initializes the id generator.
+     * Creates an id generator.
      *
      * @param jdbcTemplate        data source.
      * @param tableName           table name.
@@ -92,22 +73,17 @@ public final class IdGenerator {
      * @param autoInit            whether the row for this sequence will be
      *                            automatically inserted in case there's no such
      *                            row.
-     * @throws IllegalStateException if already initialized.
      */
-    public static synchronized void init(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, String tableName,
+    public IdGenerator(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, String tableName,
             String userDefColumnName, String highValueColumnName, long maxHi, int maxLo, boolean autoInit) {
-        if (initialized) {
-            throw new IllegalStateException("already initialized");
-        }
-        initialized = true;
-        _dbAccessor = dbAccessor;
-        _jdbcTemplate = jdbcTemplate;
-        _tableName = tableName;
-        _userDefColumnName = userDefColumnName;
-        _highValueColumnName = highValueColumnName;
-        _maxHi = maxHi;
-        _maxLo = maxLo;
-        _autoInit = autoInit;
+        this.dbAccessor = dbAccessor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableName = tableName;
+        this.userDefColumnName = userDefColumnName;
+        this.highValueColumnName = highValueColumnName;
+        this.maxHi = maxHi;
+        this.maxLo = maxLo;
+        this.autoInit = autoInit;
     }
 
     /**
@@ -116,7 +92,7 @@ public final class IdGenerator {
      * @return the next id.
      * @throws DataAccessException if a database access error occurs.
      */
-    public static long nextId() throws DataAccessException {
+    public long nextId() throws DataAccessException {
         return nextId("main_sequence");
     }
 
@@ -127,21 +103,13 @@ public final class IdGenerator {
      * @return the next id for the given table id.
      * @throws DataAccessException if a database access error occurs.
      */
-    public static synchronized long nextId(String tableId) throws DataAccessException {
-        if (!initialized) {
-            throw new RuntimeException("IdGenerator.init() wasn't called");
-        }
-        return getIdGenerator(tableId).nextId();
+    public long nextId(String tableId) throws DataAccessException {
+        return idGeneratorMap.computeIfAbsent(tableId, this::newIdGenerator).nextId();
     }
 
-    private static IdGeneratorInterface getIdGenerator(String tableId) {
-        IdGeneratorInterface idgenerator = (IdGeneratorInterface) idGeneratorMap.get(tableId);
-        if (idgenerator == null) {
-            idgenerator = new IdGeneratorImpl(_dbAccessor, _jdbcTemplate, _tableName, _userDefColumnName,
-                    _highValueColumnName, _maxHi, _maxLo, _autoInit, tableId);
-            idGeneratorMap.put(tableId, idgenerator);
-        }
-        return idgenerator;
+    private IdGeneratorInterface newIdGenerator(String tableId) {
+        return new IdGeneratorImpl(dbAccessor, jdbcTemplate, tableName, userDefColumnName, highValueColumnName, maxHi,
+                maxLo, autoInit, tableId);
     }
 
 }
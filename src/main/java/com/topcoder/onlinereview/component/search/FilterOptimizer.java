@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * This class rewrites a filter tree into an equivalent, smaller one before the
+ * search string is built. Clients build filters as nested binary
+ * <code>AndFilter</code>s and <code>OrFilter</code>s with repeated equalities,
+ * and each level becomes extra parentheses, predicates and bind parameters.
+ * The optimizer:
+ * <ul>
+ * <li>pushes NOT down to the leaves, turning a negated comparison into the
+ * opposite comparison;</li>
+ * <li>flattens nested AND and OR filters;</li>
+ * <li>merges the equalities and IN filters of one field into one IN filter,
+ * with duplicate values removed and the values sorted;</li>
+ * <li>folds AND filters that can never match, such as <code>x = 1 AND x = 2</code>
+ * or <code>x IS NULL AND x = 1</code>.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * The rewrites keep the SQL three-valued logic: a row matches the optimized
+ * filter exactly when it matches the original one. Because NOT only remains on
+ * leaves, an AND that is never true can be replaced by false. There is no
+ * tautology folding, since a predicate on a nullable column is never always
+ * true. Values are only compared when they are integers or booleans of one
+ * class; strings and dates may compare equal in the database while differing
+ * in Java, so they are merged but never used to fold a contradiction.
+ * </p>
+ *
+ * <p>
+ * Fields are matched by the name used in the filter, so an alias and its real
+ * name are treated as different fields.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class has no state and is thread safe. The given filter
+ * is not modified.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public final class FilterOptimizer {
+
+  /** The value classes whose Java equality matches the database equality. */
+  private static final Set<Class> EXACT_TYPES = new HashSet<>(
+      Arrays.asList(Long.class, Integer.class, Short.class, Byte.class, Boolean.class));
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private FilterOptimizer() {
+  }
+
+  /**
+   * Optimize the filter.
+   *
+   * @param filter the filter to optimize
+   * @return the optimized filter, or null if the filter can never match
+   * @throws IllegalArgumentException if filter is null
+   */
+  public static Filter optimize(Filter filter) {
+    if (filter == null) {
+      throw new IllegalArgumentException("The filter should not be null.");
+    }
+    return normalize(filter, false);
+  }
+
+  /**
+   * Normalize the filter, negated when asked, with NOT pushed down to the
+   * leaves.
+   *
+   * @param filter  the filter to normalize
+   * @param negated whether the filter is under an odd number of NOT filters
+   * @return the normalized filter, or null if it can never match
+   */
+  private static Filter normalize(Filter filter, boolean negated) {
+    Class type = filter.getClass();
+    if (type == NotFilter.class) {
+      return normalize(((NotFilter) filter).getFilter(), !negated);
+    }
+    if (type == AndFilter.class || type == OrFilter.class) {
+      // De Morgan: a negated AND is an OR of the negated filters and vice versa
+      boolean and = (type == AndFilter.class) != negated;
+      return normalizeAssociative(((AbstractAssociativeFilter) filter).getFilters(), and, negated);
+    }
+    if (type == InFilter.class) {
+      InFilter in = (InFilter) filter;
+      return negate(valuesFilter(in.getName(), new LinkedHashSet(in.getList())), negated);
+    }
+    if (type == BetweenFilter.class && !negated) {
+      BetweenFilter between = (BetweenFilter) filter;
+      List bounds = new ArrayList();
+      bounds.add(between.getLowerThreshold());
+      bounds.add(between.getUpperThreshold());
+      if (isExact(bounds) && between.getLowerThreshold().compareTo(between.getUpperThreshold()) > 0) {
+        return null;
+      }
+      return filter;
+    }
+    if (negated) {
+      // NOT (x > v) is x <= v, unknown for a null x either way
+      if (type == GreaterThanFilter.class) {
+        return new LessThanOrEqualToFilter(((GreaterThanFilter) filter).getName(),
+            ((GreaterThanFilter) filter).getValue());
+      }
+      if (type == GreaterThanOrEqualToFilter.class) {
+        return new LessThanFilter(((GreaterThanOrEqualToFilter) filter).getName(),
+            ((GreaterThanOrEqualToFilter) filter).getValue());
+      }
+      if (type == LessThanFilter.class) {
+        return new GreaterThanOrEqualToFilter(((LessThanFilter) filter).getName(),
+            ((LessThanFilter) filter).getValue());
+      }
+      if (type == LessThanOrEqualToFilter.class) {
+        return new GreaterThanFilter(((LessThanOrEqualToFilter) filter).getName(),
+            ((LessThanOrEqualToFilter) filter).getValue());
+      }
+    }
+    return negate(filter, negated);
+  }
+
+  /**
+   * Normalize the members of an associative filter and merge them.
+   *
+   * @param members the members of the filter
+   * @param and     whether the result is an AND filter, false for an OR filter
+   * @param negated whether the members are negated
+   * @return the normalized filter, or null if it can never match
+   */
+  private static Filter normalizeAssociative(List members, boolean and, boolean negated) {
+    Class resultType = and ? AndFilter.class : OrFilter.class;
+    List flat = new ArrayList();
+    for (Iterator it = members.iterator(); it.hasNext();) {
+      Filter member = normalize((Filter) it.next(), negated);
+      if (member == null) {
+        if (and) {
+          return null;
+        }
+        // a member of an OR that never matches adds nothing
+        continue;
+      }
+      if (member.getClass() == resultType) {
+        flat.addAll(((AbstractAssociativeFilter) member).getFilters());
+      } else {
+        flat.add(member);
+      }
+    }
+
+    List merged = merge(flat, and);
+    if (merged == null || merged.isEmpty()) {
+      return null;
+    }
+    if (merged.size() == 1) {
+      return (Filter) merged.get(0);
+    }
+    return and ? new AndFilter(merged) : new OrFilter(merged);
+  }
+
+  /**
+   * Merge the equality, IN and NULL filters of each field among the members of
+   * a flattened AND or OR filter. A merged filter takes the place of the first
+   * member on its field; the other members keep their order.
+   *
+   * @param members the normalized members
+   * @param and     whether the members are combined with AND
+   * @return the merged members, or null if the AND can never match
+   */
+  private static List merge(List members, boolean and) {
+    Map<String, List<Set>> valueSets = new LinkedHashMap<>();
+    Set<String> nullFields = new HashSet<>();
+    for (Iterator it = members.iterator(); it.hasNext();) {
+      Filter member = (Filter) it.next();
+      String field = valueField(member);
+      if (field != null) {
+        valueSets.computeIfAbsent(field, k -> new ArrayList<>()).add(valueSet(member));
+      } else if (member.getClass() == NullFilter.class) {
+        nullFields.add(((NullFilter) member).getName());
+      }
+    }
+    if (and) {
+      for (String field : nullFields) {
+        if (valueSets.containsKey(field)) {
+          // x IS NULL AND x = v is never true
+          return null;
+        }
+      }
+    }
+
+    List result = new ArrayList();
+    Set<String> emittedValues = new HashSet<>();
+    Set<String> emittedNulls = new HashSet<>();
+    for (Iterator it = members.iterator(); it.hasNext();) {
+      Filter member = (Filter) it.next();
+      String field = valueField(member);
+      if (field != null) {
+        if (emittedValues.add(field)) {
+          List fieldFilters = and ? intersect(field, valueSets.get(field)) : union(field, valueSets.get(field));
+          if (fieldFilters == null) {
+            return null;
+          }
+          result.addAll(fieldFilters);
+        }
+      } else if (member.getClass() == NullFilter.class) {
+        if (emittedNulls.add(((NullFilter) member).getName())) {
+          result.add(member);
+        }
+      } else {
+        result.add(member);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Combine the value sets of one field under AND. The sets are intersected
+   * when all values are exact, otherwise only duplicate sets are dropped.
+   *
+   * @param field the field name
+   * @param sets  the value sets of the equality and IN filters on the field
+   * @return the filters on the field, or null if they can never match together
+   */
+  private static List intersect(String field, List<Set> sets) {
+    Set all = new HashSet();
+    for (Set set : sets) {
+      all.addAll(set);
+    }
+    List result = new ArrayList();
+    if (isExact(all)) {
+      Set common = new LinkedHashSet(sets.get(0));
+      for (Set set : sets) {
+        common.retainAll(set);
+      }
+      if (common.isEmpty()) {
+        return null;
+      }
+      result.add(valuesFilter(field, common));
+      return result;
+    }
+    List<Set> distinct = new ArrayList<>();
+    for (Set set : sets) {
+      if (!distinct.contains(set)) {
+        distinct.add(set);
+        result.add(valuesFilter(field, set));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Combine the value sets of one field under OR into one filter.
+   *
+   * @param field the field name
+   * @param sets  the value sets of the equality and IN filters on the field
+   * @return the filters on the field
+   */
+  private static List union(String field, List<Set> sets) {
+    Set all = new LinkedHashSet();
+    for (Set set : sets) {
+      all.addAll(set);
+    }
+    List result = new ArrayList();
+    result.add(valuesFilter(field, all));
+    return result;
+  }
+
+  /**
+   * Returns the field of an equality or IN filter.
+   *
+   * @param filter the filter
+   * @return the field name, or null if the filter is neither an equality nor an
+   *         IN filter
+   */
+  private static String valueField(Filter filter) {
+    if (filter.getClass() == EqualToFilter.class) {
+      return ((EqualToFilter) filter).getName();
+    }
+    if (filter.getClass() == InFilter.class) {
+      return ((InFilter) filter).getName();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the values matched by an equality or IN filter.
+   *
+   * @param filter the equality or IN filter
+   * @return the values
+   */
+  private static Set valueSet(Filter filter) {
+    if (filter.getClass() == EqualToFilter.class) {
+      return Collections.singleton(((EqualToFilter) filter).getValue());
+    }
+    return new LinkedHashSet(((InFilter) filter).getList());
+  }
+
+  /**
+   * Build the filter matching any of the values: an equality for one value, an
+   * IN filter with sorted values otherwise.
+   *
+   * @param field  the field name
+   * @param values the distinct values, not empty
+   * @return the filter
+   */
+  private static Filter valuesFilter(String field, Set values) {
+    if (values.size() == 1) {
+      return new EqualToFilter(field, (Comparable) values.iterator().next());
+    }
+    List list = new ArrayList(values);
+    if (isSingleClass(list)) {
+      Collections.sort(list);
+    }
+    return new InFilter(field, list);
+  }
+
+  /**
+   * Wrap the filter in a NOT filter when negated.
+   *
+   * @param filter  the filter
+   * @param negated whether to negate the filter
+   * @return the filter, negated when asked
+   */
+  private static Filter negate(Filter filter, boolean negated) {
+    return negated ? new NotFilter(filter) : filter;
+  }
+
+  /**
+   * Check whether the values are all of one class.
+   *
+   * @param values the values
+   * @return true if all values have the same class
+   */
+  private static boolean isSingleClass(Iterable values) {
+    Class type = null;
+    for (Object value : values) {
+      if (type == null) {
+        type = value.getClass();
+      } else if (value.getClass() != type) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check whether the values are all of one exact class, so that they are
+   * different in the database whenever they are different in Java.
+   *
+   * @param values the values, not empty
+   * @return true if the values can be compared in Java
+   */
+  private static boolean isExact(Iterable values) {
+    Iterator it = values.iterator();
+    return isSingleClass(values) && EXACT_TYPES.contains(it.next().getClass());
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * This class models an optional join of a search bundle context. The join is
+ * only included in the search string when the filter references one of its
+ * fields, so searches that do not need the joined tables do not pay for them.
+ * </p>
+ *
+ * <p>
+ * A join that can match more than one row per row of the base query is marked
+ * as multiplying. The DISTINCT of the context is only kept when a multiplying
+ * join is included, so a bundle with optional joins declares that its base
+ * query returns unique rows.
+ * </p>
+ *
+ * <p>
+ * An inner join also restricts the results to the rows it matches. To keep
+ * that restriction when the join is left out, the join carries an absent
+ * condition, inserted at the optional conditions marker of the context instead
+ * of the join, typically an <code>EXISTS</code> over the joined tables.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is immutable and therefore thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public class JoinFragment {
+  /** The join clause, inserted at the optional joins marker of the context. */
+  private final String sql;
+
+  /** The fields (aliases or real names) that require the join, unmodifiable. */
+  private final Set<String> fields;
+
+  /** Whether the join can match more than one row per row of the base query. */
+  private final boolean multiplying;
+
+  /** The condition used in place of the join when it is left out, null for none. */
+  private final String absentCondition;
+
+  /**
+   * Create a new instance.
+   *
+   * @param sql         the join clause
+   * @param fields      the fields that require the join
+   * @param multiplying whether the join can match more than one row per row of
+   *                    the base query
+   * @throws IllegalArgumentException if sql is null or empty, or fields is null
+   *                                  or empty
+   */
+  public JoinFragment(String sql, Set<String> fields, boolean multiplying) {
+    this(sql, fields, multiplying, null);
+  }
+
+  /**
+   * Create a new instance with an absent condition.
+   *
+   * @param sql             the join clause
+   * @param fields          the fields that require the join
+   * @param multiplying     whether the join can match more than one row per row
+   *                        of the base query
+   * @param absentCondition the condition used in place of the join when it is
+   *                        left out, null for none
+   * @throws IllegalArgumentException if sql is null or empty, fields is null or
+   *                                  empty, or absentCondition is empty
+   */
+  public JoinFragment(String sql, Set<String> fields, boolean multiplying, String absentCondition) {
+    if (sql == null || sql.trim().length() == 0) {
+      throw new IllegalArgumentException("The sql should not be null or empty.");
+    }
+    if (fields == null || fields.isEmpty()) {
+      throw new IllegalArgumentException("The fields should not be null or empty.");
+    }
+    this.sql = sql.trim();
+    this.fields = Collections.unmodifiableSet(new HashSet<>(fields));
+    if (absentCondition != null && absentCondition.trim().length() == 0) {
+      throw new IllegalArgumentException("The absentCondition should not be empty.");
+    }
+    this.multiplying = multiplying;
+    this.absentCondition = absentCondition == null ? null : absentCondition.trim();
+  }
+
+  /**
+   * Returns the join clause.
+   *
+   * @return the join clause
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the fields that require the join.
+   *
+   * @return the fields, unmodifiable
+   */
+  public Set<String> getFields() {
+    return fields;
+  }
+
+  /**
+   * Returns whether the join can match more than one row per row of the base
+   * query.
+   *
+   * @return true if the join is multiplying
+   */
+  public boolean isMultiplying() {
+    return multiplying;
+  }
+
+  /**
+   * Returns the condition used in place of the join when it is left out.
+   *
+   * @return the absent condition, null for none
+   */
+  public String getAbsentCondition() {
+    return absentCondition;
+  }
+}
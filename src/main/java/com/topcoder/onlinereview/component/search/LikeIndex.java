@@ -0,0 +1,562 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.or.util.DBAccessor;
+
+/**
+ * <p>
+ * This class is an in-memory trigram index over one searchable field of a
+ * search bundle. It resolves a contains (<code>SS:</code>) or ends-with
+ * (<code>EW:</code>) LikeFilter on the field into the ids of the rows whose
+ * value matches, so the search can be limited to those ids instead of scanning
+ * the column with <code>LIKE '%x%'</code>. The LIKE stays in the statement, so
+ * the index only has to find a superset of the matching ids.
+ * </p>
+ *
+ * <p>
+ * The index is built from the load query, whose first column is the id and
+ * second column the value, in one streaming pass. Every write to its table
+ * through this process makes the index unusable until it is synchronized again
+ * in the background: with the delta query, or with a full load when there is
+ * no delta query. Values that were changed or deleted stay in the index and
+ * only add candidates, until the next full load drops them.
+ * </p>
+ *
+ * <p>
+ * With a delta query, the load and delta queries return a third column, the
+ * version of the row, such as its modification date. The delta query reads the
+ * rows whose version is at least the highest version read so far, so the
+ * versions come from the database and not from the clock of this host. A row
+ * committed after rows with higher versions can be missed by the deltas; the
+ * full load, at least every reload interval, picks it up.
+ * </p>
+ *
+ * <p>
+ * Writes made by other nodes are not seen. The index is therefore only used
+ * for the max staleness after its last synchronization started; past it the
+ * searches use LIKE alone and the next search synchronizes it again. A failed
+ * synchronization is retried by the searches after {@link #RETRY_DELAY_MILLIS}.
+ * An index growing past its maximum number of values is dropped and stays
+ * unused until {@link #rebuild()}.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is thread safe. The searches read the index while
+ * the synchronization runs; they do not use it until it has caught up with the
+ * last write.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public class LikeIndex {
+  /** The length of the grams. */
+  public static final int GRAM_LENGTH = 3;
+
+  /** The maximum number of ids a filter is resolved into; above it the LIKE is left alone. */
+  public static final int MAX_CANDIDATES = 1000;
+
+  /** The default time the index is used after its last synchronization started. */
+  public static final long DEFAULT_MAX_STALENESS_MILLIS = 60 * 1000L;
+
+  /** The default longest time between two full loads. */
+  public static final long DEFAULT_RELOAD_MILLIS = 60 * 60 * 1000L;
+
+  /** The default maximum number of distinct id and value pairs indexed. */
+  public static final int DEFAULT_MAX_VALUES = 1000000;
+
+  /** The time after a failed synchronization before the searches retry it. */
+  public static final long RETRY_DELAY_MILLIS = 10 * 1000L;
+
+  /** The length of the tag of the LikeFilter values. */
+  private static final int TAG_LENGTH = 3;
+
+  /** The searchable field (alias or real name) the index is for. */
+  private final String field;
+
+  /** The key field the ids are matched against in the search, like <code>scorecard.scorecard_id</code>. */
+  private final String keyField;
+
+  /** The table of the indexed values, in lower case. */
+  private final String table;
+
+  /** The query reading all the ids and values. */
+  private final String loadSql;
+
+  /** The query reading the ids and values modified since its parameter, may be null. */
+  private final String deltaSql;
+
+  /** The accessor the queries run through. */
+  private final DBAccessor dbAccessor;
+
+  /** The executor running the synchronizations. */
+  private final Executor executor;
+
+  /** The time the index is used after its last synchronization started, in nanoseconds. */
+  private final long maxStalenessNanos;
+
+  /** The longest time between two full loads, in nanoseconds. */
+  private final long reloadNanos;
+
+  /** The maximum number of distinct id and value pairs indexed. */
+  private final int maxValues;
+
+  /** The clock of the synchronizations, in nanoseconds. */
+  private final LongSupplier clock;
+
+  /** The indexed data, null until the first load completes. */
+  private volatile Data data;
+
+  /** The number of writes to the table seen. */
+  private final AtomicLong writes = new AtomicLong();
+
+  /** The number of writes the data includes; the index is usable when it equals writes. */
+  private volatile long indexedWrites = -1;
+
+  /** Whether a synchronization is scheduled or running. */
+  private final AtomicBoolean syncing = new AtomicBoolean();
+
+  /** When the last successful synchronization started, from the clock. */
+  private volatile long syncedNanos;
+
+  /** When the last full load started, from the clock. */
+  private volatile long loadedNanos;
+
+  /** When the last synchronization failed, from the clock, if it failed. */
+  private volatile long failedNanos;
+
+  /** Whether the last synchronization failed. */
+  private volatile boolean failed;
+
+  /** Whether the index grew past its maximum number of values. */
+  private volatile boolean overCapacity;
+
+  /**
+   * Create a new index with the default max staleness, reload interval and
+   * maximum number of values. It is empty and unusable until {@link #rebuild()}
+   * completes.
+   *
+   * @param field      the searchable field the index is for
+   * @param keyField   the key field the ids are matched against
+   * @param table      the table of the indexed values
+   * @param loadSql    the query reading all the ids and values, and the versions
+   *                   if there is a delta query
+   * @param deltaSql   the query reading the ids, values and versions of the rows
+   *                   whose version is at least its parameter, null to load
+   *                   everything on a write
+   * @param dbAccessor the accessor the queries run through
+   * @param executor   the executor running the synchronizations
+   * @throws IllegalArgumentException if any argument but deltaSql is null or
+   *                                  empty
+   */
+  public LikeIndex(String field, String keyField, String table, String loadSql, String deltaSql,
+      DBAccessor dbAccessor, Executor executor) {
+    this(field, keyField, table, loadSql, deltaSql, dbAccessor, executor, DEFAULT_MAX_STALENESS_MILLIS,
+        DEFAULT_RELOAD_MILLIS, DEFAULT_MAX_VALUES);
+  }
+
+  /**
+   * Create a new index. It is empty and unusable until {@link #rebuild()}
+   * completes.
+   *
+   * @param field              the searchable field the index is for
+   * @param keyField           the key field the ids are matched against
+   * @param table              the table of the indexed values
+   * @param loadSql            the query reading all the ids and values, and the
+   *                           versions if there is a delta query
+   * @param deltaSql           the query reading the ids, values and versions of
+   *                           the rows whose version is at least its parameter,
+   *                           null to load everything on a write
+   * @param dbAccessor         the accessor the queries run through
+   * @param executor           the executor running the synchronizations
+   * @param maxStalenessMillis the time the index is used after its last
+   *                           synchronization started
+   * @param reloadMillis       the longest time between two full loads
+   * @param maxValues          the maximum number of distinct id and value pairs
+   * @throws IllegalArgumentException if any argument but deltaSql is null or
+   *                                  empty, or a number is not positive
+   */
+  public LikeIndex(String field, String keyField, String table, String loadSql, String deltaSql,
+      DBAccessor dbAccessor, Executor executor, long maxStalenessMillis, long reloadMillis, int maxValues) {
+    this(field, keyField, table, loadSql, deltaSql, dbAccessor, executor, maxStalenessMillis, reloadMillis,
+        maxValues, System::nanoTime);
+  }
+
+  /**
+   * Create a new index reading the time from the given clock.
+   *
+   * @param clock the clock, in nanoseconds
+   */
+  LikeIndex(String field, String keyField, String table, String loadSql, String deltaSql,
+      DBAccessor dbAccessor, Executor executor, long maxStalenessMillis, long reloadMillis, int maxValues,
+      LongSupplier clock) {
+    checkString(field, "field");
+    checkString(keyField, "keyField");
+    checkString(table, "table");
+    checkString(loadSql, "loadSql");
+    if (dbAccessor == null || executor == null) {
+      throw new IllegalArgumentException("The dbAccessor and executor should not be null.");
+    }
+    if (maxStalenessMillis <= 0 || reloadMillis <= 0 || maxValues <= 0) {
+      throw new IllegalArgumentException("The max staleness, reload interval and max values should be positive.");
+    }
+    this.field = field;
+    this.keyField = keyField;
+    this.table = table.trim().toLowerCase();
+    this.loadSql = loadSql;
+    this.deltaSql = deltaSql == null || deltaSql.trim().length() == 0 ? null : deltaSql;
+    this.dbAccessor = dbAccessor;
+    this.executor = executor;
+    this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+    this.reloadNanos = TimeUnit.MILLISECONDS.toNanos(reloadMillis);
+    this.maxValues = maxValues;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the searchable field the index is for.
+   *
+   * @return the field
+   */
+  public String getField() {
+    return field;
+  }
+
+  /**
+   * Returns the key field the ids are matched against.
+   *
+   * @return the key field
+   */
+  public String getKeyField() {
+    return keyField;
+  }
+
+  /**
+   * Returns whether the index includes every write seen, was synchronized within
+   * the max staleness and can be used.
+   *
+   * @return true if the index is usable
+   */
+  public boolean isUsable() {
+    return data != null && indexedWrites == writes.get() && clock.getAsLong() - syncedNanos <= maxStalenessNanos;
+  }
+
+  /**
+   * Returns whether the index grew past its maximum number of values and was
+   * dropped.
+   *
+   * @return true if the index is over capacity
+   */
+  public boolean isOverCapacity() {
+    return overCapacity;
+  }
+
+  /**
+   * Load the whole index again in the background.
+   */
+  public void rebuild() {
+    data = null;
+    overCapacity = false;
+    failed = false;
+    writes.incrementAndGet();
+    scheduleSync();
+  }
+
+  /**
+   * Tell the index that a table was written. A write to its table makes it
+   * unusable until it is synchronized.
+   *
+   * @param writtenTable the name of the table in lower case
+   */
+  public void tableWritten(String writtenTable) {
+    if (table.equals(writtenTable)) {
+      writes.incrementAndGet();
+      scheduleSync();
+    }
+  }
+
+  /**
+   * Resolve the filter into the ids of the rows it can match.
+   *
+   * @param filter the filter on the field of the index
+   * @return the ids in ascending order, empty if no row matches, or null if the
+   *         index is not usable, the filter is not a contains or ends-with filter
+   *         of at least one gram, or it matches too many ids
+   */
+  public List<Long> candidates(LikeFilter filter) {
+    Data current = data;
+    if (!isUsable()) {
+      syncIfDue();
+      return null;
+    }
+    String value = filter.getValue();
+    boolean endsWith = value.startsWith(LikeFilter.END_WITH_TAG);
+    if (!endsWith && !value.startsWith(LikeFilter.CONTAIN_TAGS)) {
+      return null;
+    }
+    String content = value.substring(TAG_LENGTH);
+    if (content.length() < GRAM_LENGTH) {
+      return null;
+    }
+
+    // scan the shortest posting list, checking the values it points to
+    long[] shortest = null;
+    for (String gram : grams(content)) {
+      Posting posting = current.postings.get(gram);
+      if (posting == null) {
+        return Collections.emptyList();
+      }
+      long[] ids = posting.toArray();
+      if (shortest == null || ids.length < shortest.length) {
+        shortest = ids;
+      }
+    }
+    Set<Long> result = new TreeSet<>();
+    for (long id : shortest) {
+      Set<String> values = current.values.get(id);
+      if (values == null || result.contains(id)) {
+        continue;
+      }
+      for (String indexed : values) {
+        if (endsWith ? indexed.endsWith(content) : indexed.contains(content)) {
+          result.add(id);
+          if (result.size() > MAX_CANDIDATES) {
+            return null;
+          }
+          break;
+        }
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Schedule a synchronization of an unusable index, unless it is over capacity
+   * or its last synchronization failed less than the retry delay ago.
+   */
+  private void syncIfDue() {
+    if (overCapacity || failed && clock.getAsLong() - failedNanos < TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS)) {
+      return;
+    }
+    scheduleSync();
+  }
+
+  /**
+   * Schedule a synchronization unless one is scheduled already.
+   */
+  private void scheduleSync() {
+    if (syncing.compareAndSet(false, true)) {
+      executor.execute(this::sync);
+    }
+  }
+
+  /**
+   * Bring the index up to date with the writes seen, repeating while writes
+   * arrive during the synchronization. The delta query is used unless there is
+   * no data yet, no version was read, or the last full load is older than the
+   * reload interval; a delta growing the data past its maximum is replaced by a
+   * full load. On failure the index stays unusable until the next write or the
+   * retry delay.
+   */
+  private void sync() {
+    while (true) {
+      long seen = writes.get();
+      long started = clock.getAsLong();
+      try {
+        Data current = data;
+        boolean full = current == null || deltaSql == null || current.version == null
+            || started - loadedNanos >= reloadNanos;
+        if (!full) {
+          try {
+            load(current, deltaSql, current.version);
+          } catch (CapacityExceededException e) {
+            full = true;
+          }
+        }
+        if (full) {
+          Data loaded = new Data();
+          load(loaded, loadSql);
+          data = loaded;
+          loadedNanos = started;
+        }
+      } catch (CapacityExceededException e) {
+        data = null;
+        overCapacity = true;
+        syncing.set(false);
+        return;
+      } catch (RuntimeException e) {
+        failedNanos = started;
+        failed = true;
+        syncing.set(false);
+        return;
+      }
+      failed = false;
+      syncedNanos = started;
+      indexedWrites = seen;
+      syncing.set(false);
+      // a write after the read of seen needs another pass
+      if (writes.get() == seen || !syncing.compareAndSet(false, true)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Read the ids and values of the query into the data, streaming the rows, and
+   * the highest version when there is a delta query.
+   *
+   * @param target the data to add to
+   * @param sql    the query
+   * @param args   the parameters of the query
+   * @throws CapacityExceededException if the data grows past the maximum number
+   *                                   of values
+   */
+  private void load(Data target, String sql, Object... args) {
+    dbAccessor.executeQuery(sql, SearchBundle.DEFAULT_CHUNK_SIZE, rs -> {
+      long id = rs.getLong(1);
+      String value = rs.getString(2);
+      if (!rs.wasNull() && target.add(id, value) && target.size > maxValues) {
+        throw new CapacityExceededException();
+      }
+      if (deltaSql != null) {
+        target.addVersion(rs.getObject(3));
+      }
+    }, args);
+  }
+
+  /**
+   * Returns the distinct grams of the value.
+   *
+   * @param value the value
+   * @return the grams
+   */
+  private static Set<String> grams(String value) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+      grams.add(value.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  /**
+   * Check that the string is neither null nor empty.
+   *
+   * @param value the string
+   * @param name  the name of the argument
+   * @throws IllegalArgumentException if the string is null or empty
+   */
+  private static void checkString(String value, String name) {
+    if (value == null || value.trim().length() == 0) {
+      throw new IllegalArgumentException("The " + name + " should not be null or empty.");
+    }
+  }
+
+  /**
+   * Thrown by a load growing the data past the maximum number of values.
+   */
+  private static final class CapacityExceededException extends RuntimeException {
+    private CapacityExceededException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * The postings and values of the index, written by one synchronization at a
+   * time.
+   */
+  private static final class Data {
+    /** The ids having each gram. */
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    /** The values of each id. */
+    private final Map<Long, Set<String>> values = new ConcurrentHashMap<>();
+
+    /** The number of distinct id and value pairs. */
+    private int size;
+
+    /** The highest version read, null if none. */
+    private Comparable version;
+
+    /**
+     * Index a value of an id.
+     *
+     * @param id    the id
+     * @param value the value
+     * @return true if the value was not indexed for the id yet
+     */
+    private boolean add(long id, String value) {
+      if (!values.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(value)) {
+        return false;
+      }
+      for (String gram : grams(value)) {
+        postings.computeIfAbsent(gram, k -> new Posting()).add(id);
+      }
+      size++;
+      return true;
+    }
+
+    /**
+     * Keep the version if it is the highest read.
+     *
+     * @param rowVersion the version of a row, may be null
+     */
+    private void addVersion(Object rowVersion) {
+      if (rowVersion != null && (version == null || version.compareTo(rowVersion) < 0)) {
+        version = (Comparable) rowVersion;
+      }
+    }
+  }
+
+  /**
+   * The ids having one gram, appended in load order.
+   */
+  private static final class Posting {
+    /** The ids, the first size entries are used. */
+    private long[] ids = new long[4];
+
+    /** The number of ids. */
+    private int size;
+
+    /**
+     * Add an id, unless it is the last one added.
+     *
+     * @param id the id
+     */
+    private synchronized void add(long id) {
+      if (size > 0 && ids[size - 1] == id) {
+        return;
+      }
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    /**
+     * Returns a copy of the ids.
+     *
+     * @return the ids
+     */
+    private synchronized long[] toArray() {
+      return Arrays.copyOf(ids, size);
+    }
+  }
+}
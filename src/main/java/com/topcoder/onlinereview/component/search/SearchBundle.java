@@ -3,16 +3,28 @@
  */
 package com.topcoder.onlinereview.component.search;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.RowSet;
 
 import org.springframework.jdbc.core.RowMapper;
 
 import com.topcoder.onlinereview.component.datavalidator.NotValidator;
 import com.topcoder.onlinereview.component.datavalidator.ObjectValidator;
+import com.topcoder.onlinereview.component.search.builder.SearchBuilderHelper;
+import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
 import com.topcoder.onlinereview.component.search.filter.AndFilter;
 import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
 import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
@@ -24,6 +36,7 @@ import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
 import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
 import com.topcoder.onlinereview.component.search.filter.LikeFilter;
 import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
 import com.topcoder.onlinereview.component.search.filter.OrFilter;
 
 /**
@@ -42,6 +55,13 @@ import com.topcoder.onlinereview.component.search.filter.OrFilter;
  * ObjectValidator
  * objects.Also it do the converting the Filter to search string via the
  * builder.
+ * A valid Filter is simplified by {@link FilterOptimizer} first, and a search
+ * whose Filter can never match returns no rows without querying the store.
+ *
+ * <p>
+ * A bundle may have a {@link SearchResultCache}, which answers repeated
+ * searches from the rows read before. It is invalidated whenever one of the
+ * tables of the context is written (see {@link #tableWritten(String)}).
  *
  * <p>
  * Most import, all the searchFunction is implemented by this class as the API
@@ -52,6 +72,32 @@ import com.topcoder.onlinereview.component.search.filter.OrFilter;
  * @version 1.3
  */
 public class SearchBundle {
+  /** The number of rows handed over at once by the chunked search when none is given. */
+  public static final int DEFAULT_CHUNK_SIZE = 500;
+
+  /** The marker in the context where the optional joins needed by a search are inserted. */
+  public static final String OPTIONAL_JOINS_MARKER = "{optional_joins}";
+
+  /**
+   * The marker in the context where the absent conditions of the left out
+   * optional joins are inserted, each followed by AND; it goes right after the
+   * WHERE of the context.
+   */
+  public static final String OPTIONAL_CONDITIONS_MARKER = "{optional_conditions}";
+
+  /** The maximum number of optional joins of one bundle. */
+  private static final int MAX_OPTIONAL_JOINS = 31;
+
+  /** Matches the DISTINCT or UNIQUE keyword of the select list of a context. */
+  private static final Pattern DISTINCT_SELECT = Pattern.compile("(?i)^(\\s*select\\s+)(?:distinct|unique)\\s+");
+
+  /** Matches the table list of a FROM clause, up to the WHERE. */
+  private static final Pattern FROM_CLAUSE = Pattern.compile("(?is)\\bfrom\\b(.*?)(?=\\bwhere\\b|$)");
+
+  /** Matches a table after a comma or a JOIN, without its database prefix. */
+  private static final Pattern TABLE_REFERENCE =
+      Pattern.compile("(?i)(?:,|\\bjoin\\b)\\s*(?:outer\\s+)?(?:\\w+:)?([a-z_]\\w*)");
+
   /** It will hold the name of the search bundle. */
   private final String name;
 
@@ -59,32 +105,20 @@ public class SearchBundle {
   private final String context;
 
   /**
-   * It will hold a Map of ObjectValidator objects. keys are the real name (or
-   * alias name) of
-   * searchable fileds. ObjectValidator are as the stored object.
+   * The current immutable snapshot of the searchable fields, the alias map and the search strategy.
+   * Searches read it once and never lock; the setters publish a replacement snapshot
+   * (copy-on-write), so concurrent searches on the same bundle run fully in parallel.
    */
-  private Map searchableFields;
+  private volatile BundleState state;
 
-  /**
-   * It will hold a Map containing keys as the alias names of the fields and the
-   * names of fileds as
-   * stored objects. The search Fields name in the filter can both be the alias
-   * name and real name.
-   * But the name builded to the SearchString(include SQL) must be the real name.
-   */
-  private final Map<String, String> aliasMap;
+  /** The result cache of the bundle, null if the results are not cached. */
+  private volatile SearchResultCache resultCache;
 
-  /**
-   * This is the search strategy that is used to perform the actual searching work
-   * for the bundle.
-   * The search strategy is responsible for connecting to the datastore, building
-   * the necessary
-   * query String (if applicable) and executing it against the datastore. The
-   * object returned from
-   * the search is dependent on the type of datastore that is used. It is added in
-   * version 1.3.
-   */
-  private SearchStrategy searchStrategy;
+  /** The tables the context and the optional joins read from, unmodifiable. */
+  private volatile Set<String> tables;
+
+  /** The LIKE indexes, keyed by field and by real name, unmodifiable. */
+  private volatile Map<String, LikeIndex> likeIndexes = Collections.emptyMap();
 
   /**
    * Create a new instance,providing the name ,searchable fields,map of alias. All
@@ -125,10 +159,10 @@ public class SearchBundle {
     // set value for member
     this.name = name;
     this.context = context;
+    this.state = new BundleState(null, Collections.unmodifiableMap(new HashMap(alias)), null, null, null,
+        Collections.emptyList());
+    this.tables = findTables(Collections.emptyList());
     setSearchableFields(fields);
-    this.aliasMap = new HashMap(alias);
-
-    this.searchStrategy = null;
   }
 
   /**
@@ -167,9 +201,9 @@ public class SearchBundle {
 
     this.name = name;
     this.context = context;
-    this.aliasMap = new HashMap(alias);
-    this.searchableFields = null;
-    this.searchStrategy = null;
+    this.state = new BundleState(null, Collections.unmodifiableMap(new HashMap(alias)), null, null, null,
+        Collections.emptyList());
+    this.tables = findTables(Collections.emptyList());
   }
 
   /**
@@ -277,39 +311,237 @@ public class SearchBundle {
    */
   public <T> List<T> search(Filter filter, List returnFields, RowMapper<T> mapper)
       throws SearchBuilderException {
-    if (filter == null) {
-      throw new IllegalArgumentException("The filter should not be null.");
-    }
     if (returnFields == null) {
       throw new IllegalArgumentException("The returnFields should not be null.");
     }
 
-    ValidationResult result = null;
+    // read the snapshot once so validation and search see the same configuration
+    BundleState current = state;
+    checkSearchable(filter, current);
+    Filter optimized = applyLikeIndexes(FilterOptimizer.optimize(filter));
+    if (optimized == null) {
+      return new ArrayList<>();
+    }
 
     try {
-      result = validateFilter(filter);
+      SearchResultCache cache = resultCache;
+      if (cache != null) {
+        return mapRows(current.searchStrategy.searchRows(resolveContext(optimized, current), optimized, returnFields,
+            current.aliasMap, cache), mapper);
+      }
+      return current.searchStrategy.search(resolveContext(optimized, current), optimized, returnFields,
+          current.aliasMap, mapper);
     } catch (Exception e) {
       // wrap the PersistenceOperationException if error occurs during the
       // validateFilter
       throw new PersistenceOperationException(
-          "Exception occurs while do the validateFilter to search in SearchBundle.", e);
+          "Exception occurs while get the searchString and do search with returnfields in SearchBundle.",
+          e);
     }
+  }
 
-    // filter invalid
-    if (!result.isValid()) {
-      throw new SearchBuilderException("The filter to search is invalid in SearchBundle.");
+  /**
+   * Execute the search with given constructed Filter and hand the mapped rows to
+   * the consumer in chunks of {@link #DEFAULT_CHUNK_SIZE} while they are read.
+   *
+   * @param filter   The Filter object used to conduct the search
+   * @param mapper   the mapper of each row
+   * @param consumer the consumer of the chunks
+   * @throws IllegalArgumentException      if any parameter is null
+   * @throws SearchBuilderException        if the filter is invalid
+   * @throws PersistenceOperationException if any error when operating over data
+   *                                       store
+   */
+  public <T> void search(Filter filter, RowMapper<T> mapper, Consumer<List<T>> consumer)
+      throws SearchBuilderException {
+    search(filter, mapper, DEFAULT_CHUNK_SIZE, consumer);
+  }
+
+  /**
+   * Execute the search with given constructed Filter and hand the mapped rows to
+   * the consumer in chunks while they are read, so the whole result never has to
+   * be held in memory. The chunk size is used as the JDBC fetch size as well.
+   * The result cache of the bundle is not used, as it would hold the whole
+   * result.
+   *
+   * @param filter    The Filter object used to conduct the search
+   * @param mapper    the mapper of each row
+   * @param chunkSize the maximum number of rows handed to the consumer at once
+   * @param consumer  the consumer of the chunks, it owns each list it receives
+   * @throws IllegalArgumentException      if any parameter is null or chunkSize
+   *                                       is not positive
+   * @throws SearchBuilderException        if the filter is invalid
+   * @throws PersistenceOperationException if any error when operating over data
+   *                                       store
+   */
+  public <T> void search(Filter filter, RowMapper<T> mapper, int chunkSize, Consumer<List<T>> consumer)
+      throws SearchBuilderException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunkSize should be positive.");
+    }
+    BundleState current = state;
+    checkSearchable(filter, current);
+    Filter optimized = applyLikeIndexes(FilterOptimizer.optimize(filter));
+    if (optimized == null) {
+      return;
     }
 
-    try {
-      synchronized (this) {
-        return searchStrategy.search(context, filter, returnFields, aliasMap, mapper);
+    if (consumer == null) {
+      throw new IllegalArgumentException("The consumer should not be null.");
+    }
+
+    // exceptions thrown by the consumer are propagated as they are
+    current.searchStrategy.search(resolveContext(optimized, current), optimized, new ArrayList(), current.aliasMap,
+        mapper, chunkSize, consumer);
+  }
+
+  /**
+   * Map the rows.
+   *
+   * @param rows   the rows
+   * @param mapper the mapper of each row
+   * @return the mapped rows
+   * @throws SQLException if a row cannot be read or mapped
+   */
+  private static <T> List<T> mapRows(RowSet rows, RowMapper<T> mapper) throws SQLException {
+    List<T> mapped = new ArrayList<>();
+    int rowNum = 0;
+    while (rows.next()) {
+      mapped.add(mapper.mapRow(rows, rowNum++));
+    }
+    return mapped;
+  }
+
+  /**
+   * Execute the search with given constructed Filter and return one page of the
+   * results, ordered by the key field of the bundle. Pass the continuation token
+   * of a page to get the page after it; reading a deep page costs the same as
+   * reading the first one.
+   *
+   * @param filter            The Filter object used to conduct the search
+   * @param mapper            the mapper of each row
+   * @param pageSize          the maximum number of rows of the page
+   * @param continuationToken the token of the previous page, null for the first
+   *                          page
+   * @return the page
+   * @throws IllegalArgumentException      if filter is null, pageSize is not
+   *                                       positive or the token is invalid
+   * @throws SearchBuilderException        if the filter is invalid or the bundle
+   *                                       has no key field
+   * @throws PersistenceOperationException if any error when operating over data
+   *                                       store
+   */
+  public <T> SearchPage<T> searchPage(Filter filter, RowMapper<T> mapper, int pageSize, String continuationToken)
+      throws SearchBuilderException {
+    BundleState current = state;
+    if (current.keyField == null) {
+      throw new SearchBuilderException("The SearchBundle " + name + " has no key field to page by.");
+    }
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("The pageSize should be positive.");
+    }
+    checkSearchable(filter, current);
+    Filter optimized = applyLikeIndexes(FilterOptimizer.optimize(filter));
+    if (optimized == null) {
+      if (continuationToken != null) {
+        // still reject a token that is not ours
+        SearchPage.decodeToken(continuationToken);
       }
+      return new SearchPage<>(new ArrayList<>(), null);
+    }
+
+    return current.searchStrategy.searchPage(resolveContext(optimized, current), optimized, current.aliasMap, mapper,
+        current.keyField, current.keyColumn, pageSize, continuationToken);
+  }
+
+  /**
+   * Count the results of the search with given constructed Filter without
+   * reading them. The context is rewritten into a <code>SELECT COUNT</code> over
+   * the same joins, counting distinct values of the key field when the context
+   * selects distinct rows.
+   *
+   * @param filter The Filter object used to conduct the search
+   * @return the number of results
+   * @throws IllegalArgumentException      if filter is null
+   * @throws SearchBuilderException        if the filter is invalid
+   * @throws PersistenceOperationException if any error when operating over data
+   *                                       store
+   */
+  public long count(Filter filter) throws SearchBuilderException {
+    BundleState current = state;
+    checkSearchable(filter, current);
+    Filter optimized = applyLikeIndexes(FilterOptimizer.optimize(filter));
+    if (optimized == null) {
+      return 0;
+    }
+
+    return current.searchStrategy.count(resolveContext(optimized, current), optimized, current.aliasMap,
+        current.keyField);
+  }
+
+  /**
+   * Explain the search with given constructed Filter without returning its rows:
+   * the full statement and bind parameters it runs, and the time spent on
+   * validation and on building the statement. When asked, the statement is run
+   * to measure the execution time and the row count, and with an explain file it
+   * runs under Informix <code>SET EXPLAIN</code> to capture its plan.
+   *
+   * @param filter      The Filter object used to conduct the search
+   * @param execute     whether the statement runs
+   * @param explainFile the name of the file in the explain directory the plan
+   *                    is written to, null for no plan
+   * @return the explanation, without statement if the filter can never match
+   * @throws IllegalArgumentException      if filter is null, or the explain file
+   *                                       is not a plain file name in a
+   *                                       configured explain directory
+   * @throws SearchBuilderException        if the filter is invalid
+   * @throws PersistenceOperationException if any error when operating over data
+   *                                       store
+   */
+  public SearchExplanation explain(Filter filter, boolean execute, String explainFile)
+      throws SearchBuilderException {
+    BundleState current = state;
+    long start = System.nanoTime();
+    checkSearchable(filter, current);
+    Filter optimized = applyLikeIndexes(FilterOptimizer.optimize(filter));
+    long validationNanos = System.nanoTime() - start;
+    if (optimized == null) {
+      return new SearchExplanation(name, null, new ArrayList<>(), validationNanos, 0, execute ? 0 : -1,
+          execute ? 0 : -1, null);
+    }
+
+    return current.searchStrategy.explain(name, resolveContext(optimized, current), optimized, current.aliasMap,
+        validationNanos, execute, explainFile);
+  }
+
+  /**
+   * Check that the filter is not null and valid against the searchable fields of
+   * the given snapshot.
+   *
+   * @param filter  the filter to check
+   * @param current the bundle snapshot the search will use
+   * @throws IllegalArgumentException      if the filter is null
+   * @throws SearchBuilderException        if the filter is invalid
+   * @throws PersistenceOperationException if the validation fails
+   */
+  private void checkSearchable(Filter filter, BundleState current) throws SearchBuilderException {
+    if (filter == null) {
+      throw new IllegalArgumentException("The filter should not be null.");
+    }
+    ValidationResult result = null;
+
+    try {
+      result = validateFilter(filter, current);
     } catch (Exception e) {
       // wrap the PersistenceOperationException if error occurs during the
       // validateFilter
       throw new PersistenceOperationException(
-          "Exception occurs while get the searchString and do search with returnfields in SearchBundle.",
-          e);
+          "Exception occurs while do the validateFilter to search in SearchBundle.", e);
+    }
+
+    // filter invalid
+    if (!result.isValid()) {
+      throw new SearchBuilderException("The filter to search is invalid in SearchBundle.");
     }
   }
 
@@ -520,7 +752,7 @@ public class SearchBundle {
   public synchronized void setSearchableFields(Map fields) {
     checkfieldsMap(fields, "fields");
 
-    searchableFields = new HashMap(fields);
+    Map searchableFields = new HashMap(fields);
     // using always true validator if any is missing
     for (Iterator it = searchableFields.entrySet().iterator(); it.hasNext();) {
       Map.Entry entry = (Map.Entry) it.next();
@@ -528,6 +760,10 @@ public class SearchBundle {
         entry.setValue(new AlwaysTrueValidator());
       }
     }
+
+    BundleState current = state;
+    state = new BundleState(Collections.unmodifiableMap(searchableFields), current.aliasMap,
+        current.searchStrategy, current.keyField, current.keyColumn, current.optionalJoins);
   }
 
   /**
@@ -542,11 +778,23 @@ public class SearchBundle {
    * @throws IllegalArgumentException if any parameter is null
    */
   public ValidationResult validateFilter(Filter filter) {
+    return validateFilter(filter, state);
+  }
+
+  /**
+   * Validate the Filter against the searchable fields and alias map of the given snapshot.
+   *
+   * @param filter  a Filter object to be validated
+   * @param current the bundle state snapshot to validate against
+   * @return a ValidationResult object representing the validation result
+   * @throws IllegalArgumentException if the filter is null
+   */
+  private ValidationResult validateFilter(Filter filter, BundleState current) {
     if (filter == null) {
       throw new IllegalArgumentException("The filter should not be null.");
     }
     // Exception will throw in Filter construct if param invalid
-    return filter.isValid(searchableFields, aliasMap);
+    return current.validationPlan.validate(filter);
   }
 
   /**
@@ -581,7 +829,7 @@ public class SearchBundle {
    *         for the bundle.
    */
   public SearchStrategy getSearchStrategy() {
-    return searchStrategy;
+    return state.searchStrategy;
   }
 
   /**
@@ -602,7 +850,329 @@ public class SearchBundle {
     if (searchStrategy == null) {
       throw new IllegalArgumentException("The searchStrategy should not be null.");
     }
-    this.searchStrategy = searchStrategy;
+    BundleState current = state;
+    state = new BundleState(current.searchableFields, current.aliasMap, searchStrategy, current.keyField,
+        current.keyColumn, current.optionalJoins);
+    SearchResultCache cache = resultCache;
+    if (cache != null) {
+      cache.invalidate();
+    }
+  }
+
+  /**
+   * Returns the unique key field the paged searches of the bundle are ordered by.
+   *
+   * @return the key field, null if the bundle does not support paged searches
+   */
+  public String getKeyField() {
+    return state.keyField;
+  }
+
+  /**
+   * Returns the column label of the key field in the search results.
+   *
+   * @return the key column, null if the bundle does not support paged searches
+   */
+  public String getKeyColumn() {
+    return state.keyColumn;
+  }
+
+  /**
+   * Sets the unique key field the paged searches of the bundle are ordered by. It
+   * must be a numeric column of the select list of the context, such as
+   * <code>project.project_id</code>, and the key column is its label in the
+   * results, such as <code>project_id</code>. The context must not have an ORDER
+   * BY or UNION of its own.
+   *
+   * @param keyField  the key field
+   * @param keyColumn the column label of the key field in the results
+   * @throws IllegalArgumentException if any argument is null or empty, or the
+   *                                  context has an ORDER BY or UNION
+   */
+  public synchronized void setKeyField(String keyField, String keyColumn) {
+    if (keyField == null || keyField.trim().length() == 0) {
+      throw new IllegalArgumentException("The keyField should not be null or empty.");
+    }
+    if (keyColumn == null || keyColumn.trim().length() == 0) {
+      throw new IllegalArgumentException("The keyColumn should not be null or empty.");
+    }
+    SearchStrategy.checkPageable(context);
+    BundleState current = state;
+    state = new BundleState(current.searchableFields, current.aliasMap, current.searchStrategy, keyField.trim(),
+        keyColumn.trim(), current.optionalJoins);
+  }
+
+  /**
+   * Returns the optional joins of the context.
+   *
+   * @return the optional joins, unmodifiable, empty if there are none
+   */
+  public List<JoinFragment> getOptionalJoins() {
+    return state.optionalJoins;
+  }
+
+  /**
+   * Sets the optional joins of the context. The context must contain the
+   * {@link #OPTIONAL_JOINS_MARKER}; each search inserts there only the joins
+   * whose fields the filter references, and drops the DISTINCT of the context
+   * when none of the included joins is multiplying. The absent conditions of
+   * the joins left out are inserted at the {@link #OPTIONAL_CONDITIONS_MARKER}.
+   *
+   * @param optionalJoins the optional joins
+   * @throws IllegalArgumentException if optionalJoins is null or contains null,
+   *                                  has more than 31 joins, or the context has
+   *                                  no optional joins marker, or no optional
+   *                                  conditions marker for a join with an absent
+   *                                  condition
+   */
+  public synchronized void setOptionalJoins(List<JoinFragment> optionalJoins) {
+    if (optionalJoins == null || optionalJoins.contains(null)) {
+      throw new IllegalArgumentException("The optionalJoins should not be null or contain null.");
+    }
+    if (optionalJoins.size() > MAX_OPTIONAL_JOINS) {
+      throw new IllegalArgumentException("At most " + MAX_OPTIONAL_JOINS + " optional joins are supported.");
+    }
+    if (!context.contains(OPTIONAL_JOINS_MARKER)) {
+      throw new IllegalArgumentException(
+          "The context of SearchBundle " + name + " has no " + OPTIONAL_JOINS_MARKER + " marker.");
+    }
+    if (!context.contains(OPTIONAL_CONDITIONS_MARKER)
+        && optionalJoins.stream().anyMatch(join -> join.getAbsentCondition() != null)) {
+      throw new IllegalArgumentException(
+          "The context of SearchBundle " + name + " has no " + OPTIONAL_CONDITIONS_MARKER + " marker.");
+    }
+    BundleState current = state;
+    state = new BundleState(current.searchableFields, current.aliasMap, current.searchStrategy, current.keyField,
+        current.keyColumn, Collections.unmodifiableList(new ArrayList<>(optionalJoins)));
+    tables = findTables(optionalJoins);
+  }
+
+  /**
+   * Returns the result cache of the bundle.
+   *
+   * @return the result cache, null if the results are not cached
+   */
+  public SearchResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Sets the result cache of the bundle. The cache answers the list searches;
+   * chunked and paged searches and counts always query the store.
+   *
+   * @param resultCache the result cache, null to stop caching
+   */
+  public void setResultCache(SearchResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * Returns the tables the context and the optional joins read from.
+   *
+   * @return the table names in lower case, unmodifiable
+   */
+  public Set<String> getTables() {
+    return tables;
+  }
+
+  /**
+   * Tell the bundle that a table was written, which invalidates the result cache
+   * if the bundle reads from the table.
+   *
+   * @param table the name of the table in lower case
+   */
+  public void tableWritten(String table) {
+    SearchResultCache cache = resultCache;
+    if (cache != null && tables.contains(table)) {
+      cache.invalidate();
+    }
+    for (LikeIndex likeIndex : likeIndexes.values()) {
+      likeIndex.tableWritten(table);
+    }
+  }
+
+  /**
+   * Returns the LIKE indexes of the bundle.
+   *
+   * @return the LIKE indexes, keyed by field and by real name, unmodifiable
+   */
+  public Map<String, LikeIndex> getLikeIndexes() {
+    return likeIndexes;
+  }
+
+  /**
+   * Sets the LIKE indexes of the bundle. A contains or ends-with LikeFilter on
+   * the field of an index is limited to the ids the index resolves it into.
+   *
+   * @param indexes the LIKE indexes
+   * @throws IllegalArgumentException if indexes is null or contains null
+   */
+  public synchronized void setLikeIndexes(List<LikeIndex> indexes) {
+    if (indexes == null || indexes.contains(null)) {
+      throw new IllegalArgumentException("The indexes should not be null or contain null.");
+    }
+    Map<String, LikeIndex> byName = new HashMap<>();
+    for (LikeIndex likeIndex : indexes) {
+      byName.put(likeIndex.getField(), likeIndex);
+      String realName = state.aliasMap.get(likeIndex.getField());
+      if (realName != null) {
+        byName.put(realName, likeIndex);
+      }
+    }
+    likeIndexes = Collections.unmodifiableMap(byName);
+  }
+
+  /**
+   * Limit the contains and ends-with LikeFilters on indexed fields to the ids
+   * their index resolves them into. A LikeFilter becomes
+   * <code>like AND key IN (ids)</code>, or <code>like AND key IS NULL</code> when
+   * no id matches. The rewrite is true exactly where the like is true, but false
+   * where the like is unknown, so it is only made in positive position, under
+   * ANDs and ORs: there a row is selected by the same filters either way. Under
+   * a NOT, a row with a null value and a key outside the ids would become
+   * selected, so the filters below a NotFilter are left alone.
+   *
+   * @param filter the optimized filter, may be null
+   * @return the filter with the indexed LikeFilters limited, the same object if
+   *         nothing changed
+   */
+  private Filter applyLikeIndexes(Filter filter) {
+    Map<String, LikeIndex> indexes = likeIndexes;
+    if (filter == null || indexes.isEmpty()) {
+      return filter;
+    }
+    if (filter instanceof LikeFilter like) {
+      LikeIndex likeIndex = indexes.get(like.getName());
+      List<Long> ids = likeIndex == null ? null : likeIndex.candidates(like);
+      if (ids == null) {
+        return filter;
+      }
+      Filter keyFilter = ids.isEmpty() ? new NullFilter(likeIndex.getKeyField())
+          : new InFilter(likeIndex.getKeyField(), ids);
+      return new AndFilter(filter, keyFilter);
+    }
+    if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      List children = ((AbstractAssociativeFilter) filter).getFilters();
+      List applied = new ArrayList(children.size());
+      boolean changed = false;
+      for (Iterator it = children.iterator(); it.hasNext();) {
+        Filter child = (Filter) it.next();
+        Filter limited = applyLikeIndexes(child);
+        changed |= limited != child;
+        applied.add(limited);
+      }
+      if (!changed) {
+        return filter;
+      }
+      return filter instanceof AndFilter ? new AndFilter(applied) : new OrFilter(applied);
+    }
+    return filter;
+  }
+
+  /**
+   * Find the tables the context and the given optional joins read from.
+   *
+   * @param optionalJoins the optional joins
+   * @return the table names in lower case, unmodifiable
+   */
+  private Set<String> findTables(List<JoinFragment> optionalJoins) {
+    Set<String> found = new HashSet<>();
+    addTables(context, found);
+    for (JoinFragment join : optionalJoins) {
+      addTables(join.getSql(), found);
+      if (join.getAbsentCondition() != null) {
+        addTables(join.getAbsentCondition(), found);
+      }
+    }
+    return Collections.unmodifiableSet(found);
+  }
+
+  /**
+   * Add the tables a statement or join clause reads from.
+   *
+   * @param sql    the statement or join clause
+   * @param tables the set the table names are added to, in lower case
+   */
+  private static void addTables(String sql, Set<String> tables) {
+    Matcher from = FROM_CLAUSE.matcher(sql);
+    boolean found = false;
+    while (from.find()) {
+      addTableReferences("," + from.group(1), tables);
+      found = true;
+    }
+    if (!found) {
+      // a join clause
+      addTableReferences(sql, tables);
+    }
+  }
+
+  /**
+   * Add the tables following a comma or a JOIN.
+   *
+   * @param sql    the table list or join clause
+   * @param tables the set the table names are added to, in lower case
+   */
+  private static void addTableReferences(String sql, Set<String> tables) {
+    Matcher table = TABLE_REFERENCE.matcher(sql);
+    while (table.find()) {
+      tables.add(table.group(1).toLowerCase());
+    }
+  }
+
+  /**
+   * Resolve the context used for the given filter: the optional joins the filter
+   * needs are inserted at the marker and the others left out. When the filter
+   * cannot be inspected, all the joins are included.
+   *
+   * @param filter  the filter of the search
+   * @param current the bundle snapshot the search will use
+   * @return the context to search with
+   */
+  private String resolveContext(Filter filter, BundleState current) {
+    if (current.optionalJoins.isEmpty()) {
+      return context;
+    }
+    int mask = (1 << current.optionalJoins.size()) - 1;
+    Set names = new HashSet();
+    if (SearchBuilderHelper.collectFieldNames(filter, names)) {
+      mask = 0;
+      for (int i = 0; i < current.joinFields.size(); i++) {
+        if (!Collections.disjoint(names, current.joinFields.get(i))) {
+          mask |= 1 << i;
+        }
+      }
+    }
+    return current.contexts.computeIfAbsent(mask, m -> buildContext(current.optionalJoins, m));
+  }
+
+  /**
+   * Build the context with the selected optional joins, and the absent
+   * conditions of the others.
+   *
+   * @param optionalJoins the optional joins
+   * @param mask          the bit mask of the selected joins
+   * @return the context
+   */
+  private String buildContext(List<JoinFragment> optionalJoins, int mask) {
+    StringBuilder joins = new StringBuilder();
+    StringBuilder conditions = new StringBuilder();
+    boolean multiplying = false;
+    for (int i = 0; i < optionalJoins.size(); i++) {
+      JoinFragment join = optionalJoins.get(i);
+      if ((mask & (1 << i)) != 0) {
+        joins.append(' ').append(join.getSql()).append(' ');
+        multiplying |= join.isMultiplying();
+      } else if (join.getAbsentCondition() != null) {
+        conditions.append(' ').append(join.getAbsentCondition()).append(" AND ");
+      }
+    }
+    String resolved = context.replace(OPTIONAL_JOINS_MARKER, joins.toString())
+        .replace(OPTIONAL_CONDITIONS_MARKER, conditions.toString());
+    if (!multiplying) {
+      // the base query returns unique rows, only the multiplying joins need DISTINCT
+      resolved = DISTINCT_SELECT.matcher(resolved).replaceFirst("$1");
+    }
+    return resolved;
   }
 
   /**
@@ -682,4 +1252,69 @@ public class SearchBundle {
       }
     }
   }
+
+  /**
+   * Immutable holder of the configuration a search needs. A new instance is published on every
+   * change, so readers never observe a half-applied update.
+   */
+  private static final class BundleState {
+    /** The searchable fields, unmodifiable; may be null if never set. */
+    private final Map searchableFields;
+
+    /** The alias map, unmodifiable. */
+    private final Map<String, String> aliasMap;
+
+    /** The search strategy; may be null if never set. */
+    private final SearchStrategy searchStrategy;
+
+    /** The key field of paged searches; may be null if never set. */
+    private final String keyField;
+
+    /** The column label of the key field; may be null if never set. */
+    private final String keyColumn;
+
+    /** The optional joins of the context, unmodifiable. */
+    private final List<JoinFragment> optionalJoins;
+
+    /** The fields of each optional join, including the real names of aliased fields. */
+    private final List<Set<String>> joinFields;
+
+    /** The compiled validation plan of the searchable fields and alias map. */
+    private final ValidationPlan validationPlan;
+
+    /** The resolved contexts, keyed by the bit mask of the included optional joins. */
+    private final Map<Integer, String> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new snapshot.
+     *
+     * @param searchableFields the searchable fields
+     * @param aliasMap         the alias map
+     * @param searchStrategy   the search strategy
+     * @param keyField         the key field of paged searches
+     * @param keyColumn        the column label of the key field
+     * @param optionalJoins    the optional joins of the context
+     */
+    private BundleState(Map searchableFields, Map<String, String> aliasMap, SearchStrategy searchStrategy,
+        String keyField, String keyColumn, List<JoinFragment> optionalJoins) {
+      this.searchableFields = searchableFields;
+      this.aliasMap = aliasMap;
+      this.searchStrategy = searchStrategy;
+      this.keyField = keyField;
+      this.keyColumn = keyColumn;
+      this.optionalJoins = optionalJoins;
+      this.validationPlan = new ValidationPlan(searchableFields, aliasMap);
+      this.joinFields = new ArrayList<>(optionalJoins.size());
+      for (JoinFragment join : optionalJoins) {
+        Set<String> fields = new HashSet<>(join.getFields());
+        for (String field : join.getFields()) {
+          String realName = aliasMap.get(field);
+          if (realName != null) {
+            fields.add(realName);
+          }
+        }
+        joinFields.add(fields);
+      }
+    }
+  }
 }
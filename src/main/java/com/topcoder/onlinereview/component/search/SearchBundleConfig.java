@@ -15,6 +15,12 @@ public class SearchBundleConfig {
     private String context;
     private Map<String, String> alias;
     private List<String> fields;
+    private String keyField;
+    private String keyColumn;
+    private List<JoinData> optionalJoins;
+    private int resultCacheSize;
+    private long resultCacheTtlSeconds;
+    private List<LikeIndexData> likeIndexes;
 
     public void setName(String name) {
       this.name = name;
@@ -32,6 +38,30 @@ public class SearchBundleConfig {
       this.fields = fields;
     }
 
+    public void setKeyField(String keyField) {
+      this.keyField = keyField;
+    }
+
+    public void setKeyColumn(String keyColumn) {
+      this.keyColumn = keyColumn;
+    }
+
+    public void setOptionalJoins(List<JoinData> optionalJoins) {
+      this.optionalJoins = optionalJoins;
+    }
+
+    public void setResultCacheSize(int resultCacheSize) {
+      this.resultCacheSize = resultCacheSize;
+    }
+
+    public void setResultCacheTtlSeconds(long resultCacheTtlSeconds) {
+      this.resultCacheTtlSeconds = resultCacheTtlSeconds;
+    }
+
+    public void setLikeIndexes(List<LikeIndexData> likeIndexes) {
+      this.likeIndexes = likeIndexes;
+    }
+
     public String getName() {
       return name;
     }
@@ -47,5 +77,143 @@ public class SearchBundleConfig {
     public List<String> getFields() {
       return fields;
     }
+
+    public String getKeyField() {
+      return keyField;
+    }
+
+    public String getKeyColumn() {
+      return keyColumn;
+    }
+
+    public List<JoinData> getOptionalJoins() {
+      return optionalJoins;
+    }
+
+    public int getResultCacheSize() {
+      return resultCacheSize;
+    }
+
+    public long getResultCacheTtlSeconds() {
+      return resultCacheTtlSeconds;
+    }
+
+    public List<LikeIndexData> getLikeIndexes() {
+      return likeIndexes;
+    }
+  }
+
+  public static class LikeIndexData {
+    private String field;
+    private String keyField;
+    private String table;
+    private String loadSql;
+    private String deltaSql;
+    private long maxStalenessSeconds;
+    private long reloadSeconds;
+    private int maxValues;
+
+    public void setField(String field) {
+      this.field = field;
+    }
+
+    public void setKeyField(String keyField) {
+      this.keyField = keyField;
+    }
+
+    public void setTable(String table) {
+      this.table = table;
+    }
+
+    public void setLoadSql(String loadSql) {
+      this.loadSql = loadSql;
+    }
+
+    public void setDeltaSql(String deltaSql) {
+      this.deltaSql = deltaSql;
+    }
+
+    public void setMaxStalenessSeconds(long maxStalenessSeconds) {
+      this.maxStalenessSeconds = maxStalenessSeconds;
+    }
+
+    public void setReloadSeconds(long reloadSeconds) {
+      this.reloadSeconds = reloadSeconds;
+    }
+
+    public void setMaxValues(int maxValues) {
+      this.maxValues = maxValues;
+    }
+
+    public String getField() {
+      return field;
+    }
+
+    public String getKeyField() {
+      return keyField;
+    }
+
+    public String getTable() {
+      return table;
+    }
+
+    public String getLoadSql() {
+      return loadSql;
+    }
+
+    public String getDeltaSql() {
+      return deltaSql;
+    }
+
+    public long getMaxStalenessSeconds() {
+      return maxStalenessSeconds;
+    }
+
+    public long getReloadSeconds() {
+      return reloadSeconds;
+    }
+
+    public int getMaxValues() {
+      return maxValues;
+    }
+  }
+
+  public static class JoinData {
+    private String sql;
+    private List<String> fields;
+    private boolean multiplying;
+    private String absentCondition;
+
+    public void setSql(String sql) {
+      this.sql = sql;
+    }
+
+    public void setFields(List<String> fields) {
+      this.fields = fields;
+    }
+
+    public void setMultiplying(boolean multiplying) {
+      this.multiplying = multiplying;
+    }
+
+    public void setAbsentCondition(String absentCondition) {
+      this.absentCondition = absentCondition;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public List<String> getFields() {
+      return fields;
+    }
+
+    public boolean isMultiplying() {
+      return multiplying;
+    }
+
+    public String getAbsentCondition() {
+      return absentCondition;
+    }
   }
 }
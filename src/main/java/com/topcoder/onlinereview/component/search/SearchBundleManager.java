@@ -8,13 +8,21 @@ import org.springframework.stereotype.Component;
 
 import com.topcoder.onlinereview.component.datavalidator.NotValidator;
 import com.topcoder.onlinereview.component.datavalidator.NullValidator;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.StatsLogger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /**
@@ -38,19 +46,76 @@ public class SearchBundleManager {
   private SearchBundleConfig searchBundleConfigList;
   @Autowired
   private SearchStrategy searchStrategy;
+  @Autowired
+  private DBAccessor dbAccessor;
+  @Autowired
+  private StatsLogger statsLogger;
+  /** Runs the synchronizations of the LIKE indexes, one at a time. */
+  private final ExecutorService likeIndexExecutor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "like-index");
+    thread.setDaemon(true);
+    return thread;
+  });
 
   @PostConstruct
   public void postRun() {
     for (SearchBundleConfig.ConfigData sbc : searchBundleConfigList.getData()) {
-      searchBundleMap.put(
-          sbc.getName(),
+      SearchBundle searchBundle =
           new SearchBundle(
               sbc.getName(),
               sbc.getFields().stream()
                   .collect(toMap(k -> k, k -> new NotValidator(new NullValidator()))),
               sbc.getAlias(),
               sbc.getContext(),
-              searchStrategy));
+              searchStrategy);
+      if (sbc.getKeyField() != null) {
+        searchBundle.setKeyField(sbc.getKeyField(), sbc.getKeyColumn());
+      }
+      if (sbc.getOptionalJoins() != null) {
+        searchBundle.setOptionalJoins(
+            sbc.getOptionalJoins().stream()
+                .map(j -> new JoinFragment(j.getSql(), new HashSet<>(j.getFields()), j.isMultiplying(),
+                    j.getAbsentCondition()))
+                .collect(toList()));
+      }
+      if (sbc.getResultCacheSize() > 0) {
+        searchBundle.setResultCache(new SearchResultCache(sbc.getResultCacheSize(),
+            Math.max(1, sbc.getResultCacheTtlSeconds()) * 1000, SearchResultCache.DEFAULT_MAX_ROWS));
+        statsLogger.addSource("Search result cache " + sbc.getName(), searchBundle::getResultCache);
+      }
+      if (sbc.getLikeIndexes() != null) {
+        List<LikeIndex> likeIndexes = sbc.getLikeIndexes().stream()
+            .map(i -> new LikeIndex(i.getField(), i.getKeyField(), i.getTable(), i.getLoadSql(), i.getDeltaSql(),
+                dbAccessor, likeIndexExecutor,
+                i.getMaxStalenessSeconds() > 0 ? i.getMaxStalenessSeconds() * 1000
+                    : LikeIndex.DEFAULT_MAX_STALENESS_MILLIS,
+                i.getReloadSeconds() > 0 ? i.getReloadSeconds() * 1000 : LikeIndex.DEFAULT_RELOAD_MILLIS,
+                i.getMaxValues() > 0 ? i.getMaxValues() : LikeIndex.DEFAULT_MAX_VALUES))
+            .collect(toList());
+        searchBundle.setLikeIndexes(likeIndexes);
+        // built in the background, the searches use LIKE alone until then
+        likeIndexes.forEach(LikeIndex::rebuild);
+      }
+      searchBundleMap.put(sbc.getName(), searchBundle);
+    }
+    // the writes of the services invalidate the cached results of the bundles reading the table
+    dbAccessor.addTableWriteListener(this::tableWritten);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    likeIndexExecutor.shutdownNow();
+  }
+
+  /**
+   * Tell every SearchBundle that a table was written, so the bundles reading from
+   * it drop their cached results.
+   *
+   * @param table the name of the table in lower case
+   */
+  public void tableWritten(String table) {
+    for (SearchBundle searchBundle : searchBundleMap.values()) {
+      searchBundle.tableWritten(table);
     }
   }
 
@@ -74,6 +139,31 @@ public class SearchBundleManager {
     return searchBundleMap.get(name);
   }
 
+  /**
+   * Explain the search of the SearchBundle with given name, see
+   * {@link SearchBundle#explain(Filter, boolean, String)}. This is the entry
+   * point of the admin tooling used to tune the bundle contexts and indexes.
+   *
+   * @param name        the name of the SearchBundle
+   * @param filter      the filter of the search
+   * @param execute     whether the statement runs
+   * @param explainFile the name of the file in the explain directory the plan
+   *                    is written to, null for no plan
+   * @return the explanation
+   * @throws IllegalArgumentException if the name is null, empty or unknown, the
+   *                                  filter is null or the explain file is not
+   *                                  a plain file name
+   * @throws SearchBuilderException   if the filter is invalid
+   */
+  public SearchExplanation explain(String name, Filter filter, boolean execute, String explainFile)
+      throws SearchBuilderException {
+    SearchBundle searchBundle = getSearchBundle(name);
+    if (searchBundle == null) {
+      throw new IllegalArgumentException("There is no SearchBundle named " + name + ".");
+    }
+    return searchBundle.explain(filter, execute, explainFile);
+  }
+
   /**
    * Get all the names of the SearchBundles in the manager. return as a list
    * format.
@@ -37,7 +37,7 @@ public class SearchContext {
    * built by direct access to the StringBuilder class via
    * <code>getSearchString</code>.
    */
-  private final StringBuffer searchString;
+  private final StringBuilder searchString;
 
   /**
    * This is a list of bindableParameters that have been accumulated during the
@@ -80,7 +80,7 @@ public class SearchContext {
 
     // init the members
     this.aliasMap = new HashMap(aliasMap);
-    this.searchString = new StringBuffer();
+    this.searchString = new StringBuilder();
     this.bindableParameters = new ArrayList();
   }
 
@@ -89,7 +89,7 @@ public class SearchContext {
    *
    * @return the Search String that is currently being built.
    */
-  public StringBuffer getSearchString() {
+  public StringBuilder getSearchString() {
     return searchString;
   }
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * This class holds the explanation of a search: the statement the search
+ * strategy generates for a filter, its bind parameters and how long each step
+ * took. When the statement was run, it also holds the execution time, the row
+ * count and the Informix query plan written by <code>SET EXPLAIN</code>.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is immutable and therefore thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public class SearchExplanation {
+  /** The name of the bundle. */
+  private final String bundleName;
+
+  /** The statement, null if the filter can never match. */
+  private final String sql;
+
+  /** The bind parameters of the statement, unmodifiable. */
+  private final List<Object> parameters;
+
+  /** The time spent validating and optimizing the filter, in nanoseconds. */
+  private final long validationNanos;
+
+  /** The time spent building the statement, in nanoseconds. */
+  private final long buildNanos;
+
+  /** The time spent running the statement, in nanoseconds, -1 if not run. */
+  private final long executionNanos;
+
+  /** The number of rows of the statement, -1 if not run. */
+  private final long rowCount;
+
+  /** The query plan, null if not captured. */
+  private final String plan;
+
+  /**
+   * Create a new explanation.
+   *
+   * @param bundleName      the name of the bundle
+   * @param sql             the statement, null if the filter can never match
+   * @param parameters      the bind parameters of the statement
+   * @param validationNanos the time spent validating and optimizing the filter
+   * @param buildNanos      the time spent building the statement
+   * @param executionNanos  the time spent running the statement, -1 if not run
+   * @param rowCount        the number of rows of the statement, -1 if not run
+   * @param plan            the query plan, null if not captured
+   */
+  SearchExplanation(String bundleName, String sql, List<Object> parameters, long validationNanos,
+      long buildNanos, long executionNanos, long rowCount, String plan) {
+    this.bundleName = bundleName;
+    this.sql = sql;
+    this.parameters = Collections.unmodifiableList(parameters);
+    this.validationNanos = validationNanos;
+    this.buildNanos = buildNanos;
+    this.executionNanos = executionNanos;
+    this.rowCount = rowCount;
+    this.plan = plan;
+  }
+
+  /**
+   * Returns the name of the bundle.
+   *
+   * @return the name of the bundle
+   */
+  public String getBundleName() {
+    return bundleName;
+  }
+
+  /**
+   * Returns the full statement of the search.
+   *
+   * @return the statement, null if the filter can never match and the search
+   *         does not query the store
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the bind parameters of the statement, in order.
+   *
+   * @return the parameters, unmodifiable
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Returns the time spent validating and optimizing the filter.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getValidationNanos() {
+    return validationNanos;
+  }
+
+  /**
+   * Returns the time spent building the statement.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getBuildNanos() {
+    return buildNanos;
+  }
+
+  /**
+   * Returns the time spent running the statement and reading its rows.
+   *
+   * @return the time in nanoseconds, -1 if the statement was not run
+   */
+  public long getExecutionNanos() {
+    return executionNanos;
+  }
+
+  /**
+   * Returns the number of rows of the statement.
+   *
+   * @return the number of rows, -1 if the statement was not run
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the query plan written by <code>SET EXPLAIN</code>.
+   *
+   * @return the plan, null if it was not captured
+   */
+  public String getPlan() {
+    return plan;
+  }
+}
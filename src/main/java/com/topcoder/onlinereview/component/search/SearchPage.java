@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * This class holds one page of a keyset-paged search. Pages are ordered by the
+ * key field of the search bundle, and the continuation token carries the key of
+ * the last row of the page, so the next page is read with
+ * <code>key &gt; ?</code> and costs the same as the first one.
+ * </p>
+ *
+ * <p>
+ * The token is opaque to callers; it is only meant to be handed back to
+ * <code>SearchBundle.searchPage</code>.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is immutable and therefore thread safe.
+ * </p>
+ *
+ * @param <T> the type of the rows
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public class SearchPage<T> {
+  /** The prefix of the token payload, identifies the token format. */
+  private static final String TOKEN_PREFIX = "k1:";
+
+  /** The rows of the page, unmodifiable. */
+  private final List<T> rows;
+
+  /** The token of the next page, null if this is the last page. */
+  private final String continuationToken;
+
+  /**
+   * Create a new page.
+   *
+   * @param rows              the rows of the page
+   * @param continuationToken the token of the next page, null if this is the
+   *                          last page
+   */
+  SearchPage(List<T> rows, String continuationToken) {
+    this.rows = Collections.unmodifiableList(rows);
+    this.continuationToken = continuationToken;
+  }
+
+  /**
+   * Returns the rows of the page.
+   *
+   * @return the rows, unmodifiable
+   */
+  public List<T> getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the token to pass to get the next page.
+   *
+   * @return the token, null if this is the last page
+   */
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  /**
+   * Returns whether there are more rows after this page.
+   *
+   * @return true if there is a next page
+   */
+  public boolean hasMore() {
+    return continuationToken != null;
+  }
+
+  /**
+   * Encode the key of the last row of a page as a continuation token.
+   *
+   * @param key the key of the last row
+   * @return the token
+   */
+  static String encodeToken(long key) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((TOKEN_PREFIX + key).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decode the key carried by a continuation token.
+   *
+   * @param token the token
+   * @return the key of the last row of the previous page
+   * @throws IllegalArgumentException if the token is not a valid token
+   */
+  static long decodeToken(String token) {
+    try {
+      String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+      if (payload.startsWith(TOKEN_PREFIX)) {
+        return Long.parseLong(payload.substring(TOKEN_PREFIX.length()));
+      }
+    } catch (IllegalArgumentException e) {
+      // fall through, NumberFormatException is an IllegalArgumentException too
+    }
+    throw new IllegalArgumentException("The continuation token is invalid.");
+  }
+}
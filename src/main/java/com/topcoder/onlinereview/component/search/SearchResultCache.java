@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.RowSet;
+import javax.sql.rowset.CachedRowSet;
+
+/**
+ * <p>
+ * This class is the result cache of a search bundle. It holds the rows of
+ * recent searches, keyed by the statement text and the bound parameters, so a
+ * search repeated with an equivalent filter is answered without querying the
+ * database. The rows are kept unmapped, so every caller maps them with its own
+ * mapper and never shares the mapped objects.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded: the least recently used entry is evicted when it is
+ * full, an entry expires after the time to live, and results with more rows
+ * than the row limit are not kept. The whole cache is invalidated when a table
+ * of the bundle is written; a search that started before the invalidation does
+ * not store its rows.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is thread safe. The entries are guarded by the
+ * cache, and each reader gets its own cursor over the shared rows.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+public class SearchResultCache {
+  /** The default maximum number of rows of a cached result. */
+  public static final int DEFAULT_MAX_ROWS = 5000;
+
+  /** The maximum number of entries. */
+  private final int maxEntries;
+
+  /** The time to live of an entry, in nanoseconds. */
+  private final long ttlNanos;
+
+  /** The maximum number of rows of a cached result. */
+  private final int maxRows;
+
+  /** The entries in access order, the eldest is evicted first. */
+  private final Map<Object, Entry> entries;
+
+  /** Incremented on every invalidation, so a search started before it does not store stale rows. */
+  private final AtomicLong generation = new AtomicLong();
+
+  /** The number of searches answered from the cache. */
+  private final LongAdder hits = new LongAdder();
+
+  /** The number of searches that went to the database. */
+  private final LongAdder misses = new LongAdder();
+
+  /** The number of invalidations. */
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * Create a new cache.
+   *
+   * @param maxEntries the maximum number of entries
+   * @param ttlMillis  the time to live of an entry in milliseconds
+   * @param maxRows    the maximum number of rows of a cached result
+   * @throws IllegalArgumentException if any argument is not positive
+   */
+  public SearchResultCache(int maxEntries, long ttlMillis, int maxRows) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("The maxEntries should be positive.");
+    }
+    if (ttlMillis <= 0) {
+      throw new IllegalArgumentException("The ttlMillis should be positive.");
+    }
+    if (maxRows <= 0) {
+      throw new IllegalArgumentException("The maxRows should be positive.");
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttlMillis * 1000000L;
+    this.maxRows = maxRows;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+        return size() > SearchResultCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached rows of the key.
+   *
+   * @param key the key of the search
+   * @return a new cursor over the rows, null if the rows are not cached
+   * @throws SQLException if the cursor cannot be created
+   */
+  RowSet get(Object key) throws SQLException {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.created > ttlNanos) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.rows.createShared();
+  }
+
+  /**
+   * Returns the current generation, to be read before the search whose rows
+   * will be stored.
+   *
+   * @return the generation
+   */
+  long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Store the rows of a search, unless the cache was invalidated since the
+   * search started or the result is too large.
+   *
+   * @param key        the key of the search
+   * @param rows       the rows, not to be read by the caller afterwards
+   * @param generation the generation read before the search
+   */
+  void put(Object key, CachedRowSet rows, long generation) {
+    if (rows.size() > maxRows) {
+      return;
+    }
+    synchronized (entries) {
+      if (this.generation.get() == generation) {
+        entries.put(key, new Entry(rows));
+      }
+    }
+  }
+
+  /**
+   * Drop all the entries.
+   */
+  public void invalidate() {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      entries.clear();
+    }
+    invalidations.increment();
+  }
+
+  /**
+   * Returns the number of searches answered from the cache.
+   *
+   * @return the number of hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of searches that went to the database.
+   *
+   * @return the number of misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the share of searches answered from the cache.
+   *
+   * @return the hit rate between 0 and 1, 0 if there was no search
+   */
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the number of invalidations.
+   *
+   * @return the number of invalidations
+   */
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the number of entries, including expired ones not yet removed
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Returns the counters of the cache, as logged by the stats logger.
+   *
+   * @return the counters
+   */
+  @Override
+  public String toString() {
+    return "hits=" + getHits() + ", misses=" + getMisses() + ", hitRate=" + String.format(Locale.ROOT, "%.3f", getHitRate())
+        + ", invalidations=" + getInvalidations() + ", size=" + size() + ", maxEntries=" + maxEntries;
+  }
+
+  /**
+   * The rows of one search and when they were read.
+   */
+  private static final class Entry {
+    /** The rows, only read through shared cursors. */
+    private final CachedRowSet rows;
+
+    /** When the rows were read, from <code>System.nanoTime()</code>. */
+    private final long created;
+
+    /**
+     * Create a new entry.
+     *
+     * @param rows the rows
+     */
+    private Entry(CachedRowSet rows) {
+      this.rows = rows;
+      this.created = System.nanoTime();
+    }
+  }
+}
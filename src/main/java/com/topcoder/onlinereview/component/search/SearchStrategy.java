@@ -5,15 +5,41 @@ package com.topcoder.onlinereview.component.search;
 
 import com.topcoder.onlinereview.component.search.builder.SearchBuilderHelper;
 import com.topcoder.onlinereview.component.search.builder.SearchFragmentBuilder;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
 import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
 import com.topcoder.or.util.DBAccessor;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.RowSet;
+import javax.sql.rowset.CachedRowSet;
 
 /**
  * This is a Search Strategy that is tuned for searching a database. It is
@@ -34,9 +60,16 @@ import java.util.Map;
  * after the entire JDBC SQL String has been generated.
  *
  * <p>
+ * The generated SQL is cached per search context and alias map, keyed by the
+ * shape of the filter (see <code>SearchBuilderHelper.appendShape</code>). A
+ * search whose filter shape has been seen before only extracts the bindable
+ * parameters, and the driver sees a stable set of statement texts.
+ *
+ * <p>
  * Thread Safety: This is thread safe. The state is maintained in a separate
  * SearchContext class,
- * allowing concurrent calls to be supported.
+ * allowing concurrent calls to be supported. The statement cache is a
+ * concurrent map of per-context maps, each guarded by itself.
  *
  * @author ShindouHikaru, TCSDEVELOPER
  * @version 1.3
@@ -44,10 +77,65 @@ import java.util.Map;
 @Component
 public class SearchStrategy {
 
+  /**
+   * The maximum number of statements cached for one context. When it is
+   * reached the least recently used statement of that context is evicted.
+   */
+  private static final int MAX_CACHED_STATEMENTS = 256;
+
+  /** Matches the clauses a paged statement cannot be appended to. */
+  private static final Pattern UNPAGEABLE = Pattern.compile("(?i)\\b(order\\s+by|union)\\b");
+
+  /** Matches the FROM keyword of a search context. */
+  private static final Pattern FROM_TOKEN = Pattern.compile("\\bfrom\\b");
+
+  /** Matches the names an explain file may have: no separators, not hidden. */
+  private static final Pattern EXPLAIN_FILE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9_.-]*");
+
+  /** The most bytes of a plan read back from the explain file. */
+  private static final int MAX_PLAN_BYTES = 1 << 20;
+
   private final DBAccessor dbAccessor;
 
+  /**
+   * The directory the explain files are written to, on the database server and,
+   * to read the plans back, on this host. Null if plans are not captured.
+   */
+  private final Path explainDirectory;
+
+  /**
+   * The generated statements per context and alias map, keyed by filter shape
+   * and return fields. The statements of a context are kept in access order.
+   */
+  private final Map<StatementScope, Map<String, String>> statementCache = new ConcurrentHashMap<>();
+
+  /** The count contexts, keyed by key field and context. */
+  private final Map<String, String> countContexts = new ConcurrentHashMap<>();
+
   public SearchStrategy(DBAccessor dbAccessor) {
+    this(dbAccessor, null);
+  }
+
+  /**
+   * Create the strategy.
+   *
+   * @param dbAccessor       the database accessor
+   * @param explainDirectory the absolute directory the explain files are written
+   *                         to, null or empty if plans are not captured
+   * @throws IllegalArgumentException if the directory is not absolute
+   */
+  @Autowired
+  public SearchStrategy(DBAccessor dbAccessor, @Value("${search.explain.directory:}") String explainDirectory) {
     this.dbAccessor = dbAccessor;
+    if (explainDirectory == null || explainDirectory.isBlank()) {
+      this.explainDirectory = null;
+    } else {
+      Path directory = Path.of(explainDirectory);
+      if (!directory.isAbsolute()) {
+        throw new IllegalArgumentException("The explain directory should be absolute: " + explainDirectory);
+      }
+      this.explainDirectory = directory.normalize();
+    }
   }
 
   /**
@@ -141,6 +229,384 @@ public class SearchStrategy {
   public <T> List<T> search(
       String context, Filter filter, List returnFields, Map aliasMap, RowMapper<T> mapper)
       throws PersistenceOperationException, UnrecognizedFilterException {
+    List params = new ArrayList();
+    String sql = buildStatement(context, filter, returnFields, aliasMap, params);
+    try {
+      return dbAccessor.executeQuery(sql, mapper, params.toArray());
+    } catch (Exception e) {
+      e.printStackTrace();
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+  }
+
+  /**
+   * Searches the database using the provided context, filter and constraints the
+   * returnFields, handing the results to the consumer in chunks while the result
+   * set is being read. The chunk size is also used as the JDBC fetch size, so at
+   * most about one chunk of rows is held in memory at a time.
+   *
+   * @param context      The search context. This would be an SQL statement.
+   * @param filter       The filter to use.
+   * @param returnFields The set of fields to return.
+   * @param aliasMap     a map of strings, holding the alternate names of fields
+   *                     as keys and their
+   *                     actual values in the datastore as the respective values.
+   * @param mapper       the mapper of each row
+   * @param chunkSize    the maximum number of rows handed to the consumer at once
+   * @param consumer     the consumer of the chunks, it owns each list it receives
+   * @throws UnrecognizedFilterException   propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException      if any argument is invalid
+   * @throws PersistenceOperationException to wrap any exception that occurs while
+   *                                       searching (except
+   *                                       UnrecognizedFilterException and IAE).
+   */
+  public <T> void search(
+      String context, Filter filter, List returnFields, Map aliasMap, RowMapper<T> mapper,
+      int chunkSize, Consumer<List<T>> consumer)
+      throws PersistenceOperationException, UnrecognizedFilterException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunkSize should be positive.");
+    }
+    if (consumer == null) {
+      throw new IllegalArgumentException("The consumer should not be null.");
+    }
+    List params = new ArrayList();
+    String sql = buildStatement(context, filter, returnFields, aliasMap, params);
+    ChunkingRowHandler<T> handler = new ChunkingRowHandler<>(mapper, chunkSize, consumer);
+    try {
+      dbAccessor.executeQuery(sql, chunkSize, handler, params.toArray());
+    } catch (DataAccessException e) {
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+    handler.flush();
+  }
+
+  /**
+   * Searches one page of the results, ordered by the given key field. The page
+   * after the one that returned <code>continuationToken</code> is selected with
+   * <code>keyField &gt; ?</code> and limited with Informix <code>FIRST n</code>,
+   * so deep pages cost the same as the first one. The key field must be a
+   * numeric column of the select list, read back by its column label, and the
+   * context must not have an ORDER BY or UNION of its own.
+   *
+   * @param context           The search context. This would be an SQL statement.
+   * @param filter            The filter to use.
+   * @param aliasMap          the alias map of the fields
+   * @param mapper            the mapper of each row
+   * @param keyField          the unique key field the pages are ordered by
+   * @param keyColumn         the column label of the key field in the results
+   * @param pageSize          the maximum number of rows of the page
+   * @param continuationToken the token of the previous page, null for the first
+   *                          page
+   * @return the page
+   * @throws UnrecognizedFilterException   propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException      if any argument is invalid
+   * @throws PersistenceOperationException to wrap any exception that occurs while
+   *                                       searching
+   */
+  public <T> SearchPage<T> searchPage(
+      String context, Filter filter, Map aliasMap, RowMapper<T> mapper, String keyField, String keyColumn,
+      int pageSize, String continuationToken)
+      throws PersistenceOperationException, UnrecognizedFilterException {
+    if (keyField == null || keyField.trim().length() == 0) {
+      throw new IllegalArgumentException("The keyField should not be null or empty.");
+    }
+    if (keyColumn == null || keyColumn.trim().length() == 0) {
+      throw new IllegalArgumentException("The keyColumn should not be null or empty.");
+    }
+    checkPageable(context);
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("The pageSize should be positive.");
+    }
+    Filter pageFilter = filter;
+    if (continuationToken != null) {
+      pageFilter = new AndFilter(filter,
+          new GreaterThanFilter(keyField, SearchPage.decodeToken(continuationToken)));
+    }
+    List params = new ArrayList();
+    String sql = buildStatement(context, pageFilter, new ArrayList(), aliasMap, params);
+    // read one row more than the page to know whether there is a next page
+    sql = limitStatement(sql + " ORDER BY " + keyField, pageSize + 1);
+
+    List<Long> keys = new ArrayList<>();
+    List<T> rows;
+    try {
+      rows = dbAccessor.executeQuery(sql, (rs, rowNum) -> {
+        keys.add(rs.getLong(keyColumn));
+        return mapper.mapRow(rs, rowNum);
+      }, params.toArray());
+    } catch (DataAccessException e) {
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+    if (rows.size() <= pageSize) {
+      return new SearchPage<>(rows, null);
+    }
+    return new SearchPage<>(new ArrayList<>(rows.subList(0, pageSize)),
+        SearchPage.encodeToken(keys.get(pageSize - 1)));
+  }
+
+  /**
+   * Counts the results of the search without reading them. The select list of
+   * the context is rewritten to <code>COUNT(DISTINCT keyField)</code> when the
+   * context selects distinct rows, or to <code>COUNT(*)</code> when it does not,
+   * keeping the same joins and filter fragments. A distinct context without a
+   * key field is counted as a derived table.
+   *
+   * @param context  The search context. This would be an SQL statement.
+   * @param filter   The filter to use.
+   * @param aliasMap the alias map of the fields
+   * @param keyField the unique key field of the results, may be null
+   * @return the number of results of the search
+   * @throws UnrecognizedFilterException   propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException      if any argument is invalid
+   * @throws PersistenceOperationException to wrap any exception that occurs while
+   *                                       searching
+   */
+  public long count(String context, Filter filter, Map aliasMap, String keyField)
+      throws PersistenceOperationException, UnrecognizedFilterException {
+    String countContext = countContexts.computeIfAbsent(keyField + "|" + context,
+        k -> toCountContext(context, keyField));
+    List params = new ArrayList();
+    String sql;
+    if (countContext == null) {
+      sql = "SELECT COUNT(*) FROM (" + buildStatement(context, filter, new ArrayList(), aliasMap, params) + ")";
+    } else {
+      sql = buildStatement(countContext, filter, new ArrayList(), aliasMap, params);
+    }
+    try {
+      return dbAccessor.executeQuery(sql, (rs, rowNum) -> rs.getLong(1), params.toArray()).get(0);
+    } catch (DataAccessException e) {
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+  }
+
+  /**
+   * Searches the database like {@link #search(String, Filter, List, Map, RowMapper)},
+   * returning the unmapped rows and going through the result cache of the
+   * bundle. The statement text and the bound parameters are the cache key, so
+   * equivalent filters of the same shape share an entry.
+   *
+   * @param context      The search context. This would be an SQL statement.
+   * @param filter       The filter to use.
+   * @param returnFields The set of fields to return.
+   * @param aliasMap     the alias map of the fields
+   * @param cache        the result cache of the bundle
+   * @return a cursor over the rows
+   * @throws UnrecognizedFilterException   propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException      if any argument is invalid
+   * @throws PersistenceOperationException to wrap any exception that occurs while
+   *                                       searching
+   */
+  RowSet searchRows(String context, Filter filter, List returnFields, Map aliasMap, SearchResultCache cache)
+      throws PersistenceOperationException, UnrecognizedFilterException {
+    List params = new ArrayList();
+    String sql = buildStatement(context, filter, returnFields, aliasMap, params);
+    List key = Arrays.asList(sql, params);
+    try {
+      RowSet cached = cache.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      long generation = cache.generation();
+      CachedRowSet rows = dbAccessor.executeQueryForCachedRowSet(sql, params.toArray());
+      cache.put(key, rows, generation);
+      return rows.createShared();
+    } catch (DataAccessException | SQLException e) {
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+  }
+
+  /**
+   * Explains the search: builds its statement and, if asked, runs it to measure
+   * the execution time and the row count. With an explain file the statement is
+   * run with Informix <code>SET EXPLAIN</code> writing to that file of the
+   * explain directory, and at most 1 MB of the plan is read back when the
+   * database server writes it on this host.
+   *
+   * @param bundleName      the name of the bundle
+   * @param context         The search context. This would be an SQL statement.
+   * @param filter          The filter to use.
+   * @param aliasMap        the alias map of the fields
+   * @param validationNanos the time spent validating and optimizing the filter
+   * @param execute         whether the statement runs
+   * @param explainFile     the name of the file in the explain directory the
+   *                        plan is written to, null for no plan
+   * @return the explanation
+   * @throws UnrecognizedFilterException   propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException      if any argument is invalid, the
+   *                                       explain file is not a plain file name
+   *                                       or no explain directory is configured
+   * @throws PersistenceOperationException to wrap any exception that occurs while
+   *                                       searching
+   */
+  SearchExplanation explain(String bundleName, String context, Filter filter, Map aliasMap, long validationNanos,
+      boolean execute, String explainFile) throws PersistenceOperationException, UnrecognizedFilterException {
+    Path planFile = explainFile == null ? null : resolveExplainFile(explainFile);
+    long start = System.nanoTime();
+    List params = new ArrayList();
+    String sql = buildStatement(context, filter, new ArrayList(), aliasMap, params);
+    long buildNanos = System.nanoTime() - start;
+    if (!execute && explainFile == null) {
+      return new SearchExplanation(bundleName, sql, params, validationNanos, buildNanos, -1, -1, null);
+    }
+
+    long planOffset = planFile != null && isPlainFile(planFile) ? planFile.toFile().length() : 0;
+    long rowCount;
+    start = System.nanoTime();
+    try {
+      if (explainFile == null) {
+        AtomicLong rows = new AtomicLong();
+        dbAccessor.executeQuery(sql, SearchBundle.DEFAULT_CHUNK_SIZE, rs -> rows.incrementAndGet(), params.toArray());
+        rowCount = rows.get();
+      } else {
+        rowCount = dbAccessor.executeQueryWithExplain(sql, planFile.toString(), execute, params.toArray());
+      }
+    } catch (DataAccessException e) {
+      throw new PersistenceOperationException("SQLException occurs.", e);
+    }
+    long executionNanos = execute ? System.nanoTime() - start : -1;
+    return new SearchExplanation(bundleName, sql, params, validationNanos, buildNanos, executionNanos, rowCount,
+        planFile == null ? null : readPlan(planFile, planOffset));
+  }
+
+  /**
+   * Resolves the name of an explain file in the explain directory.
+   *
+   * @param explainFile the name of the file
+   * @return the file
+   * @throws IllegalArgumentException if no explain directory is configured, or
+   *                                  the name is not a plain file name
+   */
+  Path resolveExplainFile(String explainFile) {
+    if (explainDirectory == null) {
+      throw new IllegalArgumentException("No explain directory is configured, plans cannot be captured.");
+    }
+    if (!EXPLAIN_FILE_NAME.matcher(explainFile).matches() || explainFile.contains("..")) {
+      throw new IllegalArgumentException("The explain file should be a plain file name: " + explainFile);
+    }
+    Path planFile = explainDirectory.resolve(explainFile).normalize();
+    if (!explainDirectory.equals(planFile.getParent())) {
+      throw new IllegalArgumentException("The explain file should be a plain file name: " + explainFile);
+    }
+    return planFile;
+  }
+
+  /**
+   * Tells whether the file is a regular file, not followed through a link.
+   *
+   * @param planFile the file
+   * @return true if the file can be read as a plan
+   */
+  private static boolean isPlainFile(Path planFile) {
+    return Files.isRegularFile(planFile, LinkOption.NOFOLLOW_LINKS);
+  }
+
+  /**
+   * Reads the plan the last statement appended to the explain file, at most
+   * {@link #MAX_PLAN_BYTES} of it.
+   *
+   * @param planFile the explain file
+   * @param offset   the length of the file before the statement ran
+   * @return the plan, null if the file cannot be read from this host
+   */
+  static String readPlan(Path planFile, long offset) {
+    if (!isPlainFile(planFile)) {
+      return null;
+    }
+    try (SeekableByteChannel channel = Files.newByteChannel(planFile)) {
+      long size = channel.size();
+      if (offset > size) {
+        // the file was replaced
+        offset = 0;
+      }
+      ByteBuffer plan = ByteBuffer.allocate((int) Math.min(size - offset, MAX_PLAN_BYTES));
+      channel.position(offset);
+      while (plan.hasRemaining() && channel.read(plan) > 0) {
+        // read until the buffer is full or the file ends
+      }
+      return new String(plan.array(), 0, plan.position(), StandardCharsets.ISO_8859_1);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Rewrites the select list of the context into a count.
+   *
+   * @param context  the search context
+   * @param keyField the unique key field of the results, may be null
+   * @return the count context, or null if the context selects distinct rows and
+   *         there is no key field to count
+   * @throws IllegalArgumentException if the context has no SELECT or FROM token
+   */
+  private static String toCountContext(String context, String keyField) {
+    String lowerContext = context.toLowerCase();
+    int indexSelect = lowerContext.indexOf("select");
+    Matcher from = FROM_TOKEN.matcher(lowerContext);
+    if (indexSelect < 0 || !from.find(indexSelect)) {
+      throw new IllegalArgumentException("The search string should contain the 'select' and 'from' tokens.");
+    }
+    String selectList = lowerContext.substring(indexSelect + "select".length(), from.start()).trim();
+    String count;
+    if (!selectList.startsWith("distinct") && !selectList.startsWith("unique")) {
+      count = "COUNT(*)";
+    } else if (keyField != null) {
+      count = "COUNT(DISTINCT " + keyField + ")";
+    } else {
+      return null;
+    }
+    return context.substring(0, indexSelect) + "SELECT " + count + " " + context.substring(from.start());
+  }
+
+  /**
+   * Checks that paged searches can run on the context: the page statement
+   * appends its own ORDER BY, which is invalid after an ORDER BY and would only
+   * order the last part of a UNION.
+   *
+   * @param context the search context
+   * @throws IllegalArgumentException if the context has an ORDER BY or UNION
+   */
+  static void checkPageable(String context) {
+    if (UNPAGEABLE.matcher(context).find()) {
+      throw new IllegalArgumentException("Paged searches do not support contexts with ORDER BY or UNION.");
+    }
+  }
+
+  /**
+   * Limits the statement to the given number of rows with Informix
+   * <code>FIRST n</code>, which goes right after the SELECT keyword.
+   *
+   * @param sql  the statement
+   * @param rows the maximum number of rows
+   * @return the limited statement
+   * @throws IllegalArgumentException if the statement has no SELECT keyword
+   */
+  private static String limitStatement(String sql, int rows) {
+    int index = sql.toLowerCase().indexOf("select");
+    if (index < 0) {
+      throw new IllegalArgumentException("The search string should contain the 'select' token.");
+    }
+    index += "select".length();
+    return sql.substring(0, index) + " FIRST " + rows + sql.substring(index);
+  }
+
+  /**
+   * Builds the statement of the search and collects its bindable parameters. The
+   * statement is taken from the cache when a filter of the same shape has been
+   * searched before in the same context.
+   *
+   * @param context      The search context. This would be an SQL statement.
+   * @param filter       The filter to use.
+   * @param returnFields The set of fields to return.
+   * @param aliasMap     the alias map of the fields
+   * @param params       the list the bindable parameters are added to
+   * @return the statement text
+   * @throws UnrecognizedFilterException propagated from SearchFragmentBuilder
+   * @throws IllegalArgumentException    if any argument is invalid
+   */
+  private String buildStatement(
+      String context, Filter filter, List returnFields, Map aliasMap, List params)
+      throws UnrecognizedFilterException {
     if (context == null) {
       throw new IllegalArgumentException("The context should not be null.");
     }
@@ -152,14 +618,36 @@ public class SearchStrategy {
     }
     SearchBuilderHelper.checkList(returnFields, "returnFields", String.class);
     SearchBuilderHelper.checkaliasMap(aliasMap, "aliasMap");
-    SearchContext searchContext = buildSearchContext(context, filter, returnFields, aliasMap);
-    try {
-      return dbAccessor.executeQuery(searchContext.getSearchString().toString(), mapper,
-          searchContext.getBindableParameters().toArray());
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw new PersistenceOperationException("SQLException occurs.", e);
+    StringBuilder shape = new StringBuilder();
+    if (!SearchBuilderHelper.appendShape(filter, shape, params)) {
+      params.clear();
+      SearchContext searchContext = buildSearchContext(context, filter, returnFields, aliasMap);
+      params.addAll(searchContext.getBindableParameters());
+      return searchContext.getSearchString().toString();
     }
+    for (Iterator it = returnFields.iterator(); it.hasNext();) {
+      String field = (String) it.next();
+      shape.append('|').append(field.length()).append(':').append(field);
+    }
+    Map<String, String> statements = statementCache.computeIfAbsent(
+        new StatementScope(context, aliasMap), scope -> new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_STATEMENTS;
+          }
+        });
+    String key = shape.toString();
+    String sql;
+    synchronized (statements) {
+      sql = statements.get(key);
+    }
+    if (sql == null) {
+      sql = buildSearchContext(context, filter, returnFields, aliasMap).getSearchString().toString();
+      synchronized (statements) {
+        statements.put(key, sql);
+      }
+    }
+    return sql;
   }
 
   /**
@@ -178,7 +666,7 @@ public class SearchStrategy {
     if (fields.size() == 0) {
       return context + " ";
     }
-    StringBuffer buffer = new StringBuffer();
+    StringBuilder buffer = new StringBuilder();
     if (fields.size() > 0) {
       Iterator it = fields.iterator();
       buffer.append((String) it.next());
@@ -188,11 +676,13 @@ public class SearchStrategy {
     }
     String returnFields = buffer.toString();
 
+    String lowerContext = context.toLowerCase();
+
     // find the 'select' token
-    int indexSelect = context.toLowerCase().indexOf("select");
+    int indexSelect = lowerContext.indexOf("select");
 
     // find the 'from' token
-    int indexFrom = context.toLowerCase().indexOf("from");
+    int indexFrom = lowerContext.indexOf("from");
 
     // if not find the 'select token'
     if ((indexSelect < 0) || (indexFrom < 0)) {
@@ -209,7 +699,7 @@ public class SearchStrategy {
     }
 
     // makeup the string and return
-    buffer = new StringBuffer();
+    buffer = new StringBuilder();
     buffer.append("select ").append(filedNames);
     // fields already exist in context
     if (filedNames.length() != 0) {
@@ -218,4 +708,97 @@ public class SearchStrategy {
     buffer.append(returnFields).append(" ").append(context.substring(indexFrom)).append(" ");
     return buffer.toString();
   }
+
+  /**
+   * Maps the rows of a result set and hands them to a consumer in chunks.
+   *
+   * @param <T> the type of the mapped rows
+   */
+  private static final class ChunkingRowHandler<T> implements RowCallbackHandler {
+
+    /** The mapper of each row. */
+    private final RowMapper<T> mapper;
+
+    /** The maximum number of rows in one chunk. */
+    private final int chunkSize;
+
+    /** The consumer of the chunks. */
+    private final Consumer<List<T>> consumer;
+
+    /** The rows of the current chunk. */
+    private List<T> rows;
+
+    /** The number of rows read so far. */
+    private int rowNum;
+
+    /**
+     * Creates the handler.
+     *
+     * @param mapper    the mapper of each row
+     * @param chunkSize the maximum number of rows in one chunk
+     * @param consumer  the consumer of the chunks
+     */
+    private ChunkingRowHandler(RowMapper<T> mapper, int chunkSize, Consumer<List<T>> consumer) {
+      this.mapper = mapper;
+      this.chunkSize = chunkSize;
+      this.consumer = consumer;
+      this.rows = new ArrayList<>(chunkSize);
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      rows.add(mapper.mapRow(rs, rowNum++));
+      if (rows.size() == chunkSize) {
+        flush();
+      }
+    }
+
+    /**
+     * Hands the rows read since the last chunk to the consumer, if any.
+     */
+    private void flush() {
+      if (!rows.isEmpty()) {
+        List<T> chunk = rows;
+        rows = new ArrayList<>(chunkSize);
+        consumer.accept(chunk);
+      }
+    }
+  }
+
+  /**
+   * The key of the statements cached for one search context and alias map.
+   */
+  private static final class StatementScope {
+
+    /** The search context. */
+    private final String context;
+
+    /** The alias map used to resolve field names. */
+    private final Map aliasMap;
+
+    /**
+     * Creates the key.
+     *
+     * @param context  the search context
+     * @param aliasMap the alias map
+     */
+    private StatementScope(String context, Map aliasMap) {
+      this.context = context;
+      this.aliasMap = aliasMap;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof StatementScope)) {
+        return false;
+      }
+      StatementScope other = (StatementScope) obj;
+      return context.equals(other.context) && aliasMap.equals(other.aliasMap);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * context.hashCode() + aliasMap.hashCode();
+    }
+  }
 }
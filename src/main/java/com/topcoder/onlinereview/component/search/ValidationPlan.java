@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import com.topcoder.onlinereview.component.datavalidator.ObjectValidator;
+import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
+import com.topcoder.onlinereview.component.search.filter.AbstractSimpleFilter;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * This class is the compiled validation plan of a search bundle. The rule of
+ * every searchable field, looked up by real name or alias, is resolved once
+ * when the plan is built, so checking a filter is one walk over the tree with a
+ * single map lookup per leaf. The filters themselves check the whole validator
+ * and alias maps on every leaf and build a result for every node.
+ * </p>
+ *
+ * <p>
+ * The walk only answers whether the filter is valid, without building any
+ * message. When it is not, or when the maps would make the filters throw, the
+ * filter validates itself so the result and the exceptions are the same as
+ * without the plan.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This class is immutable and therefore thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.3
+ */
+final class ValidationPlan {
+  /** The searchable fields the plan is built from, may be null. */
+  private final Map validators;
+
+  /** The alias map the plan is built from. */
+  private final Map aliasMap;
+
+  /** The rule of each field, keyed by real name and by alias. */
+  private final Map<String, ObjectValidator> rules = new HashMap<>();
+
+  /** Whether the maps are usable by the walk; if not, every filter validates itself. */
+  private final boolean compiled;
+
+  /**
+   * Build the plan.
+   *
+   * @param validators the searchable fields, may be null
+   * @param aliasMap   the alias map
+   */
+  ValidationPlan(Map validators, Map aliasMap) {
+    this.validators = validators;
+    this.aliasMap = aliasMap;
+    this.compiled = isUsable(validators, aliasMap);
+    if (compiled) {
+      for (Iterator it = validators.entrySet().iterator(); it.hasNext();) {
+        Map.Entry entry = (Map.Entry) it.next();
+        rules.put((String) entry.getKey(), (ObjectValidator) entry.getValue());
+      }
+      // the filters try the name first, then the real name of the alias
+      for (Iterator it = aliasMap.entrySet().iterator(); it.hasNext();) {
+        Map.Entry entry = (Map.Entry) it.next();
+        ObjectValidator rule = (ObjectValidator) validators.get(entry.getValue());
+        if (rule != null && !validators.containsKey(entry.getKey())) {
+          rules.put((String) entry.getKey(), rule);
+        }
+      }
+    }
+  }
+
+  /**
+   * Validate the filter.
+   *
+   * @param filter the filter to validate
+   * @return the validation result
+   * @throws IllegalArgumentException if the filter is null or the filter throws
+   *                                  it for the searchable fields
+   */
+  ValidationResult validate(Filter filter) {
+    if (filter == null) {
+      throw new IllegalArgumentException("The filter should not be null.");
+    }
+    if (compiled && check(filter)) {
+      return ValidationResult.createValidResult();
+    }
+    // let the filter find the failure and build its message
+    return filter.isValid(validators, aliasMap);
+  }
+
+  /**
+   * Check the filter against the resolved rules.
+   *
+   * @param filter the filter to check
+   * @return true if the filter is valid, false if it is not or it has to
+   *         validate itself
+   */
+  private boolean check(Filter filter) {
+    Class type = filter.getClass();
+    if (type == AndFilter.class || type == OrFilter.class) {
+      List filters = ((AbstractAssociativeFilter) filter).getFiltersSnapshot();
+      for (int i = 0; i < filters.size(); i++) {
+        if (!check((Filter) filters.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (type == NotFilter.class) {
+      return check(((NotFilter) filter).getFilter());
+    }
+    if (type == EqualToFilter.class || type == GreaterThanFilter.class || type == GreaterThanOrEqualToFilter.class
+        || type == LessThanFilter.class || type == LessThanOrEqualToFilter.class) {
+      AbstractSimpleFilter simple = (AbstractSimpleFilter) filter;
+      ObjectValidator rule = rules.get(simple.getName());
+      return rule != null && rule.valid(simple.getValue());
+    }
+    if (type == InFilter.class) {
+      ObjectValidator rule = rules.get(((InFilter) filter).getName());
+      if (rule == null) {
+        return false;
+      }
+      List values = ((InFilter) filter).getListSnapshot();
+      for (int i = 0; i < values.size(); i++) {
+        if (!rule.valid(values.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (type == BetweenFilter.class) {
+      BetweenFilter between = (BetweenFilter) filter;
+      ObjectValidator rule = rules.get(between.getName());
+      return rule != null && rule.valid(between.getUpperThreshold()) && rule.valid(between.getLowerThreshold());
+    }
+    if (type == LikeFilter.class) {
+      ObjectValidator rule = rules.get(((LikeFilter) filter).getName());
+      return rule != null && rule.valid(((LikeFilter) filter).getValue());
+    }
+    // NullFilter and other filters validate themselves
+    return filter.isValid(validators, aliasMap).isValid();
+  }
+
+  /**
+   * Check whether the maps can be used by the walk: the filters throw for an
+   * empty map, a null entry or an entry of the wrong type.
+   *
+   * @param validators the searchable fields
+   * @param aliasMap   the alias map
+   * @return true if the walk gives the same answer as the filters
+   */
+  private static boolean isUsable(Map validators, Map aliasMap) {
+    if (validators == null || aliasMap == null || validators.isEmpty() || aliasMap.isEmpty()) {
+      return false;
+    }
+    for (Iterator it = validators.entrySet().iterator(); it.hasNext();) {
+      Map.Entry entry = (Map.Entry) it.next();
+      if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof ObjectValidator)) {
+        return false;
+      }
+    }
+    for (Iterator it = aliasMap.entrySet().iterator(); it.hasNext();) {
+      Map.Entry entry = (Map.Entry) it.next();
+      if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
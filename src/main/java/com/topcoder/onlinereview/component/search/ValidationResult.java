@@ -13,11 +13,18 @@ import com.topcoder.onlinereview.component.search.filter.Filter;
  * It includes the following information: is the filter valid (boolean),
  * a message and a Filter object if validation fails.
  * <p>
+ * The class is thread-safe since it is immutable.
+ * </p>
  *
  * @author ShindouHikaru, TCSDEVELOPER
  * @version 1.3
  */
 public class ValidationResult {
+    /**
+     * The valid result, shared since it is immutable.
+     */
+    private static final ValidationResult VALID = new ValidationResult(true, null, null);
+
     /**
      * It holds the filter validation result.
      *
@@ -61,13 +68,14 @@ public class ValidationResult {
 
     /**
      * <p>
-     * Create a new ValidResult object representing the result is valid.
+     * Return the ValidResult object representing the result is valid. The
+     * instance is shared, since it is immutable.
      * </p>
      *
-     * @return a new ValidtionRresult object representing the result is valid
+     * @return the ValidtionRresult object representing the result is valid
      */
-    public static synchronized ValidationResult createValidResult() {
-        return new ValidationResult(true, null, null);
+    public static ValidationResult createValidResult() {
+        return VALID;
     }
 
     /**
@@ -79,7 +87,7 @@ public class ValidationResult {
      * @param filter  the Filter that fails the validation
      * @return a new ValidtionRresult object representing the result is invalid
      */
-    public static synchronized ValidationResult createInvalidResult(String message, Filter filter) {
+    public static ValidationResult createInvalidResult(String message, Filter filter) {
         if (message == null) {
             throw new IllegalArgumentException("The message should not be null.");
         }
@@ -99,7 +107,7 @@ public class ValidationResult {
      *
      * @return message, a descriptive string
      */
-    public synchronized String getMessage() {
+    public String getMessage() {
         return this.message;
     }
 
@@ -109,7 +117,7 @@ public class ValidationResult {
      *
      * @return a Filter object
      */
-    public synchronized Filter getFailedFilter() {
+    public Filter getFailedFilter() {
         return (Filter) failedFilter.clone();
     }
 
@@ -120,7 +128,7 @@ public class ValidationResult {
      * @return a boolean indicating if the result is valid. true if valid, false
      *         otherwise
      */
-    public synchronized boolean isValid() {
+    public boolean isValid() {
         return this.isResultValid;
     }
 }
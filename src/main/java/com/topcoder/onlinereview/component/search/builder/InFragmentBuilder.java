@@ -61,7 +61,7 @@ public class InFragmentBuilder implements SearchFragmentBuilder {
 
         InFilter inFilter = (InFilter) filter;
 
-        StringBuffer buffer = searchContext.getSearchString();
+        StringBuilder buffer = searchContext.getSearchString();
         List params = searchContext.getBindableParameters();
 
         // get the real name and append to buffer
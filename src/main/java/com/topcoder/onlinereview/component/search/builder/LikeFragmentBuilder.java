@@ -67,7 +67,7 @@ public class LikeFragmentBuilder implements SearchFragmentBuilder {
 
         LikeFilter likeFilter = (LikeFilter) filter;
 
-        StringBuffer buffer = searchContext.getSearchString();
+        StringBuilder buffer = searchContext.getSearchString();
 
         // get the real name and append to buffer
         buffer.append(SearchBuilderHelper.getRealName(likeFilter.getName(),
@@ -100,12 +100,12 @@ public class LikeFragmentBuilder implements SearchFragmentBuilder {
      * @param filter constructed search string
      * @exception IllegalArgumentException if the filter parameter is Null
      */
-    private String buildFromLikeFilter(LikeFilter filter) {
+    static String buildFromLikeFilter(LikeFilter filter) {
         if (filter == null) {
             throw new IllegalArgumentException("The LikeFilter is null.");
         }
 
-        StringBuffer buffer = new StringBuffer();
+        StringBuilder buffer = new StringBuilder();
 
         String value = filter.getValue();
         String content = value.substring(PREFIX_LENGTH);
@@ -145,8 +145,8 @@ public class LikeFragmentBuilder implements SearchFragmentBuilder {
      * @param escapeChar the char used to escape
      * @return a transformed String by escaping both '%' and '_'.
      */
-    private String transformString(String content, char escapeChar) {
-        StringBuffer buffer = new StringBuffer();
+    private static String transformString(String content, char escapeChar) {
+        StringBuilder buffer = new StringBuilder();
 
         for (int i = 0; i < content.length(); i++) {
             char c = content.charAt(i);
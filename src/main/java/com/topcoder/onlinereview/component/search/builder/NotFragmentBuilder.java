@@ -67,7 +67,7 @@ public class NotFragmentBuilder implements SearchFragmentBuilder {
 
         NotFilter notFilter = (NotFilter) filter;
 
-        StringBuffer buffer = searchContext.getSearchString();
+        StringBuilder buffer = searchContext.getSearchString();
 
         buffer.append("NOT (");
 
@@ -63,7 +63,7 @@ public class NullFragmentBuilder implements SearchFragmentBuilder {
 
         NullFilter nullFilter = (NullFilter) filter;
 
-        StringBuffer buffer = searchContext.getSearchString();
+        StringBuilder buffer = searchContext.getSearchString();
 
         buffer.append(SearchBuilderHelper.getRealName(nullFilter.getName(), searchContext)).append(" IS NULL");
     }
@@ -6,12 +6,25 @@ package com.topcoder.onlinereview.component.search.builder;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.topcoder.onlinereview.component.search.SearchContext;
 import com.topcoder.onlinereview.component.search.UnrecognizedFilterException;
 import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
 import com.topcoder.onlinereview.component.search.filter.AbstractSimpleFilter;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
 import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
 
 /**
  * This helperClass of the package com.topcoder.search.builder. The class offers
@@ -60,7 +73,7 @@ public final class SearchBuilderHelper {
       AbstractSimpleFilter filter, String operateKey, SearchContext searchContext, Object value)
       throws UnrecognizedFilterException {
     // retrieve the search String
-    StringBuffer buffer = searchContext.getSearchString();
+    StringBuilder buffer = searchContext.getSearchString();
 
     // get the real name and append to buffer
     buffer.append(getRealName(filter.getName(), searchContext));
@@ -87,7 +100,7 @@ public final class SearchBuilderHelper {
       AbstractAssociativeFilter filter, String connectKey, SearchContext searchContext)
       throws UnrecognizedFilterException {
     // retrieve the search String
-    StringBuffer buffer = searchContext.getSearchString();
+    StringBuilder buffer = searchContext.getSearchString();
 
     buffer.append("(");
 
@@ -114,6 +127,142 @@ public final class SearchBuilderHelper {
     buffer.append(")");
   }
 
+  /**
+   * Append the shape of the filter to the given builder and collect its bindable
+   * parameters in the order the fragment builders would add them. The shape
+   * holds the filter types, the field names and the IN-list arity but no values,
+   * so filters of the same shape always produce the same search string.
+   *
+   * <p>
+   * Only the filter classes of this component are recognized. Subclasses may
+   * provide their own fragment builders, so for any other class false is
+   * returned and the search string has to be built by the fragment builders.
+   *
+   * @param filter the filter to describe
+   * @param shape  the builder the shape is appended to
+   * @param params the list the bindable parameters are added to
+   * @return true if the whole filter tree was described, false otherwise
+   */
+  public static boolean appendShape(Filter filter, StringBuilder shape, List params) {
+    Class type = filter.getClass();
+    if (type == AndFilter.class || type == OrFilter.class) {
+      shape.append(type == AndFilter.class ? "AND(" : "OR(");
+      for (Iterator it = ((AbstractAssociativeFilter) filter).getFilters().iterator(); it.hasNext();) {
+        if (!appendShape((Filter) it.next(), shape, params)) {
+          return false;
+        }
+        shape.append(',');
+      }
+      shape.append(')');
+      return true;
+    }
+    if (type == NotFilter.class) {
+      shape.append("NOT(");
+      if (!appendShape(((NotFilter) filter).getFilter(), shape, params)) {
+        return false;
+      }
+      shape.append(')');
+      return true;
+    }
+    if (type == InFilter.class) {
+      InFilter inFilter = (InFilter) filter;
+      List values = inFilter.getList();
+      appendName(shape.append("IN").append(values.size()), inFilter.getName());
+      params.addAll(values);
+      return true;
+    }
+    if (type == LikeFilter.class) {
+      LikeFilter likeFilter = (LikeFilter) filter;
+      appendName(shape.append("LIKE"), likeFilter.getName());
+      params.add(LikeFragmentBuilder.buildFromLikeFilter(likeFilter));
+      params.add(likeFilter.getEscapeCharacter() + "");
+      return true;
+    }
+    if (type == NullFilter.class) {
+      appendName(shape.append("NULL"), ((NullFilter) filter).getName());
+      return true;
+    }
+    if (type == BetweenFilter.class) {
+      BetweenFilter betweenFilter = (BetweenFilter) filter;
+      appendName(shape.append("BETWEEN"), betweenFilter.getName());
+      params.add(betweenFilter.getLowerThreshold());
+      params.add(betweenFilter.getUpperThreshold());
+      return true;
+    }
+
+    String operator = null;
+    if (type == EqualToFilter.class) {
+      operator = "EQ";
+    } else if (type == GreaterThanFilter.class) {
+      operator = "GT";
+    } else if (type == GreaterThanOrEqualToFilter.class) {
+      operator = "GE";
+    } else if (type == LessThanFilter.class) {
+      operator = "LT";
+    } else if (type == LessThanOrEqualToFilter.class) {
+      operator = "LE";
+    }
+    if (operator == null) {
+      return false;
+    }
+    AbstractSimpleFilter simpleFilter = (AbstractSimpleFilter) filter;
+    appendName(shape.append(operator), simpleFilter.getName());
+    params.add(simpleFilter.getValue());
+    return true;
+  }
+
+  /**
+   * Collect the names of the fields the filter references, as they appear in the
+   * filters (aliases or real names).
+   *
+   * <p>
+   * Only the filter classes of this component are recognized; for any other
+   * class false is returned, and the caller cannot know which fields are used.
+   *
+   * @param filter the filter to inspect
+   * @param names  the set the field names are added to
+   * @return true if the whole filter tree was inspected, false otherwise
+   */
+  public static boolean collectFieldNames(Filter filter, Set names) {
+    Class type = filter.getClass();
+    if (type == AndFilter.class || type == OrFilter.class) {
+      for (Iterator it = ((AbstractAssociativeFilter) filter).getFilters().iterator(); it.hasNext();) {
+        if (!collectFieldNames((Filter) it.next(), names)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (type == NotFilter.class) {
+      return collectFieldNames(((NotFilter) filter).getFilter(), names);
+    }
+    if (type == InFilter.class) {
+      names.add(((InFilter) filter).getName());
+      return true;
+    }
+    if (type == LikeFilter.class) {
+      names.add(((LikeFilter) filter).getName());
+      return true;
+    }
+    if (AbstractSimpleFilter.class.isAssignableFrom(type)
+        && type.getPackage() == AbstractSimpleFilter.class.getPackage()) {
+      names.add(((AbstractSimpleFilter) filter).getName());
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Append a field name to the shape, prefixed with its length so that names
+   * containing separators cannot make two shapes collide.
+   *
+   * @param shape the builder the name is appended to
+   * @param name  the field name
+   */
+  private static void appendName(StringBuilder shape, String name) {
+    shape.append(name.length()).append(':').append(name);
+  }
+
   /**
    * Check the list valid.The list should not be null also should not be empty.
    * The mothed also
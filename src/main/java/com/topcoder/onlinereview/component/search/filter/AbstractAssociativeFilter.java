@@ -31,10 +31,11 @@ import java.util.List;
 public abstract class AbstractAssociativeFilter implements Filter {
     /**
      * It will hold a list of Filter objcts, which consists of the associative
-     * filter. Null elemnt is not allowed.
+     * filter. Null elemnt is not allowed. The list is never modified once
+     * assigned; changes assign a new list, so it can be read without a lock.
      *
      */
-    protected List filters;
+    protected volatile List filters;
 
     /**
      * <p>
@@ -56,12 +57,13 @@ public abstract class AbstractAssociativeFilter implements Filter {
                     "The secondFilter should not be null to construct AbstractAssociativeFilter");
         }
 
-        filters = new ArrayList();
+        List list = new ArrayList(2);
 
         // add the param
-        filters.add(firstFilter);
+        list.add(firstFilter);
 
-        filters.add(secondFilter);
+        list.add(secondFilter);
+        filters = list;
     }
 
     /**
@@ -108,7 +110,12 @@ public abstract class AbstractAssociativeFilter implements Filter {
                     "The filter should not be null when add to fiters");
         }
 
-        filters.add(filter);
+        synchronized (this) {
+            // copy on write, readers keep the list they got
+            List list = new ArrayList(filters);
+            list.add(filter);
+            filters = list;
+        }
     }
 
     /**
@@ -124,6 +131,17 @@ public abstract class AbstractAssociativeFilter implements Filter {
         return new ArrayList(filters);
     }
 
+    /**
+     * Return the component filters without copying them, for the readers on the
+     * search path. The list is never modified once assigned, so it is a
+     * consistent snapshot; callers must not modify it either.
+     *
+     * @return the current list of filters, read only
+     */
+    public List getFiltersSnapshot() {
+        return filters;
+    }
+
     /**
      * Set the filters.
      *
@@ -16,7 +16,8 @@ import com.topcoder.onlinereview.component.search.builder.SearchFragmentBuilder;
  * search criterion.
  *
  * <p>
- * Thread-safety is ensured by using a read-write lock over filters attribute
+ * Thread-safety is ensured by replacing the filters list on every change
+ * instead of modifying it, so readers need no lock.
  * </p>
  *
  * @author ShindouHikaru, TCSDEVELOPER
@@ -64,7 +65,7 @@ public class AndFilter extends AbstractAssociativeFilter {
      * @param alias a Map containing mapping between real names and alias names
      * @throws IllegalArgumentException if any parameter is Null
      */
-    public synchronized ValidationResult isValid(Map validators, Map alias) {
+    public ValidationResult isValid(Map validators, Map alias) {
         return FilterHelper.isValidAssociativeFilter(validators, alias, filters);
     }
 
@@ -80,7 +81,7 @@ public class AndFilter extends AbstractAssociativeFilter {
      *
      * @return a clone of the object
      */
-    public synchronized Object clone() {
+    public Object clone() {
         return FilterHelper.associativeFilterclone(this);
     }
 }
@@ -163,6 +163,16 @@ public class InFilter implements Filter {
         return new ArrayList(values);
     }
 
+    /**
+     * Return the values without copying them, for the readers on the search
+     * path. The list is never modified; callers must not modify it either.
+     *
+     * @return the values, read only
+     */
+    public List getListSnapshot() {
+        return values;
+    }
+
     /**
      * <p>
      * return a clone of the object.
@@ -19,7 +19,8 @@ import com.topcoder.onlinereview.component.search.builder.SearchFragmentBuilder;
  * structure.
  *
  * <p>
- * Thread-safety is ensured by using a read-write lock over filters attribute.
+ * Thread-safety is ensured by replacing the filters list on every change
+ * instead of modifying it, so readers need no lock.
  *
  * @author ShindouHikaru, TCSDEVELOPER
  * @version 1.3
@@ -55,7 +56,7 @@ public class OrFilter extends AbstractAssociativeFilter {
    * @param alias a Map containing mapping between real names and alias names
    * @throws IllegalArgumentException if any parameter is Null
    */
-  public synchronized ValidationResult isValid(Map validators, Map alias) {
+  public ValidationResult isValid(Map validators, Map alias) {
     return FilterHelper.isValidAssociativeFilter(validators, alias, filters);
   }
 
@@ -68,7 +69,7 @@ public class OrFilter extends AbstractAssociativeFilter {
    *
    * @return a clone of the object
    */
-  public synchronized Object clone() {
+  public Object clone() {
     return FilterHelper.associativeFilterclone(this);
   }
 }
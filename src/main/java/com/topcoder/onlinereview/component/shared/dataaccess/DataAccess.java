@@ -1,8 +1,9 @@
 package com.topcoder.onlinereview.component.shared.dataaccess;
 
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
 
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.dao.DataAccessException;
@@ -18,6 +19,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class DataAccess {
   private DBAccessor dbAccessor;
   private JdbcTemplate jdbcTemplate;
+  private QueryProfile profile;
 
   /**
    * Construtor that takes a data source to be used.
@@ -25,8 +27,20 @@ public class DataAccess {
    * @param jdbcTemplate
    */
   public DataAccess(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate) {
+    this(dbAccessor, jdbcTemplate, QueryProfile.DEFAULT);
+  }
+
+  /**
+   * Construtor that takes a data source to be used and the profile the queries
+   * of the commands run with.
+   *
+   * @param jdbcTemplate
+   * @param profile
+   */
+  public DataAccess(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, QueryProfile profile) {
     this.dbAccessor = dbAccessor;
     this.jdbcTemplate = jdbcTemplate;
+    this.profile = profile;
   }
 
   /**
@@ -40,12 +54,12 @@ public class DataAccess {
    * @throws Exception if there was an error encountered while retrieving the data
    *                   from the EJB.
    */
-  public Map<String, List<Map<String, Object>>> getData(RequestInt request) throws DataAccessException {
+  public Map<String, ResultRows> getData(RequestInt request) throws DataAccessException {
     DataRetriever dr = getDataRetriever();
     return dr.executeCommand(request.getProperties());
   }
 
   protected DataRetriever getDataRetriever() {
-    return new DataRetriever(dbAccessor, jdbcTemplate);
+    return new DataRetriever(dbAccessor, jdbcTemplate, profile);
   }
 }
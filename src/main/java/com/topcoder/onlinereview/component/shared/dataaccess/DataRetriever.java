@@ -7,6 +7,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -16,13 +18,8 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
-import static com.topcoder.or.util.Helper.getInt;
-import static com.topcoder.or.util.Helper.getLong;
-import static com.topcoder.or.util.Helper.getString;
-
 /**
  * Retrieves data from the database.
  *
@@ -167,6 +164,8 @@ public class DataRetriever {
   private static Logger log = LoggerFactory.getLogger(DataRetriever.class);
   private DBAccessor dbAccessor;
   private JdbcTemplate jdbcTemplate;
+  /* The settings the queries of the command run with */
+  private QueryProfile profile;
   /* Keeps track of the most recent query run, for exception handling purposes */
   private StringBuffer query;
 
@@ -176,8 +175,20 @@ public class DataRetriever {
    * @param jdbcTemplate
    */
   public DataRetriever(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate) {
+    this(dbAccessor, jdbcTemplate, QueryProfile.DEFAULT);
+  }
+
+  /**
+   * Constructor that takes the profile of the command queries. The lookups of
+   * the command, its queries and their inputs always run as point lookups.
+   *
+   * @param jdbcTemplate
+   * @param profile
+   */
+  public DataRetriever(DBAccessor dbAccessor, JdbcTemplate jdbcTemplate, QueryProfile profile) {
     this.dbAccessor = dbAccessor;
     this.jdbcTemplate = jdbcTemplate;
+    this.profile = profile;
   }
 
   private void handleException(Exception e, String lastQuery, Map inputs) {
@@ -272,12 +283,12 @@ public class DataRetriever {
       return input;
 
     int specialQueryId = Integer.parseInt(defaultQueryId.substring(1));
-    List<Map<String, Object>> rs = dbAccessor.executeQuery(jdbcTemplate,
+    ResultRows rs = dbAccessor.executeQueryForRows(jdbcTemplate, QueryProfile.POINT_LOOKUP,
         "SELECT text FROM query WHERE query_id=" + specialQueryId);
     if (rs.isEmpty()) {
       throw new IllegalArgumentException("Query text for query ID " + specialQueryId + " missing from DB");
     }
-    String specialQuery = getString(rs.get(0), "text");
+    String specialQuery = rs.getString(0, rs.column("text"));
 
     int i, j;
     // For default input queries, all inputs are required to avoid circularity
@@ -340,7 +351,7 @@ public class DataRetriever {
    *                   specified by the
    *                   passed-in command.
    */
-  public Map<String, List<Map<String, Object>>> executeCommand(Map inputMap) throws DataAccessException {
+  public Map<String, ResultRows> executeCommand(Map inputMap) throws DataAccessException {
     // create a new map to avoid mutating the passed in version.
     // log.debug("input: " + inputMap.toString());
     Map inputs = new HashMap(inputMap);
@@ -369,22 +380,29 @@ public class DataRetriever {
       query.append("AND cqx.command_id = c.command_id ");
       query.append("AND q.query_id = cqx.query_id ");
       query.append("ORDER BY cqx.sort_order ASC ");
-      List<Map<String, Object>> rs = dbAccessor.executeQuery(jdbcTemplate, query.toString(), commandDesc);
+      ResultRows rs = dbAccessor.executeQueryForRows(jdbcTemplate, QueryProfile.POINT_LOOKUP, query.toString(),
+          commandDesc);
+      int commandIdColumn = rs.column("command_id");
+      int queryIdColumn = rs.column("query_id");
+      int textColumn = rs.column("text");
+      int nameColumn = rs.column("name");
+      int rankingColumn = rs.column("ranking");
+      int columnIndexColumn = rs.column("column_index");
       rowcount = 0;
       qid = new ArrayList();
       queryTextMap = new HashMap();
       queryNameMap = new HashMap();
       querySortMap = new HashMap();
-      for (Map<String, Object> row : rs) {
-        commandId = getLong(row, "command_id");
+      for (int row = 0; row < rs.size(); row++) {
+        commandId = rs.getLong(row, commandIdColumn);
         rowcount++;
-        Integer tempId = getInt(row, "query_id");
+        Integer tempId = rs.getInt(row, queryIdColumn);
         qid.add(tempId);
-        queryTextMap.put(tempId, getString(row, "text"));
-        queryNameMap.put(tempId, getString(row, "name"));
-        int isRanking = getInt(row, "ranking");
+        queryTextMap.put(tempId, rs.getString(row, textColumn));
+        queryNameMap.put(tempId, rs.getString(row, nameColumn));
+        int isRanking = rs.getInt(row, rankingColumn);
         if (isRanking == 1)
-          querySortMap.put(tempId, getInt(row, "column_index"));
+          querySortMap.put(tempId, rs.getInt(row, columnIndexColumn));
       }
       queryIdList = new int[rowcount];
       for (i = 0; i < rowcount; i++) {
@@ -417,7 +435,13 @@ public class DataRetriever {
       query.append("AND cqx.query_id = qi.query_id ");
       query.append("AND qi.input_id = i.input_id ");
       query.append("ORDER BY qi.query_id ASC, qi.sort_order ASC ");
-      List<Map<String, Object>> rs1 = dbAccessor.executeQuery(jdbcTemplate, query.toString(), commandDesc);
+      ResultRows rs1 = dbAccessor.executeQueryForRows(jdbcTemplate, QueryProfile.POINT_LOOKUP, query.toString(),
+          commandDesc);
+      int inputCodeColumn = rs1.column("input_code");
+      int optionalColumn = rs1.column("optional");
+      int dataTypeColumn = rs1.column("data_type_id");
+      int defaultValueColumn = rs1.column("default_value");
+      int inputQueryIdColumn = rs1.column("query_id");
 
       // Put these in a result set container to avoid requiring the
       // connection to have two open prepared statements at the same
@@ -425,11 +449,11 @@ public class DataRetriever {
       rowcount = rs1.size();
 
       for (i = 0; i < rowcount; i++) {
-        String inputCode = getString(rs1.get(i), "input_code");
-        String optional = getString(rs1.get(i), "optional");
-        int dataType = getInt(rs1.get(i), "data_type_id");
-        String defaultValue = getString(rs1.get(i), "default_value");
-        Integer tempId = getInt(rs1.get(i), "query_id");
+        String inputCode = rs1.getString(i, inputCodeColumn);
+        String optional = rs1.getString(i, optionalColumn);
+        int dataType = rs1.getInt(i, dataTypeColumn);
+        String defaultValue = rs1.getString(i, defaultValueColumn);
+        Integer tempId = rs1.getInt(i, inputQueryIdColumn);
         String input = (String) inputs.get(inputCode);
 
         if (input == null) {
@@ -510,7 +534,7 @@ public class DataRetriever {
         for (int j = 0; j < rowcount; j++) {
           if (queryText.indexOf(
               DataAccessConstants.INPUT_DELIMITER
-                  + getString(rs1.get(j), "input_code")
+                  + rs1.getString(j, inputCodeColumn)
                   + DataAccessConstants.INPUT_DELIMITER) > -1) {
             throw new IllegalArgumentException("Query input entries missing from database: " + queryText);
           }
@@ -532,7 +556,7 @@ public class DataRetriever {
       // todo we can improve this and solve sql injection hacks
       // todo by replacing the inputs with ?'s and keeping track of
       // todo what goes where and then calling setXXX on the preparedstatement
-      Map<String, List<Map<String, Object>>> resultMap = new HashMap<String, List<Map<String, Object>>>();
+      Map<String, ResultRows> resultMap = new HashMap<String, ResultRows>();
       long start = System.currentTimeMillis();
       for (i = 0; i < queryIdList.length; i++) {
         try {
@@ -553,7 +577,7 @@ public class DataRetriever {
           // } else {
           // endRow = tempInt.intValue();
           // }
-          List<Map<String, Object>> rs = dbAccessor.executeQuery(jdbcTemplate, queryText);
+          ResultRows rs = dbAccessor.executeQueryForRows(jdbcTemplate, profile, queryText);
           resultMap.put(queryName, rs);
         } catch (Exception e) {
           handleException(e, queryText, inputs);
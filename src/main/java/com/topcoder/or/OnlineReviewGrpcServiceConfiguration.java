@@ -1,5 +1,7 @@
 package com.topcoder.or;
 
+import java.util.List;
+
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
@@ -13,6 +15,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.topcoder.or.util.GrpcMethods;
+
+import io.grpc.ServerInterceptors;
+import io.grpc.util.MutableHandlerRegistry;
+import net.devh.boot.grpc.server.interceptor.GlobalServerInterceptorRegistry;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+
 @Configuration
 @ComponentScan("com.topcoder")
 public class OnlineReviewGrpcServiceConfiguration {
@@ -22,6 +31,22 @@ public class OnlineReviewGrpcServiceConfiguration {
         return org.slf4j.LoggerFactory.getLogger(injectionPoint.getMember().getDeclaringClass());
     }
 
+    /**
+     * Serves the methods the services add in code to their proto contract, with
+     * the global interceptors of the contract's methods, when the contract has no
+     * method of the name called.
+     */
+    @Bean
+    public GrpcServerConfigurer addedGrpcMethods(List<GrpcMethods.Added> services,
+            GlobalServerInterceptorRegistry interceptors) {
+        return serverBuilder -> {
+            MutableHandlerRegistry registry = new MutableHandlerRegistry();
+            services.forEach(service -> registry.addService(
+                    ServerInterceptors.interceptForward(service.bindAddedMethods(), interceptors.getServerInterceptors())));
+            serverBuilder.fallbackHandlerRegistry(registry);
+        };
+    }
+
     @Bean(name = "db1")
     @ConfigurationProperties(prefix = "spring.datasource1")
     public DataSource dataSource1() {
@@ -10,7 +10,6 @@ import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @GrpcService
@@ -73,8 +72,7 @@ public class ContestEligibilityService extends ContestEligibilityServiceGrpc.Con
                 delete from common_oltp:contest_eligibility
                 where contest_eligibility_id in (%s)
                     """;
-        String inSql = Helper.getInClause(request.getContestEligibilityIdsCount());
-        dbAccessor.executeUpdate(sql.formatted(inSql), request.getContestEligibilityIdsList().toArray());
+        dbAccessor.executeInUpdate(sql, request.getContestEligibilityIdsList());
         responseObserver.onNext(Empty.getDefaultInstance());
         responseObserver.onCompleted();
     }
@@ -131,24 +129,9 @@ public class ContestEligibilityService extends ContestEligibilityServiceGrpc.Con
                 where is_studio = ? and contest_id in (%s)
                 """;
         final Boolean studio = Helper.extract(request::hasStudio, request::getStudio);
-        int startIndex = 0;
-        List<Long> result = new ArrayList<>();
-        while (true) {
-            int count = Math.min(100, request.getContestIdsCount() - startIndex);
-            String inSql = Helper.getInClause(count);
-            List<Object> param = new ArrayList<>();
-            param.add(studio);
-            param.addAll(request.getContestIdsList().stream().skip(startIndex).limit(count).toList());
-            List<Long> qResult = dbAccessor.executeQuery(sql.formatted(inSql),
-                    (rs, _i) -> {
-                        return Long.valueOf(rs.getLong(1));
-                    }, param.toArray());
-            result.addAll(qResult);
-            startIndex += count;
-            if (startIndex >= request.getContestIdsCount()) {
-                break;
-            }
-        }
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
+            return Long.valueOf(rs.getLong(1));
+        }, request.getContestIdsList(), studio);
         responseObserver
                 .onNext(HaveEligibilityResponse.newBuilder().addAllContestIds(result).build());
         responseObserver.onCompleted();
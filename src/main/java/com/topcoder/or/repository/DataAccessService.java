@@ -1,20 +1,21 @@
 package com.topcoder.or.repository;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.dao.DataAccessException;
 
 import com.google.protobuf.Empty;
-import com.google.protobuf.Timestamp;
 import com.topcoder.onlinereview.component.idgenerator.IdGenerator;
 import com.topcoder.onlinereview.component.shared.dataaccess.DataAccess;
 import com.topcoder.onlinereview.component.shared.dataaccess.Request;
 import com.topcoder.onlinereview.grpc.dataaccess.proto.*;
 import com.topcoder.or.util.DBAccessor;
 import com.topcoder.or.util.Helper;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
+import com.topcoder.or.util.ValueCodecs;
 
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
@@ -22,32 +23,32 @@ import net.devh.boot.grpc.server.service.GrpcService;
 @GrpcService
 public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceImplBase {
     private final DBAccessor dbAccessor;
+    private final IdGenerator idGenerator;
 
-    public DataAccessService(DBAccessor dbAccessor) {
+    public DataAccessService(DBAccessor dbAccessor, IdGenerator idGenerator) {
         this.dbAccessor = dbAccessor;
+        this.idGenerator = idGenerator;
     }
 
     @Override
     public void getComponentVersionInfo(GetComponentVersionInfoRequest request,
             StreamObserver<GetComponentVersionInfoResponse> responseObserver) {
         validateGetComponentVersionInfoRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "comp_version";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("cd", String.valueOf(request.getComponentId()));
         dbRequest.setProperty("vid", String.valueOf(request.getVersionNumber()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> versionData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows versionData = result.getOrDefault(queryName, ResultRows.empty());
         GetComponentVersionInfoResponse response;
         if (versionData.isEmpty()) {
             response = GetComponentVersionInfoResponse.getDefaultInstance();
         } else {
             GetComponentVersionInfoResponse.Builder builder = GetComponentVersionInfoResponse.newBuilder();
-            Long versionId = Helper.getLong(versionData.get(0), "version_id");
-            if (versionId != null) {
-                builder.setVersionId(versionId);
-            }
+            versionData.applyLong(0, versionData.column("version_id"), builder::setVersionId);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -57,32 +58,25 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     @Override
     public void getDocuments(GetDocumentsRequest request, StreamObserver<GetDocumentsResponse> responseObserver) {
         validateGetDocumentsRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "comp_version_documents";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("cv", String.valueOf(request.getComponentVersionId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<DocumentProto> documents = new ArrayList<>();
+        int documentIdColumn = data.column("document_id");
+        int documentNameColumn = data.column("document_name");
+        int urlColumn = data.column("url");
+        int documentTypeIdColumn = data.column("document_type_id");
         for (int i = 0; i < data.size(); i++) {
             DocumentProto.Builder document = DocumentProto.newBuilder();
-            Long documentId = Helper.getLong(data.get(i), "document_id");
-            if (documentId != null) {
-                document.setDocumentId(documentId);
-            }
-            String documentName = Helper.getString(data.get(i), "document_name");
-            if (documentName != null) {
-                document.setDocumentName(documentName);
-            }
-            String url = Helper.getString(data.get(i), "url");
-            if (url != null) {
-                document.setUrl(url);
-            }
-            Long documentTypeId = Helper.getLong(data.get(i), "document_type_id");
-            if (documentTypeId != null) {
-                document.setDocumentTypeId(documentTypeId);
-            }
+            data.applyLong(i, documentIdColumn, document::setDocumentId);
+            data.applyString(i, documentNameColumn, document::setDocumentName);
+            data.applyString(i, urlColumn, document::setUrl);
+            data.applyLong(i, documentTypeIdColumn, document::setDocumentTypeId);
             documents.add(document.build());
         }
         responseObserver.onNext(GetDocumentsResponse.newBuilder().addAllDocuments(documents).build());
@@ -121,27 +115,22 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
 
     @Override
     public void getDeliverablesList(Empty request, StreamObserver<GetDeliverablesListResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "tcs_deliverables";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<DeliverableProto> deliverables = new ArrayList<>();
+        int resourceRoleIdColumn = data.column("resource_role_id");
+        int phaseTypeIdColumn = data.column("phase_type_id");
+        int deliverableIdColumn = data.column("deliverable_id");
         for (int i = 0; i < data.size(); i++) {
             DeliverableProto.Builder deliverible = DeliverableProto.newBuilder();
-            Long resourceRoleId = Helper.getLong(data.get(i), "resource_role_id");
-            if (resourceRoleId != null) {
-                deliverible.setResourceRoleId(resourceRoleId);
-            }
-            Long phaseTypeId = Helper.getLong(data.get(i), "phase_type_id");
-            if (phaseTypeId != null) {
-                deliverible.setPhaseTypeId(phaseTypeId);
-            }
-            Long deliveribleId = Helper.getLong(data.get(i), "deliverable_id");
-            if (deliveribleId != null) {
-                deliverible.setDeliverableId(deliveribleId);
-            }
+            data.applyLong(i, resourceRoleIdColumn, deliverible::setResourceRoleId);
+            data.applyLong(i, phaseTypeIdColumn, deliverible::setPhaseTypeId);
+            data.applyLong(i, deliverableIdColumn, deliverible::setDeliverableId);
             deliverables.add(deliverible.build());
         }
         responseObserver.onNext(GetDeliverablesListResponse.newBuilder().addAllDeliverables(deliverables).build());
@@ -152,14 +141,15 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void isCockpitProjectUser(IsCockpitProjectUserRequest request,
             StreamObserver<IsCockpitProjectUserResponse> responseObserver) {
         validateIsCockpitProjectUserRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "cockpit_project_user";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("pj", String.valueOf(request.getProjectId()));
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         responseObserver
                 .onNext(IsCockpitProjectUserResponse.newBuilder()
                         .setIsCockpitProjectUser(!data.isEmpty()).build());
@@ -170,26 +160,21 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void getCockpitProject(GetCockpitProjectRequest request,
             StreamObserver<GetCockpitProjectResponse> responseObserver) {
         validateGetCockpitProjectRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "cockpit_project_by_id";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("pj", String.valueOf(request.getCockpitProjectId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         GetCockpitProjectResponse response;
         if (data.isEmpty()) {
             response = GetCockpitProjectResponse.getDefaultInstance();
         } else {
             GetCockpitProjectResponse.Builder builder = GetCockpitProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(0), "tc_direct_project_id");
-            if (projectId != null) {
-                builder.setTcDirectProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(0), "tc_direct_project_name");
-            if (projectName != null) {
-                builder.setTcDirectProjectName(projectName);
-            }
+            data.applyLong(0, data.column("tc_direct_project_id"), builder::setTcDirectProjectId);
+            data.applyString(0, data.column("tc_direct_project_name"), builder::setTcDirectProjectName);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -198,23 +183,20 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
 
     @Override
     public void getAllCockpitProjects(Empty request, StreamObserver<GetAllCockpitProjectsResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "cockpit_projects";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<GetCockpitProjectResponse> projects = new ArrayList<>();
+        int tcDirectProjectIdColumn = data.column("tc_direct_project_id");
+        int tcDirectProjectNameColumn = data.column("tc_direct_project_name");
         for (int i = 0; i < data.size(); i++) {
             GetCockpitProjectResponse.Builder builder = GetCockpitProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(i), "tc_direct_project_id");
-            if (projectId != null) {
-                builder.setTcDirectProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(i), "tc_direct_project_name");
-            if (projectName != null) {
-                builder.setTcDirectProjectName(projectName);
-            }
+            data.applyLong(i, tcDirectProjectIdColumn, builder::setTcDirectProjectId);
+            data.applyString(i, tcDirectProjectNameColumn, builder::setTcDirectProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetAllCockpitProjectsResponse.newBuilder().addAllCockpitProjects(projects).build());
@@ -225,24 +207,21 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void getCockpitProjectsForUser(GetCockpitProjectsForUserRequest request,
             StreamObserver<GetCockpitProjectsForUserResponse> responseObserver) {
         validateGetCockpitProjectsForUserRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "direct_my_projects";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<GetCockpitProjectResponse> projects = new ArrayList<>();
+        int tcDirectProjectIdColumn = data.column("tc_direct_project_id");
+        int tcDirectProjectNameColumn = data.column("tc_direct_project_name");
         for (int i = 0; i < data.size(); i++) {
             GetCockpitProjectResponse.Builder builder = GetCockpitProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(i), "tc_direct_project_id");
-            if (projectId != null) {
-                builder.setTcDirectProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(i), "tc_direct_project_name");
-            if (projectName != null) {
-                builder.setTcDirectProjectName(projectName);
-            }
+            data.applyLong(i, tcDirectProjectIdColumn, builder::setTcDirectProjectId);
+            data.applyString(i, tcDirectProjectNameColumn, builder::setTcDirectProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetCockpitProjectsForUserResponse.newBuilder().addAllCockpitProjects(projects).build());
@@ -253,26 +232,21 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void getClientProject(GetClientProjectRequest request,
             StreamObserver<GetClientProjectResponse> responseObserver) {
         validateGetClientProjectRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "client_project_by_id";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("pj", String.valueOf(request.getClientProjectId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         GetClientProjectResponse response;
         if (data.isEmpty()) {
             response = GetClientProjectResponse.getDefaultInstance();
         } else {
             GetClientProjectResponse.Builder builder = GetClientProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(0), "project_id");
-            if (projectId != null) {
-                builder.setProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(0), "project_name");
-            if (projectName != null) {
-                builder.setProjectName(projectName);
-            }
+            data.applyLong(0, data.column("project_id"), builder::setProjectId);
+            data.applyString(0, data.column("project_name"), builder::setProjectName);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -281,23 +255,20 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
 
     @Override
     public void getAllClientProjects(Empty request, StreamObserver<GetAllClientProjectsResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "client_projects";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<GetClientProjectResponse> projects = new ArrayList<>();
+        int projectIdColumn = data.column("project_id");
+        int projectNameColumn = data.column("project_name");
         for (int i = 0; i < data.size(); i++) {
             GetClientProjectResponse.Builder builder = GetClientProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(i), "project_id");
-            if (projectId != null) {
-                builder.setProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(i), "project_name");
-            if (projectName != null) {
-                builder.setProjectName(projectName);
-            }
+            data.applyLong(i, projectIdColumn, builder::setProjectId);
+            data.applyString(i, projectNameColumn, builder::setProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetAllClientProjectsResponse.newBuilder().addAllClientProjects(projects).build());
@@ -308,24 +279,21 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void getClientProjectsForUser(GetClientProjectsForUserRequest request,
             StreamObserver<GetClientProjectsForUserResponse> responseObserver) {
         validateGetClientProjectsForUserRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "client_projects_by_user";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<GetClientProjectResponse> projects = new ArrayList<>();
+        int projectIdColumn = data.column("project_id");
+        int projectNameColumn = data.column("project_name");
         for (int i = 0; i < data.size(); i++) {
             GetClientProjectResponse.Builder builder = GetClientProjectResponse.newBuilder();
-            Long projectId = Helper.getLong(data.get(i), "project_id");
-            if (projectId != null) {
-                builder.setProjectId(projectId);
-            }
-            String projectName = Helper.getString(data.get(i), "project_name");
-            if (projectName != null) {
-                builder.setProjectName(projectName);
-            }
+            data.applyLong(i, projectIdColumn, builder::setProjectId);
+            data.applyString(i, projectNameColumn, builder::setProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetClientProjectsForUserResponse.newBuilder().addAllClientProjects(projects).build());
@@ -335,7 +303,8 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     @Override
     public void searchProjects(SearchProjectsRequest request, StreamObserver<SearchProjectsResponse> responseObserver) {
         validateSearchProjectsRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryNameForProject;
         String queryNameForProjectInfo;
@@ -362,33 +331,38 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
         }
         dbRequest.setContentHandle(queryNameForProject);
         dbRequest.setProperty(paramName, request.getValue());
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryNameForProject, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryNameForProject, ResultRows.empty());
         List<ProjectProto> projects = new ArrayList<>();
+        int projectIdColumn = data.column("project_id");
+        int projectCategoryIdColumn = data.column("project_category_id");
+        int projectStatusIdColumn = data.column("project_status_id");
+        int createUserColumn = data.column("create_user");
+        int createDateColumn = data.column("create_date");
+        int modifyUserColumn = data.column("modify_user");
+        int modifyDateColumn = data.column("modify_date");
         for (int i = 0; i < data.size(); i++) {
             ProjectProto.Builder builder = ProjectProto.newBuilder();
-            builder.setProjectId(Helper.getLong(data.get(i), "project_id"));
-            builder.setProjectCategoryId(Helper.getLong(data.get(i), "project_category_id"));
-            builder.setProjectStatusId(Helper.getLong(data.get(i), "project_status_id"));
-            builder.setCreateUser(Helper.getString(data.get(i), "create_user"));
-            builder.setCreateDate(Timestamp.newBuilder()
-                    .setSeconds(Helper.getDate(data.get(i), "create_date").toInstant().getEpochSecond()));
-            builder.setModifyUser(Helper.getString(data.get(i), "modify_user"));
-            builder.setModifyDate(Timestamp.newBuilder()
-                    .setSeconds(Helper.getDate(data.get(i), "modify_date").toInstant().getEpochSecond()));
+            builder.setProjectId(data.getLong(i, projectIdColumn));
+            builder.setProjectCategoryId(data.getLong(i, projectCategoryIdColumn));
+            builder.setProjectStatusId(data.getLong(i, projectStatusIdColumn));
+            builder.setCreateUser(data.getString(i, createUserColumn));
+            builder.setCreateDate(ValueCodecs.encodeTimestamp(data.getDate(i, createDateColumn)));
+            builder.setModifyUser(data.getString(i, modifyUserColumn));
+            builder.setModifyDate(ValueCodecs.encodeTimestamp(data.getDate(i, modifyDateColumn)));
             projects.add(builder.build());
         }
 
-        List<Map<String, Object>> projectInfosData = result.getOrDefault(queryNameForProjectInfo, new ArrayList<>());
+        ResultRows projectInfosData = result.getOrDefault(queryNameForProjectInfo, ResultRows.empty());
         List<ProjectInfoProto> projectInfos = new ArrayList<>();
+        int infoProjectIdColumn = projectInfosData.column("project_id");
+        int infoProjectInfoTypeIdColumn = projectInfosData.column("project_info_type_id");
+        int infoValueColumn = projectInfosData.column("value");
         for (int i = 0; i < projectInfosData.size(); i++) {
             ProjectInfoProto.Builder piBuilder = ProjectInfoProto.newBuilder();
-            piBuilder.setProjectId(Helper.getLong(projectInfosData.get(i), "project_id"));
-            piBuilder.setProjectInfoTypeId(Helper.getLong(projectInfosData.get(i), "project_info_type_id"));
-            String value = Helper.getString(projectInfosData.get(i), "value");
-            if (value != null) {
-                piBuilder.setValue(value);
-            }
+            piBuilder.setProjectId(projectInfosData.getLong(i, infoProjectIdColumn));
+            piBuilder.setProjectInfoTypeId(projectInfosData.getLong(i, infoProjectInfoTypeIdColumn));
+            projectInfosData.applyString(i, infoValueColumn, piBuilder::setValue);
             projectInfos.add(piBuilder.build());
         }
         responseObserver.onNext(
@@ -400,17 +374,18 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void getProjectClient(GetProjectClientRequest request,
             StreamObserver<GetProjectClientResponse> responseObserver) {
         validateGetProjectClientRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsDwJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsDwJdbcTemplate(),
+                QueryProfile.DW_ANALYTIC);
         Request dbRequest = new Request();
         String queryName = "non_admin_client_billing_accounts";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("tdpis", String.valueOf(request.getDirectProjectId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         long clientId = 0;
         if (data != null) {
             if (data.size() > 0) {
-                clientId = Helper.getLong(data.get(0), "client_id");
+                clientId = data.getLong(0, data.column("client_id"));
             }
         }
         responseObserver.onNext(GetProjectClientResponse.newBuilder().setClientId(clientId).build());
@@ -421,31 +396,23 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void checkUserChallengeEligibility(CheckUserChallengeEligibilityRequest request,
             StreamObserver<CheckUserChallengeEligibilityResponse> responseObserver) {
         validateCheckUserChallengeEligibilityRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "get_challenge_accessibility_and_groups";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("userId", String.valueOf(request.getUserId()));
         dbRequest.setProperty("challengeId", String.valueOf(request.getChallengeId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         CheckUserChallengeEligibilityResponse response;
         if (data != null && data.isEmpty()) {
             response = CheckUserChallengeEligibilityResponse.getDefaultInstance();
         } else {
             CheckUserChallengeEligibilityResponse.Builder builder = CheckUserChallengeEligibilityResponse.newBuilder();
-            Long userGroupXrefFound = Helper.getLong(data.get(0), "user_group_xref_found");
-            if (userGroupXrefFound != null) {
-                builder.setUserGroupXrefFound(userGroupXrefFound);
-            }
-            Long challengeGroupInd = Helper.getLong(data.get(0), "challenge_group_ind");
-            if (challengeGroupInd != null) {
-                builder.setChallengeGroupInd(challengeGroupInd);
-            }
-            Long groupId = Helper.getLong(data.get(0), "group_id");
-            if (groupId != null) {
-                builder.setGroupId(groupId);
-            }
+            data.applyLong(0, data.column("user_group_xref_found"), builder::setUserGroupXrefFound);
+            data.applyLong(0, data.column("challenge_group_ind"), builder::setChallengeGroupInd);
+            data.applyLong(0, data.column("group_id"), builder::setGroupId);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -456,7 +423,8 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void searchProjectPhases(SearchProjectPhasesRequest request,
             StreamObserver<SearchProjectPhasesResponse> responseObserver) {
         validateSearchProjectPhasesRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName;
         String paramName;
@@ -479,61 +447,41 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
         }
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty(paramName, request.getValue());
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<ProjectPhaseProto> phases = new ArrayList<>();
+        int projectIdColumn = data.column("project_id");
+        int projectPhaseIdColumn = data.column("project_phase_id");
+        int durationColumn = data.column("duration");
+        int fixedStartTimeColumn = data.column("fixed_start_time");
+        int scheduledStartTimeColumn = data.column("scheduled_start_time");
+        int scheduledEndTimeColumn = data.column("scheduled_end_time");
+        int actualStartTimeColumn = data.column("actual_start_time");
+        int actualEndTimeColumn = data.column("actual_end_time");
+        int phaseStatusIdColumn = data.column("phase_status_id");
+        int phaseTypeIdColumn = data.column("phase_type_id");
+        int dependencyPhaseIdColumn = data.column("dependency_phase_id");
+        int dependentPhaseIdColumn = data.column("dependent_phase_id");
+        int lagTimeColumn = data.column("lag_time");
+        int dependencyStartColumn = data.column("dependency_start");
+        int dependentStartColumn = data.column("dependent_start");
         for (int i = 0; i < data.size(); i++) {
             ProjectPhaseProto.Builder builder = ProjectPhaseProto.newBuilder();
-            builder.setProjectId(Helper.getLong(data.get(i), "project_id"));
-            builder.setProjectPhaseId(Helper.getLong(data.get(i), "project_phase_id"));
-            builder.setDuration(Helper.getLong(data.get(i), "duration"));
-            Date fixedStartTime = Helper.getDate(data.get(i), "fixed_start_time");
-            if (fixedStartTime != null) {
-                builder.setFixedStartTime(
-                        Timestamp.newBuilder().setSeconds(fixedStartTime.toInstant().getEpochSecond()));
-            }
-            Date scheduledStartTime = Helper.getDate(data.get(i), "scheduled_start_time");
-            if (scheduledStartTime != null) {
-                builder.setScheduledStartTime(
-                        Timestamp.newBuilder().setSeconds(scheduledStartTime.toInstant().getEpochSecond()));
-            }
-            Date scheduledEndTime = Helper.getDate(data.get(i), "scheduled_end_time");
-            if (scheduledEndTime != null) {
-                builder.setScheduledEndTime(
-                        Timestamp.newBuilder().setSeconds(scheduledEndTime.toInstant().getEpochSecond()));
-            }
-            Date actualStartTime = Helper.getDate(data.get(i), "actual_start_time");
-            if (actualStartTime != null) {
-                builder.setActualStartTime(
-                        Timestamp.newBuilder().setSeconds(actualStartTime.toInstant().getEpochSecond()));
-            }
-            Date actualEndTime = Helper.getDate(data.get(i), "actual_end_time");
-            if (actualEndTime != null) {
-                builder.setActualEndTime(
-                        Timestamp.newBuilder().setSeconds(actualEndTime.toInstant().getEpochSecond()));
-            }
-            Long phaseStatusId = Helper.getLong(data.get(i), "phase_status_id");
-            if (phaseStatusId != null) {
-                builder.setPhaseStatusId(phaseStatusId);
-            }
-            Long phaseTypeId = Helper.getLong(data.get(i), "phase_type_id");
-            if (phaseTypeId != null) {
-                builder.setPhaseTypeId(phaseTypeId);
-            }
-            Long dependencyPhaseId = Helper.getLong(data.get(i), "dependency_phase_id");
-            if (dependencyPhaseId != null) {
-                builder.setDependencyPhaseId(dependencyPhaseId);
-            }
-            Long dependentPhaseId = Helper.getLong(data.get(i), "dependent_phase_id");
-            if (dependentPhaseId != null) {
-                builder.setDependentPhaseId(dependentPhaseId);
-            }
-            Long lagTime = Helper.getLong(data.get(i), "lag_time");
-            if (lagTime != null) {
-                builder.setLagTime(lagTime);
-            }
-            builder.setDependencyStart(Helper.getInt(data.get(i), "dependency_start") == 1);
-            builder.setDependentStart(Helper.getInt(data.get(i), "dependent_start") == 1);
+            builder.setProjectId(data.getLong(i, projectIdColumn));
+            builder.setProjectPhaseId(data.getLong(i, projectPhaseIdColumn));
+            builder.setDuration(data.getLong(i, durationColumn));
+            data.applyTimestamp(i, fixedStartTimeColumn, builder::setFixedStartTime);
+            data.applyTimestamp(i, scheduledStartTimeColumn, builder::setScheduledStartTime);
+            data.applyTimestamp(i, scheduledEndTimeColumn, builder::setScheduledEndTime);
+            data.applyTimestamp(i, actualStartTimeColumn, builder::setActualStartTime);
+            data.applyTimestamp(i, actualEndTimeColumn, builder::setActualEndTime);
+            data.applyLong(i, phaseStatusIdColumn, builder::setPhaseStatusId);
+            data.applyLong(i, phaseTypeIdColumn, builder::setPhaseTypeId);
+            data.applyLong(i, dependencyPhaseIdColumn, builder::setDependencyPhaseId);
+            data.applyLong(i, dependentPhaseIdColumn, builder::setDependentPhaseId);
+            data.applyLong(i, lagTimeColumn, builder::setLagTime);
+            builder.setDependencyStart(data.getInt(i, dependencyStartColumn) == 1);
+            builder.setDependentStart(data.getInt(i, dependentStartColumn) == 1);
             phases.add(builder.build());
         }
         responseObserver.onNext(
@@ -545,15 +493,15 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void searchUserResourcesByUserId(SearchUserResourcesByUserIdRequest request,
             StreamObserver<SearchUserResourcesResponse> responseObserver) {
         validateSearchUserResourcesByUserIdRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "tcs_global_resources_by_user";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
-        List<Map<String, Object>> infoData = result.getOrDefault("tcs_global_resource_infos_by_user",
-                new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
+        ResultRows infoData = result.getOrDefault("tcs_global_resource_infos_by_user", ResultRows.empty());
         responseObserver.onNext(getResourcesResponse(data, infoData));
         responseObserver.onCompleted();
     }
@@ -562,65 +510,51 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
     public void searchUserResourcesByUserIdAndStatus(SearchUserResourcesByUserIdAndStatusRequest request,
             StreamObserver<SearchUserResourcesResponse> responseObserver) {
         validateSearchUserResourcesByUserIdAndStatusRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "tcs_resources_by_user_and_status";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
         dbRequest.setProperty("stid", String.valueOf(request.getStatusId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
-        List<Map<String, Object>> infoData = result.getOrDefault("tcs_resource_infos_by_user_and_status",
-                new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
+        ResultRows infoData = result.getOrDefault("tcs_resource_infos_by_user_and_status", ResultRows.empty());
         responseObserver.onNext(getResourcesResponse(data, infoData));
         responseObserver.onCompleted();
     }
 
-    private SearchUserResourcesResponse getResourcesResponse(List<Map<String, Object>> data,
-            List<Map<String, Object>> infoData) {
+    private SearchUserResourcesResponse getResourcesResponse(ResultRows data, ResultRows infoData) {
         List<ResourceProto> resources = new ArrayList<>();
+        int resourceIdColumn = data.column("resource_id");
+        int resourceRoleIdColumn = data.column("resource_role_id");
+        int projectIdColumn = data.column("project_id");
+        int phaseIdColumn = data.column("phase_id");
+        int createUserColumn = data.column("create_user");
+        int createDateColumn = data.column("create_date");
+        int modifyUserColumn = data.column("modify_user");
+        int modifyDateColumn = data.column("modify_date");
         for (int i = 0; i < data.size(); i++) {
             ResourceProto.Builder builder = ResourceProto.newBuilder();
-            builder.setResourceId(Helper.getLong(data.get(i), "resource_id"));
-            builder.setResourceRoleId(Helper.getLong(data.get(i), "resource_role_id"));
-            Long projectId = Helper.getLong(data.get(i), "project_id");
-            if (projectId != null) {
-                builder.setProjectId(projectId);
-            }
-            Long phaseId = Helper.getLong(data.get(i), "phase_id");
-            if (phaseId != null) {
-                builder.setPhaseId(phaseId);
-            }
-            String createUser = Helper.getString(data.get(i), "create_user");
-            if (createUser != null) {
-                builder.setCreateUser(createUser);
-            }
-            Date createDate = Helper.getDate(data.get(i), "create_date");
-            if (createDate != null) {
-                builder.setCreateDate(Timestamp.newBuilder().setSeconds(createDate.toInstant().getEpochSecond()));
-            }
-            String modifyUser = Helper.getString(data.get(i), "modify_user");
-            if (modifyUser != null) {
-                builder.setModifyUser(modifyUser);
-            }
-            Date modifyDate = Helper.getDate(data.get(i), "modify_date");
-            if (modifyDate != null) {
-                builder.setModifyDate(Timestamp.newBuilder().setSeconds(modifyDate.toInstant().getEpochSecond()));
-            }
+            builder.setResourceId(data.getLong(i, resourceIdColumn));
+            builder.setResourceRoleId(data.getLong(i, resourceRoleIdColumn));
+            data.applyLong(i, projectIdColumn, builder::setProjectId);
+            data.applyLong(i, phaseIdColumn, builder::setPhaseId);
+            data.applyString(i, createUserColumn, builder::setCreateUser);
+            data.applyTimestamp(i, createDateColumn, builder::setCreateDate);
+            data.applyString(i, modifyUserColumn, builder::setModifyUser);
+            data.applyTimestamp(i, modifyDateColumn, builder::setModifyDate);
             resources.add(builder.build());
         }
         List<ResourceInfoProto> resourceIfos = new ArrayList<>();
+        int infoResourceIdColumn = infoData.column("resource_id");
+        int infoResourceInfoTypeNameColumn = infoData.column("resource_info_type_name");
+        int infoValueColumn = infoData.column("value");
         for (int i = 0; i < infoData.size(); i++) {
             ResourceInfoProto.Builder builder = ResourceInfoProto.newBuilder();
-            builder.setResourceId(Helper.getLong(infoData.get(i), "resource_id"));
-            String propName = Helper.getString(infoData.get(i), "resource_info_type_name");
-            if (propName != null) {
-                builder.setResourceInfoTypeName(propName);
-            }
-            String value = Helper.getString(infoData.get(i), "value");
-            if (value != null) {
-                builder.setValue(value);
-            }
+            builder.setResourceId(infoData.getLong(i, infoResourceIdColumn));
+            infoData.applyString(i, infoResourceInfoTypeNameColumn, builder::setResourceInfoTypeName);
+            infoData.applyString(i, infoValueColumn, builder::setValue);
             resourceIfos.add(builder.build());
         }
         return SearchUserResourcesResponse.newBuilder().addAllResources(resources).addAllResourceInfos(resourceIfos)
@@ -629,11 +563,7 @@ public class DataAccessService extends DataAccessServiceGrpc.DataAccessServiceIm
 
     private long generateNextCatalogScopedId() {
         try {
-            if (!IdGenerator.isInitialized()) {
-                IdGenerator.init(dbAccessor, dbAccessor.getTcsJdbcTemplate(), "sequence_object", "name",
-                        "current_value", 9999999999L, 1, false);
-            }
-            return IdGenerator.nextId();
+            return idGenerator.nextId();
         } catch (DataAccessException e) {
             throw new RuntimeException("Failed to generate next catalog scoped ID", e);
         }
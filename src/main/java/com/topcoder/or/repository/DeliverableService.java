@@ -1,20 +1,30 @@
 package com.topcoder.or.repository;
 
 import com.google.protobuf.Empty;
+import com.google.protobuf.Int64Value;
 import com.topcoder.onlinereview.grpc.deliverable.proto.*;
 import com.topcoder.onlinereview.component.search.SearchBundle;
 import com.topcoder.onlinereview.component.search.SearchBundleManager;
+import com.topcoder.onlinereview.component.search.SearchPage;
 import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.or.util.ColumnMapper;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
+import com.topcoder.or.util.GrpcMethods;
 import com.topcoder.or.util.Helper;
 import com.topcoder.or.util.ResultSetHelper;
 import com.topcoder.or.util.SearchBundleHelper;
+import com.topcoder.or.util.SearchPageCodec;
+import com.topcoder.or.util.SearchStreamer;
 
+import org.springframework.jdbc.core.RowMapper;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -25,26 +35,74 @@ import java.util.Set;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 @GrpcService
-public class DeliverableService extends DeliverableServiceGrpc.DeliverableServiceImplBase {
+public class DeliverableService extends DeliverableServiceGrpc.DeliverableServiceImplBase
+        implements GrpcMethods.Added {
     private final DBAccessor dbAccessor;
     private final SearchBundleManager searchBundleManager;
+    private final SearchStreamer searchStreamer;
 
     public static final String DELIVERABLE_SEARCH_BUNDLE_NAME = "Deliverable Search Bundle";
     public static final String DELIVERABLE_WITH_SUBMISSIONS_SEARCH_BUNDLE_NAME = "Deliverable With Submission Search Bundle";
     private static final String KEY_NON_RESTRICTED_SB_NAME = "Non-restricted Late Deliverable Search Bundle";
     private static final String KEY_RESTRICTED_SB_NAME = "Restricted Late Deliverable Search Bundle";
 
+    // the streaming late deliverable searches, not in the proto contract: one response per chunk of rows
+    public static final MethodDescriptor<FilterProto, SearchLateDeliverablesResponse> STREAM_LATE_DELIVERABLES_NON_RESTRICTED_METHOD =
+            GrpcMethods.serverStreaming(DeliverableServiceGrpc.SERVICE_NAME, "StreamLateDeliverablesNonRestricted",
+                    FilterProto.getDefaultInstance(), SearchLateDeliverablesResponse.getDefaultInstance());
+    public static final MethodDescriptor<FilterProto, SearchLateDeliverablesResponse> STREAM_LATE_DELIVERABLES_RESTRICTED_METHOD =
+            GrpcMethods.serverStreaming(DeliverableServiceGrpc.SERVICE_NAME, "StreamLateDeliverablesRestricted",
+                    FilterProto.getDefaultInstance(), SearchLateDeliverablesResponse.getDefaultInstance());
+    // the paged late deliverable searches, not in the proto contract: see SearchPageCodec for their messages
+    public static final MethodDescriptor<SearchPageCodec.Request, SearchPageCodec.Response<SearchLateDeliverablesResponse>> SEARCH_LATE_DELIVERABLES_NON_RESTRICTED_PAGE_METHOD =
+            GrpcMethods.unary(DeliverableServiceGrpc.SERVICE_NAME, "SearchLateDeliverablesNonRestrictedPage",
+                    SearchPageCodec.requestMarshaller(),
+                    SearchPageCodec.responseMarshaller(SearchLateDeliverablesResponse.getDefaultInstance()));
+    public static final MethodDescriptor<SearchPageCodec.Request, SearchPageCodec.Response<SearchLateDeliverablesResponse>> SEARCH_LATE_DELIVERABLES_RESTRICTED_PAGE_METHOD =
+            GrpcMethods.unary(DeliverableServiceGrpc.SERVICE_NAME, "SearchLateDeliverablesRestrictedPage",
+                    SearchPageCodec.requestMarshaller(),
+                    SearchPageCodec.responseMarshaller(SearchLateDeliverablesResponse.getDefaultInstance()));
+    // the late deliverable counts, not in the proto contract
+    public static final MethodDescriptor<FilterProto, Int64Value> COUNT_LATE_DELIVERABLES_NON_RESTRICTED_METHOD =
+            GrpcMethods.unary(DeliverableServiceGrpc.SERVICE_NAME, "CountLateDeliverablesNonRestricted",
+                    FilterProto.getDefaultInstance(), Int64Value.getDefaultInstance());
+    public static final MethodDescriptor<FilterProto, Int64Value> COUNT_LATE_DELIVERABLES_RESTRICTED_METHOD =
+            GrpcMethods.unary(DeliverableServiceGrpc.SERVICE_NAME, "CountLateDeliverablesRestricted",
+                    FilterProto.getDefaultInstance(), Int64Value.getDefaultInstance());
+
+    private static final ColumnMapper<LateDeliverablesProto.Builder> LATE_DELIVERABLE_COLUMNS =
+            new ColumnMapper<LateDeliverablesProto.Builder>()
+                    .longColumn("late_deliverable_id", LateDeliverablesProto.Builder::setLateDeliverableId)
+                    .longColumn("project_id", LateDeliverablesProto.Builder::setProjectId)
+                    .longColumn("project_phase_id", LateDeliverablesProto.Builder::setProjectPhaseId)
+                    .longColumn("resource_id", LateDeliverablesProto.Builder::setResourceId)
+                    .longColumn("deliverable_id", LateDeliverablesProto.Builder::setDeliverableId)
+                    .timestampColumn("deadline", LateDeliverablesProto.Builder::setDeadline)
+                    .timestampColumn("compensated_deadline", LateDeliverablesProto.Builder::setCompensatedDeadline)
+                    .timestampColumn("create_date", LateDeliverablesProto.Builder::setCreateDate)
+                    .boolColumn("forgive_ind", LateDeliverablesProto.Builder::setForgiveInd)
+                    .timestampColumn("last_notified", LateDeliverablesProto.Builder::setLastNotified)
+                    .longColumn("delay", LateDeliverablesProto.Builder::setDelay)
+                    .stringColumn("explanation", LateDeliverablesProto.Builder::setExplanation)
+                    .timestampColumn("explanation_date", LateDeliverablesProto.Builder::setExplanationDate)
+                    .stringColumn("response", LateDeliverablesProto.Builder::setResponse)
+                    .stringColumn("response_user", LateDeliverablesProto.Builder::setResponseUser)
+                    .timestampColumn("response_date", LateDeliverablesProto.Builder::setResponseDate)
+                    .longColumn("late_deliverable_type_id", LateDeliverablesProto.Builder::setLateDeliverableTypeId)
+                    .stringColumn("name", LateDeliverablesProto.Builder::setName)
+                    .stringColumn("description", LateDeliverablesProto.Builder::setDescription);
+
     private SearchBundle deliverableSearchBundle;
     private SearchBundle deliverableWithSubmissionsSearchBundle;
     private SearchBundle nonRestrictedSearchBundle;
     private SearchBundle restrictedSearchBundle;
 
-    public DeliverableService(DBAccessor dbAccessor, SearchBundleManager searchBundleManager) {
+    public DeliverableService(DBAccessor dbAccessor, SearchBundleManager searchBundleManager,
+            SearchStreamer searchStreamer) {
         this.dbAccessor = dbAccessor;
         this.searchBundleManager = searchBundleManager;
+        this.searchStreamer = searchStreamer;
     }
 
     @PostConstruct
@@ -429,23 +487,26 @@ public class DeliverableService extends DeliverableServiceGrpc.DeliverableServic
 
     @Override
     public void searchDeliverables(FilterProto request, StreamObserver<SearchDeliverablesResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<SearchDeliverablesProto> result = deliverableSearchBundle.search(filter, (rs, _i) -> {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchDeliverablesResponse.Builder response = SearchDeliverablesResponse.newBuilder();
+        deliverableSearchBundle.search(filter, (rs, _i) -> {
             SearchDeliverablesProto.Builder builder = SearchDeliverablesProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setDeliverableId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceId);
             ResultSetHelper.applyResultSetLong(rs, 3, builder::setProjectPhaseId);
             return builder.build();
-        });
-        responseObserver.onNext(SearchDeliverablesResponse.newBuilder().addAllDeliverables(result).build());
+        }, response::addAllDeliverables);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchDeliverablesWithSubmission(FilterProto request,
             StreamObserver<SearchDeliverablesWithSubmissionResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<SearchDeliverablesWithSubmissionProto> result = deliverableWithSubmissionsSearchBundle.search(filter,
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchDeliverablesWithSubmissionResponse.Builder response = SearchDeliverablesWithSubmissionResponse
+                .newBuilder();
+        deliverableWithSubmissionsSearchBundle.search(filter,
                 (rs, _i) -> {
                     SearchDeliverablesWithSubmissionProto.Builder builder = SearchDeliverablesWithSubmissionProto
                             .newBuilder();
@@ -454,35 +515,96 @@ public class DeliverableService extends DeliverableServiceGrpc.DeliverableServic
                     ResultSetHelper.applyResultSetLong(rs, 3, builder::setProjectPhaseId);
                     ResultSetHelper.applyResultSetLong(rs, 4, builder::setSubmissionId);
                     return builder.build();
-                });
-        responseObserver
-                .onNext(SearchDeliverablesWithSubmissionResponse.newBuilder().addAllDeliverables(result).build());
+                }, response::addAllDeliverables);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchLateDeliverablesNonRestricted(FilterProto request,
             StreamObserver<SearchLateDeliverablesResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<LateDeliverablesProto> result = nonRestrictedSearchBundle.search(filter,
-                (rs, _i) -> {
-                    return loadLateDeliverablesFromSearch(rs);
-                });
-        responseObserver
-                .onNext(SearchLateDeliverablesResponse.newBuilder().addAllLateDeliverables(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchLateDeliverablesResponse.Builder response = SearchLateDeliverablesResponse.newBuilder();
+        nonRestrictedSearchBundle.search(filter, lateDeliverableMapper(), response::addAllLateDeliverables);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchLateDeliverablesRestricted(FilterProto request,
             StreamObserver<SearchLateDeliverablesResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<LateDeliverablesProto> result = restrictedSearchBundle.search(filter,
-                (rs, _i) -> {
-                    return loadLateDeliverablesFromSearch(rs);
-                });
-        responseObserver
-                .onNext(SearchLateDeliverablesResponse.newBuilder().addAllLateDeliverables(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchLateDeliverablesResponse.Builder response = SearchLateDeliverablesResponse.newBuilder();
+        restrictedSearchBundle.search(filter, lateDeliverableMapper(), response::addAllLateDeliverables);
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public ServerServiceDefinition bindAddedMethods() {
+        return ServerServiceDefinition.builder(DeliverableServiceGrpc.SERVICE_NAME)
+                .addMethod(STREAM_LATE_DELIVERABLES_NON_RESTRICTED_METHOD,
+                        ServerCalls.asyncServerStreamingCall(this::streamLateDeliverablesNonRestricted))
+                .addMethod(STREAM_LATE_DELIVERABLES_RESTRICTED_METHOD,
+                        ServerCalls.asyncServerStreamingCall(this::streamLateDeliverablesRestricted))
+                .addMethod(SEARCH_LATE_DELIVERABLES_NON_RESTRICTED_PAGE_METHOD,
+                        ServerCalls.asyncUnaryCall(this::searchLateDeliverablesNonRestrictedPage))
+                .addMethod(SEARCH_LATE_DELIVERABLES_RESTRICTED_PAGE_METHOD,
+                        ServerCalls.asyncUnaryCall(this::searchLateDeliverablesRestrictedPage))
+                .addMethod(COUNT_LATE_DELIVERABLES_NON_RESTRICTED_METHOD,
+                        ServerCalls.asyncUnaryCall(this::countLateDeliverablesNonRestricted))
+                .addMethod(COUNT_LATE_DELIVERABLES_RESTRICTED_METHOD,
+                        ServerCalls.asyncUnaryCall(this::countLateDeliverablesRestricted))
+                .build();
+    }
+
+    public void streamLateDeliverablesNonRestricted(FilterProto request,
+            StreamObserver<SearchLateDeliverablesResponse> responseObserver) {
+        streamLateDeliverables(nonRestrictedSearchBundle, request, responseObserver);
+    }
+
+    public void streamLateDeliverablesRestricted(FilterProto request,
+            StreamObserver<SearchLateDeliverablesResponse> responseObserver) {
+        streamLateDeliverables(restrictedSearchBundle, request, responseObserver);
+    }
+
+    private void streamLateDeliverables(SearchBundle searchBundle, FilterProto request,
+            StreamObserver<SearchLateDeliverablesResponse> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        searchStreamer.stream(responseObserver, send -> searchBundle.search(filter, lateDeliverableMapper(),
+                rows -> send.accept(SearchLateDeliverablesResponse.newBuilder().addAllLateDeliverables(rows).build())));
+    }
+
+    public void searchLateDeliverablesNonRestrictedPage(SearchPageCodec.Request request,
+            StreamObserver<SearchPageCodec.Response<SearchLateDeliverablesResponse>> responseObserver) {
+        searchLateDeliverablesPage(nonRestrictedSearchBundle, request, responseObserver);
+    }
+
+    public void searchLateDeliverablesRestrictedPage(SearchPageCodec.Request request,
+            StreamObserver<SearchPageCodec.Response<SearchLateDeliverablesResponse>> responseObserver) {
+        searchLateDeliverablesPage(restrictedSearchBundle, request, responseObserver);
+    }
+
+    private void searchLateDeliverablesPage(SearchBundle searchBundle, SearchPageCodec.Request request,
+            StreamObserver<SearchPageCodec.Response<SearchLateDeliverablesResponse>> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchPage<LateDeliverablesProto> page = searchBundle.searchPage(filter, lateDeliverableMapper(),
+                request.getPageSize(), request.getContinuationToken());
+        responseObserver.onNext(new SearchPageCodec.Response<>(
+                SearchLateDeliverablesResponse.newBuilder().addAllLateDeliverables(page.getRows()).build(),
+                page.getContinuationToken()));
+        responseObserver.onCompleted();
+    }
+
+    public void countLateDeliverablesNonRestricted(FilterProto request, StreamObserver<Int64Value> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        responseObserver.onNext(Int64Value.of(nonRestrictedSearchBundle.count(filter)));
+        responseObserver.onCompleted();
+    }
+
+    public void countLateDeliverablesRestricted(FilterProto request, StreamObserver<Int64Value> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        responseObserver.onNext(Int64Value.of(restrictedSearchBundle.count(filter)));
         responseObserver.onCompleted();
     }
 
@@ -669,30 +791,7 @@ public class DeliverableService extends DeliverableServiceGrpc.DeliverableServic
         Helper.assertObjectNotNull(request::hasResourceId, "resource_id");
     }
 
-    private LateDeliverablesProto loadLateDeliverablesFromSearch(ResultSet rs) throws SQLException {
-        LateDeliverablesProto.Builder builder = LateDeliverablesProto
-                .newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "late_deliverable_id", builder::setLateDeliverableId);
-        ResultSetHelper.applyResultSetLong(rs, "project_id", builder::setProjectId);
-        ResultSetHelper.applyResultSetLong(rs, "project_phase_id", builder::setProjectPhaseId);
-        ResultSetHelper.applyResultSetLong(rs, "resource_id", builder::setResourceId);
-        ResultSetHelper.applyResultSetLong(rs, "deliverable_id", builder::setDeliverableId);
-        ResultSetHelper.applyResultSetTimestamp(rs, "deadline", builder::setDeadline);
-        ResultSetHelper.applyResultSetTimestamp(rs, "compensated_deadline",
-                builder::setCompensatedDeadline);
-        ResultSetHelper.applyResultSetTimestamp(rs, "create_date", builder::setCreateDate);
-        ResultSetHelper.applyResultSetBool(rs, "forgive_ind", builder::setForgiveInd);
-        ResultSetHelper.applyResultSetTimestamp(rs, "last_notified", builder::setLastNotified);
-        ResultSetHelper.applyResultSetLong(rs, "delay", builder::setDelay);
-        ResultSetHelper.applyResultSetString(rs, "explanation", builder::setExplanation);
-        ResultSetHelper.applyResultSetTimestamp(rs, "explanation_date", builder::setExplanationDate);
-        ResultSetHelper.applyResultSetString(rs, "response", builder::setResponse);
-        ResultSetHelper.applyResultSetString(rs, "response_user", builder::setResponseUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "response_date", builder::setResponseDate);
-        ResultSetHelper.applyResultSetLong(rs, "late_deliverable_type_id",
-                builder::setLateDeliverableTypeId);
-        ResultSetHelper.applyResultSetString(rs, "name", builder::setName);
-        ResultSetHelper.applyResultSetString(rs, "description", builder::setDescription);
-        return builder.build();
+    private static RowMapper<LateDeliverablesProto> lateDeliverableMapper() {
+        return LATE_DELIVERABLE_COLUMNS.rowMapper(LateDeliverablesProto::newBuilder, LateDeliverablesProto.Builder::build);
     }
 }
\ No newline at end of file
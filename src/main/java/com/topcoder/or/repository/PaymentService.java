@@ -4,18 +4,16 @@ import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Types;
-import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.topcoder.onlinereview.component.search.SearchBundle;
 import com.topcoder.onlinereview.component.search.SearchBundleManager;
 import com.topcoder.onlinereview.component.search.filter.Filter;
 import com.topcoder.onlinereview.grpc.payment.proto.*;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
 import com.topcoder.or.util.Helper;
 import com.topcoder.or.util.ResultSetHelper;
 
@@ -192,17 +190,13 @@ public class PaymentService extends PaymentServiceGrpc.PaymentServiceImplBase {
         String sql = """
                 SELECT resource_role_id, fixed_amount, multiplier FROM project_payment_adjustment WHERE project_id=? AND resource_role_id IN (%s)
                     """;
-        String inSql = Helper.getInClause(request.getResourceIdsCount());
-        List<Object> param = new ArrayList<>();
-        param.add(request.getProjectId());
-        param.addAll(request.getResourceIdsList());
-        List<ProjectPaymentAdjustmentProto> response = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ProjectPaymentAdjustmentProto> response = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             ProjectPaymentAdjustmentProto.Builder builder = ProjectPaymentAdjustmentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setResourceRoleId);
             ResultSetHelper.applyResultSetBigDecimal(rs, 2, builder::setFixedAmount);
             ResultSetHelper.applyResultSetDouble(rs, 3, builder::setMultiplier);
             return builder.build();
-        }, param.toArray());
+        }, request.getResourceIdsList(), request.getProjectId());
         responseObserver.onNext(GetPaymentAdjustmentsResponse.newBuilder().addAllPaymentAdjustments(response).build());
         responseObserver.onCompleted();
     }
@@ -291,8 +285,9 @@ public class PaymentService extends PaymentServiceGrpc.PaymentServiceImplBase {
 
     @Override
     public void searchPayments(FilterProto request, StreamObserver<SearchPaymentsResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ProjectPaymentProto> result = searchBundle.search(filter, (rs, _i) -> {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchPaymentsResponse.Builder response = SearchPaymentsResponse.newBuilder();
+        searchBundle.search(filter, (rs, _i) -> {
             ProjectPaymentProto.Builder builder = ProjectPaymentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, "project_payment_id", builder::setId);
             ResultSetHelper.applyResultSetLong(rs, "resource_id", builder::setResourceId);
@@ -310,8 +305,8 @@ public class PaymentService extends PaymentServiceGrpc.PaymentServiceImplBase {
             ResultSetHelper.applyResultSetLong(rs, "pacts_payment_type_id", pBuilder::setPactsPaymentTypeId);
             builder.setProjectPaymentType(pBuilder.build());
             return builder.build();
-        });
-        responseObserver.onNext(SearchPaymentsResponse.newBuilder().addAllPayments(result).build());
+        }, response::addAllPayments);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
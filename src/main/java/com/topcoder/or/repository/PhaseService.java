@@ -48,10 +48,9 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 SELECT project_id FROM project WHERE project_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getProjectIdsCount());
-        List<Long> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return rs.getLong(1);
-        }, request.getProjectIdsList().toArray());
+        }, request.getProjectIdsList());
         responseObserver.onNext(ProjectIdsProto.newBuilder().addAllProjectIds(result).build());
         responseObserver.onCompleted();
     }
@@ -68,8 +67,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
                 JOIN phase_status_lu ON phase_status_lu.phase_status_id = project_phase.phase_status_id
                 WHERE project_id IN
                 """;
-        String inSql = " (%s)".formatted(Helper.getInClause(request.getProjectIdsCount()));
-        List<PhaseProto> result = dbAccessor.executeQuery(sql.concat(inSql), (rs, _i) -> {
+        List<PhaseProto> result = dbAccessor.executeInQuery(sql.concat(" (%s)"), (rs, _i) -> {
             PhaseProto.Builder builder = PhaseProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setProjectPhaseId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setProjectId);
@@ -86,7 +84,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
             ResultSetHelper.applyResultSetLong(rs, 13, builder::setPhaseStatusId);
             ResultSetHelper.applyResultSetString(rs, 14, builder::setPhaseStatusName);
             return builder.build();
-        }, request.getProjectIdsList().toArray());
+        }, request.getProjectIdsList());
         responseObserver.onNext(GetPhasesResponse.newBuilder().addAllPhases(result).build());
         responseObserver.onCompleted();
     }
@@ -98,13 +96,12 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 SELECT project_phase_id, project_id FROM project_phase WHERE project_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getPhaseIdsCount());
-        List<PhaseIdProjectIdProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<PhaseIdProjectIdProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             PhaseIdProjectIdProto.Builder builder = PhaseIdProjectIdProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setProjectPhaseId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setProjectId);
             return builder.build();
-        }, request.getPhaseIdsList().toArray());
+        }, request.getPhaseIdsList());
         responseObserver.onNext(GetProjectIdsByPhaseIdsResponse.newBuilder().addAllPhaseIds(result).build());
         responseObserver.onCompleted();
     }
@@ -120,15 +117,14 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
                 JOIN project_phase ON phase_criteria.project_phase_id = project_phase.project_phase_id
                 WHERE project_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getProjectIdsCount());
-        List<PhaseCriteriaProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<PhaseCriteriaProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             PhaseCriteriaProto.Builder builder = PhaseCriteriaProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setProjectPhaseId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setPhaseCriteriaTypeId);
             ResultSetHelper.applyResultSetString(rs, 3, builder::setCriteriaName);
             ResultSetHelper.applyResultSetString(rs, 4, builder::setParameter);
             return builder.build();
-        }, request.getProjectIdsList().toArray());
+        }, request.getProjectIdsList());
         responseObserver.onNext(GetPhaseCriteriasResponse.newBuilder().addAllPhaseCriteria(result).build());
         responseObserver.onCompleted();
     }
@@ -164,8 +160,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
                 JOIN project_phase ON dependent_phase_id = project_phase_id
                 WHERE project_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getProjectIdsCount());
-        List<PhaseDependencyProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<PhaseDependencyProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             PhaseDependencyProto.Builder builder = PhaseDependencyProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setDependencyPhaseId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setDependentPhaseId);
@@ -173,7 +168,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
             ResultSetHelper.applyResultSetBool(rs, 4, builder::setDependentStart);
             ResultSetHelper.applyResultSetLong(rs, 5, builder::setLagTime);
             return builder.build();
-        }, request.getProjectIdsList().toArray());
+        }, request.getProjectIdsList());
         responseObserver.onNext(GetPhaseDependenciesResponse.newBuilder().addAllPhaseDependencies(result).build());
         responseObserver.onCompleted();
     }
@@ -309,18 +304,23 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         validateUpdatePhaseRequest(request);
         Date now = new Date();
         Timestamp nowTs = Timestamp.newBuilder().setSeconds(now.toInstant().getEpochSecond()).build();
-        Map<Long, PhaseProto> oldPhases = getPhaseMapForUpdateAudit(
-                request.getPhasesList().stream().map(PhaseProto::getProjectPhaseId).toList());
-        for (PhaseProto phase : request.getPhasesList()) {
-            updatePhase(phase, request.getOperator(), now);
-            PhaseProto oldPhase = oldPhases.get(phase.getProjectPhaseId());
-            if (oldPhase.getScheduledStartTime().getSeconds() != phase.getScheduledStartTime().getSeconds()
-                    || oldPhase.getScheduledEndTime().getSeconds() != phase.getScheduledEndTime().getSeconds()) {
-                auditProjectPhase(phase.getProjectPhaseId(), AUDIT_UPDATE_TYPE,
-                        Helper.convertDate(phase.getScheduledStartTime()),
-                        Helper.convertDate(phase.getScheduledEndTime()), Long.parseLong(request.getOperator()), now);
+        dbAccessor.executeInUnitOfWork(() -> {
+            Map<Long, PhaseProto> oldPhases = getPhaseMapForUpdateAudit(
+                    request.getPhasesList().stream().map(PhaseProto::getProjectPhaseId).toList());
+            updatePhases(request.getPhasesList(), request.getOperator(), now);
+            List<Object[]> audits = new ArrayList<>();
+            for (PhaseProto phase : request.getPhasesList()) {
+                PhaseProto oldPhase = oldPhases.get(phase.getProjectPhaseId());
+                if (oldPhase.getScheduledStartTime().getSeconds() != phase.getScheduledStartTime().getSeconds()
+                        || oldPhase.getScheduledEndTime().getSeconds() != phase.getScheduledEndTime().getSeconds()) {
+                    audits.add(projectPhaseAudit(phase.getProjectPhaseId(), AUDIT_UPDATE_TYPE,
+                            Helper.convertDate(phase.getScheduledStartTime()),
+                            Helper.convertDate(phase.getScheduledEndTime()), Long.parseLong(request.getOperator()),
+                            now));
+                }
             }
-        }
+            auditProjectPhases(audits);
+        });
         responseObserver
                 .onNext(UpdatePhaseResponse.newBuilder().setModifyDate(nowTs).build());
         responseObserver.onCompleted();
@@ -374,11 +374,8 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 DELETE FROM phase_dependency WHERE dependent_phase_id = ? AND dependency_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getDependencyPhaseIdsCount());
-        List<Object> param = new ArrayList<>();
-        param.add(request.getDependentPhaseId());
-        param.addAll(request.getDependencyPhaseIdsList());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), param.toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getDependencyPhaseIdsList(),
+                request.getDependentPhaseId());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -390,11 +387,8 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 DELETE FROM phase_criteria WHERE project_phase_id = ? AND phase_criteria_type_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getPhaseCriteriaTypeIdsCount());
-        List<Object> param = new ArrayList<>();
-        param.add(request.getProjectPhaseId());
-        param.addAll(request.getPhaseCriteriaTypeIdsList());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), param.toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getPhaseCriteriaTypeIdsList(),
+                request.getProjectPhaseId());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -420,51 +414,67 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
                 FROM project_phase
                 WHERE project_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(phaseIds.size());
-        List<PhaseProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<PhaseProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             PhaseProto.Builder builder = PhaseProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setProjectPhaseId);
             ResultSetHelper.applyResultSetTimestamp(rs, 2, builder::setScheduledStartTime);
             ResultSetHelper.applyResultSetTimestamp(rs, 3, builder::setScheduledEndTime);
             return builder.build();
-        }, phaseIds.toArray());
+        }, phaseIds);
         return result.stream().collect(Collectors.toMap(p -> p.getProjectPhaseId(), p -> p));
     }
 
-    private void updatePhase(PhaseProto phase, String operator, Date modifyDate) {
+    private void updatePhases(List<PhaseProto> phases, String operator, Date modifyDate) {
         String sql = """
                 UPDATE project_phase SET project_id = ?, phase_type_id = ?, phase_status_id = ?, fixed_start_time = ?, scheduled_start_time = ?,
                 scheduled_end_time = ?, actual_start_time = ?, actual_end_time = ?, duration = ?, modify_user = ?, modify_date = ?
                 WHERE project_phase_id = ?
                 """;
-        final Date fixedStartTime = Helper.extractDate(phase::hasFixedStartTime, phase::getFixedStartTime);
-        final Date actualStartTime = Helper.extractDate(phase::hasActualStartTime, phase::getActualStartTime);
-        final Date actualEndTime = Helper.extractDate(phase::hasActualEndTime, phase::getActualEndTime);
-        dbAccessor.executeUpdate(sql, phase.getProjectId(), phase.getPhaseTypeId(), phase.getPhaseStatusId(),
-                fixedStartTime, Helper.convertDate(phase.getScheduledStartTime()),
-                Helper.convertDate(phase.getScheduledEndTime()), actualStartTime, actualEndTime, phase.getDuration(),
-                operator, modifyDate, phase.getProjectPhaseId());
+        List<Object[]> rows = new ArrayList<>(phases.size());
+        for (PhaseProto phase : phases) {
+            final Date fixedStartTime = Helper.extractDate(phase::hasFixedStartTime, phase::getFixedStartTime);
+            final Date actualStartTime = Helper.extractDate(phase::hasActualStartTime, phase::getActualStartTime);
+            final Date actualEndTime = Helper.extractDate(phase::hasActualEndTime, phase::getActualEndTime);
+            rows.add(new Object[] { phase.getProjectId(), phase.getPhaseTypeId(), phase.getPhaseStatusId(),
+                    fixedStartTime, Helper.convertDate(phase.getScheduledStartTime()),
+                    Helper.convertDate(phase.getScheduledEndTime()), actualStartTime, actualEndTime,
+                    phase.getDuration(), operator, modifyDate, phase.getProjectPhaseId() });
+        }
+        dbAccessor.batchUpdate(sql, rows);
     }
 
     private void auditProjectPhase(long phaseId, int auditType, Date scheduledStartTime, Date scheduledEndTime,
             Long auditUser, Date auditTime) {
+        auditProjectPhases(List.<Object[]>of(
+                projectPhaseAudit(phaseId, auditType, scheduledStartTime, scheduledEndTime, auditUser, auditTime)));
+    }
+
+    private void auditProjectPhases(List<Object[]> audits) {
         String sql = """
                 INSERT INTO project_phase_audit (project_phase_id, scheduled_start_time, scheduled_end_time, audit_action_type_id, action_date, action_user_id)
                 VALUES (?, ?, ?, ?, ?, ?)
                 """;
-        dbAccessor.executeUpdate(sql, phaseId, scheduledStartTime, scheduledEndTime, auditType, auditTime, auditUser);
+        dbAccessor.batchUpdate(sql, audits);
+    }
+
+    private Object[] projectPhaseAudit(long phaseId, int auditType, Date scheduledStartTime, Date scheduledEndTime,
+            Long auditUser, Date auditTime) {
+        return new Object[] { phaseId, scheduledStartTime, scheduledEndTime, auditType, auditTime, auditUser };
     }
 
     private int deletePhaseDependency(List<Long> phaseIds) {
         if (phaseIds.isEmpty()) {
             return 0;
         }
+        // one IN list per statement, a row matching both is deleted by the first
         String sql = """
-                DELETE FROM phase_dependency WHERE dependency_phase_id IN (%s) OR dependent_phase_id IN (%s)
+                DELETE FROM phase_dependency WHERE dependency_phase_id IN (%s)
+                """;
+        int affected = dbAccessor.executeInUpdate(sql, phaseIds);
+        sql = """
+                DELETE FROM phase_dependency WHERE dependent_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(phaseIds.size());
-        phaseIds.addAll(phaseIds);
-        return dbAccessor.executeUpdate(sql.formatted(inSql, inSql), phaseIds.toArray());
+        return affected + dbAccessor.executeInUpdate(sql, phaseIds);
     }
 
     private int deletePhaseCriteria(List<Long> phaseIds) {
@@ -474,8 +484,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 DELETE FROM phase_criteria WHERE project_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(phaseIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), phaseIds.toArray());
+        return dbAccessor.executeInUpdate(sql, phaseIds);
     }
 
     private int deletePhaseAudit(List<Long> phaseIds) {
@@ -485,8 +494,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 DELETE FROM project_phase_audit WHERE project_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(phaseIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), phaseIds.toArray());
+        return dbAccessor.executeInUpdate(sql, phaseIds);
     }
 
     private int deletePhase(List<Long> phaseIds) {
@@ -496,8 +504,7 @@ public class PhaseService extends PhaseServiceGrpc.PhaseServiceImplBase {
         String sql = """
                 DELETE FROM project_phase WHERE project_phase_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(phaseIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), phaseIds.toArray());
+        return dbAccessor.executeInUpdate(sql, phaseIds);
     }
 
     private void validateProjectIdsProto(ProjectIdsProto request) {
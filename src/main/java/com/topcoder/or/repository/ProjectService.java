@@ -1,16 +1,16 @@
 package com.topcoder.or.repository;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.google.protobuf.Empty;
 import com.google.protobuf.Timestamp;
 import com.topcoder.onlinereview.component.id.DBHelper;
@@ -19,8 +19,12 @@ import com.topcoder.onlinereview.component.search.SearchBundle;
 import com.topcoder.onlinereview.component.search.SearchBundleManager;
 import com.topcoder.onlinereview.component.search.filter.Filter;
 import com.topcoder.onlinereview.grpc.project.proto.*;
+import com.topcoder.or.util.ColumnMapper;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
 import com.topcoder.or.util.Helper;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
 import com.topcoder.or.util.ResultSetHelper;
 import com.topcoder.or.util.SearchBundleHelper;
 
@@ -37,6 +41,32 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
     private static final int AUDIT_CREATE_TYPE = 1;
     private static final int AUDIT_DELETE_TYPE = 2;
     private static final int AUDIT_UPDATE_TYPE = 3;
+    private static final int PROJECT_INFO_LOCK_WAIT_SECONDS = 10;
+    private static final String INSERT_PROJECT_AUDIT_SQL = """
+            INSERT INTO project_audit (project_audit_id, project_id, update_reason, create_user, create_date, modify_user, modify_date)
+            VALUES (?, ?, ?, ?, CURRENT, ?, CURRENT)
+            """;
+    private static final ColumnMapper<ProjectProto.Builder> PROJECT_COLUMNS = new ColumnMapper<ProjectProto.Builder>()
+            .longColumn("project_id", ProjectProto.Builder::setId)
+            .nested(new ColumnMapper<ProjectStatusProto.Builder>()
+                    .longColumn("project_status_id", ProjectStatusProto.Builder::setId)
+                    .stringColumn("project_status_name", ProjectStatusProto.Builder::setName),
+                    ProjectStatusProto::newBuilder, ProjectStatusProto.Builder::build,
+                    ProjectProto.Builder::setProjectStatus)
+            .nested(new ColumnMapper<ProjectCategoryProto.Builder>()
+                    .longColumn("project_category_id", ProjectCategoryProto.Builder::setId)
+                    .stringColumn("project_category_name", ProjectCategoryProto.Builder::setName)
+                    .nested(new ColumnMapper<ProjectTypeProto.Builder>()
+                            .longColumn("project_type_id", ProjectTypeProto.Builder::setId)
+                            .stringColumn("project_type_name", ProjectTypeProto.Builder::setName),
+                            ProjectTypeProto::newBuilder, ProjectTypeProto.Builder::build,
+                            ProjectCategoryProto.Builder::setProjectType),
+                    ProjectCategoryProto::newBuilder, ProjectCategoryProto.Builder::build,
+                    ProjectProto.Builder::setProjectCategory)
+            .stringColumn("create_user", ProjectProto.Builder::setCreateUser)
+            .timestampColumn("create_date", ProjectProto.Builder::setCreateDate)
+            .stringColumn("modify_user", ProjectProto.Builder::setModifyUser)
+            .timestampColumn("modify_date", ProjectProto.Builder::setModifyDate);
 
     private SearchBundle searchBundle;
     private IDGenerator projectIdGenerator;
@@ -130,16 +160,20 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
         }
         sql = sql
                 + " GROUP BY p.project_category_id, cat.name, typ.project_type_id, typ.name ORDER BY typ.name, cat.name";
-        List<Map<String, Object>> rows = dbAccessor.executeQuery(sql, argsList.toArray());
+        ResultRows rows = dbAccessor.executeQueryForRows(sql, argsList.toArray());
         List<UserProjectTypeProto> projectTypes = new ArrayList<>();
         Map<Long, UserProjectTypeProto.Builder> map = new HashMap<>();
+        int projectTypeIdColumn = rows.column("project_type_id");
+        int typeNameColumn = rows.column("type_name");
+        int projectCategoryIdColumn = rows.column("project_category_id");
+        int catNameColumn = rows.column("cat_name");
+        int countColumn = rows.column("p_count");
         for (int i = 0; i < rows.size(); ++i) {
-            Map<String, Object> row = rows.get(i);
-            long projectTypeId = Long.valueOf(row.get("project_type_id").toString());
-            String projectTypeName = row.get("type_name").toString();
-            long projectCategoryId = Long.valueOf(row.get("project_category_id").toString());
-            String projectCategoryName = row.get("cat_name").toString();
-            int count = Integer.valueOf(row.get("p_count").toString());
+            long projectTypeId = rows.getLong(i, projectTypeIdColumn);
+            String projectTypeName = rows.getString(i, typeNameColumn);
+            long projectCategoryId = rows.getLong(i, projectCategoryIdColumn);
+            String projectCategoryName = rows.getString(i, catNameColumn);
+            int count = rows.getInt(i, countColumn);
             UserProjectTypeProto.Builder pt = map.get(projectTypeId);
             if (pt == null) {
                 pt = UserProjectTypeProto.newBuilder().setId(projectTypeId).setName(projectTypeName);
@@ -188,7 +222,8 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
         }
         sql = sql
                 + " ORDER BY p.project_id DESC";
-        List<ProjectProto> result = dbAccessor.executeQuery(sql, (rs, _i) -> {
+        GetAllProjectsResponse.Builder response = GetAllProjectsResponse.newBuilder();
+        dbAccessor.executeQuery(QueryProfile.BULK_READ, sql, rs -> {
             ProjectProto.Builder builder = ProjectProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setId);
             ProjectPropertyProto.Builder p1Builder = ProjectPropertyProto.newBuilder();
@@ -207,9 +242,9 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
             p4Builder.setName("Winner External Reference ID");
             ResultSetHelper.applyResultSetString(rs, 5, p4Builder::setValue);
             builder.addProperties(p4Builder.build());
-            return builder.build();
+            response.addProjects(builder.build());
         }, argsList.toArray());
-        responseObserver.onNext(GetAllProjectsResponse.newBuilder().addAllProjects(result).build());
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
@@ -233,28 +268,9 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
 
     @Override
     public void searchProjects(FilterProto request, StreamObserver<SearchProjectsResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ProjectProto.Builder> projects = searchBundle.search(filter, (rs, _i) -> {
-            ProjectProto.Builder builder = ProjectProto.newBuilder();
-            ResultSetHelper.applyResultSetLong(rs, "project_id", builder::setId);
-            ProjectStatusProto.Builder psBuilder = ProjectStatusProto.newBuilder();
-            ResultSetHelper.applyResultSetLong(rs, "project_status_id", psBuilder::setId);
-            ResultSetHelper.applyResultSetString(rs, "project_status_name", psBuilder::setName);
-            builder.setProjectStatus(psBuilder.build());
-            ProjectCategoryProto.Builder pcBuilder = ProjectCategoryProto.newBuilder();
-            ResultSetHelper.applyResultSetLong(rs, "project_category_id", pcBuilder::setId);
-            ResultSetHelper.applyResultSetString(rs, "project_category_name", pcBuilder::setName);
-            ProjectTypeProto.Builder ptBuilder = ProjectTypeProto.newBuilder();
-            ResultSetHelper.applyResultSetLong(rs, "project_type_id", ptBuilder::setId);
-            ResultSetHelper.applyResultSetString(rs, "project_type_name", ptBuilder::setName);
-            pcBuilder.setProjectType(ptBuilder.build());
-            builder.setProjectCategory(pcBuilder.build());
-            ResultSetHelper.applyResultSetString(rs, "create_user", builder::setCreateUser);
-            ResultSetHelper.applyResultSetTimestamp(rs, "create_date", builder::setCreateDate);
-            ResultSetHelper.applyResultSetString(rs, "modify_user", builder::setModifyUser);
-            ResultSetHelper.applyResultSetTimestamp(rs, "modify_date", builder::setModifyDate);
-            return builder;
-        });
+        Filter filter = FilterCodec.decode(request.getFilter());
+        List<ProjectProto.Builder> projects = searchBundle.search(filter,
+                PROJECT_COLUMNS.rowMapper(ProjectProto::newBuilder, builder -> builder));
         List<Long> projectIds = projects.stream().map(x -> x.getId()).collect(Collectors.toList());
         List<ProjectPropertyProto> properties = getProjectsProperties(projectIds);
         Map<Long, List<ProjectPropertyProto>> propertyListMap = new HashMap<>();
@@ -287,27 +303,31 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
             propertyTypeNameIdMap = makePropertyNamePropertyIdMap(getAllProjectPropertyTypes());
         }
         validateCreateProjectRequest(request, propertyTypeNameIdMap);
-        ProjectProto.Builder pBuilder = createProject(request.getProject(), request.getOperator());
-        if (request.getProject().getPropertiesCount() > 0) {
-            createProjectProperties(pBuilder.getId(), request.getOperator(), request.getProject().getPropertiesList(),
-                    propertyTypeNameIdMap);
-        }
-        if (request.getProject().getFileTypesCount() > 0) {
-            pBuilder.clearFileTypes();
-            pBuilder.addAllFileTypes(
-                    createProjectFileTypes(pBuilder.getId(), request.getProject().getFileTypesList(),
-                            request.getOperator()));
-        }
-        if (request.getProject().getPrizesCount() > 0) {
-            pBuilder.clearPrizes();
-            pBuilder.addAllPrizes(
-                    createProjectPrizes(pBuilder.getId(), request.getProject().getPrizesList(), request.getOperator()));
-        }
-        if (request.getProject().hasProjectStudioSpec()) {
-            pBuilder.setProjectStudioSpec(createProjectStudioSpec(pBuilder.getId(),
-                    request.getProject().getProjectStudioSpec(), request.getOperator()));
-        }
-        responseObserver.onNext(pBuilder.build());
+        final Map<String, Long> nameIdMap = propertyTypeNameIdMap;
+        ProjectProto project = dbAccessor.executeInUnitOfWork(() -> {
+            ProjectProto.Builder pBuilder = createProject(request.getProject(), request.getOperator());
+            if (request.getProject().getPropertiesCount() > 0) {
+                createProjectProperties(pBuilder.getId(), request.getOperator(),
+                        request.getProject().getPropertiesList(), nameIdMap);
+            }
+            if (request.getProject().getFileTypesCount() > 0) {
+                pBuilder.clearFileTypes();
+                pBuilder.addAllFileTypes(
+                        createProjectFileTypes(pBuilder.getId(), request.getProject().getFileTypesList(),
+                                request.getOperator()));
+            }
+            if (request.getProject().getPrizesCount() > 0) {
+                pBuilder.clearPrizes();
+                pBuilder.addAllPrizes(createProjectPrizes(pBuilder.getId(), request.getProject().getPrizesList(),
+                        request.getOperator()));
+            }
+            if (request.getProject().hasProjectStudioSpec()) {
+                pBuilder.setProjectStudioSpec(createProjectStudioSpec(pBuilder.getId(),
+                        request.getProject().getProjectStudioSpec(), request.getOperator()));
+            }
+            return pBuilder.build();
+        });
+        responseObserver.onNext(project);
         responseObserver.onCompleted();
     }
 
@@ -318,27 +338,32 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
             propertyTypeNameIdMap = makePropertyNamePropertyIdMap(getAllProjectPropertyTypes());
         }
         validateUpdateProjectRequest(request, propertyTypeNameIdMap);
-        ProjectProto.Builder pBuilder = updateProject(request.getProject(), request.getReason(), request.getOperator());
-        if (request.getProject().getPropertiesCount() > 0) {
-            updateProjectProperties(pBuilder.getId(), request.getOperator(), request.getProject().getPropertiesList(),
-                    propertyTypeNameIdMap);
-        }
-        if (request.getProject().getFileTypesCount() > 0) {
-            pBuilder.clearFileTypes();
-            pBuilder.addAllFileTypes(
-                    updateProjectFileTypes(pBuilder.getId(), request.getProject().getFileTypesList(),
-                            request.getOperator()));
-        }
-        if (request.getProject().getPrizesCount() > 0) {
-            pBuilder.clearPrizes();
-            pBuilder.addAllPrizes(
-                    updateProjectPrizes(pBuilder.getId(), request.getProject().getPrizesList(), request.getOperator()));
-        }
-        if (request.getProject().hasProjectStudioSpec()) {
-            pBuilder.setProjectStudioSpec(updateProjectStudioSpec(pBuilder.getId(),
-                    request.getProject().getProjectStudioSpec(), request.getOperator()));
-        }
-        responseObserver.onNext(pBuilder.build());
+        final Map<String, Long> nameIdMap = propertyTypeNameIdMap;
+        ProjectProto project = dbAccessor.executeInUnitOfWork(() -> {
+            ProjectProto.Builder pBuilder = updateProject(request.getProject(), request.getReason(),
+                    request.getOperator());
+            if (request.getProject().getPropertiesCount() > 0) {
+                updateProjectProperties(pBuilder.getId(), request.getOperator(),
+                        request.getProject().getPropertiesList(), nameIdMap);
+            }
+            if (request.getProject().getFileTypesCount() > 0) {
+                pBuilder.clearFileTypes();
+                pBuilder.addAllFileTypes(
+                        updateProjectFileTypes(pBuilder.getId(), request.getProject().getFileTypesList(),
+                                request.getOperator()));
+            }
+            if (request.getProject().getPrizesCount() > 0) {
+                pBuilder.clearPrizes();
+                pBuilder.addAllPrizes(updateProjectPrizes(pBuilder.getId(), request.getProject().getPrizesList(),
+                        request.getOperator()));
+            }
+            if (request.getProject().hasProjectStudioSpec()) {
+                pBuilder.setProjectStudioSpec(updateProjectStudioSpec(pBuilder.getId(),
+                        request.getProject().getProjectStudioSpec(), request.getOperator()));
+            }
+            return pBuilder.build();
+        });
+        responseObserver.onNext(project);
         responseObserver.onCompleted();
     }
 
@@ -705,8 +730,7 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
                 LEFT OUTER JOIN tc_direct_project AS tcdp ON tcdp.project_id=project.tc_direct_project_id
                 WHERE project.project_id IN
                 """;
-        String inSql = " (%s)".formatted(Helper.getInClause(projectIds.size()));
-        return dbAccessor.executeQuery(sql.concat(inSql), (rs, _i) -> {
+        return dbAccessor.executeInQuery(sql.concat(" (%s)"), (rs, _i) -> {
             ProjectProto.Builder builder = ProjectProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setId);
             ProjectStatusProto.Builder psBuilder = ProjectStatusProto.newBuilder();
@@ -729,7 +753,7 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
             ResultSetHelper.applyResultSetLong(rs, 13, builder::setDirectProjectId);
             ResultSetHelper.applyResultSetString(rs, 14, builder::setTcDirectProjectName);
             return builder;
-        }, projectIds.toArray());
+        }, projectIds);
     }
 
     private ProjectProto.Builder createProject(ProjectProto project, String operator) {
@@ -769,42 +793,60 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
                 JOIN project_info_type_lu AS info_type ON info.project_info_type_id=info_type.project_info_type_id
                 WHERE info.project_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(projectIds.size());
-        return dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        return dbAccessor.executeInQuery(sql, (rs, _i) -> {
             ProjectPropertyProto.Builder builder = ProjectPropertyProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setProjectId);
             ResultSetHelper.applyResultSetString(rs, 2, builder::setName);
             ResultSetHelper.applyResultSetString(rs, 3, builder::setValue);
             return builder.build();
-        }, projectIds.toArray());
+        }, projectIds);
     }
 
     private void createProjectProperties(long projectId, String operator, List<ProjectPropertyProto> properties,
             Map<String, Long> nameIdMap) {
+        List<Map.Entry<Long, String>> values = new ArrayList<>(properties.size());
         for (ProjectPropertyProto property : properties) {
-            createProjectProperty(projectId, operator, nameIdMap.get(property.getName()), property.getValue());
+            values.add(propertyValue(nameIdMap.get(property.getName()), property.getValue()));
         }
+        createProjectProperties(projectId, operator, values);
+    }
+
+    /**
+     * Returns a property type id with its value, which may be null.
+     */
+    private static Map.Entry<Long, String> propertyValue(long propertyTypeId, String value) {
+        return new AbstractMap.SimpleImmutableEntry<>(propertyTypeId, value);
     }
 
-    private int createProjectProperty(long projectId, String operator, long propertyTypeId, String value) {
+    private int createProjectProperties(long projectId, String operator, List<Map.Entry<Long, String>> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
         String sql = """
-                SET LOCK MODE TO WAIT 10;
                 INSERT INTO project_info (project_id, project_info_type_id, value, create_user, create_date, modify_user, modify_date)
-                VALUES (?, ?, ?, ?, CURRENT, ?, CURRENT);
-                SET LOCK MODE TO NOT WAIT;
+                VALUES (?, ?, ?, ?, CURRENT, ?, CURRENT)
                 """;
-        int affected = dbAccessor.executeUpdate(sql, projectId, propertyTypeId, value, operator, operator);
-        auditProjectInfo(projectId, AUDIT_CREATE_TYPE, propertyTypeId, value, operator);
-        return affected;
+        List<Object[]> rows = new ArrayList<>(values.size());
+        values.forEach(entry -> rows.add(
+                new Object[] { projectId, entry.getKey(), entry.getValue(), operator, operator }));
+        int[] affected = dbAccessor.batchUpdate(sql, rows, PROJECT_INFO_LOCK_WAIT_SECONDS);
+        auditProjectInfo(projectId, AUDIT_CREATE_TYPE, values, operator);
+        return DBAccessor.sumUpdateCounts(affected);
     }
 
-    private int updateProjectProperty(long projectId, long propertyTypeId, String value, String operator) {
+    private int updateProjectProperties(long projectId, String operator, List<Map.Entry<Long, String>> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
         String sql = """
                 UPDATE project_info SET value=?, modify_user=?, modify_date=CURRENT WHERE project_id=? AND project_info_type_id=?
                 """;
-        int affected = dbAccessor.executeUpdate(sql, value, operator, projectId, propertyTypeId);
-        auditProjectInfo(projectId, AUDIT_UPDATE_TYPE, propertyTypeId, value, operator);
-        return affected;
+        List<Object[]> rows = new ArrayList<>(values.size());
+        values.forEach(entry -> rows.add(
+                new Object[] { entry.getValue(), operator, projectId, entry.getKey() }));
+        int[] affected = dbAccessor.batchUpdate(sql, rows);
+        auditProjectInfo(projectId, AUDIT_UPDATE_TYPE, values, operator);
+        return DBAccessor.sumUpdateCounts(affected);
     }
 
     private int deleteProjectProperties(long projectId, List<Long> propertyIds, String operator) {
@@ -815,31 +857,33 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
                 DELETE FROM project_info
                 WHERE project_id=? AND project_info_type_id IN (%s)
                     """;
-        String inSql = Helper.getInClause(propertyIds.size());
-        List<Object> param = new ArrayList<>();
-        param.add(projectId);
-        param.addAll(propertyIds);
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), param.toArray());
+        int affected = dbAccessor.executeInUpdate(sql, propertyIds, projectId);
+        List<Map.Entry<Long, String>> values = new ArrayList<>(propertyIds.size());
         for (Long id : propertyIds) {
-            auditProjectInfo(projectId, AUDIT_DELETE_TYPE, id, null, operator);
+            values.add(propertyValue(id, null));
         }
+        auditProjectInfo(projectId, AUDIT_DELETE_TYPE, values, operator);
         return affected;
     }
 
     private void updateProjectProperties(long projectId, String operator, List<ProjectPropertyProto> properties,
             Map<String, Long> nameIdMap) {
         Map<Long, String> existent = makePropertyIdPropertyValueMap(getProjectPropertyIdValues(projectId));
+        List<Map.Entry<Long, String>> updated = new ArrayList<>();
+        List<Map.Entry<Long, String>> created = new ArrayList<>();
         for (ProjectPropertyProto property : properties) {
             long propertyId = nameIdMap.get(property.getName());
             if (existent.containsKey(propertyId)) {
                 if (!existent.get(propertyId).equals(property.getValue())) {
-                    updateProjectProperty(projectId, propertyId, property.getValue(), operator);
+                    updated.add(propertyValue(propertyId, property.getValue()));
                 }
                 existent.remove(propertyId);
             } else {
-                createProjectProperty(projectId, operator, propertyId, property.getValue());
+                created.add(propertyValue(propertyId, property.getValue()));
             }
         }
+        updateProjectProperties(projectId, operator, updated);
+        createProjectProperties(projectId, operator, created);
         if (!existent.isEmpty()) {
             deleteProjectProperties(projectId, new ArrayList<>(existent.keySet()), operator);
         }
@@ -893,44 +937,59 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
     private List<FileTypeProto> createProjectFileTypes(long projectId, List<FileTypeProto> fileTypes,
             String operator) {
         List<FileTypeProto> newFileTypes = new ArrayList<>();
+        long[] newIds = fileTypeIdGenerator.reserve(countNew(fileTypes, FileTypeProto::getId));
+        int next = 0;
         for (FileTypeProto fileType : fileTypes) {
-            long id = fileType.getId();
-            if (id == 0) {
-                FileTypeProto created = createFileType(fileType, operator);
-                id = created.getId();
-                newFileTypes.add(created);
+            if (fileType.getId() == 0) {
+                newFileTypes.add(createFileType(fileType, newIds[next++], operator));
             } else {
                 newFileTypes.add(fileType);
             }
-            createProjectFileType(projectId, id);
         }
+        createProjectFileTypes(projectId, newFileTypes);
         return newFileTypes;
     }
 
-    private int createProjectFileType(long projectId, long fileTypeId) {
+    /**
+     * Returns the number of items without an id yet, which get one when they are
+     * created.
+     */
+    private static <T> int countNew(List<T> items, ToLongFunction<T> getId) {
+        int count = 0;
+        for (T item : items) {
+            if (getId.applyAsLong(item) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int createProjectFileTypes(long projectId, List<FileTypeProto> fileTypes) {
         String sql = """
                 INSERT INTO project_file_type_xref (project_id, file_type_id)
                 VALUES (?, ?)
                 """;
-        return dbAccessor.executeUpdate(sql, projectId, fileTypeId);
+        List<Object[]> rows = new ArrayList<>(fileTypes.size());
+        for (FileTypeProto fileType : fileTypes) {
+            rows.add(new Object[] { projectId, fileType.getId() });
+        }
+        return DBAccessor.sumUpdateCounts(dbAccessor.batchUpdate(sql, rows));
     }
 
     private List<FileTypeProto> updateProjectFileTypes(long projectId, List<FileTypeProto> fileTypes,
             String operator) {
         deleteProjectFileTypes(projectId);
         List<FileTypeProto> newFileTypes = new ArrayList<>();
+        long[] newIds = fileTypeIdGenerator.reserve(countNew(fileTypes, FileTypeProto::getId));
+        int next = 0;
         for (FileTypeProto fileType : fileTypes) {
-            long id = fileType.getId();
-            if (id == 0) {
-                FileTypeProto created = createFileType(fileType, operator);
-                id = created.getId();
-                newFileTypes.add(created);
+            if (fileType.getId() == 0) {
+                newFileTypes.add(createFileType(fileType, newIds[next++], operator));
             } else {
-                FileTypeProto updated = updateFileType(fileType, operator);
-                newFileTypes.add(updated);
+                newFileTypes.add(updateFileType(fileType, operator));
             }
-            createProjectFileType(projectId, id);
         }
+        createProjectFileTypes(projectId, newFileTypes);
         return newFileTypes;
     }
 
@@ -951,7 +1010,10 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
     }
 
     private FileTypeProto createFileType(FileTypeProto fileType, String operator) {
-        Long newId = fileTypeIdGenerator.getNextID();
+        return createFileType(fileType, fileTypeIdGenerator.getNextID(), operator);
+    }
+
+    private FileTypeProto createFileType(FileTypeProto fileType, long newId, String operator) {
         Date now = new Date();
         Timestamp nowTs = Timestamp.newBuilder().setSeconds(now.toInstant().getEpochSecond()).build();
         String sql = """
@@ -1012,9 +1074,12 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
 
     private List<PrizeProto> updateProjectPrizes(long projectId, List<PrizeProto> prizes, String operator) {
         List<PrizeProto> newPrizes = new ArrayList<>();
+        long[] newIds = prizeIdGenerator.reserve(countNew(prizes, PrizeProto::getId));
+        int next = 0;
         for (PrizeProto prize : prizes) {
             if (prize.getId() == 0) {
-                newPrizes.add(createPrize(projectId, prize, operator));
+                newPrizes.add(createProjectPrizes(projectId, List.of(prize), new long[] { newIds[next++] }, operator)
+                        .get(0));
             } else {
                 newPrizes.add(updatePrize(projectId, prize, operator));
             }
@@ -1024,25 +1089,36 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
     }
 
     private List<PrizeProto> createProjectPrizes(long projectId, List<PrizeProto> prizes, String operator) {
-        List<PrizeProto> newPrizes = new ArrayList<>();
-        for (PrizeProto prize : prizes) {
-            newPrizes.add(createPrize(projectId, prize, operator));
+        if (prizes.isEmpty()) {
+            return new ArrayList<>();
         }
-        return newPrizes;
+        return createProjectPrizes(projectId, prizes, prizeIdGenerator.reserve(prizes.size()), operator);
     }
 
-    private PrizeProto createPrize(long projectId, PrizeProto prize, String operator) {
-        Long newId = prizeIdGenerator.getNextID();
+    private List<PrizeProto> createProjectPrizes(long projectId, List<PrizeProto> prizes, long[] newIds,
+            String operator) {
         Date now = new Date();
         Timestamp nowTs = Timestamp.newBuilder().setSeconds(now.toInstant().getEpochSecond()).build();
         String sql = """
                 INSERT INTO prize (prize_id, project_id, place, prize_amount, prize_type_id, number_of_submissions, create_user, create_date, modify_user, modify_date)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        dbAccessor.executeUpdate(sql, newId, projectId, prize.getPlace(), prize.getPrizeAmount(),
-                prize.getPrizeType().getId(), prize.getNumberOfSubmissions(), operator, now, operator, now);
-        return PrizeProto.newBuilder(prize).setId(newId).setProjectId(projectId).setCreateUser(operator)
-                .setCreateDate(nowTs).setModifyUser(operator).setModifyDate(nowTs).build();
+        List<PrizeProto> newPrizes = new ArrayList<>(prizes.size());
+        List<Object[]> rows = new ArrayList<>(prizes.size());
+        for (int i = 0; i < prizes.size(); i++) {
+            PrizeProto prize = prizes.get(i);
+            long newId = newIds[i];
+            rows.add(new Object[] { newId, projectId, prize.getPlace(), prize.getPrizeAmount(),
+                    prize.getPrizeType().getId(), prize.getNumberOfSubmissions(), operator, now, operator, now });
+            newPrizes.add(PrizeProto.newBuilder(prize).setId(newId).setProjectId(projectId).setCreateUser(operator)
+                    .setCreateDate(nowTs).setModifyUser(operator).setModifyDate(nowTs).build());
+        }
+        dbAccessor.batchUpdate(sql, rows);
+        return newPrizes;
+    }
+
+    private PrizeProto createPrize(long projectId, PrizeProto prize, String operator) {
+        return createProjectPrizes(projectId, List.of(prize), operator).get(0);
     }
 
     private PrizeProto updatePrize(long projectId, PrizeProto prize, String operator) {
@@ -1244,27 +1320,36 @@ public class ProjectService extends ProjectServiceGrpc.ProjectServiceImplBase {
     }
 
     /* #region auditors */
-    private void auditProjects(List<Long> projectIds, String reason, String operator) {
-        for (long id : projectIds) {
-            auditProject(id, reason, operator);
+    private int auditProjects(List<Long> projectIds, String reason, String operator) {
+        if (projectIds.isEmpty()) {
+            return 0;
+        }
+        long[] newIds = projectAuditIdGenerator.reserve(projectIds.size());
+        List<Object[]> rows = new ArrayList<>(projectIds.size());
+        for (int i = 0; i < newIds.length; i++) {
+            rows.add(new Object[] { newIds[i], projectIds.get(i), reason, operator, operator });
         }
+        return DBAccessor.sumUpdateCounts(dbAccessor.batchUpdate(INSERT_PROJECT_AUDIT_SQL, rows));
     }
 
     private int auditProject(long projectId, String reason, String operator) {
         Long newId = projectAuditIdGenerator.getNextID();
-        String sql = """
-                INSERT INTO project_audit (project_audit_id, project_id, update_reason, create_user, create_date, modify_user, modify_date)
-                VALUES (?, ?, ?, ?, CURRENT, ?, CURRENT)
-                    """;
-        return dbAccessor.executeUpdate(sql, newId, projectId, reason, operator, operator);
+        return dbAccessor.executeUpdate(INSERT_PROJECT_AUDIT_SQL, newId, projectId, reason, operator, operator);
     }
 
-    private int auditProjectInfo(long projectId, int auditType, long typeId, String value, String operator) {
+    private int auditProjectInfo(long projectId, int auditType, List<Map.Entry<Long, String>> values,
+            String operator) {
+        if (values.isEmpty()) {
+            return 0;
+        }
         String sql = """
                 INSERT INTO project_info_audit (project_id, project_info_type_id, value, audit_action_type_id, action_date, action_user_id)
                 VALUES (?, ?, ?, ?, CURRENT, ?)
                 """;
-        return dbAccessor.executeUpdate(sql, projectId, typeId, value, auditType, operator);
+        List<Object[]> rows = new ArrayList<>(values.size());
+        values.forEach(entry -> rows.add(
+                new Object[] { projectId, entry.getKey(), entry.getValue(), auditType, operator }));
+        return DBAccessor.sumUpdateCounts(dbAccessor.batchUpdate(sql, rows));
     }
     /* #endregion */
 
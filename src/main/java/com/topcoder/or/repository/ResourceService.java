@@ -7,8 +7,6 @@ import java.util.List;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.google.protobuf.Empty;
 import com.topcoder.onlinereview.component.id.DBHelper;
 import com.topcoder.onlinereview.component.id.IDGenerator;
@@ -17,6 +15,7 @@ import com.topcoder.onlinereview.component.search.SearchBundleManager;
 import com.topcoder.onlinereview.component.search.filter.Filter;
 import com.topcoder.onlinereview.grpc.resource.proto.*;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
 import com.topcoder.or.util.Helper;
 import com.topcoder.or.util.ResultSetHelper;
 
@@ -86,9 +85,8 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
                 resource.create_user, resource.create_date, resource.modify_user, resource.modify_date
                 FROM resource WHERE resource.resource_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getResourceIdsCount());
-        List<ResourceProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> loadResource(rs),
-                request.getResourceIdsList().toArray());
+        List<ResourceProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> loadResource(rs),
+                request.getResourceIdsList());
         responseObserver.onNext(GetResourcesResponse.newBuilder().addAllResources(result).build());
         responseObserver.onCompleted();
     }
@@ -103,12 +101,8 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
                 FROM resource r
                 WHERE r.user_id = ? AND r.project_id IN (%s)
                     """;
-        String inSql = Helper.getInClause(request.getProjectIdsCount());
-        List<Object> param = new ArrayList<>();
-        param.add(request.getUserId());
-        param.addAll(request.getProjectIdsList());
-        List<ResourceProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> loadResource(rs),
-                param.toArray());
+        List<ResourceProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> loadResource(rs),
+                request.getProjectIdsList(), request.getUserId());
         responseObserver.onNext(GetResourcesResponse.newBuilder().addAllResources(result).build());
         responseObserver.onCompleted();
     }
@@ -122,13 +116,12 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
                 FROM resource_submission
                 WHERE resource_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getResourceIdsCount());
-        List<ResourceSubmissionProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ResourceSubmissionProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             ResourceSubmissionProto.Builder builder = ResourceSubmissionProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setResourceId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setSubmissionId);
             return builder.build();
-        }, request.getResourceIdsList().toArray());
+        }, request.getResourceIdsList());
         responseObserver.onNext(GetSubmissionsResponse.newBuilder().addAllSubmissions(result).build());
         responseObserver.onCompleted();
     }
@@ -161,15 +154,14 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
                 INNER JOIN resource_info_type_lu ON (resource_info.resource_info_type_id = resource_info_type_lu.resource_info_type_id)
                 WHERE resource_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getResourceIdsCount());
-        List<ResourceInfoProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ResourceInfoProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             ResourceInfoProto.Builder builder = ResourceInfoProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setResourceId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceInfoTypeId);
             ResultSetHelper.applyResultSetString(rs, 3, builder::setTypeName);
             ResultSetHelper.applyResultSetString(rs, 4, builder::setValue);
             return builder.build();
-        }, request.getResourceIdsList().toArray());
+        }, request.getResourceIdsList());
         responseObserver.onNext(GetResourceInfoResponse.newBuilder().addAllResourceInfo(result).build());
         responseObserver.onCompleted();
     }
@@ -262,9 +254,8 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
                 FROM notification_type_lu
                 WHERE notification_type_id IN (%s);
                 """;
-        String inSql = Helper.getInClause(request.getNotificationTypeIdsCount());
-        List<NotificationTypeProto> result = dbAccessor.executeQuery(sql.formatted(inSql),
-                (rs, _i) -> loadNotificationType(rs), request.getNotificationTypeIdsList().toArray());
+        List<NotificationTypeProto> result = dbAccessor.executeInQuery(sql,
+                (rs, _i) -> loadNotificationType(rs), request.getNotificationTypeIdsList());
         responseObserver.onNext(GetNotificationTypesResponse.newBuilder().addAllNotificationTypes(result).build());
         responseObserver.onCompleted();
     }
@@ -511,35 +502,39 @@ public class ResourceService extends ResourceServiceGrpc.ResourceServiceImplBase
 
     @Override
     public void searchResources(FilterProto request, StreamObserver<GetResourcesResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ResourceProto> result = resourceSearchBundle.search(filter, (rs, _i) -> loadResource(rs));
-        responseObserver.onNext(GetResourcesResponse.newBuilder().addAllResources(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetResourcesResponse.Builder response = GetResourcesResponse.newBuilder();
+        resourceSearchBundle.search(filter, (rs, _i) -> loadResource(rs), response::addAllResources);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchResourceRoles(FilterProto request, StreamObserver<GetResourceRolesReponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ResourceRoleProto> result = resourceRoleSearchBundle.search(filter, (rs, _i) -> loadResourceRole(rs));
-        responseObserver.onNext(GetResourceRolesReponse.newBuilder().addAllResourceRoles(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetResourceRolesReponse.Builder response = GetResourceRolesReponse.newBuilder();
+        resourceRoleSearchBundle.search(filter, (rs, _i) -> loadResourceRole(rs), response::addAllResourceRoles);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchNotifications(FilterProto request, StreamObserver<GetAllNotificationsResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<NotificationProto> result = notificationSearchBundle.search(filter, (rs, _i) -> loadNotification(rs));
-        responseObserver.onNext(GetAllNotificationsResponse.newBuilder().addAllNotifications(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetAllNotificationsResponse.Builder response = GetAllNotificationsResponse.newBuilder();
+        notificationSearchBundle.search(filter, (rs, _i) -> loadNotification(rs), response::addAllNotifications);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchNotificationTypes(FilterProto request,
             StreamObserver<GetNotificationTypesResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<NotificationTypeProto> result = notificationTypeSearchBundle.search(filter,
-                (rs, _i) -> loadNotificationType(rs));
-        responseObserver.onNext(GetNotificationTypesResponse.newBuilder().addAllNotificationTypes(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetNotificationTypesResponse.Builder response = GetNotificationTypesResponse.newBuilder();
+        notificationTypeSearchBundle.search(filter,
+                (rs, _i) -> loadNotificationType(rs), response::addAllNotificationTypes);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
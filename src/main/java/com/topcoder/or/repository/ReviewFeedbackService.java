@@ -2,7 +2,6 @@ package com.topcoder.or.repository;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 
 import com.topcoder.onlinereview.grpc.reviewfeedback.proto.*;
@@ -244,11 +243,8 @@ public class ReviewFeedbackService extends ReviewFeedbackServiceGrpc.ReviewFeedb
         String sql = """
                 DELETE FROM review_feedback_detail WHERE review_feedback_id = ? AND reviewer_user_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getReviewerUserIdsCount());
-        List<Object> param = new ArrayList<>();
-        param.add(request.getReviewFeedbackId());
-        param.addAll(request.getReviewerUserIdsList());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), param.toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getReviewerUserIdsList(),
+                request.getReviewFeedbackId());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -1,36 +1,67 @@
 package com.topcoder.or.repository;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.List;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.google.protobuf.Empty;
+import com.google.protobuf.Int64Value;
 import com.topcoder.onlinereview.component.id.DBHelper;
 import com.topcoder.onlinereview.component.id.IDGenerator;
 import com.topcoder.onlinereview.component.search.SearchBundle;
 import com.topcoder.onlinereview.component.search.SearchBundleManager;
+import com.topcoder.onlinereview.component.search.SearchPage;
 import com.topcoder.onlinereview.component.search.filter.Filter;
 import com.topcoder.onlinereview.grpc.review.proto.*;
+import com.topcoder.or.util.ColumnMapper;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
+import com.topcoder.or.util.GrpcMethods;
 import com.topcoder.or.util.Helper;
+import com.topcoder.or.util.QueryProfile;
 import com.topcoder.or.util.ResultSetHelper;
 import com.topcoder.or.util.SearchBundleHelper;
+import com.topcoder.or.util.SearchPageCodec;
+
+import org.springframework.jdbc.core.RowMapper;
 
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
 @GrpcService
-public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
+public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase implements GrpcMethods.Added {
     private final DBAccessor dbAccessor;
     private final DBHelper dbHelper;
     private final SearchBundleManager searchBundleManager;
 
     private static final String SEARCH_BUNDLE_NAME = "Review Search Bundle";
 
+    // the paged review search, not in the proto contract: see SearchPageCodec for its messages
+    public static final MethodDescriptor<SearchPageCodec.Request, SearchPageCodec.Response<GetReviewsResponse>> SEARCH_REVIEWS_PAGE_METHOD =
+            GrpcMethods.unary(ReviewServiceGrpc.SERVICE_NAME, "SearchReviewsPage", SearchPageCodec.requestMarshaller(),
+                    SearchPageCodec.responseMarshaller(GetReviewsResponse.getDefaultInstance()));
+    // the review count, not in the proto contract
+    public static final MethodDescriptor<FilterProto, Int64Value> COUNT_REVIEWS_METHOD = GrpcMethods.unary(
+            ReviewServiceGrpc.SERVICE_NAME, "CountReviews", FilterProto.getDefaultInstance(),
+            Int64Value.getDefaultInstance());
+
+    private static final ColumnMapper<ReviewProto.Builder> REVIEW_COLUMNS = new ColumnMapper<ReviewProto.Builder>()
+            .longColumn("review_id", ReviewProto.Builder::setReviewId)
+            .longColumn("resource_id", ReviewProto.Builder::setResourceId)
+            .longColumn("submission_id", ReviewProto.Builder::setSubmissionId)
+            .longColumn("project_phase_id", ReviewProto.Builder::setProjectPhaseId)
+            .longColumn("scorecard_id", ReviewProto.Builder::setScorecardId)
+            .boolColumn("committed", ReviewProto.Builder::setCommitted)
+            .doubleColumn("score", ReviewProto.Builder::setScore)
+            .doubleColumn("initial_score", ReviewProto.Builder::setInitialScore)
+            .stringColumn("create_user", ReviewProto.Builder::setCreateUser)
+            .timestampColumn("create_date", ReviewProto.Builder::setCreateDate)
+            .stringColumn("modify_user", ReviewProto.Builder::setModifyUser)
+            .timestampColumn("modify_date", ReviewProto.Builder::setModifyDate);
+
     private SearchBundle searchBundle;
     private IDGenerator reviewIDGenerator;
     private IDGenerator reviewCommentIDGenerator;
@@ -99,9 +130,8 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 FROM review
                 WHERE review_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> loadReview(rs),
-                request.getReviewIdsList().toArray());
+        List<ReviewProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, reviewMapper(sql),
+                request.getReviewIdsList());
         responseObserver.onNext(GetReviewsResponse.newBuilder().addAllReviews(result).build());
         responseObserver.onCompleted();
     }
@@ -115,8 +145,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 WHERE review_id IN (%s)
                 ORDER BY review_id, sort
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewCommentProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ReviewCommentProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, (rs, _i) -> {
             ReviewCommentProto.Builder builder = ReviewCommentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setReviewCommentId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceId);
@@ -125,7 +154,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
             ResultSetHelper.applyResultSetString(rs, 5, builder::setContent);
             ResultSetHelper.applyResultSetString(rs, 6, builder::setExtraInfo);
             return builder.build();
-        }, request.getReviewIdsList().toArray());
+        }, request.getReviewIdsList());
         responseObserver.onNext(GetReviewCommentsResponse.newBuilder().addAllReviewComments(result).build());
         responseObserver.onCompleted();
     }
@@ -140,15 +169,14 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 WHERE review_id IN (%s)
                 ORDER BY review_id, sort
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewCommentProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ReviewCommentProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, (rs, _i) -> {
             ReviewCommentProto.Builder builder = ReviewCommentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setReviewCommentId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceId);
             ResultSetHelper.applyResultSetLong(rs, 3, builder::setReviewId);
             ResultSetHelper.applyResultSetLong(rs, 4, builder::setCommentTypeId);
             return builder.build();
-        }, request.getReviewIdsList().toArray());
+        }, request.getReviewIdsList());
         responseObserver.onNext(GetReviewCommentsResponse.newBuilder().addAllReviewComments(result).build());
         responseObserver.onCompleted();
     }
@@ -162,8 +190,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 WHERE review_id IN (%s)
                 ORDER BY review_id, sort
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewItemProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ReviewItemProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, (rs, _i) -> {
             ReviewItemProto.Builder builder = ReviewItemProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setReviewItemId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setReviewId);
@@ -171,7 +198,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
             ResultSetHelper.applyResultSetLong(rs, 4, builder::setUploadId);
             ResultSetHelper.applyResultSetString(rs, 5, builder::setAnswer);
             return builder.build();
-        }, request.getReviewIdsList().toArray());
+        }, request.getReviewIdsList());
         responseObserver.onNext(GetReviewItemsResponse.newBuilder().addAllReviewItems(result).build());
         responseObserver.onCompleted();
     }
@@ -186,8 +213,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 INNER JOIN review_item ri ON ric.review_item_id=ri.review_item_id AND ri.review_id IN (%s)
                 ORDER BY ric.review_item_id, ric.sort
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewItemCommentProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ReviewItemCommentProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, (rs, _i) -> {
             ReviewItemCommentProto.Builder builder = ReviewItemCommentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setReviewItemCommentId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceId);
@@ -196,7 +222,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
             ResultSetHelper.applyResultSetString(rs, 5, builder::setContent);
             ResultSetHelper.applyResultSetString(rs, 6, builder::setExtraInfo);
             return builder.build();
-        }, request.getReviewIdsList().toArray());
+        }, request.getReviewIdsList());
         responseObserver.onNext(GetReviewItemCommentsResponse.newBuilder().addAllReviewItemComments(result).build());
         responseObserver.onCompleted();
     }
@@ -211,15 +237,14 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 INNER JOIN review_item ri ON ric.review_item_id=ri.review_item_id AND ri.review_id IN (%s)
                 ORDER BY ric.review_item_id, ric.sort
                 """;
-        String inSql = Helper.getInClause(request.getReviewIdsCount());
-        List<ReviewItemCommentProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ReviewItemCommentProto> result = dbAccessor.executeInQuery(QueryProfile.BULK_READ, sql, (rs, _i) -> {
             ReviewItemCommentProto.Builder builder = ReviewItemCommentProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setReviewItemCommentId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setResourceId);
             ResultSetHelper.applyResultSetLong(rs, 3, builder::setReviewItemId);
             ResultSetHelper.applyResultSetLong(rs, 4, builder::setCommentTypeId);
             return builder.build();
-        }, request.getReviewIdsList().toArray());
+        }, request.getReviewIdsList());
         responseObserver.onNext(GetReviewItemCommentsResponse.newBuilder().addAllReviewItemComments(result).build());
         responseObserver.onCompleted();
     }
@@ -422,13 +447,15 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
     @Override
     public void deleteReview(ReviewIdProto request, StreamObserver<CountProto> responseObserver) {
         validateReviewIdProto(request);
-        List<Long> reviewItemIds = getReviewItemIds(request.getReviewId());
-        deleteReviewItems(reviewItemIds);
-        deleteReviewComments(request.getReviewId());
-        String sql = """
-                DELETE FROM review WHERE review_id = ?
-                """;
-        int affected = dbAccessor.executeUpdate(sql, request.getReviewId());
+        int affected = dbAccessor.executeInUnitOfWork(() -> {
+            List<Long> reviewItemIds = getReviewItemIds(request.getReviewId());
+            deleteReviewItems(reviewItemIds);
+            deleteReviewComments(request.getReviewId());
+            String sql = """
+                    DELETE FROM review WHERE review_id = ?
+                    """;
+            return dbAccessor.executeUpdate(sql, request.getReviewId());
+        });
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -439,8 +466,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 DELETE FROM review_comment WHERE review_comment_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getReviewCommentIdsCount());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), request.getReviewCommentIdsList().toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getReviewCommentIdsList());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -448,7 +474,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
     @Override
     public void deleteReviewItems(ReviewItemIdsProto request, StreamObserver<CountProto> responseObserver) {
         validateReviewItemIdsProto(request);
-        int affected = deleteReviewItems(request.getReviewItemIdsList());
+        int affected = dbAccessor.executeInUnitOfWork(() -> deleteReviewItems(request.getReviewItemIdsList()));
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -460,35 +486,46 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 DELETE FROM review_item_comment WHERE review_item_comment_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getReviewItemCommentIdsCount());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), request.getReviewItemCommentIdsList().toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getReviewItemCommentIdsList());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchReviews(FilterProto request, StreamObserver<GetReviewsResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ReviewProto> result = searchBundle.search(filter, (rs, _i) -> loadReview(rs));
-        responseObserver.onNext(GetReviewsResponse.newBuilder().addAllReviews(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetReviewsResponse.Builder response = GetReviewsResponse.newBuilder();
+        searchBundle.search(filter, reviewMapper(null), response::addAllReviews);
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public ServerServiceDefinition bindAddedMethods() {
+        return ServerServiceDefinition.builder(ReviewServiceGrpc.SERVICE_NAME)
+                .addMethod(SEARCH_REVIEWS_PAGE_METHOD, ServerCalls.asyncUnaryCall(this::searchReviewsPage))
+                .addMethod(COUNT_REVIEWS_METHOD, ServerCalls.asyncUnaryCall(this::countReviews))
+                .build();
+    }
+
+    public void searchReviewsPage(SearchPageCodec.Request request,
+            StreamObserver<SearchPageCodec.Response<GetReviewsResponse>> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchPage<ReviewProto> page = searchBundle.searchPage(filter, reviewMapper(null), request.getPageSize(),
+                request.getContinuationToken());
+        responseObserver.onNext(new SearchPageCodec.Response<>(
+                GetReviewsResponse.newBuilder().addAllReviews(page.getRows()).build(), page.getContinuationToken()));
+        responseObserver.onCompleted();
+    }
+
+    public void countReviews(FilterProto request, StreamObserver<Int64Value> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        responseObserver.onNext(Int64Value.of(searchBundle.count(filter)));
         responseObserver.onCompleted();
     }
 
-    private ReviewProto loadReview(ResultSet rs) throws SQLException {
-        ReviewProto.Builder builder = ReviewProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "review_id", builder::setReviewId);
-        ResultSetHelper.applyResultSetLong(rs, "resource_id", builder::setResourceId);
-        ResultSetHelper.applyResultSetLong(rs, "submission_id", builder::setSubmissionId);
-        ResultSetHelper.applyResultSetLong(rs, "project_phase_id", builder::setProjectPhaseId);
-        ResultSetHelper.applyResultSetLong(rs, "scorecard_id", builder::setScorecardId);
-        ResultSetHelper.applyResultSetBool(rs, "committed", builder::setCommitted);
-        ResultSetHelper.applyResultSetDouble(rs, "score", builder::setScore);
-        ResultSetHelper.applyResultSetDouble(rs, "initial_score", builder::setInitialScore);
-        ResultSetHelper.applyResultSetString(rs, "create_user", builder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "create_date", builder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "modify_user", builder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "modify_date", builder::setModifyDate);
-        return builder.build();
+    private static RowMapper<ReviewProto> reviewMapper(String sql) {
+        return REVIEW_COLUMNS.rowMapper(sql, ReviewProto::newBuilder, ReviewProto.Builder::build);
     }
 
     private List<Long> getReviewItemIds(long reviewId) {
@@ -505,15 +542,14 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 SELECT upload_id FROM review_item  WHERE review_item_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(reviewItemIds.size());
-        return dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        return dbAccessor.executeInQuery(sql, (rs, _i) -> {
             long id = rs.getLong(1);
             if (rs.wasNull()) {
                 return null;
             } else {
                 return id;
             }
-        }, reviewItemIds.toArray());
+        }, reviewItemIds);
     }
 
     private int deleteReviewComments(long reviewId) {
@@ -533,8 +569,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 DELETE FROM review_item WHERE review_item_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(reviewItemIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), reviewItemIds.toArray());
+        return dbAccessor.executeInUpdate(sql, reviewItemIds);
     }
 
     private int deleteReviewItemComments(List<Long> reviewItemIds) {
@@ -544,8 +579,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 DELETE FROM review_item_comment WHERE review_item_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(reviewItemIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), reviewItemIds.toArray());
+        return dbAccessor.executeInUpdate(sql, reviewItemIds);
     }
 
     private int deleteReviewItemUploads(List<Long> reviewItemUploadIds) {
@@ -555,8 +589,7 @@ public class ReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
         String sql = """
                 DELETE FROM upload WHERE upload_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(reviewItemUploadIds.size());
-        return dbAccessor.executeUpdate(sql.formatted(inSql), reviewItemUploadIds.toArray());
+        return dbAccessor.executeInUpdate(sql, reviewItemUploadIds);
     }
 
     private boolean checkEntityExists(String tableName, String columnName, long id) {
@@ -5,8 +5,6 @@ import java.util.List;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.google.protobuf.Empty;
 import com.topcoder.onlinereview.component.id.DBHelper;
 import com.topcoder.onlinereview.component.id.IDGenerator;
@@ -15,6 +13,7 @@ import com.topcoder.onlinereview.component.search.SearchBundleManager;
 import com.topcoder.onlinereview.component.search.filter.Filter;
 import com.topcoder.onlinereview.grpc.scorecard.proto.*;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
 import com.topcoder.or.util.Helper;
 import com.topcoder.or.util.ResultSetHelper;
 import com.topcoder.or.util.SearchBundleHelper;
@@ -61,7 +60,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createGroup(CreateGroupRequest request, StreamObserver<GroupIdProto> responseObserver) {
         validateCreateGroupRequest(request);
         long newId = groupIdGenerator.getNextID();
-        createGroup(request, newId);
+        createGroups(List.of(request), List.of(newId));
         responseObserver.onNext(GroupIdProto.newBuilder().setScorecardGroupId(newId).build());
         responseObserver.onCompleted();
     }
@@ -70,11 +69,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createGroups(CreateGroupsRequest request, StreamObserver<GroupIdsProto> responseObserver) {
         validateCreateGroupsRequest(request);
         List<Long> groupIds = generateIds(request.getGroupsCount(), groupIdGenerator);
-        int i = 0;
-        for (CreateGroupRequest group : request.getGroupsList()) {
-            createGroup(group, groupIds.get(i));
-            i++;
-        }
+        createGroups(request.getGroupsList(), groupIds);
         responseObserver.onNext(GroupIdsProto.newBuilder().addAllScorecardGroupIds(groupIds).build());
         responseObserver.onCompleted();
     }
@@ -101,10 +96,9 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 FROM scorecard_section
                 WHERE scorecard_group_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardGroupIdsCount());
-        List<Long> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return rs.getLong(1);
-        }, request.getScorecardGroupIdsList().toArray());
+        }, request.getScorecardGroupIdsList());
         responseObserver.onNext(SectionIdsProto.newBuilder().addAllScorecardSectionIds(result).build());
         responseObserver.onCompleted();
     }
@@ -116,8 +110,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 DELETE FROM scorecard_group
                 WHERE scorecard_group_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardGroupIdsCount());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), request.getScorecardGroupIdsList().toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getScorecardGroupIdsList());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -164,7 +157,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createQuestion(CreateQuestionRequest request, StreamObserver<QuestionIdProto> responseObserver) {
         validateCreateQuestionRequest(request);
         long newId = questionIdGenerator.getNextID();
-        createQuestion(request, newId);
+        createQuestions(List.of(request), List.of(newId));
         responseObserver.onNext(QuestionIdProto.newBuilder().setScorecardQuestionId(newId).build());
         responseObserver.onCompleted();
     }
@@ -173,11 +166,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createQuestions(CreateQuestionsRequest request, StreamObserver<QuestionIdsProto> responseObserver) {
         validateCreateQuestionsRequest(request);
         List<Long> questionIds = generateIds(request.getQuestionsCount(), questionIdGenerator);
-        int i = 0;
-        for (CreateQuestionRequest question : request.getQuestionsList()) {
-            createQuestion(question, questionIds.get(i));
-            i++;
-        }
+        createQuestions(request.getQuestionsList(), questionIds);
         responseObserver.onNext(QuestionIdsProto.newBuilder().addAllScorecardQuestionIds(questionIds).build());
         responseObserver.onCompleted();
     }
@@ -206,8 +195,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 DELETE FROM scorecard_question
                 WHERE scorecard_question_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardQuestionIdsCount());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), request.getScorecardQuestionIdsList().toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getScorecardQuestionIdsList());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -368,8 +356,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 JOIN scorecard_status_lu AS status ON sc.scorecard_status_id=status.scorecard_status_id
                 WHERE sc.scorecard_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardIdsCount());
-        List<ScorecardProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<ScorecardProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             ScorecardProto.Builder builder = ScorecardProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setScorecardId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setScorecardStatusId);
@@ -386,7 +373,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
             ResultSetHelper.applyResultSetString(rs, 13, builder::setScorecardStatusName);
             ResultSetHelper.applyResultSetString(rs, 14, builder::setScorecardTypeName);
             return builder.build();
-        }, request.getScorecardIdsList().toArray());
+        }, request.getScorecardIdsList());
         responseObserver.onNext(GetScorecardsResponse.newBuilder().addAllScorecards(result).build());
         responseObserver.onCompleted();
     }
@@ -400,10 +387,9 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 JOIN phase_criteria_type_lu pct ON pc.phase_criteria_type_id = pct.phase_criteria_type_id
                 WHERE pct.name='Scorecard ID' AND pc.parameter IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardIdsCount());
-        List<Long> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return rs.getLong(1);
-        }, request.getScorecardIdsList().toArray());
+        }, request.getScorecardIdsList());
         responseObserver.onNext(ScorecardIdsProto.newBuilder().addAllScorecardIds(result).build());
         responseObserver.onCompleted();
     }
@@ -412,7 +398,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createSection(CreateSectionRequest request, StreamObserver<SectionIdProto> responseObserver) {
         validateCreateSectionRequest(request);
         long newId = sectionIdGenerator.getNextID();
-        createSection(request, newId);
+        createSections(List.of(request), List.of(newId));
         responseObserver.onNext(SectionIdProto.newBuilder().setScorecardSectionId(newId).build());
         responseObserver.onCompleted();
     }
@@ -421,11 +407,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
     public void createSections(CreateSectionsRequest request, StreamObserver<SectionIdsProto> responseObserver) {
         validateCreateSectionsRequest(request);
         List<Long> sectionIds = generateIds(request.getSectionsCount(), sectionIdGenerator);
-        int i = 0;
-        for (CreateSectionRequest section : request.getSectionsList()) {
-            createSection(section, sectionIds.get(i));
-            i++;
-        }
+        createSections(request.getSectionsList(), sectionIds);
         responseObserver.onNext(SectionIdsProto.newBuilder().addAllScorecardSectionIds(sectionIds).build());
         responseObserver.onCompleted();
     }
@@ -452,10 +434,9 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 FROM scorecard_question
                 WHERE scorecard_section_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardSectionIdsCount());
-        List<Long> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return rs.getLong(1);
-        }, request.getScorecardSectionIdsList().toArray());
+        }, request.getScorecardSectionIdsList());
         responseObserver.onNext(QuestionIdsProto.newBuilder().addAllScorecardQuestionIds(result).build());
         responseObserver.onCompleted();
     }
@@ -467,8 +448,7 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 DELETE FROM scorecard_section
                 WHERE scorecard_section_id IN  (%s)
                 """;
-        String inSql = Helper.getInClause(request.getScorecardSectionIdsCount());
-        int affected = dbAccessor.executeUpdate(sql.formatted(inSql), request.getScorecardSectionIdsList().toArray());
+        int affected = dbAccessor.executeInUpdate(sql, request.getScorecardSectionIdsList());
         responseObserver.onNext(CountProto.newBuilder().setCount(affected).build());
         responseObserver.onCompleted();
     }
@@ -514,8 +494,9 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
 
     @Override
     public void searchScorecards(FilterProto request, StreamObserver<GetScorecardsResponse> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<ScorecardProto> result = searchBundle.search(filter, (rs, _i) -> {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        GetScorecardsResponse.Builder response = GetScorecardsResponse.newBuilder();
+        searchBundle.search(filter, (rs, _i) -> {
             ScorecardProto.Builder builder = ScorecardProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, "scorecard_id", builder::setScorecardId);
             ResultSetHelper.applyResultSetLong(rs, "status_id", builder::setScorecardStatusId);
@@ -532,39 +513,49 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
             ResultSetHelper.applyResultSetString(rs, "status_name", builder::setScorecardStatusName);
             ResultSetHelper.applyResultSetString(rs, "type_name", builder::setScorecardTypeName);
             return builder.build();
-        });
-        responseObserver.onNext(GetScorecardsResponse.newBuilder().addAllScorecards(result).build());
+        }, response::addAllScorecards);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     private List<Long> generateIds(int length, IDGenerator idGenerator) {
         List<Long> ids = new ArrayList<>(length);
-        for (int i = 0; i < length; i++) {
-            ids.add(idGenerator.getNextID());
+        for (long id : idGenerator.reserve(length)) {
+            ids.add(id);
         }
         return ids;
     }
 
-    private int createGroup(CreateGroupRequest request, long scorecardGroupId) {
+    private int[] createGroups(List<CreateGroupRequest> requests, List<Long> scorecardGroupIds) {
         String sql = """
                 INSERT INTO scorecard_group (scorecard_group_id, scorecard_id, name, weight, sort, create_user, create_date, modify_user, modify_date)
                 VALUES (?, ?, ?, ?, ?, ?, CURRENT, ?, CURRENT)
                 """;
-        return dbAccessor.executeUpdate(sql, scorecardGroupId, request.getScorecardId(), request.getName(),
-                request.getWeight(), request.getSort(), request.getOperator(), request.getOperator());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateGroupRequest request = requests.get(i);
+            rows.add(new Object[] { scorecardGroupIds.get(i), request.getScorecardId(), request.getName(),
+                    request.getWeight(), request.getSort(), request.getOperator(), request.getOperator() });
+        }
+        return dbAccessor.batchUpdate(sql, rows);
     }
 
-    private int createQuestion(CreateQuestionRequest request, long scorecardQuestionId) {
+    private int[] createQuestions(List<CreateQuestionRequest> requests, List<Long> scorecardQuestionIds) {
         String sql = """
                 INSERT INTO scorecard_question (scorecard_question_id, scorecard_question_type_id, scorecard_section_id, description, guideline,
                 weight, sort, upload_document, upload_document_required, create_user, create_date, modify_user, modify_date)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT, ?, CURRENT)
                 """;
-        String guideline = Helper.extract(request::hasGuideline, request::getGuideline);
-        return dbAccessor.executeUpdate(sql, scorecardQuestionId, request.getScorecardQuestionTypeId(),
-                request.getScorecardSectionId(), request.getDescription(), guideline, request.getWeight(),
-                request.getSort(), request.getUploadDocument(), request.getUploadDocumentRequired(),
-                request.getOperator(), request.getOperator());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateQuestionRequest request = requests.get(i);
+            String guideline = Helper.extract(request::hasGuideline, request::getGuideline);
+            rows.add(new Object[] { scorecardQuestionIds.get(i), request.getScorecardQuestionTypeId(),
+                    request.getScorecardSectionId(), request.getDescription(), guideline, request.getWeight(),
+                    request.getSort(), request.getUploadDocument(), request.getUploadDocumentRequired(),
+                    request.getOperator(), request.getOperator() });
+        }
+        return dbAccessor.batchUpdate(sql, rows);
     }
 
     private int createScorecard(CreateScorecardRequest request, long scorecardId) {
@@ -579,13 +570,18 @@ public class ScorecardService extends ScorecardServiceGrpc.ScorecardServiceImplB
                 request.getModifyUser(), Helper.convertDate(request.getModifyDate()));
     }
 
-    private int createSection(CreateSectionRequest request, long scorecardSectionId) {
+    private int[] createSections(List<CreateSectionRequest> requests, List<Long> scorecardSectionIds) {
         String sql = """
                 INSERT INTO scorecard_section (scorecard_section_id, scorecard_group_id, name, weight, sort, create_user, create_date, modify_user, modify_date)
                 VALUES (?, ?, ?, ?, ?, ?, CURRENT, ?, CURRENT)
                 """;
-        return dbAccessor.executeUpdate(sql, scorecardSectionId, request.getScorecardGroupId(), request.getName(),
-                request.getWeight(), request.getSort(), request.getOperator(), request.getOperator());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateSectionRequest request = requests.get(i);
+            rows.add(new Object[] { scorecardSectionIds.get(i), request.getScorecardGroupId(), request.getName(),
+                    request.getWeight(), request.getSort(), request.getOperator(), request.getOperator() });
+        }
+        return dbAccessor.batchUpdate(sql, rows);
     }
 
     private void validateCreateGroupRequest(CreateGroupRequest request) {
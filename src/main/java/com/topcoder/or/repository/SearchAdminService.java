@@ -0,0 +1,240 @@
+package com.topcoder.or.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Set;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.topcoder.onlinereview.component.search.SearchBundle;
+import com.topcoder.onlinereview.component.search.SearchBundleManager;
+import com.topcoder.onlinereview.component.search.SearchExplanation;
+import com.topcoder.onlinereview.component.search.SearchPage;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.or.util.FilterCodec;
+
+import io.grpc.BindableService;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * Admin service over the search bundles, for tooling that pages through the
+ * results of any bundle and tunes the bundle contexts.
+ *
+ * <p>
+ * The service is not part of the generated proto contract: it is defined here
+ * with {@link Struct} requests and responses so it needs no new message types.
+ * Every request names the bundle in <code>bundle</code> and carries the filter
+ * as the base64 of its {@link FilterCodec} bytes in <code>filter</code>. Rows
+ * are returned as structs keyed by column label; integers that fit a double
+ * exactly are numbers, booleans are booleans and every other value is its
+ * string form.
+ * </p>
+ *
+ * <pre>
+ * SearchPage { bundle, filter, pageSize, continuationToken? }
+ *         -&gt; { rows: [ { column: value } ], continuationToken? }
+ * Count { bundle, filter } -&gt; { count }
+ * Explain { bundle, filter, execute?, explainFile? }
+ *         -&gt; { bundle, sql?, parameters, validationNanos, buildNanos,
+ *              executionNanos, rowCount, plan? }
+ * </pre>
+ *
+ * <p>
+ * The explain file is a plain file name in the directory set by
+ * <code>search.explain.directory</code>; without that setting plans are not
+ * captured.
+ * </p>
+ *
+ * <p>
+ * Only the bundles listed in <code>search.admin.bundles</code> are served,
+ * none by default. Clients of the services use the typed paged and count
+ * methods next to their search methods instead.
+ * </p>
+ */
+@GrpcService
+public class SearchAdminService implements BindableService {
+    public static final String SERVICE_NAME = "com.topcoder.or.SearchAdminService";
+
+    public static final MethodDescriptor<Struct, Struct> SEARCH_PAGE_METHOD = method("SearchPage");
+    public static final MethodDescriptor<Struct, Struct> COUNT_METHOD = method("Count");
+    public static final MethodDescriptor<Struct, Struct> EXPLAIN_METHOD = method("Explain");
+
+    /** The largest integer a double holds exactly. */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final SearchBundleManager searchBundleManager;
+    private final Set<String> allowedBundles;
+
+    public SearchAdminService(SearchBundleManager searchBundleManager,
+            @org.springframework.beans.factory.annotation.Value("${search.admin.bundles:}")
+            Set<String> allowedBundles) {
+        this.searchBundleManager = searchBundleManager;
+        this.allowedBundles = Set.copyOf(allowedBundles);
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(SERVICE_NAME)
+                .addMethod(SEARCH_PAGE_METHOD, ServerCalls.asyncUnaryCall(this::searchPage))
+                .addMethod(COUNT_METHOD, ServerCalls.asyncUnaryCall(this::count))
+                .addMethod(EXPLAIN_METHOD, ServerCalls.asyncUnaryCall(this::explain))
+                .build();
+    }
+
+    public void searchPage(Struct request, StreamObserver<Struct> responseObserver) {
+        SearchBundle searchBundle = getSearchBundle(request);
+        Filter filter = getFilter(request);
+        String continuationToken = getString(request, "continuationToken", false);
+        SearchPage<Struct> page = searchBundle.searchPage(filter, (rs, _i) -> loadRow(rs),
+                (int) getNumber(request, "pageSize"), continuationToken);
+        ListValue.Builder rows = ListValue.newBuilder();
+        page.getRows().forEach(row -> rows.addValues(Value.newBuilder().setStructValue(row)));
+        Struct.Builder response = Struct.newBuilder().putFields("rows", Value.newBuilder().setListValue(rows).build());
+        if (page.hasMore()) {
+            response.putFields("continuationToken", stringValue(page.getContinuationToken()));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    public void count(Struct request, StreamObserver<Struct> responseObserver) {
+        SearchBundle searchBundle = getSearchBundle(request);
+        long count = searchBundle.count(getFilter(request));
+        responseObserver.onNext(Struct.newBuilder().putFields("count", toValue(count)).build());
+        responseObserver.onCompleted();
+    }
+
+    public void explain(Struct request, StreamObserver<Struct> responseObserver) {
+        String name = getAllowedBundle(request);
+        SearchExplanation explanation = searchBundleManager.explain(name, getFilter(request),
+                getBoolean(request, "execute"), getString(request, "explainFile", false));
+        ListValue.Builder parameters = ListValue.newBuilder();
+        explanation.getParameters().forEach(parameter -> parameters.addValues(toValue(parameter)));
+        Struct.Builder response = Struct.newBuilder()
+                .putFields("bundle", stringValue(explanation.getBundleName()))
+                .putFields("parameters", Value.newBuilder().setListValue(parameters).build())
+                .putFields("validationNanos", toValue(explanation.getValidationNanos()))
+                .putFields("buildNanos", toValue(explanation.getBuildNanos()))
+                .putFields("executionNanos", toValue(explanation.getExecutionNanos()))
+                .putFields("rowCount", toValue(explanation.getRowCount()));
+        if (explanation.getSql() != null) {
+            response.putFields("sql", stringValue(explanation.getSql()));
+        }
+        if (explanation.getPlan() != null) {
+            response.putFields("plan", stringValue(explanation.getPlan()));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    private static MethodDescriptor<Struct, Struct> method(String name) {
+        return MethodDescriptor.<Struct, Struct>newBuilder()
+                .setType(MethodDescriptor.MethodType.UNARY)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, name))
+                .setRequestMarshaller(ProtoUtils.marshaller(Struct.getDefaultInstance()))
+                .setResponseMarshaller(ProtoUtils.marshaller(Struct.getDefaultInstance()))
+                .build();
+    }
+
+    private String getAllowedBundle(Struct request) {
+        String name = getString(request, "bundle", true);
+        if (!allowedBundles.contains(name)) {
+            throw new IllegalArgumentException("The SearchBundle " + name + " is not in search.admin.bundles.");
+        }
+        return name;
+    }
+
+    private SearchBundle getSearchBundle(Struct request) {
+        String name = getAllowedBundle(request);
+        SearchBundle searchBundle = searchBundleManager.getSearchBundle(name);
+        if (searchBundle == null) {
+            throw new IllegalArgumentException("There is no SearchBundle named " + name + ".");
+        }
+        return searchBundle;
+    }
+
+    private static Filter getFilter(Struct request) {
+        String filter = getString(request, "filter", true);
+        try {
+            return FilterCodec.decode(ByteString.copyFrom(Base64.getDecoder().decode(filter)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("filter is not valid base64 FilterCodec bytes: " + e.getMessage(), e);
+        }
+    }
+
+    private static String getString(Struct request, String field, boolean required) {
+        Value value = request.getFieldsOrDefault(field, null);
+        if (value == null || value.getKindCase() == Value.KindCase.NULL_VALUE) {
+            if (required) {
+                throw new IllegalArgumentException(field + " is required");
+            }
+            return null;
+        }
+        if (value.getKindCase() != Value.KindCase.STRING_VALUE) {
+            throw new IllegalArgumentException(field + " should be a string");
+        }
+        return value.getStringValue();
+    }
+
+    private static boolean getBoolean(Struct request, String field) {
+        Value value = request.getFieldsOrDefault(field, null);
+        if (value == null || value.getKindCase() == Value.KindCase.NULL_VALUE) {
+            return false;
+        }
+        if (value.getKindCase() != Value.KindCase.BOOL_VALUE) {
+            throw new IllegalArgumentException(field + " should be a boolean");
+        }
+        return value.getBoolValue();
+    }
+
+    private static double getNumber(Struct request, String field) {
+        Value value = request.getFieldsOrDefault(field, null);
+        if (value == null || value.getKindCase() != Value.KindCase.NUMBER_VALUE) {
+            throw new IllegalArgumentException(field + " is required and should be a number");
+        }
+        return value.getNumberValue();
+    }
+
+    private static Struct loadRow(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Struct.Builder row = Struct.newBuilder();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            row.putFields(metaData.getColumnLabel(i).toLowerCase(), toValue(rs.getObject(i)));
+        }
+        return row.build();
+    }
+
+    private static Value toValue(Object value) {
+        if (value == null) {
+            return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+        }
+        if (value instanceof Boolean v) {
+            return Value.newBuilder().setBoolValue(v).build();
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return Value.newBuilder().setNumberValue(((Number) value).doubleValue()).build();
+        }
+        if (value instanceof Long v && Math.abs(v) <= MAX_EXACT_DOUBLE) {
+            return Value.newBuilder().setNumberValue(v).build();
+        }
+        if (value instanceof BigDecimal v) {
+            return stringValue(v.toPlainString());
+        }
+        return stringValue(value.toString());
+    }
+
+    private static Value stringValue(String value) {
+        return Value.newBuilder().setStringValue(value).build();
+    }
+}
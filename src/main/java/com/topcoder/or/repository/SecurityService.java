@@ -10,6 +10,8 @@ import com.topcoder.onlinereview.component.shared.dataaccess.Request;
 import com.topcoder.onlinereview.grpc.security.proto.*;
 import com.topcoder.or.util.DBAccessor;
 import com.topcoder.or.util.Helper;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
 import com.topcoder.or.util.ResultSetHelper;
 
 import io.grpc.stub.StreamObserver;
@@ -131,13 +133,14 @@ public class SecurityService extends SecurityServiceGrpc.SecurityServiceImplBase
     public void isAdministrator(IsAdministratorRequest request,
             StreamObserver<IsAdministratorResponse> responseObserver) {
         validateIsAdministratorRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "is_user_tc_staff";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         IsAdministratorResponse response = IsAdministratorResponse.newBuilder().setIsAdministrator(!userData.isEmpty())
                 .build();
         responseObserver.onNext(response);
@@ -194,31 +197,24 @@ public class SecurityService extends SecurityServiceGrpc.SecurityServiceImplBase
     @Override
     public void getBillingAccountsForClient(Empty request,
             StreamObserver<GetBillingAccountsForClientResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "admin_client_billing_accounts_v2";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<BillingAccountForClientProto> billingAccounts = new ArrayList<>();
+        int clientIdColumn = data.column("client_id");
+        int billingAccountIdColumn = data.column("billing_account_id");
+        int clientNameColumn = data.column("client_name");
+        int billingAccountNameColumn = data.column("billing_account_name");
         for (int i = 0; i < data.size(); i++) {
             BillingAccountForClientProto.Builder builder = BillingAccountForClientProto.newBuilder();
-            Long clientId = Helper.getLong(data.get(i), "client_id");
-            if (clientId != null) {
-                builder.setClientId(clientId);
-            }
-            Long billingAccountId = Helper.getLong(data.get(i), "billing_account_id");
-            if (billingAccountId != null) {
-                builder.setBillingAccountId(billingAccountId);
-            }
-            String clientName = Helper.getString(data.get(i), "client_name");
-            if (clientName != null) {
-                builder.setClientName(clientName);
-            }
-            String billingAccountName = Helper.getString(data.get(i), "billing_account_name");
-            if (billingAccountName != null) {
-                builder.setBllingAccountName(billingAccountName);
-            }
+            data.applyLong(i, clientIdColumn, builder::setClientId);
+            data.applyLong(i, billingAccountIdColumn, builder::setBillingAccountId);
+            data.applyString(i, clientNameColumn, builder::setClientName);
+            data.applyString(i, billingAccountNameColumn, builder::setBllingAccountName);
             billingAccounts.add(builder.build());
         }
         responseObserver.onNext(
@@ -229,22 +225,20 @@ public class SecurityService extends SecurityServiceGrpc.SecurityServiceImplBase
     @Override
     public void getProjectName(GetProjectNameRequest request, StreamObserver<GetProjectNameResponse> responseObserver) {
         validateGetProjectNameRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "project_name";
         dbRequest.setProperty("tcdirectid", String.valueOf(request.getProjectId()));
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         GetProjectNameResponse response;
         if (data.isEmpty()) {
             response = GetProjectNameResponse.getDefaultInstance();
         } else {
             GetProjectNameResponse.Builder builder = GetProjectNameResponse.newBuilder();
-            String projectName = Helper.getString(data.get(0), "project_name");
-            if (projectName != null) {
-                builder.setProjectName(projectName);
-            }
+            data.applyString(0, data.column("project_name"), builder::setProjectName);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -253,27 +247,22 @@ public class SecurityService extends SecurityServiceGrpc.SecurityServiceImplBase
 
     @Override
     public void getProjectsByClientId(Empty request, StreamObserver<GetProjectsByClientIdResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "admin_client_billing_accounts_v2";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<ProjectByClientIdProto> projects = new ArrayList<>();
+        int clientIdColumn = data.column("client_id");
+        int directProjectIdColumn = data.column("direct_project_id");
+        int directProjectNameColumn = data.column("direct_project_name");
         for (int i = 0; i < data.size(); i++) {
             ProjectByClientIdProto.Builder builder = ProjectByClientIdProto.newBuilder();
-            Long clientId = Helper.getLong(data.get(i), "client_id");
-            if (clientId != null) {
-                builder.setClientId(clientId);
-            }
-            Long directProjectId = Helper.getLong(data.get(i), "direct_project_id");
-            if (directProjectId != null) {
-                builder.setDirectProjectId(directProjectId);
-            }
-            String directProjectName = Helper.getString(data.get(i), "direct_project_name");
-            if (directProjectName != null) {
-                builder.setDirectProjectName(directProjectName);
-            }
+            data.applyLong(i, clientIdColumn, builder::setClientId);
+            data.applyLong(i, directProjectIdColumn, builder::setDirectProjectId);
+            data.applyString(i, directProjectNameColumn, builder::setDirectProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetProjectsByClientIdResponse.newBuilder().addAllProjects(projects).build());
@@ -283,27 +272,22 @@ public class SecurityService extends SecurityServiceGrpc.SecurityServiceImplBase
     @Override
     public void getProjectsByBillingAccounts(Empty request,
             StreamObserver<GetProjectsByBillingAccountsResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getTcsJdbcTemplate(),
+                QueryProfile.BULK_READ);
         Request dbRequest = new Request();
         String queryName = "admin_client_billing_accounts_v2";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> data = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows data = result.getOrDefault(queryName, ResultRows.empty());
         List<ProjectByBillingAccountProto> projects = new ArrayList<>();
+        int directProjectIdColumn = data.column("direct_project_id");
+        int billingAccountIdColumn = data.column("billing_account_id");
+        int directProjectNameColumn = data.column("direct_project_name");
         for (int i = 0; i < data.size(); i++) {
             ProjectByBillingAccountProto.Builder builder = ProjectByBillingAccountProto.newBuilder();
-            Long directProjectId = Helper.getLong(data.get(i), "direct_project_id");
-            if (directProjectId != null) {
-                builder.setDirectProjectId(directProjectId);
-            }
-            Long billingAccountId = Helper.getLong(data.get(i), "billing_account_id");
-            if (billingAccountId != null) {
-                builder.setBillingAccountId(billingAccountId);
-            }
-            String directProjectName = Helper.getString(data.get(i), "direct_project_name");
-            if (directProjectName != null) {
-                builder.setDirectProjectName(directProjectName);
-            }
+            data.applyLong(i, directProjectIdColumn, builder::setDirectProjectId);
+            data.applyLong(i, billingAccountIdColumn, builder::setBillingAccountId);
+            data.applyString(i, directProjectNameColumn, builder::setDirectProjectName);
             projects.add(builder.build());
         }
         responseObserver.onNext(GetProjectsByBillingAccountsResponse.newBuilder().addAllProjects(projects).build());
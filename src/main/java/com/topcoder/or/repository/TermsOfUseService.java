@@ -354,10 +354,9 @@ public class TermsOfUseService extends TermsOfUseServiceGrpc.TermsOfUseServiceIm
                 FROM terms_of_use_dependency
                 WHERE dependent_terms_of_use_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getDependentTermsOfUseIdsCount());
-        List<Long> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<Long> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return rs.getLong(1);
-        }, request.getDependentTermsOfUseIdsList().toArray());
+        }, request.getDependentTermsOfUseIdsList());
         responseObserver
                 .onNext(GetDependencyTermsOfUseIdsResponse.newBuilder().addAllDependencyTermsOfUseIds(result).build());
         responseObserver.onCompleted();
@@ -7,32 +7,56 @@ import java.util.List;
 
 import javax.annotation.PostConstruct;
 
-import org.springframework.util.SerializationUtils;
-
 import com.google.protobuf.Empty;
+import com.google.protobuf.Int64Value;
 import com.topcoder.onlinereview.grpc.upload.proto.*;
 import com.topcoder.onlinereview.component.id.DBHelper;
 import com.topcoder.onlinereview.component.id.IDGenerator;
 import com.topcoder.onlinereview.component.search.SearchBundle;
 import com.topcoder.onlinereview.component.search.SearchBundleManager;
+import com.topcoder.onlinereview.component.search.SearchPage;
 import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.or.util.ColumnMapper;
 import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.FilterCodec;
+import com.topcoder.or.util.GrpcMethods;
 import com.topcoder.or.util.Helper;
 import com.topcoder.or.util.ResultSetHelper;
 import com.topcoder.or.util.SearchBundleHelper;
+import com.topcoder.or.util.SearchPageCodec;
+import com.topcoder.or.util.SearchStreamer;
+
+import org.springframework.jdbc.core.RowMapper;
 
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
 @GrpcService
-public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
+public class UploadService extends UploadServiceGrpc.UploadServiceImplBase implements GrpcMethods.Added {
     private final DBAccessor dbAccessor;
     private final DBHelper dbHelper;
     private final SearchBundleManager searchBundleManager;
+    private final SearchStreamer searchStreamer;
 
     public static final String UPLOAD_SEARCH_BUNDLE_NAME = "Upload Search Bundle";
     public static final String SUBMISSION_SEARCH_BUNDLE_NAME = "Submission Search Bundle";
 
+    // the streaming submission search, not in the proto contract: one response per chunk of rows
+    public static final MethodDescriptor<FilterProto, SubmissionCompleteListProto> STREAM_SUBMISSIONS_METHOD =
+            GrpcMethods.serverStreaming(UploadServiceGrpc.SERVICE_NAME, "StreamSubmissions",
+                    FilterProto.getDefaultInstance(), SubmissionCompleteListProto.getDefaultInstance());
+    // the paged submission search, not in the proto contract: see SearchPageCodec for its messages
+    public static final MethodDescriptor<SearchPageCodec.Request, SearchPageCodec.Response<SubmissionCompleteListProto>> SEARCH_SUBMISSIONS_PAGE_METHOD =
+            GrpcMethods.unary(UploadServiceGrpc.SERVICE_NAME, "SearchSubmissionsPage", SearchPageCodec.requestMarshaller(),
+                    SearchPageCodec.responseMarshaller(SubmissionCompleteListProto.getDefaultInstance()));
+    // the submission count, not in the proto contract
+    public static final MethodDescriptor<FilterProto, Int64Value> COUNT_SUBMISSIONS_METHOD = GrpcMethods.unary(
+            UploadServiceGrpc.SERVICE_NAME, "CountSubmissions", FilterProto.getDefaultInstance(),
+            Int64Value.getDefaultInstance());
+
     private SearchBundle uploadSearchBundle;
     private SearchBundle submissionSearchBundle;
     private IDGenerator uploadIdGenerator;
@@ -49,10 +73,71 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
     public static final String SUBMISSION_STATUS_ID_GENERATOR_NAME = "submission_status_id_seq";
     public static final String SUBMISSION_TYPE_ID_GENERATOR_NAME = "submission_type_id_seq";
 
-    public UploadService(DBAccessor dbAccessor, DBHelper dbHelper, SearchBundleManager searchBundleManager) {
+    private static final ColumnMapper<UploadCompleteProto.Builder> UPLOAD_COLUMNS =
+            new ColumnMapper<UploadCompleteProto.Builder>()
+            .nested(new ColumnMapper<UploadProto.Builder>()
+                    .longColumn("upload_id", UploadProto.Builder::setUploadId)
+                    .stringColumn("upload_create_user", UploadProto.Builder::setCreateUser)
+                    .timestampColumn("upload_create_date", UploadProto.Builder::setCreateDate)
+                    .stringColumn("upload_modify_user", UploadProto.Builder::setModifyUser)
+                    .timestampColumn("upload_modify_date", UploadProto.Builder::setModifyDate)
+                    .longColumn("project_id", UploadProto.Builder::setProjectId)
+                    .longColumn("project_phase_id", UploadProto.Builder::setProjectPhaseId)
+                    .longColumn("resource_id", UploadProto.Builder::setResourceId)
+                    .stringColumn("upload_parameter", UploadProto.Builder::setParameter)
+                    .stringColumn("upload_desc", UploadProto.Builder::setUploadDesc)
+                    .stringColumn("url", UploadProto.Builder::setUrl),
+                    UploadProto::newBuilder, UploadProto.Builder::build, UploadCompleteProto.Builder::setUpload)
+            .nested(entityColumns("upload_type"), EntityProto::newBuilder, EntityProto.Builder::build,
+                    UploadCompleteProto.Builder::setUploadType)
+            .nested(entityColumns("upload_status"), EntityProto::newBuilder, EntityProto.Builder::build,
+                    UploadCompleteProto.Builder::setUploadStatus);
+
+    private static final ColumnMapper<SubmissionCompleteProto.Builder> SUBMISSION_COLUMNS =
+            new ColumnMapper<SubmissionCompleteProto.Builder>()
+            .nested(new ColumnMapper<SubmissionProto.Builder>()
+                    .doubleColumn("screening_score", SubmissionProto.Builder::setScreeningScore)
+                    .doubleColumn("initial_score", SubmissionProto.Builder::setInitialScore)
+                    .doubleColumn("final_score", SubmissionProto.Builder::setFinalScore)
+                    .longColumn("placement", SubmissionProto.Builder::setPlacement)
+                    .boolColumn("mark_for_purchase", SubmissionProto.Builder::setMarkForPurchase)
+                    .stringColumn("thurgood_job_id", SubmissionProto.Builder::setThurgoodJobId)
+                    .longColumn("submission_id", SubmissionProto.Builder::setSubmissionId)
+                    .intColumn("user_rank", SubmissionProto.Builder::setUserRank)
+                    .stringColumn("submission_create_user", SubmissionProto.Builder::setCreateUser)
+                    .timestampColumn("submission_create_date", SubmissionProto.Builder::setCreateDate)
+                    .stringColumn("submission_modify_user", SubmissionProto.Builder::setModifyUser)
+                    .timestampColumn("submission_modify_date", SubmissionProto.Builder::setModifyDate),
+                    SubmissionProto::newBuilder, SubmissionProto.Builder::build,
+                    SubmissionCompleteProto.Builder::setSubmission)
+            .nested(entityColumns("submission_status"), EntityProto::newBuilder, EntityProto.Builder::build,
+                    SubmissionCompleteProto.Builder::setSubmissionStatus)
+            .nested(entityColumns("submission_type"), EntityProto::newBuilder, EntityProto.Builder::build,
+                    SubmissionCompleteProto.Builder::setSubmissionType)
+            .nested(new ColumnMapper<PrizeProto.Builder>()
+                    .longColumn("prize_id", PrizeProto.Builder::setPrizeId)
+                    .intColumn("place", PrizeProto.Builder::setPlace)
+                    .doubleColumn("prize_amount", PrizeProto.Builder::setPrizeAmount)
+                    .intColumn("number_of_submissions", PrizeProto.Builder::setNumberOfSubmissions)
+                    .stringColumn("prize_create_user", PrizeProto.Builder::setCreateUser)
+                    .timestampColumn("prize_create_date", PrizeProto.Builder::setCreateDate)
+                    .stringColumn("prize_modify_user", PrizeProto.Builder::setModifyUser)
+                    .timestampColumn("prize_modify_date", PrizeProto.Builder::setModifyDate),
+                    PrizeProto::newBuilder, PrizeProto.Builder::build, SubmissionCompleteProto.Builder::setPrize)
+            .nested(new ColumnMapper<PrizeTypeProto.Builder>()
+                    .longColumn("prize_type_id", PrizeTypeProto.Builder::setPrizeTypeId)
+                    .stringColumn("prize_type_desc", PrizeTypeProto.Builder::setPrizeTypeDesc),
+                    PrizeTypeProto::newBuilder, PrizeTypeProto.Builder::build,
+                    SubmissionCompleteProto.Builder::setPrizeType)
+            .nested(UPLOAD_COLUMNS, UploadCompleteProto::newBuilder, UploadCompleteProto.Builder::build,
+                    SubmissionCompleteProto.Builder::setUpload);
+
+    public UploadService(DBAccessor dbAccessor, DBHelper dbHelper, SearchBundleManager searchBundleManager,
+            SearchStreamer searchStreamer) {
         this.dbAccessor = dbAccessor;
         this.dbHelper = dbHelper;
         this.searchBundleManager = searchBundleManager;
+        this.searchStreamer = searchStreamer;
     }
 
     @PostConstruct
@@ -436,10 +521,9 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 FROM upload_type_lu
                 WHERE upload_type_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getIdsCount());
-        List<EntityProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<EntityProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return loadEntityProto(rs);
-        }, request.getIdsList().toArray());
+        }, request.getIdsList());
         responseObserver.onNext(EntityListProto.newBuilder().addAllEntities(result).build());
         responseObserver.onCompleted();
     }
@@ -452,10 +536,9 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 FROM upload_status_lu
                 WHERE upload_status_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getIdsCount());
-        List<EntityProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<EntityProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return loadEntityProto(rs);
-        }, request.getIdsList().toArray());
+        }, request.getIdsList());
         responseObserver.onNext(EntityListProto.newBuilder().addAllEntities(result).build());
         responseObserver.onCompleted();
     }
@@ -468,10 +551,9 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 FROM submission_type_lu
                 WHERE submission_type_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getIdsCount());
-        List<EntityProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<EntityProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return loadEntityProto(rs);
-        }, request.getIdsList().toArray());
+        }, request.getIdsList());
         responseObserver.onNext(EntityListProto.newBuilder().addAllEntities(result).build());
         responseObserver.onCompleted();
     }
@@ -484,10 +566,9 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 FROM submission_status_lu
                 WHERE submission_status_id IN (%s)
                 """;
-        String inSql = Helper.getInClause(request.getIdsCount());
-        List<EntityProto> result = dbAccessor.executeQuery(sql.formatted(inSql), (rs, _i) -> {
+        List<EntityProto> result = dbAccessor.executeInQuery(sql, (rs, _i) -> {
             return loadEntityProto(rs);
-        }, request.getIdsList().toArray());
+        }, request.getIdsList());
         responseObserver.onNext(EntityListProto.newBuilder().addAllEntities(result).build());
         responseObserver.onCompleted();
     }
@@ -510,10 +591,8 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 INNER JOIN upload_status_lu ON upload.upload_status_id=upload_status_lu.upload_status_id
                 WHERE upload_id IN
                 """;
-        String inSql = " (%s)".formatted(Helper.getInClause(request.getIdsCount()));
-        List<UploadCompleteProto> result = dbAccessor.executeQuery(sql.concat(inSql), (rs, _i) -> {
-            return loadUpload(rs);
-        }, request.getIdsList().toArray());
+        List<UploadCompleteProto> result = dbAccessor.executeInQuery(sql.concat(" (%s)"), uploadMapper(sql),
+                request.getIdsList());
         responseObserver.onNext(UploadCompleteListProto.newBuilder().addAllUploads(result).build());
         responseObserver.onCompleted();
     }
@@ -554,10 +633,8 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 INNER JOIN upload_status_lu ON upload.upload_status_id=upload_status_lu.upload_status_id
                 WHERE submission.submission_id IN
                 """;
-        String inSql = " (%s)".formatted(Helper.getInClause(request.getIdsCount()));
-        List<SubmissionCompleteProto> result = dbAccessor.executeQuery(sql.concat(inSql), (rs, _i) -> {
-            return loadSubmission(rs);
-        }, request.getIdsList().toArray());
+        List<SubmissionCompleteProto> result = dbAccessor.executeInQuery(sql.concat(" (%s)"), submissionMapper(sql),
+                request.getIdsList());
         responseObserver.onNext(SubmissionCompleteListProto.newBuilder().addAllSubmissions(result).build());
         responseObserver.onCompleted();
     }
@@ -572,8 +649,7 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
                 INNER JOIN file_type_lu ON mime_type_lu.file_type_id = file_type_lu.file_type_id
                 WHERE mime_type_id IN
                 """;
-        String inSql = " (%s)".formatted(Helper.getInClause(request.getIdsCount()));
-        List<MimeTypeProto> result = dbAccessor.executeQuery(sql.concat(inSql), (rs, _i) -> {
+        List<MimeTypeProto> result = dbAccessor.executeInQuery(sql.concat(" (%s)"), (rs, _i) -> {
             MimeTypeProto.Builder builder = MimeTypeProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setMimeTypeId);
             ResultSetHelper.applyResultSetLong(rs, 2, builder::setFileTypeId);
@@ -584,7 +660,7 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
             ResultSetHelper.applyResultSetBool(rs, 7, builder::setBundledFileInd);
             ResultSetHelper.applyResultSetString(rs, 8, builder::setMimeTypeDesc);
             return builder.build();
-        }, request.getIdsList().toArray());
+        }, request.getIdsList());
         responseObserver.onNext(MimeTypeListProto.newBuilder().addAllMimeTypes(result).build());
         responseObserver.onCompleted();
     }
@@ -610,21 +686,51 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
 
     @Override
     public void searchUploads(FilterProto request, StreamObserver<UploadCompleteListProto> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<UploadCompleteProto> result = uploadSearchBundle.search(filter, (rs, _i) -> {
-            return loadUpload(rs);
-        });
-        responseObserver.onNext(UploadCompleteListProto.newBuilder().addAllUploads(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        UploadCompleteListProto.Builder response = UploadCompleteListProto.newBuilder();
+        uploadSearchBundle.search(filter, uploadMapper(null), response::addAllUploads);
+        responseObserver.onNext(response.build());
         responseObserver.onCompleted();
     }
 
     @Override
     public void searchSubmissions(FilterProto request, StreamObserver<SubmissionCompleteListProto> responseObserver) {
-        Filter filter = (Filter) SerializationUtils.deserialize(request.getFilter().toByteArray());
-        List<SubmissionCompleteProto> result = submissionSearchBundle.search(filter, (rs, _i) -> {
-            return loadSubmission(rs);
-        });
-        responseObserver.onNext(SubmissionCompleteListProto.newBuilder().addAllSubmissions(result).build());
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SubmissionCompleteListProto.Builder response = SubmissionCompleteListProto.newBuilder();
+        submissionSearchBundle.search(filter, submissionMapper(null), response::addAllSubmissions);
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public ServerServiceDefinition bindAddedMethods() {
+        return ServerServiceDefinition.builder(UploadServiceGrpc.SERVICE_NAME)
+                .addMethod(STREAM_SUBMISSIONS_METHOD, ServerCalls.asyncServerStreamingCall(this::streamSubmissions))
+                .addMethod(SEARCH_SUBMISSIONS_PAGE_METHOD, ServerCalls.asyncUnaryCall(this::searchSubmissionsPage))
+                .addMethod(COUNT_SUBMISSIONS_METHOD, ServerCalls.asyncUnaryCall(this::countSubmissions))
+                .build();
+    }
+
+    public void streamSubmissions(FilterProto request, StreamObserver<SubmissionCompleteListProto> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        searchStreamer.stream(responseObserver, send -> submissionSearchBundle.search(filter, submissionMapper(null),
+                rows -> send.accept(SubmissionCompleteListProto.newBuilder().addAllSubmissions(rows).build())));
+    }
+
+    public void searchSubmissionsPage(SearchPageCodec.Request request,
+            StreamObserver<SearchPageCodec.Response<SubmissionCompleteListProto>> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        SearchPage<SubmissionCompleteProto> page = submissionSearchBundle.searchPage(filter, submissionMapper(null),
+                request.getPageSize(), request.getContinuationToken());
+        responseObserver.onNext(new SearchPageCodec.Response<>(
+                SubmissionCompleteListProto.newBuilder().addAllSubmissions(page.getRows()).build(),
+                page.getContinuationToken()));
+        responseObserver.onCompleted();
+    }
+
+    public void countSubmissions(FilterProto request, StreamObserver<Int64Value> responseObserver) {
+        Filter filter = FilterCodec.decode(request.getFilter());
+        responseObserver.onNext(Int64Value.of(submissionSearchBundle.count(filter)));
         responseObserver.onCompleted();
     }
 
@@ -719,91 +825,23 @@ public class UploadService extends UploadServiceGrpc.UploadServiceImplBase {
         return builder.build();
     }
 
-    private UploadCompleteProto loadUpload(ResultSet rs) throws SQLException {
-        UploadCompleteProto.Builder builder = UploadCompleteProto.newBuilder();
-        UploadProto.Builder uBuilder = UploadProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "upload_id", uBuilder::setUploadId);
-        ResultSetHelper.applyResultSetString(rs, "upload_create_user", uBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_create_date", uBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "upload_modify_user", uBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_modify_date", uBuilder::setModifyDate);
-        ResultSetHelper.applyResultSetLong(rs, "project_id", uBuilder::setProjectId);
-        ResultSetHelper.applyResultSetLong(rs, "project_phase_id", uBuilder::setProjectPhaseId);
-        ResultSetHelper.applyResultSetLong(rs, "resource_id", uBuilder::setResourceId);
-        ResultSetHelper.applyResultSetString(rs, "upload_parameter", uBuilder::setParameter);
-        ResultSetHelper.applyResultSetString(rs, "upload_desc", uBuilder::setUploadDesc);
-        ResultSetHelper.applyResultSetString(rs, "url", uBuilder::setUrl);
-        builder.setUpload(uBuilder.build());
-        EntityProto.Builder utBuilder = EntityProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "upload_type_id", utBuilder::setId);
-        ResultSetHelper.applyResultSetString(rs, "upload_type_create_user", utBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_type_create_date", utBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "upload_type_modify_user", utBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_type_modify_date", utBuilder::setModifyDate);
-        ResultSetHelper.applyResultSetString(rs, "upload_type_name", utBuilder::setName);
-        ResultSetHelper.applyResultSetString(rs, "upload_type_description", utBuilder::setDescription);
-        builder.setUploadType(utBuilder.build());
-        EntityProto.Builder usBuilder = EntityProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "upload_status_id", usBuilder::setId);
-        ResultSetHelper.applyResultSetString(rs, "upload_status_create_user", usBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_status_create_date", usBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "upload_status_modify_user", usBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "upload_status_modify_date", usBuilder::setModifyDate);
-        ResultSetHelper.applyResultSetString(rs, "upload_status_name", usBuilder::setName);
-        ResultSetHelper.applyResultSetString(rs, "upload_status_description", usBuilder::setDescription);
-        builder.setUploadStatus(usBuilder.build());
-        return builder.build();
+    private static RowMapper<UploadCompleteProto> uploadMapper(String sql) {
+        return UPLOAD_COLUMNS.rowMapper(sql, UploadCompleteProto::newBuilder, UploadCompleteProto.Builder::build);
     }
 
-    private SubmissionCompleteProto loadSubmission(ResultSet rs) throws SQLException {
-        SubmissionCompleteProto.Builder builder = SubmissionCompleteProto.newBuilder();
-        SubmissionProto.Builder sBuilder = SubmissionProto.newBuilder();
-        ResultSetHelper.applyResultSetDouble(rs, "screening_score", sBuilder::setScreeningScore);
-        ResultSetHelper.applyResultSetDouble(rs, "initial_score", sBuilder::setInitialScore);
-        ResultSetHelper.applyResultSetDouble(rs, "final_score", sBuilder::setFinalScore);
-        ResultSetHelper.applyResultSetLong(rs, "placement", sBuilder::setPlacement);
-        ResultSetHelper.applyResultSetBool(rs, "mark_for_purchase", sBuilder::setMarkForPurchase);
-        ResultSetHelper.applyResultSetString(rs, "thurgood_job_id", sBuilder::setThurgoodJobId);
-        ResultSetHelper.applyResultSetLong(rs, "submission_id", sBuilder::setSubmissionId);
-        ResultSetHelper.applyResultSetInt(rs, "user_rank", sBuilder::setUserRank);
-        ResultSetHelper.applyResultSetString(rs, "submission_create_user", sBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_create_date", sBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "submission_modify_user", sBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_modify_date", sBuilder::setModifyDate);
-        builder.setSubmission(sBuilder.build());
-        EntityProto.Builder ssBuilder = EntityProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "submission_status_id", ssBuilder::setId);
-        ResultSetHelper.applyResultSetString(rs, "submission_status_create_user", ssBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_status_create_date", ssBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "submission_status_modify_user", ssBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_status_modify_date", ssBuilder::setModifyDate);
-        ResultSetHelper.applyResultSetString(rs, "submission_status_name", ssBuilder::setName);
-        ResultSetHelper.applyResultSetString(rs, "submission_status_description", ssBuilder::setDescription);
-        builder.setSubmissionStatus(ssBuilder.build());
-        EntityProto.Builder stBuilder = EntityProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "submission_type_id", stBuilder::setId);
-        ResultSetHelper.applyResultSetString(rs, "submission_type_create_user", stBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_type_create_date", stBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "submission_type_modify_user", stBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "submission_type_modify_date", stBuilder::setModifyDate);
-        ResultSetHelper.applyResultSetString(rs, "submission_type_name", stBuilder::setName);
-        ResultSetHelper.applyResultSetString(rs, "submission_type_description", stBuilder::setDescription);
-        builder.setSubmissionType(stBuilder.build());
-        PrizeProto.Builder pBuilder = PrizeProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "prize_id", pBuilder::setPrizeId);
-        ResultSetHelper.applyResultSetInt(rs, "place", pBuilder::setPlace);
-        ResultSetHelper.applyResultSetDouble(rs, "prize_amount", pBuilder::setPrizeAmount);
-        ResultSetHelper.applyResultSetInt(rs, "number_of_submissions", pBuilder::setNumberOfSubmissions);
-        ResultSetHelper.applyResultSetString(rs, "prize_create_user", pBuilder::setCreateUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "prize_create_date", pBuilder::setCreateDate);
-        ResultSetHelper.applyResultSetString(rs, "prize_modify_user", pBuilder::setModifyUser);
-        ResultSetHelper.applyResultSetTimestamp(rs, "prize_modify_date", pBuilder::setModifyDate);
-        builder.setPrize(pBuilder.build());
-        PrizeTypeProto.Builder ptBuilder = PrizeTypeProto.newBuilder();
-        ResultSetHelper.applyResultSetLong(rs, "prize_type_id", ptBuilder::setPrizeTypeId);
-        ResultSetHelper.applyResultSetString(rs, "prize_type_desc", ptBuilder::setPrizeTypeDesc);
-        builder.setPrizeType(ptBuilder.build());
-        builder.setUpload(loadUpload(rs));
-        return builder.build();
+    private static RowMapper<SubmissionCompleteProto> submissionMapper(String sql) {
+        return SUBMISSION_COLUMNS.rowMapper(sql, SubmissionCompleteProto::newBuilder,
+                SubmissionCompleteProto.Builder::build);
+    }
+
+    private static ColumnMapper<EntityProto.Builder> entityColumns(String prefix) {
+        return new ColumnMapper<EntityProto.Builder>()
+                .longColumn(prefix + "_id", EntityProto.Builder::setId)
+                .stringColumn(prefix + "_create_user", EntityProto.Builder::setCreateUser)
+                .timestampColumn(prefix + "_create_date", EntityProto.Builder::setCreateDate)
+                .stringColumn(prefix + "_modify_user", EntityProto.Builder::setModifyUser)
+                .timestampColumn(prefix + "_modify_date", EntityProto.Builder::setModifyDate)
+                .stringColumn(prefix + "_name", EntityProto.Builder::setName)
+                .stringColumn(prefix + "_description", EntityProto.Builder::setDescription);
     }
 }
\ No newline at end of file
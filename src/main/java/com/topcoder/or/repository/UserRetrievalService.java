@@ -10,6 +10,7 @@ import com.topcoder.or.util.ResultSetHelper;
 
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.jdbc.core.RowMapper;
 
 @GrpcService
 public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrievalServiceImplBase {
@@ -22,7 +23,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     @Override
     public void getUsersByUserIds(UserIdsRequest request, StreamObserver<GetUsersResponse> responseObserver) {
         List<ExternalUserProto> result = getUsers(validateAndGetUserIdCondition(request),
-                request.getIdsList().toArray());
+                request.getIdsList());
         responseObserver.onNext(GetUsersResponse.newBuilder().addAllExternalUsers(result).build());
         responseObserver.onCompleted();
     }
@@ -30,7 +31,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     @Override
     public void getUsersByHandles(HandlesRequest request, StreamObserver<GetUsersResponse> responseObserver) {
         List<ExternalUserProto> result = getUsers(validateAndGetHandlesCondition(request),
-                request.getHandlesList().toArray());
+                request.getHandlesList());
         responseObserver.onNext(GetUsersResponse.newBuilder().addAllExternalUsers(result).build());
         responseObserver.onCompleted();
     }
@@ -38,7 +39,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     @Override
     public void getUsersByLowerHandles(HandlesRequest request, StreamObserver<GetUsersResponse> responseObserver) {
         List<ExternalUserProto> result = getUsers(validateAndGetLowerHandlesCondition(request),
-                request.getHandlesList().stream().map(String::toLowerCase).toArray());
+                request.getHandlesList().stream().map(String::toLowerCase).toList());
         responseObserver.onNext(GetUsersResponse.newBuilder().addAllExternalUsers(result).build());
         responseObserver.onCompleted();
     }
@@ -48,7 +49,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         List<String> names = new ArrayList<>();
         names.add(request.getFirstName());
         names.add(request.getLastName());
-        List<ExternalUserProto> result = getUsers(validateAndGetNameCondition(request), names.toArray());
+        List<ExternalUserProto> result = getUsers(validateAndGetNameCondition(request), names);
         responseObserver.onNext(GetUsersResponse.newBuilder().addAllExternalUsers(result).build());
         responseObserver.onCompleted();
     }
@@ -57,7 +58,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getAlternativeEmailsByUserIds(UserIdsRequest request,
             StreamObserver<GetAlternativeEmailsResponse> responseObserver) {
         List<EmailProto> result = getAlternativeEmails(validateAndGetUserIdCondition(request),
-                request.getIdsList().toArray());
+                request.getIdsList());
         responseObserver.onNext(GetAlternativeEmailsResponse.newBuilder().addAllEmails(result).build());
         responseObserver.onCompleted();
     }
@@ -66,7 +67,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getAlternativeEmailsByHandles(HandlesRequest request,
             StreamObserver<GetAlternativeEmailsResponse> responseObserver) {
         List<EmailProto> result = getAlternativeEmails(validateAndGetHandlesCondition(request),
-                request.getHandlesList().toArray());
+                request.getHandlesList());
         responseObserver.onNext(GetAlternativeEmailsResponse.newBuilder().addAllEmails(result).build());
         responseObserver.onCompleted();
     }
@@ -75,7 +76,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getAlternativeEmailsByLowerHandles(HandlesRequest request,
             StreamObserver<GetAlternativeEmailsResponse> responseObserver) {
         List<EmailProto> result = getAlternativeEmails(validateAndGetLowerHandlesCondition(request),
-                request.getHandlesList().stream().map(String::toLowerCase).toArray());
+                request.getHandlesList().stream().map(String::toLowerCase).toList());
         responseObserver.onNext(GetAlternativeEmailsResponse.newBuilder().addAllEmails(result).build());
         responseObserver.onCompleted();
     }
@@ -86,7 +87,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         List<String> names = new ArrayList<>();
         names.add(request.getFirstName());
         names.add(request.getLastName());
-        List<EmailProto> result = getAlternativeEmails(validateAndGetNameCondition(request), names.toArray());
+        List<EmailProto> result = getAlternativeEmails(validateAndGetNameCondition(request), names);
         responseObserver.onNext(GetAlternativeEmailsResponse.newBuilder().addAllEmails(result).build());
         responseObserver.onCompleted();
     }
@@ -95,7 +96,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getUserRatingsByUserIds(UserIdsRequest request,
             StreamObserver<GetUserRatingsResponse> responseObserver) {
         List<UserRatingProto> result = getUserRatings(validateAndGetUserIdCondition(request),
-                request.getIdsList().toArray());
+                request.getIdsList());
         responseObserver.onNext(GetUserRatingsResponse.newBuilder().addAllUserRatings(result).build());
         responseObserver.onCompleted();
     }
@@ -104,7 +105,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getUserRatingsByHandles(HandlesRequest request,
             StreamObserver<GetUserRatingsResponse> responseObserver) {
         List<UserRatingProto> result = getUserRatings(validateAndGetHandlesCondition(request),
-                request.getHandlesList().toArray());
+                request.getHandlesList());
         responseObserver.onNext(GetUserRatingsResponse.newBuilder().addAllUserRatings(result).build());
         responseObserver.onCompleted();
     }
@@ -113,7 +114,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
     public void getUserRatingsByLowerHandles(HandlesRequest request,
             StreamObserver<GetUserRatingsResponse> responseObserver) {
         List<UserRatingProto> result = getUserRatings(validateAndGetLowerHandlesCondition(request),
-                request.getHandlesList().stream().map(String::toLowerCase).toArray());
+                request.getHandlesList().stream().map(String::toLowerCase).toList());
         responseObserver.onNext(GetUserRatingsResponse.newBuilder().addAllUserRatings(result).build());
         responseObserver.onCompleted();
     }
@@ -124,7 +125,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         List<String> names = new ArrayList<>();
         names.add(request.getFirstName());
         names.add(request.getLastName());
-        List<UserRatingProto> result = getUserRatings(validateAndGetNameCondition(request), names.toArray());
+        List<UserRatingProto> result = getUserRatings(validateAndGetNameCondition(request), names);
         responseObserver.onNext(GetUserRatingsResponse.newBuilder().addAllUserRatings(result).build());
         responseObserver.onCompleted();
     }
@@ -134,8 +135,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         String condition = """
                 u.user_id in (%s)
                 """;
-        String inSql = Helper.getInClause(request.getIdsCount());
-        return condition.formatted(inSql);
+        return condition;
     }
 
     private String validateAndGetHandlesCondition(HandlesRequest request) {
@@ -143,8 +143,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         String condition = """
                 u.handle in (%s)
                 """;
-        String inSql = Helper.getInClause(request.getHandlesCount());
-        return condition.formatted(inSql);
+        return condition;
     }
 
     private String validateAndGetLowerHandlesCondition(HandlesRequest request) {
@@ -152,8 +151,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         String condition = """
                 u.handle_lower in (%s)
                 """;
-        String inSql = Helper.getInClause(request.getHandlesCount());
-        return condition.formatted(inSql);
+        return condition;
     }
 
     private String validateAndGetNameCondition(NameRequest request) {
@@ -164,13 +162,13 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         return condition;
     }
 
-    private List<ExternalUserProto> getUsers(String condition, Object[] parameters) {
+    private List<ExternalUserProto> getUsers(String condition, List<?> parameters) {
         String sql = """
                 SELECT u.user_id, first_name, last_name, handle, address
                 FROM user u, email
                 WHERE u.user_id = email.user_id AND email.primary_ind = 1 AND
                 """ + condition;
-        return dbAccessor.executeQuery(sql, (rs, _i) -> {
+        return executeConditionQuery(sql, (rs, _i) -> {
             ExternalUserProto.Builder builder = ExternalUserProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setUserId);
             ResultSetHelper.applyResultSetString(rs, 2, builder::setFirstName);
@@ -181,13 +179,13 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         }, parameters);
     }
 
-    private List<EmailProto> getAlternativeEmails(String condition, Object[] parameters) {
+    private List<EmailProto> getAlternativeEmails(String condition, List<?> parameters) {
         String sql = """
                 SELECT u.user_id, address
                 FROM user u, email
                 WHERE u.user_id = email.user_id AND email.primary_ind = 0 AND
                 """ + condition;
-        return dbAccessor.executeQuery(sql, (rs, _i) -> {
+        return executeConditionQuery(sql, (rs, _i) -> {
             EmailProto.Builder builder = EmailProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setUserId);
             ResultSetHelper.applyResultSetString(rs, 2, builder::setAddress);
@@ -195,7 +193,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         }, parameters);
     }
 
-    private List<UserRatingProto> getUserRatings(String condition, Object[] parameters) {
+    private List<UserRatingProto> getUserRatings(String condition, List<?> parameters) {
         String sql = """
                 SELECT u.user_id id, r.rating rating, r.phase_id phaseId, vol volatility, num_ratings numRatings, ur.rating reliability
                 FROM user u, user_rating r,
@@ -203,7 +201,7 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
                 WHERE u.user_id = r.user_id AND u.user_id = ur.user_id AND r.phase_id = ur.phase_id AND
                 """
                 + condition;
-        return dbAccessor.executeQuery(sql, (rs, _i) -> {
+        return executeConditionQuery(sql, (rs, _i) -> {
             UserRatingProto.Builder builder = UserRatingProto.newBuilder();
             ResultSetHelper.applyResultSetLong(rs, 1, builder::setUserId);
             ResultSetHelper.applyResultSetInt(rs, 2, builder::setRating);
@@ -215,6 +213,18 @@ public class UserRetrievalService extends UserRetrievalServiceGrpc.UserRetrieval
         }, parameters);
     }
 
+    /**
+     * Run a query built from one of the conditions above. The id and handle
+     * conditions are IN lists of any length with {@code %s} for the
+     * placeholders; the name condition binds its parameters directly.
+     */
+    private <T> List<T> executeConditionQuery(String sql, RowMapper<T> mapper, List<?> parameters) {
+        if (sql.contains("%s")) {
+            return dbAccessor.executeInQuery(sql, mapper, parameters);
+        }
+        return dbAccessor.executeQuery(sql, mapper, parameters.toArray());
+    }
+
     private void validateUserIdsRequest(UserIdsRequest request) {
         Helper.assertObjectNotEmpty(request::getIdsCount, "user_ids");
     }
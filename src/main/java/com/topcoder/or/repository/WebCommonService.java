@@ -1,9 +1,7 @@
 package com.topcoder.or.repository;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import com.google.protobuf.Empty;
 import com.topcoder.onlinereview.component.shared.dataaccess.DataAccess;
@@ -11,6 +9,8 @@ import com.topcoder.onlinereview.component.shared.dataaccess.Request;
 import com.topcoder.onlinereview.grpc.webcommon.proto.*;
 import com.topcoder.or.util.DBAccessor;
 import com.topcoder.or.util.Helper;
+import com.topcoder.or.util.QueryProfile;
+import com.topcoder.or.util.ResultRows;
 import com.topcoder.or.util.ResultSetHelper;
 
 import io.grpc.stub.StreamObserver;
@@ -28,26 +28,21 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
     public void getUserPassword(GetUserPasswordRequest request,
             StreamObserver<GetUserPasswordResponse> responseObserver) {
         validateGetUserPasswordRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "userid_to_password";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         GetUserPasswordResponse response;
         if (userData.isEmpty()) {
             response = GetUserPasswordResponse.getDefaultInstance();
         } else {
             GetUserPasswordResponse.Builder builder = GetUserPasswordResponse.newBuilder();
-            String password = Helper.getString(userData.get(0), "password");
-            if (password != null) {
-                builder.setPassword(password);
-            }
-            String status = Helper.getString(userData.get(0), "status");
-            if (status != null) {
-                builder.setStatus(status);
-            }
+            userData.applyString(0, userData.column("password"), builder::setPassword);
+            userData.applyString(0, userData.column("status"), builder::setStatus);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -58,22 +53,20 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
     public void getUserTimezone(GetUserTimezoneRequest request,
             StreamObserver<GetUserTimezoneResponse> responseObserver) {
         validateGetUserTimezoneRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "user_timezone";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("uid", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         GetUserTimezoneResponse response;
         if (userData.isEmpty()) {
             response = GetUserTimezoneResponse.getDefaultInstance();
         } else {
             GetUserTimezoneResponse.Builder builder = GetUserTimezoneResponse.newBuilder();
-            String timeZone = Helper.getString(userData.get(0), "timezone_desc");
-            if (timeZone != null) {
-                builder.setTimezoneDesc(timeZone);
-            }
+            userData.applyString(0, userData.column("timezone_desc"), builder::setTimezoneDesc);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -82,21 +75,19 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
 
     @Override
     public void getMemberCount(Empty request, StreamObserver<GetMemberCountResponse> responseObserver) {
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "member_count";
         dbRequest.setContentHandle(queryName);
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         GetMemberCountResponse response;
         if (userData.isEmpty()) {
             response = GetMemberCountResponse.getDefaultInstance();
         } else {
             GetMemberCountResponse.Builder builder = GetMemberCountResponse.newBuilder();
-            Integer memberCount = Helper.getInt(userData.get(0), "member_count");
-            if (memberCount != null) {
-                builder.setMemberCount(memberCount);
-            }
+            userData.applyInt(0, userData.column("member_count"), builder::setMemberCount);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -106,30 +97,22 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
     @Override
     public void getMemberImage(GetMemberImageRequest request, StreamObserver<GetMemberImageResponse> responseObserver) {
         validateGetMemberImageRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "member_image";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("cr", String.valueOf(request.getUserId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault("coder_image_data", new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault("coder_image_data", ResultRows.empty());
         GetMemberImageResponse response;
         if (userData.isEmpty()) {
             response = GetMemberImageResponse.getDefaultInstance();
         } else {
             GetMemberImageResponse.Builder builder = GetMemberImageResponse.newBuilder();
-            Integer imageId = Helper.getInt(userData.get(0), "image_id");
-            if (imageId != null) {
-                builder.setImageId(imageId);
-            }
-            String imagePath = Helper.getString(userData.get(0), "image_path");
-            if (imagePath != null) {
-                builder.setImagePath(imagePath);
-            }
-            String fileName = Helper.getString(userData.get(0), "file_name");
-            if (fileName != null) {
-                builder.setFileName(fileName);
-            }
+            userData.applyInt(0, userData.column("image_id"), builder::setImageId);
+            userData.applyString(0, userData.column("image_path"), builder::setImagePath);
+            userData.applyString(0, userData.column("file_name"), builder::setFileName);
             response = builder.build();
         }
         responseObserver.onNext(response);
@@ -140,87 +123,36 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
     public void getCoderAllRatings(GetCoderAllRatingsRequest request,
             StreamObserver<GetCoderAllRatingsResponse> responseObserver) {
         validateGetCoderAllRatingsRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.POINT_LOOKUP);
         Request dbRequest = new Request();
         String queryName = "coder_all_ratings";
         dbRequest.setContentHandle(queryName);
         dbRequest.setProperty("cr", String.valueOf(request.getCoderId()));
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         GetCoderAllRatingsResponse response;
         if (userData.isEmpty()) {
             response = GetCoderAllRatingsResponse.getDefaultInstance();
         } else {
-            Map<String, Object> data = userData.get(0);
             CoderRatingsProto.Builder builder = CoderRatingsProto.newBuilder();
-            Long coderId = Helper.getLong(data, "coder_id");
-            if (coderId != null) {
-                builder.setCoderId(coderId);
-            }
-            String handle = Helper.getString(data, "handle");
-            if (handle != null) {
-                builder.setHandle(handle);
-            }
-            Integer algorithmRating = Helper.getInt(data, "algorithm_rating");
-            if (algorithmRating != null) {
-                builder.setAlgorithmRating(algorithmRating);
-            }
-            Integer hsAlgorithmRating = Helper.getInt(data, "hs_algorithm_rating");
-            if (hsAlgorithmRating != null) {
-                builder.setHsAlgorithmRating(hsAlgorithmRating);
-            }
-            Integer marathonMatchRating = Helper.getInt(data, "marathon_match_rating");
-            if (marathonMatchRating != null) {
-                builder.setMarathonMatchRating(marathonMatchRating);
-            }
-            Integer designRating = Helper.getInt(data, "design_rating");
-            if (designRating != null) {
-                builder.setDesignRating(designRating);
-            }
-            Integer developmentRating = Helper.getInt(data, "development_rating");
-            if (developmentRating != null) {
-                builder.setDevelopmentRating(developmentRating);
-            }
-            Integer conceptualizationRating = Helper.getInt(data, "conceptualization_rating");
-            if (conceptualizationRating != null) {
-                builder.setConceptualizationRating(conceptualizationRating);
-            }
-            Integer specificationRating = Helper.getInt(data, "specification_rating");
-            if (specificationRating != null) {
-                builder.setSpecificationRating(specificationRating);
-            }
-            Integer architectureRating = Helper.getInt(data, "architecture_rating");
-            if (architectureRating != null) {
-                builder.setArchitectureRating(architectureRating);
-            }
-            Integer assemblyRating = Helper.getInt(data, "assembly_rating");
-            if (assemblyRating != null) {
-                builder.setAssemblyRating(assemblyRating);
-            }
-            Integer testSuitesRating = Helper.getInt(data, "test_suites_rating");
-            if (testSuitesRating != null) {
-                builder.setTestSuitesRating(testSuitesRating);
-            }
-            Integer testScenariosRating = Helper.getInt(data, "test_scenarios_rating");
-            if (testScenariosRating != null) {
-                builder.setTestScenariosRating(testScenariosRating);
-            }
-            Integer uiPrototypeRating = Helper.getInt(data, "ui_prototype_rating");
-            if (uiPrototypeRating != null) {
-                builder.setUiPrototypeRating(uiPrototypeRating);
-            }
-            Integer riaBuildRating = Helper.getInt(data, "ria_build_rating");
-            if (riaBuildRating != null) {
-                builder.setRiaBuildRating(riaBuildRating);
-            }
-            Integer contentCreationRating = Helper.getInt(data, "content_creation_rating");
-            if (contentCreationRating != null) {
-                builder.setContentCreationRating(contentCreationRating);
-            }
-            Integer reportingRating = Helper.getInt(data, "reporting_rating");
-            if (reportingRating != null) {
-                builder.setReportingRating(reportingRating);
-            }
+            userData.applyLong(0, userData.column("coder_id"), builder::setCoderId);
+            userData.applyString(0, userData.column("handle"), builder::setHandle);
+            userData.applyInt(0, userData.column("algorithm_rating"), builder::setAlgorithmRating);
+            userData.applyInt(0, userData.column("hs_algorithm_rating"), builder::setHsAlgorithmRating);
+            userData.applyInt(0, userData.column("marathon_match_rating"), builder::setMarathonMatchRating);
+            userData.applyInt(0, userData.column("design_rating"), builder::setDesignRating);
+            userData.applyInt(0, userData.column("development_rating"), builder::setDevelopmentRating);
+            userData.applyInt(0, userData.column("conceptualization_rating"), builder::setConceptualizationRating);
+            userData.applyInt(0, userData.column("specification_rating"), builder::setSpecificationRating);
+            userData.applyInt(0, userData.column("architecture_rating"), builder::setArchitectureRating);
+            userData.applyInt(0, userData.column("assembly_rating"), builder::setAssemblyRating);
+            userData.applyInt(0, userData.column("test_suites_rating"), builder::setTestSuitesRating);
+            userData.applyInt(0, userData.column("test_scenarios_rating"), builder::setTestScenariosRating);
+            userData.applyInt(0, userData.column("ui_prototype_rating"), builder::setUiPrototypeRating);
+            userData.applyInt(0, userData.column("ria_build_rating"), builder::setRiaBuildRating);
+            userData.applyInt(0, userData.column("content_creation_rating"), builder::setContentCreationRating);
+            userData.applyInt(0, userData.column("reporting_rating"), builder::setReportingRating);
             response = GetCoderAllRatingsResponse.newBuilder().setCoderRatings(builder.build()).build();
         }
         responseObserver.onNext(response);
@@ -230,29 +162,31 @@ public class WebCommonService extends WebCommonServiceGrpc.WebCommonServiceImplB
     @Override
     public void doStartTag(DoStartTagRequest request, StreamObserver<DoStartTagResponse> responseObserver) {
         validateDoStartTagRequest(request);
-        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate());
+        DataAccess dataAccess = new DataAccess(dbAccessor, dbAccessor.getOltpJdbcTemplate(),
+                QueryProfile.DW_ANALYTIC);
         Request dbRequest = new Request();
         String queryName = request.getCommand();
         dbRequest.setContentHandle(queryName);
         for (ParameterProto parameter : request.getParametersList()) {
             dbRequest.setProperty(parameter.getKey(), parameter.getValue());
         }
-        Map<String, List<Map<String, Object>>> result = dataAccess.getData(dbRequest);
-        List<Map<String, Object>> userData = result.getOrDefault(queryName, new ArrayList<>());
+        Map<String, ResultRows> result = dataAccess.getData(dbRequest);
+        ResultRows userData = result.getOrDefault(queryName, ResultRows.empty());
         DoStartTagResponse.Builder response = DoStartTagResponse.newBuilder();
-        if (userData != null) {
-            for (Map<String, Object> row : userData) {
-                ParameterListProto.Builder builder = ParameterListProto.newBuilder();
-                for (Entry<String, Object> entry : row.entrySet()) {
-                    ParameterProto.Builder pBuilder = ParameterProto.newBuilder();
-                    pBuilder.setKey(entry.getKey());
-                    if (entry.getValue() != null) {
-                        pBuilder.setValue(entry.getValue().toString());
-                    }
-                    builder.addParameters(pBuilder.build());
+        for (int i = 0; i < userData.size(); i++) {
+            ParameterListProto.Builder builder = ParameterListProto.newBuilder();
+            for (int column = 0; column < userData.getColumnCount(); column++) {
+                String label = userData.getColumnLabel(column);
+                if (userData.column(label) != column) {
+                    // a repeated label names its last column, as the key of a row map did
+                    continue;
                 }
-                response.addParameterLists(builder.build());
+                ParameterProto.Builder pBuilder = ParameterProto.newBuilder();
+                pBuilder.setKey(label);
+                userData.applyString(i, column, pBuilder::setValue);
+                builder.addParameters(pBuilder.build());
             }
+            response.addParameterLists(builder.build());
         }
         responseObserver.onNext(response.build());
         responseObserver.onCompleted();
@@ -0,0 +1,210 @@
+package com.topcoder.or.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.google.protobuf.Timestamp;
+
+/**
+ * Maps named columns of a result into a proto builder by column index. The
+ * columns and the builder setters are declared once; the names are resolved
+ * against the metadata of a result when its first row is mapped, so the rows
+ * themselves never look a column up by name. The resolved indexes are cached
+ * per statement text, so a statement run again skips the metadata too.
+ *
+ * <p>
+ * Nested messages are declared with {@link #nested}, which makes a complete
+ * proto with its lookups a single plan. The values are read with the
+ * {@link ResultSetHelper} index methods, so a null column leaves its field
+ * unset as before. Names are matched against the column labels ignoring case,
+ * the first column wins when a label repeats.
+ * </p>
+ *
+ * <p>
+ * A mapper is declared once, usually as a constant, and is not changed after
+ * its first use; it is then thread safe.
+ * </p>
+ *
+ * @param <B> the type of the builder
+ */
+public final class ColumnMapper<B> {
+
+    @FunctionalInterface
+    private interface Reader<B> {
+        void read(ResultSet rs, int index, B builder) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Step<B> {
+        int apply(ResultSet rs, int[] plan, int position, B builder) throws SQLException;
+    }
+
+    private final List<String> columns = new ArrayList<>();
+    private final List<Step<B>> steps = new ArrayList<>();
+    private final Map<String, int[]> plans = new ConcurrentHashMap<>();
+
+    public ColumnMapper<B> longColumn(String name, BiConsumer<B, Long> setter) {
+        return column(name, (rs, index, b) -> ResultSetHelper.applyResultSetLong(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> intColumn(String name, BiConsumer<B, Integer> setter) {
+        return column(name, (rs, index, b) -> ResultSetHelper.applyResultSetInt(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> doubleColumn(String name, BiConsumer<B, Double> setter) {
+        return column(name,
+                (rs, index, b) -> ResultSetHelper.applyResultSetDouble(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> floatColumn(String name, BiConsumer<B, Float> setter) {
+        return column(name,
+                (rs, index, b) -> ResultSetHelper.applyResultSetFloat(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> boolColumn(String name, BiConsumer<B, Boolean> setter) {
+        return column(name, (rs, index, b) -> ResultSetHelper.applyResultSetBool(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> stringColumn(String name, BiConsumer<B, String> setter) {
+        return column(name,
+                (rs, index, b) -> ResultSetHelper.applyResultSetString(rs, index, v -> setter.accept(b, v)));
+    }
+
+    public ColumnMapper<B> timestampColumn(String name, BiConsumer<B, Timestamp> setter) {
+        return column(name,
+                (rs, index, b) -> ResultSetHelper.applyResultSetTimestamp(rs, index, v -> setter.accept(b, v)));
+    }
+
+    /**
+     * Declare a nested message read from the columns of another mapper. The
+     * nested mapper is copied as it is now, so it is declared first.
+     *
+     * @param <C>        the type of the nested builder
+     * @param <M>        the type of the nested message
+     * @param mapper     the columns of the nested message
+     * @param newBuilder creates the nested builder
+     * @param build      builds the nested message
+     * @param setter     sets the nested message on the builder
+     * @return this mapper
+     */
+    public <C, M> ColumnMapper<B> nested(ColumnMapper<C> mapper, Supplier<C> newBuilder, Function<C, M> build,
+            BiConsumer<B, M> setter) {
+        columns.addAll(mapper.columns);
+        List<Step<C>> nestedSteps = List.copyOf(mapper.steps);
+        steps.add((rs, plan, position, b) -> {
+            C child = newBuilder.get();
+            int next = applySteps(nestedSteps, rs, plan, position, child);
+            setter.accept(b, build.apply(child));
+            return next;
+        });
+        return this;
+    }
+
+    /**
+     * Resolve the declared columns against the metadata of a result.
+     *
+     * @param metaData the metadata of the result
+     * @return the index of each declared column, in declaration order
+     * @throws SQLException if a declared column is not in the result
+     */
+    public int[] resolve(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            indexes.put(metaData.getColumnLabel(i).toLowerCase(), i);
+        }
+        int[] plan = new int[columns.size()];
+        for (int i = 0; i < plan.length; i++) {
+            Integer index = indexes.get(columns.get(i).toLowerCase());
+            if (index == null) {
+                throw new SQLException("The column '" + columns.get(i) + "' is not in the result.");
+            }
+            plan[i] = index;
+        }
+        return plan;
+    }
+
+    /**
+     * Read the current row into the builder.
+     *
+     * @param rs      the result positioned on the row
+     * @param plan    the indexes from {@link #resolve}
+     * @param builder the builder to fill
+     * @throws SQLException if a column cannot be read
+     */
+    public void apply(ResultSet rs, int[] plan, B builder) throws SQLException {
+        applySteps(steps, rs, plan, 0, builder);
+    }
+
+    /**
+     * Returns a row mapper resolving the columns once, on its first row.
+     *
+     * @param <T>        the type of the mapped rows
+     * @param newBuilder creates the builder of a row
+     * @param build      turns the filled builder into the row
+     * @return the row mapper, for one query
+     */
+    public <T> RowMapper<T> rowMapper(Supplier<B> newBuilder, Function<B, T> build) {
+        return rowMapper(null, newBuilder, build);
+    }
+
+    /**
+     * Returns a row mapper using the plan cached for the statement, resolving
+     * and caching it on the first row if there is none yet. The statement text
+     * is only a key, the template of an IN query will do.
+     *
+     * @param <T>        the type of the mapped rows
+     * @param sql        the statement the rows come from, null to resolve the
+     *                   plan once per row mapper
+     * @param newBuilder creates the builder of a row
+     * @param build      turns the filled builder into the row
+     * @return the row mapper
+     */
+    public <T> RowMapper<T> rowMapper(String sql, Supplier<B> newBuilder, Function<B, T> build) {
+        return new RowMapper<T>() {
+            private volatile int[] plan = sql == null ? null : plans.get(sql);
+
+            @Override
+            public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+                int[] current = plan;
+                if (current == null) {
+                    current = resolve(rs.getMetaData());
+                    plan = current;
+                    if (sql != null) {
+                        plans.putIfAbsent(sql, current);
+                    }
+                }
+                B builder = newBuilder.get();
+                apply(rs, current, builder);
+                return build.apply(builder);
+            }
+        };
+    }
+
+    private ColumnMapper<B> column(String name, Reader<B> reader) {
+        columns.add(name);
+        steps.add((rs, plan, position, b) -> {
+            reader.read(rs, plan[position], b);
+            return position + 1;
+        });
+        return this;
+    }
+
+    private static <B> int applySteps(List<Step<B>> steps, ResultSet rs, int[] plan, int position, B builder)
+            throws SQLException {
+        for (Step<B> step : steps) {
+            position = step.apply(rs, plan, position, builder);
+        }
+        return position;
+    }
+}
@@ -2,25 +2,104 @@ package com.topcoder.or.util;
 
 import org.slf4j.Logger;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 
 @Component
 public class DBAccessor {
+    /**
+     * The largest IN list bound in one statement. Longer lists are split into
+     * chunks of this size, so the statement text stays bounded and repeats.
+     * It is the largest IN bucket, so every chunk is a power-of-two arity.
+     */
+    public static final int IN_CHUNK_SIZE = Helper.MAX_IN_BUCKET;
+
+    /**
+     * The number of pool threads running the chunks of IN queries. When they are
+     * all busy a chunk runs on the calling thread instead of waiting in a queue.
+     */
+    private static final int IN_QUERY_PARALLELISM = 4;
+
+    /** The column an IN list is bound to, before {@code IN (%s)}. */
+    private static final Pattern IN_COLUMN = Pattern.compile("(?i)([\\w.]+)\\s+in\\s*\\(\\s*%s\\s*\\)");
+
+    /** The leading item of the ORDER BY clause and its direction. */
+    private static final Pattern ORDER_BY = Pattern.compile("(?i)\\border\\s+by\\s+([\\w.]+)(\\s+desc\\b)?");
+
+    /** The GROUP BY clause. */
+    private static final Pattern GROUP_BY = Pattern.compile("(?i)\\bgroup\\s+by\\b");
+
+    /** The session temporary table holding the IN values of an ordered or grouped query. */
+    private static final String IN_VALUES_TABLE = "tmp_in_values";
+
+    /** The longest string IN value kept in {@link #IN_VALUES_TABLE}. */
+    private static final int IN_VALUES_MAX_LENGTH = 255;
+
+    /** Queries selecting distinct rows, whose merged rows are deduplicated. */
+    private static final Pattern DISTINCT = Pattern.compile("(?i)^\\s*select\\s+(distinct|unique)\\b");
+
+    /** The default number of rows sent to the database in one batch by {@link #batchUpdate}. */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /** The table written by an INSERT, UPDATE or DELETE, without its database prefix. */
+    private static final Pattern WRITTEN_TABLE = Pattern
+            .compile("(?i)^\\s*(?:insert\\s+into|update|delete\\s+from)\\s+(?:\\w+:)?(\\w+)");
+
     private final JdbcTemplate tcsJdbcTemplate;
     private final JdbcTemplate oltpJdbcTemplate;
     private final JdbcTemplate tcsDwJdbcTemplate;
     private final JdbcTemplate commonJdbcTemplate;
     private final Logger logger;
+    private final ExecutorService inQueryExecutor;
+    private final StatementShapeStats inStatementStats = new StatementShapeStats();
+    private final List<Consumer<String>> tableWriteListeners = new CopyOnWriteArrayList<>();
+    private final Map<JdbcTemplate, DataSourceTransactionManager> transactionManagers = new ConcurrentHashMap<>();
 
     public DBAccessor(JdbcTemplate tcsJdbcTemplate, JdbcTemplate oltpJdbcTemplate, JdbcTemplate tcsDwJdbcTemplate,
             JdbcTemplate commonJdbcTemplate, Logger logger) {
@@ -29,6 +108,19 @@ public class DBAccessor {
         this.tcsDwJdbcTemplate = tcsDwJdbcTemplate;
         this.commonJdbcTemplate = commonJdbcTemplate;
         this.logger = logger;
+        AtomicInteger threads = new AtomicInteger();
+        // no queue: a chunk the pool cannot take at once runs on the caller's thread
+        this.inQueryExecutor = new ThreadPoolExecutor(IN_QUERY_PARALLELISM, IN_QUERY_PARALLELISM, 0L,
+                TimeUnit.MILLISECONDS, new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "in-query-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        inQueryExecutor.shutdownNow();
     }
 
     public JdbcTemplate getTcsJdbcTemplate() {
@@ -47,6 +139,115 @@ public class DBAccessor {
         return commonJdbcTemplate;
     }
 
+    /**
+     * Returns the reuse of the IN statement texts run by
+     * {@link #executeInQuery} and {@link #executeInUpdate}.
+     *
+     * @return the executions per statement text
+     */
+    public StatementShapeStats getInStatementStats() {
+        return inStatementStats;
+    }
+
+    /**
+     * Add a listener told the name of the table written by every update run
+     * through this accessor, in lower case. Inside a transaction it is told
+     * again when the transaction completes.
+     *
+     * @param listener the listener
+     */
+    public void addTableWriteListener(Consumer<String> listener) {
+        tableWriteListeners.add(listener);
+    }
+
+    /**
+     * Run the work as one unit on the tcs database: every statement it runs
+     * through this accessor uses the same pooled connection, the changes are
+     * committed once when it returns and rolled back if it throws. A unit of
+     * work started inside another one joins it.
+     *
+     * @param <T>  This describes type of returning object
+     * @param work The statements to run
+     * @return the result of the work
+     * @throws DataAccessException exception
+     */
+    public <T> T executeInUnitOfWork(Supplier<T> work) throws DataAccessException {
+        return executeInUnitOfWork(tcsJdbcTemplate, TransactionDefinition.PROPAGATION_REQUIRED, work);
+    }
+
+    /**
+     * Run the work as one unit on the tcs database, like
+     * {@link #executeInUnitOfWork(Supplier)} for work without a result.
+     *
+     * @param work The statements to run
+     * @throws DataAccessException exception
+     */
+    public void executeInUnitOfWork(Runnable work) throws DataAccessException {
+        executeInUnitOfWork(tcsJdbcTemplate, TransactionDefinition.PROPAGATION_REQUIRED, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the work as a separate unit on the tcs database, committed on its own
+     * even when it is called inside another unit of work that rolls back later.
+     * It suits writes that must never be undone, such as reserving a block of
+     * ids.
+     *
+     * <p>
+     * Called inside another unit of work, it takes a second connection of the
+     * pool while the thread holds the first one. If every connection of the pool
+     * is held by such callers, none of them can get the second one. Callers that
+     * may run inside a unit of work should run the new unit on a bounded set of
+     * other threads, and the pool should have that many connections more than
+     * the units of work run at once (see {@link #isInUnitOfWork()}).
+     * </p>
+     *
+     * @param <T>  This describes type of returning object
+     * @param work The statements to run
+     * @return the result of the work
+     * @throws DataAccessException exception
+     */
+    public <T> T executeInNewUnitOfWork(Supplier<T> work) throws DataAccessException {
+        return executeInUnitOfWork(tcsJdbcTemplate, TransactionDefinition.PROPAGATION_REQUIRES_NEW, work);
+    }
+
+    /**
+     * Run the work in a transaction of the given database: every statement it
+     * runs through this accessor on that template uses the same pooled
+     * connection, the changes are committed once when it returns and rolled back
+     * if it throws.
+     *
+     * @param <T>          This describes type of returning object
+     * @param jdbcTemplate The template of the database
+     * @param propagation  How the unit joins a unit of work already running on
+     *                     the thread, one of the {@link TransactionDefinition}
+     *                     {@code PROPAGATION_} constants
+     * @param work         The statements to run
+     * @return the result of the work
+     * @throws DataAccessException exception
+     */
+    public <T> T executeInUnitOfWork(JdbcTemplate jdbcTemplate, int propagation, Supplier<T> work)
+            throws DataAccessException {
+        DataSourceTransactionManager transactionManager = transactionManagers.computeIfAbsent(jdbcTemplate,
+                template -> new DataSourceTransactionManager(template.getDataSource()));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager,
+                new DefaultTransactionDefinition(propagation));
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    /**
+     * Returns whether the current thread runs in a unit of work on the tcs
+     * database, holding one of its connections.
+     *
+     * @return true if a unit of work is running on the thread
+     */
+    public boolean isInUnitOfWork() {
+        DataSource dataSource = tcsJdbcTemplate == null ? null : tcsJdbcTemplate.getDataSource();
+        return dataSource != null && TransactionSynchronizationManager.hasResource(dataSource);
+    }
+
     /**
      * Execute query operation.
      *
@@ -68,6 +269,221 @@ public class DBAccessor {
         return jdbcTemplate.query(query, mapper, args);
     }
 
+    /**
+     * Execute query operation with the fetch size, row limit and timeout of a
+     * profile.
+     *
+     * @param <T>     This describes type of returning object
+     * @param profile The settings of the statement
+     * @param query   The complete query clause
+     * @param mapper  {@link org.springframework.jdbc.core.RowMapper RowMapper}
+     * @param args    The parameters to bind to query, may be null
+     * @return Mapped query result
+     * @throws DataAccessException exception
+     */
+    public <T> List<T> executeQuery(QueryProfile profile, String query, RowMapper<T> mapper,
+            @Nullable Object... args) throws DataAccessException {
+        return executeQuery(tcsJdbcTemplate, profile, query, mapper, args);
+    }
+
+    public <T> List<T> executeQuery(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+            RowMapper<T> mapper, @Nullable Object... args) throws DataAccessException {
+        logQuery("executeQuery", query, args);
+        return jdbcTemplate.query(statement(profile, query, args), mapper);
+    }
+
+    /**
+     * Execute query operation, handing every row to the handler while the result
+     * set is being read instead of collecting the rows first.
+     *
+     * @param query     The complete query clause
+     * @param fetchSize The number of rows the driver fetches per round trip
+     * @param handler   {@link org.springframework.jdbc.core.RowCallbackHandler
+     *                  RowCallbackHandler} called for each row
+     * @param args      The parameters to bind to query, may be null
+     * @throws DataAccessException exception
+     */
+    public void executeQuery(String query, int fetchSize, RowCallbackHandler handler, @Nullable Object... args)
+            throws DataAccessException {
+        executeQuery(tcsJdbcTemplate, query, fetchSize, handler, args);
+    }
+
+    public void executeQuery(JdbcTemplate jdbcTemplate, String query, int fetchSize, RowCallbackHandler handler,
+            @Nullable Object... args) throws DataAccessException {
+        executeQuery(jdbcTemplate, QueryProfile.STREAMING_EXPORT.withFetchSize(fetchSize), query, handler, args);
+    }
+
+    /**
+     * Execute query operation, handing every row to the handler while the result
+     * set is being read, with the fetch size, row limit and timeout of a profile.
+     *
+     * @param profile The settings of the statement
+     * @param query   The complete query clause
+     * @param handler {@link org.springframework.jdbc.core.RowCallbackHandler
+     *                RowCallbackHandler} called for each row
+     * @param args    The parameters to bind to query, may be null
+     * @throws DataAccessException exception
+     */
+    public void executeQuery(QueryProfile profile, String query, RowCallbackHandler handler,
+            @Nullable Object... args) throws DataAccessException {
+        executeQuery(tcsJdbcTemplate, profile, query, handler, args);
+    }
+
+    public void executeQuery(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+            RowCallbackHandler handler, @Nullable Object... args) throws DataAccessException {
+        logQuery("executeQueryStreaming", query, args);
+        jdbcTemplate.query(statement(profile, query, args), handler);
+    }
+
+    /**
+     * Execute a query with an IN list of any length. The query has one
+     * {@code %s} inside the parentheses of the IN, which is replaced with the
+     * placeholders; the leading arguments are bound before the IN values.
+     *
+     * <p>
+     * Lists longer than {@link #IN_CHUNK_SIZE} are split into chunks that run
+     * concurrently on separate pool connections, and the rows are concatenated.
+     * Inside a transaction the chunks run one after another on its connection.
+     * Rows of a DISTINCT or UNIQUE query are deduplicated after the merge.
+     * </p>
+     *
+     * <p>
+     * A query ordered by the IN column first, such as
+     * {@code ... WHERE review_id IN (%s) ORDER BY review_id, sort}, is split into
+     * chunks of sorted values, so the concatenated rows keep the order. Any other
+     * ordered or grouped query cannot be merged from chunks: its values are
+     * loaded into a session temporary table that the IN selects from, and it
+     * runs as one statement on one connection. The values of such a query must
+     * all be {@code Long}, all be {@code Integer} or {@code Short}, or all be
+     * strings of at most 255 characters; other values are rejected rather than
+     * run as one statement with an unbounded number of placeholders.
+     * </p>
+     *
+     * <p>
+     * The placeholders of each statement are padded to a power of two by
+     * repeating the last value (see {@link Helper#getInBucketSize(int)}), so
+     * a query only has a handful of statement texts for the caches to reuse.
+     * </p>
+     *
+     * @param <T>         This describes type of returning object
+     * @param query       The query clause with {@code %s} for the IN placeholders
+     * @param mapper      {@link org.springframework.jdbc.core.RowMapper RowMapper}
+     * @param inValues    The values of the IN list, not empty
+     * @param leadingArgs The parameters bound before the IN values
+     * @return Mapped query result
+     * @throws IllegalArgumentException if the values are empty, or are too many
+     *                                  for one statement and cannot be loaded
+     *                                  into a temporary table
+     * @throws DataAccessException      exception
+     */
+    public <T> List<T> executeInQuery(String query, RowMapper<T> mapper, Collection<?> inValues,
+            Object... leadingArgs) throws DataAccessException {
+        return executeInQuery(tcsJdbcTemplate, query, mapper, inValues, leadingArgs);
+    }
+
+    public <T> List<T> executeInQuery(JdbcTemplate jdbcTemplate, String query, RowMapper<T> mapper,
+            Collection<?> inValues, Object... leadingArgs) throws DataAccessException {
+        return executeInQuery(jdbcTemplate, QueryProfile.DEFAULT, query, mapper, inValues, leadingArgs);
+    }
+
+    /**
+     * Execute a query with an IN list of any length as
+     * {@link #executeInQuery(String, RowMapper, Collection, Object...)} does,
+     * every statement with the settings of the profile. The row limit applies to
+     * each chunk, not to the merged rows.
+     *
+     * @param <T>         This describes type of returning object
+     * @param profile     The settings of the statements
+     * @param query       The query clause with {@code %s} for the IN placeholders
+     * @param mapper      {@link org.springframework.jdbc.core.RowMapper RowMapper}
+     * @param inValues    The values of the IN list, not empty
+     * @param leadingArgs The parameters bound before the IN values
+     * @return Mapped query result
+     * @throws DataAccessException exception
+     */
+    public <T> List<T> executeInQuery(QueryProfile profile, String query, RowMapper<T> mapper,
+            Collection<?> inValues, Object... leadingArgs) throws DataAccessException {
+        return executeInQuery(tcsJdbcTemplate, profile, query, mapper, inValues, leadingArgs);
+    }
+
+    public <T> List<T> executeInQuery(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+            RowMapper<T> mapper, Collection<?> inValues, Object... leadingArgs) throws DataAccessException {
+        List<List<Object>> chunks = splitInValues(inValues);
+        if (chunks.size() > 1 && (ORDER_BY.matcher(query).find() || GROUP_BY.matcher(query).find())) {
+            List<Object> values = new ArrayList<>(new LinkedHashSet<>(inValues));
+            Boolean descending = orderedByInColumn(query, values);
+            if (descending != null) {
+                values.sort(descending ? Collections.reverseOrder() : null);
+                chunks = splitInValues(values);
+            } else {
+                String columnType = inValuesColumnType(values);
+                if (columnType != null) {
+                    return executeInQueryWithTempTable(jdbcTemplate, profile, query, mapper, values, columnType,
+                            leadingArgs);
+                }
+                throw new IllegalArgumentException("The " + values.size() + " IN values of an ordered or grouped"
+                        + " query should all be Long, Integer or Short, or String of at most "
+                        + IN_VALUES_MAX_LENGTH + " characters, to be loaded into a temporary table.");
+            }
+        }
+        if (chunks.size() == 1) {
+            List<Object> values = chunks.get(0);
+            return executeQuery(jdbcTemplate, profile, inStatement(query, values.size()), mapper,
+                    inArgs(leadingArgs, values));
+        }
+        List<T> result = new ArrayList<>();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (List<Object> chunk : chunks) {
+                result.addAll(executeQuery(jdbcTemplate, profile, inStatement(query, chunk.size()), mapper,
+                        inArgs(leadingArgs, chunk)));
+            }
+        } else {
+            List<Future<List<T>>> futures = new ArrayList<>(chunks.size());
+            for (List<Object> chunk : chunks) {
+                futures.add(inQueryExecutor.submit(() -> executeQuery(jdbcTemplate, profile,
+                        inStatement(query, chunk.size()), mapper, inArgs(leadingArgs, chunk))));
+            }
+            try {
+                for (Future<List<T>> future : futures) {
+                    result.addAll(awaitChunk(future));
+                }
+            } finally {
+                futures.forEach(f -> f.cancel(true));
+            }
+        }
+        if (DISTINCT.matcher(query).lookingAt()) {
+            return new ArrayList<>(new LinkedHashSet<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * Execute an update with an IN list of any length, such as a delete by ids.
+     * The query has one {@code %s} inside the parentheses of the IN; the leading
+     * arguments are bound before the IN values. Lists longer than
+     * {@link #IN_CHUNK_SIZE} run as one statement per chunk, one after another.
+     * The placeholders are padded as for {@link #executeInQuery}.
+     *
+     * @param query       The query clause with {@code %s} for the IN placeholders
+     * @param inValues    The values of the IN list, not empty
+     * @param leadingArgs The parameters bound before the IN values
+     * @return the number of rows affected
+     * @throws DataAccessException exception
+     */
+    public int executeInUpdate(String query, Collection<?> inValues, Object... leadingArgs)
+            throws DataAccessException {
+        return executeInUpdate(tcsJdbcTemplate, query, inValues, leadingArgs);
+    }
+
+    public int executeInUpdate(JdbcTemplate jdbcTemplate, String query, Collection<?> inValues,
+            Object... leadingArgs) throws DataAccessException {
+        int affected = 0;
+        for (List<Object> chunk : splitInValues(inValues)) {
+            affected += executeUpdate(jdbcTemplate, inStatement(query, chunk.size()), inArgs(leadingArgs, chunk));
+        }
+        return affected;
+    }
+
     /**
      * Execute update operation.
      *
@@ -83,25 +499,145 @@ public class DBAccessor {
     public int executeUpdate(JdbcTemplate jdbcTemplate, String query, @Nullable Object... args)
             throws DataAccessException {
         logQuery("executeUpdate", query, args);
-        return jdbcTemplate.update(query, args);
+        int affected = jdbcTemplate.update(query, args);
+        tableWritten(query);
+        return affected;
     }
 
     /**
-     * Execute update operation.
+     * Execute one update statement for every row of parameters as JDBC batches
+     * of {@link #DEFAULT_BATCH_SIZE} rows, so the rows take a round trip per
+     * batch instead of one each.
+     *
+     * @param query The update clause
+     * @param rows  The parameters of each row
+     * @return the number of rows affected by each row of parameters, or
+     *         {@link Statement#SUCCESS_NO_INFO} where the driver does not report it
+     * @throws DataAccessException exception
+     */
+    public int[] batchUpdate(String query, List<Object[]> rows) throws DataAccessException {
+        return batchUpdate(tcsJdbcTemplate, query, rows, DEFAULT_BATCH_SIZE, 0);
+    }
+
+    /**
+     * Execute one update statement for every row of parameters as JDBC batches,
+     * waiting for locks held by other sessions instead of failing at once.
+     *
+     * @param query            The update clause
+     * @param rows             The parameters of each row
+     * @param lockWaitSeconds  How long to wait for a lock ({@code SET LOCK MODE TO WAIT}),
+     *                         0 to fail at once
+     * @return the number of rows affected by each row of parameters, or
+     *         {@link Statement#SUCCESS_NO_INFO} where the driver does not report it
+     * @throws DataAccessException exception
+     */
+    public int[] batchUpdate(String query, List<Object[]> rows, int lockWaitSeconds) throws DataAccessException {
+        return batchUpdate(tcsJdbcTemplate, query, rows, DEFAULT_BATCH_SIZE, lockWaitSeconds);
+    }
+
+    /**
+     * Execute one update statement for every row of parameters as JDBC batches,
+     * on one connection of the given template. The table write listeners are told
+     * once, after the last batch.
+     *
+     * @param jdbcTemplate     The template of the database to update
+     * @param query            The update clause
+     * @param rows             The parameters of each row, may be null or empty
+     * @param batchSize        The number of rows sent to the database in one batch
+     * @param lockWaitSeconds  How long to wait for a lock ({@code SET LOCK MODE TO WAIT}),
+     *                         0 to fail at once
+     * @return the number of rows affected by each row of parameters, or
+     *         {@link Statement#SUCCESS_NO_INFO} where the driver does not report it
+     * @throws IllegalArgumentException if the batch size is not positive
+     * @throws DataAccessException exception
+     */
+    public int[] batchUpdate(JdbcTemplate jdbcTemplate, String query, List<Object[]> rows, int batchSize,
+            int lockWaitSeconds) throws DataAccessException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size should be positive.");
+        }
+        if (rows == null || rows.isEmpty()) {
+            return new int[0];
+        }
+        logQuery("batchUpdate", query, rows.size() + " rows");
+        int[] counts = jdbcTemplate.execute((ConnectionCallback<int[]>) con -> {
+            int[] affected = new int[rows.size()];
+            // the lock mode belongs to the session, so it is set on the connection running the batch
+            try (Statement statement = con.createStatement()) {
+                if (lockWaitSeconds > 0) {
+                    statement.execute("SET LOCK MODE TO WAIT " + lockWaitSeconds);
+                }
+                try (PreparedStatement ps = con.prepareStatement(query)) {
+                    for (int start = 0; start < rows.size(); start += batchSize) {
+                        int end = Math.min(rows.size(), start + batchSize);
+                        for (int i = start; i < end; i++) {
+                            new ArgumentPreparedStatementSetter(rows.get(i)).setValues(ps);
+                            ps.addBatch();
+                        }
+                        int[] batch = ps.executeBatch();
+                        System.arraycopy(batch, 0, affected, start, Math.min(batch.length, end - start));
+                    }
+                } finally {
+                    if (lockWaitSeconds > 0) {
+                        // the connection goes back to the pool
+                        statement.execute("SET LOCK MODE TO NOT WAIT");
+                    }
+                }
+            }
+            return affected;
+        });
+        tableWritten(query);
+        return counts;
+    }
+
+    /**
+     * Returns the total number of rows affected by a batch.
+     *
+     * @param counts The counts returned by {@link #batchUpdate}
+     * @return the sum of the counts, or -1 if the driver did not report a count
+     *         ({@link Statement#SUCCESS_NO_INFO}) and the total is unknown
+     */
+    public static int sumUpdateCounts(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count < 0) {
+                return -1;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Execute query operation and read the rows by column, with the numeric
+     * columns in primitive arrays, instead of into a map per row.
      *
      * @param query The query clause
      * @param args  The parameters to bind to query, may be null
-     * @return the result map list
+     * @return the rows of the result
      * @throws DataAccessException exception
      */
-    public List<Map<String, Object>> executeQuery(String query, @Nullable Object... args) throws DataAccessException {
-        return executeQuery(tcsJdbcTemplate, query, args);
+    public ResultRows executeQueryForRows(String query, @Nullable Object... args) throws DataAccessException {
+        return executeQueryForRows(tcsJdbcTemplate, query, args);
     }
 
-    public List<Map<String, Object>> executeQuery(JdbcTemplate jdbcTemplate, String query, @Nullable Object... args)
+    public ResultRows executeQueryForRows(JdbcTemplate jdbcTemplate, String query, @Nullable Object... args)
             throws DataAccessException {
-        logQuery("executeQueryForList", query, args);
-        return jdbcTemplate.queryForList(query, args);
+        logQuery("executeQueryForRows", query, args);
+        ResultSetExtractor<ResultRows> extractor = ResultRows::read;
+        return jdbcTemplate.query(query, extractor, args);
+    }
+
+    public ResultRows executeQueryForRows(QueryProfile profile, String query, @Nullable Object... args)
+            throws DataAccessException {
+        return executeQueryForRows(tcsJdbcTemplate, profile, query, args);
+    }
+
+    public ResultRows executeQueryForRows(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+            @Nullable Object... args) throws DataAccessException {
+        logQuery("executeQueryForRows", query, args);
+        ResultSetExtractor<ResultRows> extractor = ResultRows::read;
+        return jdbcTemplate.query(statement(profile, query, args), extractor);
     }
 
     public Number executeUpdateReturningKey(String query, PreparedStatementCreator psc) throws DataAccessException {
@@ -113,6 +649,7 @@ public class DBAccessor {
         logQuery("executeUpdate", query);
         GeneratedKeyHolder generatedKeyHolder = new GeneratedKeyHolder();
         jdbcTemplate.update(psc, generatedKeyHolder);
+        tableWritten(query);
         return generatedKeyHolder.getKey();
     }
 
@@ -121,6 +658,247 @@ public class DBAccessor {
         return jdbcTemplate.queryForRowSet(sql);
     }
 
+    /**
+     * Execute query operation and read the whole result into a disconnected row
+     * set, which can be read again later through
+     * {@link CachedRowSet#createShared()}. The columns are named by their labels,
+     * so aliased columns are found by the name a row mapper uses.
+     *
+     * @param query The complete query clause
+     * @param args  The parameters to bind to query, may be null
+     * @return the rows of the result
+     * @throws DataAccessException exception
+     */
+    public CachedRowSet executeQueryForCachedRowSet(String query, @Nullable Object... args)
+            throws DataAccessException {
+        logQuery("executeQueryForCachedRowSet", query, args);
+        ResultSetExtractor<CachedRowSet> extractor = DBAccessor::toCachedRowSet;
+        return tcsJdbcTemplate.query(query, extractor, args);
+    }
+
+    /**
+     * Execute query operation with Informix {@code SET EXPLAIN} on, so the query
+     * plan is written to the given file on the database server. Explain stays on
+     * for this statement only.
+     *
+     * @param query       The complete query clause
+     * @param explainFile The file the plan is written to
+     * @param execute     Whether the query runs; if not, it is only optimized
+     *                    ({@code AVOID_EXECUTE})
+     * @param args        The parameters to bind to query, may be null
+     * @return the number of rows read, -1 if the query did not run
+     * @throws DataAccessException exception
+     */
+    public long executeQueryWithExplain(String query, String explainFile, boolean execute, @Nullable Object... args)
+            throws DataAccessException {
+        logQuery("executeQueryWithExplain", query, args);
+        return tcsJdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try (Statement statement = con.createStatement()) {
+                statement.execute("SET EXPLAIN FILE TO '" + explainFile.replace("'", "''") + "'");
+                statement.execute(execute ? "SET EXPLAIN ON" : "SET EXPLAIN ON AVOID_EXECUTE");
+                try (PreparedStatement ps = con.prepareStatement(query)) {
+                    new ArgumentPreparedStatementSetter(args).setValues(ps);
+                    long rows = 0;
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (execute && rs.next()) {
+                            rows++;
+                        }
+                    }
+                    return execute ? rows : -1L;
+                } finally {
+                    // the connection goes back to the pool
+                    statement.execute("SET EXPLAIN OFF");
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a creator of the statement with the settings of the profile; a
+     * setting of 0 is left to the driver and the template.
+     */
+    private static PreparedStatementCreator statement(QueryProfile profile, String query, @Nullable Object[] args) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(query);
+            if (profile.getFetchSize() > 0) {
+                ps.setFetchSize(profile.getFetchSize());
+            }
+            if (profile.getMaxRows() > 0) {
+                ps.setMaxRows(profile.getMaxRows());
+            }
+            if (profile.getQueryTimeoutSeconds() > 0) {
+                ps.setQueryTimeout(profile.getQueryTimeoutSeconds());
+            }
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        };
+    }
+
+    /**
+     * Execute an ordered or grouped IN query as one statement, with the IN
+     * selecting from a session temporary table loaded with the values. The
+     * table is created, loaded, read and dropped on one connection.
+     */
+    private <T> List<T> executeInQueryWithTempTable(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+            RowMapper<T> mapper, List<Object> values, String columnType, Object[] leadingArgs)
+            throws DataAccessException {
+        String statement = query.formatted("SELECT value FROM " + IN_VALUES_TABLE);
+        inStatementStats.record(statement);
+        logQuery("executeInQueryWithTempTable", statement, leadingArgs);
+        return jdbcTemplate.execute((ConnectionCallback<List<T>>) con -> {
+            try (Statement ddl = con.createStatement()) {
+                ddl.execute("DROP TABLE IF EXISTS " + IN_VALUES_TABLE);
+                ddl.execute("CREATE TEMP TABLE " + IN_VALUES_TABLE + " (value " + columnType + ") WITH NO LOG");
+                try {
+                    try (PreparedStatement insert = con
+                            .prepareStatement("INSERT INTO " + IN_VALUES_TABLE + " (value) VALUES (?)")) {
+                        for (int i = 0; i < values.size(); i++) {
+                            insert.setObject(1, values.get(i));
+                            insert.addBatch();
+                            if ((i + 1) % IN_CHUNK_SIZE == 0 || i == values.size() - 1) {
+                                insert.executeBatch();
+                            }
+                        }
+                    }
+                    List<T> rows = new ArrayList<>();
+                    try (PreparedStatement ps = statement(profile, statement, leadingArgs).createPreparedStatement(con);
+                            ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(mapper.mapRow(rs, rows.size()));
+                        }
+                    }
+                    return rows;
+                } finally {
+                    // the connection goes back to the pool
+                    ddl.execute("DROP TABLE IF EXISTS " + IN_VALUES_TABLE);
+                }
+            }
+        });
+    }
+
+    /**
+     * Check whether the query is ordered by the IN column first and has no GROUP
+     * BY, so chunks of sorted values can be concatenated.
+     *
+     * @return whether the order is descending, or null if the chunks cannot be
+     *         concatenated in order or the values cannot be sorted
+     */
+    private static Boolean orderedByInColumn(String query, List<Object> values) {
+        if (GROUP_BY.matcher(query).find()) {
+            return null;
+        }
+        Matcher in = IN_COLUMN.matcher(query);
+        Matcher orderBy = ORDER_BY.matcher(query);
+        if (!in.find() || !orderBy.find() || !in.group(1).equalsIgnoreCase(orderBy.group(1))) {
+            return null;
+        }
+        Class<?> type = values.get(0).getClass();
+        if (!Comparable.class.isAssignableFrom(type) || values.stream().anyMatch(v -> v.getClass() != type)) {
+            return null;
+        }
+        return orderBy.group(2) != null;
+    }
+
+    /**
+     * Returns the column type of {@link #IN_VALUES_TABLE} for the values, or null
+     * if the table cannot hold them.
+     */
+    private static String inValuesColumnType(List<Object> values) {
+        Class<?> type = values.get(0).getClass();
+        if (values.stream().anyMatch(v -> v.getClass() != type)) {
+            return null;
+        }
+        if (type == Long.class) {
+            return "INT8";
+        }
+        if (type == Integer.class || type == Short.class) {
+            return "INTEGER";
+        }
+        if (type == String.class && values.stream().allMatch(v -> ((String) v).length() <= IN_VALUES_MAX_LENGTH)) {
+            return "VARCHAR(" + IN_VALUES_MAX_LENGTH + ")";
+        }
+        return null;
+    }
+
+    private static List<List<Object>> splitInValues(Collection<?> inValues) {
+        if (inValues == null || inValues.isEmpty()) {
+            throw new IllegalArgumentException("The IN values should not be empty.");
+        }
+        List<Object> values = new ArrayList<>(new LinkedHashSet<>(inValues));
+        List<List<Object>> chunks = new ArrayList<>((values.size() + IN_CHUNK_SIZE - 1) / IN_CHUNK_SIZE);
+        for (int start = 0; start < values.size(); start += IN_CHUNK_SIZE) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + IN_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private String inStatement(String query, int count) {
+        String statement = query.formatted(Helper.getInClause(Helper.getInBucketSize(count)));
+        inStatementStats.record(statement);
+        return statement;
+    }
+
+    private static Object[] inArgs(Object[] leadingArgs, List<Object> values) {
+        int leading = leadingArgs == null ? 0 : leadingArgs.length;
+        int bucket = Helper.getInBucketSize(values.size());
+        Object[] args = new Object[leading + bucket];
+        if (leading > 0) {
+            System.arraycopy(leadingArgs, 0, args, 0, leading);
+        }
+        // pad with the last value, which does not change the IN result
+        Object last = values.get(values.size() - 1);
+        for (int i = 0; i < bucket; i++) {
+            args[leading + i] = i < values.size() ? values.get(i) : last;
+        }
+        return args;
+    }
+
+    private static <T> List<T> awaitChunk(Future<List<T>> future) throws DataAccessException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an IN query chunk.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("IN query chunk failed.", e.getCause());
+        }
+    }
+
+    private static CachedRowSet toCachedRowSet(ResultSet rs) throws SQLException {
+        CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.populate(rs);
+        // the row set looks columns up by name only
+        RowSetMetaData metaData = (RowSetMetaData) rows.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            metaData.setColumnName(i, metaData.getColumnLabel(i));
+        }
+        return rows;
+    }
+
+    private void tableWritten(String query) {
+        if (tableWriteListeners.isEmpty()) {
+            return;
+        }
+        Matcher matcher = WRITTEN_TABLE.matcher(query);
+        if (!matcher.find()) {
+            return;
+        }
+        String table = matcher.group(1).toLowerCase();
+        tableWriteListeners.forEach(listener -> listener.accept(table));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // readers may cache the old rows until the transaction completes
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tableWriteListeners.forEach(listener -> listener.accept(table));
+                }
+            });
+        }
+    }
+
     private void logQuery(String type, String query, @Nullable Object... args) {
         String sanitized = query.substring(0, Math.min(query.length(), 150)).replaceAll("\n", " ");
         if (args != null && args.length > 0) {
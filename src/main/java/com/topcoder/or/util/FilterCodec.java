@@ -0,0 +1,398 @@
+package com.topcoder.or.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.util.SerializationUtils;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
+import com.topcoder.onlinereview.component.search.filter.AbstractSimpleFilter;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+/**
+ * Encodes and decodes the search filter tree carried in {@code FilterProto.filter}.
+ *
+ * <p>
+ * The bytes are a protobuf message with the following schema, written and read
+ * directly with the protobuf wire codec so that no generated classes are needed:
+ * </p>
+ *
+ * <pre>
+ * message FilterNode {
+ *   oneof node {
+ *     FilterList and = 1;
+ *     FilterList or = 2;
+ *     FilterNode not = 3;
+ *     SimpleNode equal_to = 4;
+ *     InNode in = 5;
+ *     LikeNode like = 6;
+ *     BetweenNode between = 7;
+ *     SimpleNode greater_than = 8;
+ *     SimpleNode greater_than_or_equal_to = 9;
+ *     SimpleNode less_than = 10;
+ *     SimpleNode less_than_or_equal_to = 11;
+ *     string is_null = 12;
+ *   }
+ * }
+ * message FilterList  { repeated FilterNode filters = 1; }
+ * message SimpleNode  { string name = 1; Value value = 2; }
+ * message InNode      { string name = 1; repeated Value values = 2; }
+ * message LikeNode    { string name = 1; string value = 2; uint32 escape = 3; }
+ * message BetweenNode { string name = 1; Value lower = 2; Value upper = 3; }
+ * message Value {
+ *   oneof kind {
+ *     sint64 long_value = 1;
+ *     sint32 int_value = 2;
+ *     string string_value = 3;
+ *     double double_value = 4;
+ *     bool bool_value = 5;
+ *     int64 date_millis = 6;
+ *     string decimal_value = 7;
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>
+ * A protobuf message never starts with byte 0xAC, so payloads starting with
+ * the Java serialization stream magic (0xACED) are still accepted and decoded
+ * with {@link SerializationUtils} for clients that send legacy blobs.
+ * </p>
+ */
+public final class FilterCodec {
+
+    private static final int AND = 1;
+    private static final int OR = 2;
+    private static final int NOT = 3;
+    private static final int EQUAL_TO = 4;
+    private static final int IN = 5;
+    private static final int LIKE = 6;
+    private static final int BETWEEN = 7;
+    private static final int GREATER_THAN = 8;
+    private static final int GREATER_THAN_OR_EQUAL_TO = 9;
+    private static final int LESS_THAN = 10;
+    private static final int LESS_THAN_OR_EQUAL_TO = 11;
+    private static final int IS_NULL = 12;
+
+    private static final int VALUE_LONG = 1;
+    private static final int VALUE_INT = 2;
+    private static final int VALUE_STRING = 3;
+    private static final int VALUE_DOUBLE = 4;
+    private static final int VALUE_BOOL = 5;
+    private static final int VALUE_DATE = 6;
+    private static final int VALUE_DECIMAL = 7;
+
+    /**
+     * The maximum nesting depth accepted when decoding, guards the recursive
+     * decoder against hostile payloads.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private FilterCodec() {
+    }
+
+    /**
+     * Decode the filter carried by a search request.
+     *
+     * @param bytes the filter bytes, either a FilterNode message or a legacy
+     *              Java-serialized Filter
+     * @return the decoded filter
+     * @throws IllegalArgumentException if the bytes are empty or malformed
+     */
+    public static Filter decode(ByteString bytes) {
+        if (bytes == null || bytes.isEmpty()) {
+            throw new IllegalArgumentException("filter is required");
+        }
+        if (isJavaSerialized(bytes)) {
+            try {
+                return (Filter) SerializationUtils.deserialize(bytes.toByteArray());
+            } catch (IllegalStateException | ClassCastException e) {
+                throw new IllegalArgumentException("filter is not a valid serialized Filter", e);
+            }
+        }
+        try {
+            CodedInputStream in = bytes.newCodedInput();
+            return readNode(in, 0);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("filter is not a valid FilterNode: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encode the given filter as a FilterNode message.
+     *
+     * @param filter the filter to encode
+     * @return the encoded bytes
+     * @throws IllegalArgumentException if the filter or one of its values has no
+     *                                  FilterNode representation
+     */
+    public static ByteString encode(Filter filter) {
+        ByteString.Output out = ByteString.newOutput();
+        CodedOutputStream cos = CodedOutputStream.newInstance(out);
+        try {
+            writeNode(cos, filter);
+            cos.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteString();
+    }
+
+    private static boolean isJavaSerialized(ByteString bytes) {
+        return bytes.size() >= 2 && bytes.byteAt(0) == (byte) 0xAC && bytes.byteAt(1) == (byte) 0xED;
+    }
+
+    private static Filter readNode(CodedInputStream in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new InvalidProtocolBufferException("filter nesting exceeds " + MAX_DEPTH);
+        }
+        Filter filter = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == IS_NULL) {
+                filter = new NullFilter(in.readStringRequireUtf8());
+                continue;
+            }
+            if (field < AND || field > IS_NULL) {
+                in.skipField(tag);
+                continue;
+            }
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                throw new InvalidProtocolBufferException("unexpected wire type for filter field " + field);
+            }
+            int oldLimit = in.pushLimit(in.readRawVarint32());
+            filter = switch (field) {
+            case AND -> new AndFilter(readList(in, depth));
+            case OR -> new OrFilter(readList(in, depth));
+            case NOT -> new NotFilter(readNode(in, depth + 1));
+            case IN -> readIn(in);
+            case LIKE -> readLike(in);
+            case BETWEEN -> readBetween(in);
+            default -> readSimple(in, field);
+            };
+            in.popLimit(oldLimit);
+        }
+        if (filter == null) {
+            throw new InvalidProtocolBufferException("empty filter node");
+        }
+        return filter;
+    }
+
+    private static List<Filter> readList(CodedInputStream in, int depth) throws IOException {
+        List<Filter> filters = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) != 1) {
+                in.skipField(tag);
+                continue;
+            }
+            int oldLimit = in.pushLimit(in.readRawVarint32());
+            filters.add(readNode(in, depth + 1));
+            in.popLimit(oldLimit);
+        }
+        return filters;
+    }
+
+    private static Filter readSimple(CodedInputStream in, int field) throws IOException {
+        String name = null;
+        Comparable value = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> name = in.readStringRequireUtf8();
+            case 2 -> value = readValueMessage(in);
+            default -> in.skipField(tag);
+            }
+        }
+        return switch (field) {
+        case EQUAL_TO -> new EqualToFilter(name, value);
+        case GREATER_THAN -> new GreaterThanFilter(name, value);
+        case GREATER_THAN_OR_EQUAL_TO -> new GreaterThanOrEqualToFilter(name, value);
+        case LESS_THAN -> new LessThanFilter(name, value);
+        default -> new LessThanOrEqualToFilter(name, value);
+        };
+    }
+
+    private static Filter readIn(CodedInputStream in) throws IOException {
+        String name = null;
+        List<Comparable> values = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> name = in.readStringRequireUtf8();
+            case 2 -> values.add(readValueMessage(in));
+            default -> in.skipField(tag);
+            }
+        }
+        return new InFilter(name, values);
+    }
+
+    private static Filter readLike(CodedInputStream in) throws IOException {
+        String name = null;
+        String value = null;
+        Character escape = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> name = in.readStringRequireUtf8();
+            case 2 -> value = in.readStringRequireUtf8();
+            case 3 -> escape = (char) in.readUInt32();
+            default -> in.skipField(tag);
+            }
+        }
+        return escape == null ? new LikeFilter(name, value) : new LikeFilter(name, value, escape);
+    }
+
+    private static Filter readBetween(CodedInputStream in) throws IOException {
+        String name = null;
+        Comparable lower = null;
+        Comparable upper = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1 -> name = in.readStringRequireUtf8();
+            case 2 -> lower = readValueMessage(in);
+            case 3 -> upper = readValueMessage(in);
+            default -> in.skipField(tag);
+            }
+        }
+        return new BetweenFilter(name, upper, lower);
+    }
+
+    private static Comparable readValueMessage(CodedInputStream in) throws IOException {
+        int oldLimit = in.pushLimit(in.readRawVarint32());
+        Comparable value = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case VALUE_LONG -> value = in.readSInt64();
+            case VALUE_INT -> value = in.readSInt32();
+            case VALUE_STRING -> value = in.readStringRequireUtf8();
+            case VALUE_DOUBLE -> value = in.readDouble();
+            case VALUE_BOOL -> value = in.readBool();
+            case VALUE_DATE -> value = new Date(in.readInt64());
+            case VALUE_DECIMAL -> value = new BigDecimal(in.readStringRequireUtf8());
+            default -> in.skipField(tag);
+            }
+        }
+        in.popLimit(oldLimit);
+        if (value == null) {
+            throw new InvalidProtocolBufferException("empty filter value");
+        }
+        return value;
+    }
+
+    private static void writeNode(CodedOutputStream out, Filter filter) throws IOException {
+        if (filter instanceof AndFilter f) {
+            out.writeBytes(AND, encodeList(f));
+        } else if (filter instanceof OrFilter f) {
+            out.writeBytes(OR, encodeList(f));
+        } else if (filter instanceof NotFilter f) {
+            out.writeBytes(NOT, encode(f.getFilter()));
+        } else if (filter instanceof NullFilter f) {
+            out.writeString(IS_NULL, f.getName());
+        } else if (filter instanceof EqualToFilter f) {
+            out.writeBytes(EQUAL_TO, encodeSimple(f));
+        } else if (filter instanceof GreaterThanFilter f) {
+            out.writeBytes(GREATER_THAN, encodeSimple(f));
+        } else if (filter instanceof GreaterThanOrEqualToFilter f) {
+            out.writeBytes(GREATER_THAN_OR_EQUAL_TO, encodeSimple(f));
+        } else if (filter instanceof LessThanFilter f) {
+            out.writeBytes(LESS_THAN, encodeSimple(f));
+        } else if (filter instanceof LessThanOrEqualToFilter f) {
+            out.writeBytes(LESS_THAN_OR_EQUAL_TO, encodeSimple(f));
+        } else if (filter instanceof BetweenFilter f) {
+            out.writeBytes(BETWEEN, encodeMessage(cos -> {
+                cos.writeString(1, f.getName());
+                writeValue(cos, 2, f.getLowerThreshold());
+                writeValue(cos, 3, f.getUpperThreshold());
+            }));
+        } else if (filter instanceof InFilter f) {
+            out.writeBytes(IN, encodeMessage(cos -> {
+                cos.writeString(1, f.getName());
+                for (Object value : f.getList()) {
+                    writeValue(cos, 2, value);
+                }
+            }));
+        } else if (filter instanceof LikeFilter f) {
+            out.writeBytes(LIKE, encodeMessage(cos -> {
+                cos.writeString(1, f.getName());
+                cos.writeString(2, f.getValue());
+                cos.writeUInt32(3, f.getEscapeCharacter());
+            }));
+        } else {
+            throw new IllegalArgumentException("unsupported filter type " + filter.getClass().getName());
+        }
+    }
+
+    private static ByteString encodeList(AbstractAssociativeFilter filter) throws IOException {
+        return encodeMessage(cos -> {
+            for (Object child : filter.getFilters()) {
+                cos.writeBytes(1, encode((Filter) child));
+            }
+        });
+    }
+
+    private static ByteString encodeSimple(AbstractSimpleFilter filter) throws IOException {
+        return encodeMessage(cos -> {
+            cos.writeString(1, filter.getName());
+            writeValue(cos, 2, filter.getValue());
+        });
+    }
+
+    private static void writeValue(CodedOutputStream out, int field, Object value) throws IOException {
+        out.writeBytes(field, encodeMessage(cos -> {
+            if (value instanceof Long v) {
+                cos.writeSInt64(VALUE_LONG, v);
+            } else if (value instanceof Integer v) {
+                cos.writeSInt32(VALUE_INT, v);
+            } else if (value instanceof String v) {
+                cos.writeString(VALUE_STRING, v);
+            } else if (value instanceof Double v) {
+                cos.writeDouble(VALUE_DOUBLE, v);
+            } else if (value instanceof Boolean v) {
+                cos.writeBool(VALUE_BOOL, v);
+            } else if (value instanceof Date v) {
+                cos.writeInt64(VALUE_DATE, v.getTime());
+            } else if (value instanceof BigDecimal v) {
+                cos.writeString(VALUE_DECIMAL, v.toString());
+            } else {
+                throw new IllegalArgumentException(
+                        "unsupported filter value type " + (value == null ? null : value.getClass().getName()));
+            }
+        }));
+    }
+
+    private static ByteString encodeMessage(MessageWriter writer) throws IOException {
+        ByteString.Output out = ByteString.newOutput();
+        CodedOutputStream cos = CodedOutputStream.newInstance(out);
+        writer.write(cos);
+        cos.flush();
+        return out.toByteString();
+    }
+
+    @FunctionalInterface
+    private interface MessageWriter {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
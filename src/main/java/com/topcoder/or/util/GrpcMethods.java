@@ -0,0 +1,93 @@
+package com.topcoder.or.util;
+
+import com.google.protobuf.Message;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.protobuf.ProtoUtils;
+
+/**
+ * Builds the gRPC methods a service defines in code next to the methods of its
+ * proto contract, with the messages the contract already has, so the clients
+ * reuse their messages and mappers.
+ *
+ * <p>
+ * The generated base of a service binds the methods of the contract in a final
+ * <code>bindService()</code>, so a service adds its methods by implementing
+ * {@link Added}: they are bound under the name of the service and served when
+ * the contract has no method of that name.
+ * </p>
+ */
+public final class GrpcMethods {
+
+    private GrpcMethods() {
+    }
+
+    /**
+     * A service adding methods defined in code to the service of its contract.
+     */
+    public interface Added {
+        /**
+         * Returns the definition of the added methods, under the name of the
+         * service of the contract.
+         *
+         * @return the definition
+         */
+        ServerServiceDefinition bindAddedMethods();
+    }
+
+    /**
+     * Returns a unary method of the service.
+     *
+     * @param serviceName the full name of the service
+     * @param name        the name of the method
+     * @param request     the default instance of the request message
+     * @param response    the default instance of the response message
+     * @return the method
+     */
+    public static <ReqT extends Message, RespT extends Message> MethodDescriptor<ReqT, RespT> unary(
+            String serviceName, String name, ReqT request, RespT response) {
+        return unary(serviceName, name, ProtoUtils.marshaller(request), ProtoUtils.marshaller(response));
+    }
+
+    /**
+     * Returns a unary method of the service, with messages encoded by the given
+     * marshallers.
+     *
+     * @param serviceName the full name of the service
+     * @param name        the name of the method
+     * @param request     the marshaller of the request message
+     * @param response    the marshaller of the response message
+     * @return the method
+     */
+    public static <ReqT, RespT> MethodDescriptor<ReqT, RespT> unary(String serviceName, String name,
+            MethodDescriptor.Marshaller<ReqT> request, MethodDescriptor.Marshaller<RespT> response) {
+        return method(MethodDescriptor.MethodType.UNARY, serviceName, name, request, response);
+    }
+
+    /**
+     * Returns a server-streaming method of the service.
+     *
+     * @param serviceName the full name of the service
+     * @param name        the name of the method
+     * @param request     the default instance of the request message
+     * @param response    the default instance of the response messages
+     * @return the method
+     */
+    public static <ReqT extends Message, RespT extends Message> MethodDescriptor<ReqT, RespT> serverStreaming(
+            String serviceName, String name, ReqT request, RespT response) {
+        return method(MethodDescriptor.MethodType.SERVER_STREAMING, serviceName, name,
+                ProtoUtils.marshaller(request), ProtoUtils.marshaller(response));
+    }
+
+    private static <ReqT, RespT> MethodDescriptor<ReqT, RespT> method(MethodDescriptor.MethodType type,
+            String serviceName, String name, MethodDescriptor.Marshaller<ReqT> request,
+            MethodDescriptor.Marshaller<RespT> response) {
+        return MethodDescriptor.<ReqT, RespT>newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(serviceName, name))
+                .setRequestMarshaller(request)
+                .setResponseMarshaller(response)
+                .build();
+    }
+}
@@ -1,21 +1,18 @@
 package com.topcoder.or.util;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.math.MathContext;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Map;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
-import org.apache.commons.lang3.StringUtils;
-
 import com.google.protobuf.Timestamp;
 import com.topcoder.onlinereview.grpc.payment.proto.BigDecimalProto;
 
 public final class Helper {
 
+    /** The largest power-of-two IN list arity. */
+    public static final int MAX_IN_BUCKET = 512;
+
     /**
      * Check if the given object is null.
      *
@@ -68,9 +65,7 @@ public final class Helper {
         if (!verifier.get()) {
             return null;
         }
-        BigDecimalProto serialized = extractor.get();
-        return new BigDecimal(new BigInteger(serialized.getValue().toByteArray()), serialized.getScale(),
-                new MathContext(serialized.getPrecision()));
+        return ValueCodecs.decodeDecimal(extractor.get());
     }
 
     public static Date convertDate(Timestamp date) {
@@ -85,61 +80,26 @@ public final class Helper {
         return String.join(",", Collections.nCopies(count, "?"));
     }
 
-    public static String buildNStatement(Integer count, String phrase, String delimiter) {
-        return String.join(delimiter, Collections.nCopies(count, phrase));
-    }
-
-    private static <T> T getT(Map<String, Object> map, String key, Function<Object, T> function) {
-        if (map.get(key) == null) {
-            return null;
+    /**
+     * Get the number of placeholders to bind for an IN list: the next power of two
+     * up to {@link #MAX_IN_BUCKET}, then the next multiple of it. Padding the list
+     * to this size, by repeating its last value, keeps the number of distinct
+     * statement texts small so prepared statements are reused.
+     *
+     * @param count the number of values in the list
+     * @return the padded number of placeholders
+     */
+    public static int getInBucketSize(int count) {
+        if (count <= 1) {
+            return 1;
         }
-        return function.apply(map.get(key));
-    }
-
-    public static Long getLong(Map<String, Object> map, String key) {
-        return getT(map, key, v -> Long.parseLong(v.toString()));
-    }
-
-    public static Integer getInt(Map<String, Object> map, String key) {
-        return getT(map, key, v -> Integer.parseInt(v.toString()));
-    }
-
-    public static Double getDouble(Map<String, Object> map, String key) {
-        return getT(map, key, v -> Double.parseDouble(v.toString()));
-    }
-
-    public static Float getFloat(Map<String, Object> map, String key) {
-        return getT(map, key, v -> Float.parseFloat(v.toString()));
-    }
-
-    public static Boolean getBoolean(Map<String, Object> map, String key) {
-        return getT(
-                map,
-                key,
-                v -> {
-                    if (v instanceof Boolean) {
-                        return (Boolean) v;
-                    } else if (StringUtils.isNumeric(v.toString())) {
-                        return Integer.parseInt(v.toString()) != 0;
-                    } else {
-                        return "true".equalsIgnoreCase(v.toString());
-                    }
-                });
-    }
-
-    public static String getString(Map<String, Object> map, String key) {
-        return getT(
-                map,
-                key,
-                v -> {
-                    if (v instanceof byte[]) {
-                        return new String((byte[]) v);
-                    }
-                    return v.toString();
-                });
+        if (count > MAX_IN_BUCKET) {
+            return (count + MAX_IN_BUCKET - 1) / MAX_IN_BUCKET * MAX_IN_BUCKET;
+        }
+        return Integer.highestOneBit(count - 1) << 1;
     }
 
-    public static Date getDate(Map<String, Object> map, String key) {
-        return getT(map, key, v -> (Date) v);
+    public static String buildNStatement(Integer count, String phrase, String delimiter) {
+        return String.join(delimiter, Collections.nCopies(count, phrase));
     }
 }
@@ -0,0 +1,80 @@
+package com.topcoder.or.util;
+
+/**
+ * The statement settings of a class of queries: how many rows the driver
+ * fetches per round trip, how many rows the result may have and how long the
+ * query may run. A setting of 0 leaves the driver default, no limit for the row
+ * count and the timeout.
+ *
+ * <p>
+ * The named profiles cover the queries of the services. A caller that needs a
+ * different setting derives it from the nearest profile, such as
+ * {@code POINT_LOOKUP.withMaxRows(1)} for a lookup reading only its first row.
+ * </p>
+ */
+public final class QueryProfile {
+
+    /** The settings of the JdbcTemplate, for queries not choosing a profile. */
+    public static final QueryProfile DEFAULT = new QueryProfile("default", 0, 0, 0);
+
+    /** A lookup by key returning a few rows. */
+    public static final QueryProfile POINT_LOOKUP = new QueryProfile("point-lookup", 16, 0, 30);
+
+    /** A read of many rows mapped into one response, such as the comments of many reviews. */
+    public static final QueryProfile BULK_READ = new QueryProfile("bulk-read", 500, 0, 120);
+
+    /** A result streamed through a row callback, however long it takes to read. */
+    public static final QueryProfile STREAMING_EXPORT = new QueryProfile("streaming-export", 1000, 0, 0);
+
+    /** A reporting command, usually against the warehouse, that may scan and aggregate a lot. */
+    public static final QueryProfile DW_ANALYTIC = new QueryProfile("dw-analytic", 1000, 0, 600);
+
+    private final String name;
+    private final int fetchSize;
+    private final int maxRows;
+    private final int queryTimeoutSeconds;
+
+    private QueryProfile(String name, int fetchSize, int maxRows, int queryTimeoutSeconds) {
+        if (fetchSize < 0 || maxRows < 0 || queryTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("The settings of a query profile should not be negative.");
+        }
+        this.name = name;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    public QueryProfile withFetchSize(int newFetchSize) {
+        return new QueryProfile(name, newFetchSize, maxRows, queryTimeoutSeconds);
+    }
+
+    public QueryProfile withMaxRows(int newMaxRows) {
+        return new QueryProfile(name, fetchSize, newMaxRows, queryTimeoutSeconds);
+    }
+
+    public QueryProfile withQueryTimeout(int newQueryTimeoutSeconds) {
+        return new QueryProfile(name, fetchSize, maxRows, newQueryTimeoutSeconds);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[fetchSize=" + fetchSize + ", maxRows=" + maxRows + ", queryTimeout=" + queryTimeoutSeconds
+                + "s]";
+    }
+}
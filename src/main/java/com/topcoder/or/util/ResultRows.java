@@ -0,0 +1,389 @@
+package com.topcoder.or.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import org.springframework.jdbc.support.JdbcUtils;
+
+import com.google.protobuf.Timestamp;
+
+/**
+ * The rows of a query result, stored by column. Integral and floating point
+ * columns are kept in primitive arrays and read with primitive getters, so a
+ * numeric cell is neither boxed nor parsed back from a string; the other
+ * columns keep the value the driver returns, as a row map of
+ * {@code queryForList} would.
+ *
+ * <p>
+ * The columns are looked up by label once per result, ignoring case, and the
+ * values are then read by row and column index. A label that repeats names its
+ * last column, and a label that is not in the result names the column
+ * {@link #NO_COLUMN}, whose values are all null, as a missing key of a row map
+ * was.
+ * </p>
+ *
+ * <p>
+ * The primitive getters return 0 or false for a null value, the object getters
+ * return null; {@link #isNull} tells them apart, and the apply methods pass a
+ * value to a setter only when it is not null. A value of another type is
+ * converted: numbers through {@link Number}, strings by parsing them.
+ * </p>
+ *
+ * <p>
+ * The rows are read in one pass over the result and are not changed after, so
+ * they can be shared between threads.
+ * </p>
+ */
+public final class ResultRows {
+
+    /** The index of a label that is not in the result. */
+    public static final int NO_COLUMN = -1;
+
+    private static final ResultRows EMPTY = new ResultRows(new String[0], new byte[0]);
+
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte OBJECT = 2;
+
+    /** The largest decimal precision always fitting in a long. */
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String[] labels;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final byte[] kinds;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final Object[][] objects;
+    private final BitSet[] nulls;
+    private int capacity = INITIAL_CAPACITY;
+    private int size;
+
+    private ResultRows(String[] labels, byte[] kinds) {
+        this.labels = labels;
+        this.kinds = kinds;
+        this.longs = new long[kinds.length][];
+        this.doubles = new double[kinds.length][];
+        this.objects = new Object[kinds.length][];
+        this.nulls = new BitSet[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            columns.put(labels[i].toLowerCase(), i);
+            nulls[i] = new BitSet();
+            switch (kinds[i]) {
+            case LONG:
+                longs[i] = new long[INITIAL_CAPACITY];
+                break;
+            case DOUBLE:
+                doubles[i] = new double[INITIAL_CAPACITY];
+                break;
+            default:
+                objects[i] = new Object[INITIAL_CAPACITY];
+            }
+        }
+    }
+
+    /**
+     * Returns rows without columns.
+     *
+     * @return the empty rows
+     */
+    public static ResultRows empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Read the remaining rows of the result.
+     *
+     * @param rs the result, positioned before its first remaining row
+     * @return the rows
+     * @throws SQLException if the result cannot be read
+     */
+    public static ResultRows read(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        String[] labels = new String[count];
+        byte[] kinds = new byte[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = JdbcUtils.lookupColumnName(metaData, i + 1);
+            kinds[i] = kind(metaData.getColumnType(i + 1), metaData.getPrecision(i + 1), metaData.getScale(i + 1));
+        }
+        ResultRows rows = new ResultRows(labels, kinds);
+        while (rs.next()) {
+            rows.add(rs);
+        }
+        return rows;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getColumnCount() {
+        return labels.length;
+    }
+
+    public String getColumnLabel(int column) {
+        return labels[column];
+    }
+
+    /**
+     * Returns the index of the column with the label, ignoring case.
+     *
+     * @param label the label of the column
+     * @return the index, {@link #NO_COLUMN} if the result has no such column
+     */
+    public int column(String label) {
+        Integer index = columns.get(label.toLowerCase());
+        return index == null ? NO_COLUMN : index;
+    }
+
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return column == NO_COLUMN || nulls[column].get(row);
+    }
+
+    public long getLong(int row, int column) {
+        if (isNull(row, column)) {
+            return 0;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return longs[column][row];
+        case DOUBLE:
+            return (long) doubles[column][row];
+        default:
+            Object value = objects[column][row];
+            return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+        }
+    }
+
+    public int getInt(int row, int column) {
+        return (int) getLong(row, column);
+    }
+
+    public double getDouble(int row, int column) {
+        if (isNull(row, column)) {
+            return 0;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return longs[column][row];
+        case DOUBLE:
+            return doubles[column][row];
+        default:
+            Object value = objects[column][row];
+            return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+        }
+    }
+
+    public float getFloat(int row, int column) {
+        return (float) getDouble(row, column);
+    }
+
+    /**
+     * Returns the value as a boolean: a number is true when it is not 0, a string
+     * when it is a non-zero number or "true".
+     *
+     * @param row    the row
+     * @param column the column
+     * @return the value, false if it is null
+     */
+    public boolean getBoolean(int row, int column) {
+        if (isNull(row, column)) {
+            return false;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return longs[column][row] != 0;
+        case DOUBLE:
+            return doubles[column][row] != 0;
+        default:
+            Object value = objects[column][row];
+            if (value instanceof Boolean bool) {
+                return bool;
+            }
+            if (value instanceof Number number) {
+                return number.doubleValue() != 0;
+            }
+            String text = value.toString().trim();
+            try {
+                return Double.parseDouble(text) != 0;
+            } catch (NumberFormatException e) {
+                return "true".equalsIgnoreCase(text);
+            }
+        }
+    }
+
+    public String getString(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return Long.toString(longs[column][row]);
+        case DOUBLE:
+            return Double.toString(doubles[column][row]);
+        default:
+            Object value = objects[column][row];
+            return value instanceof byte[] bytes ? new String(bytes) : value.toString();
+        }
+    }
+
+    /**
+     * Returns a date or time value.
+     *
+     * @param row    the row
+     * @param column the column
+     * @return the value, null if it is null
+     * @throws ClassCastException if the column does not hold dates
+     */
+    public Date getDate(int row, int column) {
+        return (Date) getObject(row, column);
+    }
+
+    /**
+     * Returns the value, boxing a numeric one.
+     *
+     * @param row    the row
+     * @param column the column
+     * @return the value, null if it is null
+     */
+    public Object getObject(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return longs[column][row];
+        case DOUBLE:
+            return doubles[column][row];
+        default:
+            return objects[column][row];
+        }
+    }
+
+    public void applyLong(int row, int column, LongConsumer setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getLong(row, column));
+        }
+    }
+
+    public void applyInt(int row, int column, IntConsumer setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getInt(row, column));
+        }
+    }
+
+    public void applyDouble(int row, int column, DoubleConsumer setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getDouble(row, column));
+        }
+    }
+
+    public void applyBoolean(int row, int column, Consumer<Boolean> setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getBoolean(row, column));
+        }
+    }
+
+    public void applyString(int row, int column, Consumer<String> setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getString(row, column));
+        }
+    }
+
+    public void applyDate(int row, int column, Consumer<Date> setter) {
+        if (!isNull(row, column)) {
+            setter.accept(getDate(row, column));
+        }
+    }
+
+    public void applyTimestamp(int row, int column, Consumer<Timestamp> setter) {
+        if (!isNull(row, column)) {
+            setter.accept(ValueCodecs.encodeTimestamp(getDate(row, column)));
+        }
+    }
+
+    private void add(ResultSet rs) throws SQLException {
+        if (size == capacity) {
+            grow(capacity * 2);
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+            case LONG:
+                longs[i][size] = rs.getLong(i + 1);
+                break;
+            case DOUBLE:
+                doubles[i][size] = rs.getDouble(i + 1);
+                break;
+            default:
+                objects[i][size] = JdbcUtils.getResultSetValue(rs, i + 1);
+            }
+            if (kinds[i] == OBJECT ? objects[i][size] == null : rs.wasNull()) {
+                nulls[i].set(size);
+            }
+        }
+        size++;
+    }
+
+    private void grow(int newCapacity) {
+        capacity = newCapacity;
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+            case LONG:
+                longs[i] = Arrays.copyOf(longs[i], newCapacity);
+                break;
+            case DOUBLE:
+                doubles[i] = Arrays.copyOf(doubles[i], newCapacity);
+                break;
+            default:
+                objects[i] = Arrays.copyOf(objects[i], newCapacity);
+            }
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("The row " + row + " is not in 0.." + (size - 1) + ".");
+        }
+    }
+
+    /**
+     * Returns how a column is stored. Decimals are kept as they are unless they
+     * are integral and small enough for a long.
+     */
+    private static byte kind(int type, int precision, int scale) {
+        switch (type) {
+        case Types.BIGINT:
+        case Types.INTEGER:
+        case Types.SMALLINT:
+        case Types.TINYINT:
+            return LONG;
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            return scale == 0 && precision > 0 && precision <= MAX_LONG_PRECISION ? LONG : OBJECT;
+        case Types.DOUBLE:
+        case Types.FLOAT:
+        case Types.REAL:
+            return DOUBLE;
+        default:
+            return OBJECT;
+        }
+    }
+}
@@ -5,7 +5,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.function.Consumer;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.Timestamp;
 import com.topcoder.onlinereview.grpc.payment.proto.BigDecimalProto;
 
@@ -111,7 +110,7 @@ public final class ResultSetHelper {
             throws SQLException {
         java.sql.Timestamp v = resultset.getTimestamp(index);
         if (v != null) {
-            setMethod.accept(Timestamp.newBuilder().setSeconds(v.toInstant().getEpochSecond()).build());
+            setMethod.accept(ValueCodecs.encodeTimestamp(v));
         }
     }
 
@@ -119,33 +118,23 @@ public final class ResultSetHelper {
             throws SQLException {
         java.sql.Timestamp v = resultset.getTimestamp(name);
         if (v != null) {
-            setMethod.accept(Timestamp.newBuilder().setSeconds(v.toInstant().getEpochSecond()).build());
+            setMethod.accept(ValueCodecs.encodeTimestamp(v));
         }
     }
 
     public static void applyResultSetBigDecimal(ResultSet resultset, int index, Consumer<BigDecimalProto> setMethod)
             throws SQLException {
-        double v = resultset.getDouble(index);
-        if (!resultset.wasNull()) {
-            BigDecimal bigDecimal = new BigDecimal(v);
-            setMethod.accept(BigDecimalProto.newBuilder()
-                    .setScale(bigDecimal.scale())
-                    .setPrecision(bigDecimal.precision())
-                    .setValue(ByteString.copyFrom(bigDecimal.unscaledValue().toByteArray()))
-                    .build());
+        BigDecimal v = resultset.getBigDecimal(index);
+        if (v != null) {
+            setMethod.accept(ValueCodecs.encodeDecimal(v));
         }
     }
 
     public static void applyResultSetBigDecimal(ResultSet resultset, String name, Consumer<BigDecimalProto> setMethod)
             throws SQLException {
-        double v = resultset.getDouble(name);
-        if (!resultset.wasNull()) {
-            BigDecimal bigDecimal = new BigDecimal(v);
-            setMethod.accept(BigDecimalProto.newBuilder()
-                    .setScale(bigDecimal.scale())
-                    .setPrecision(bigDecimal.precision())
-                    .setValue(ByteString.copyFrom(bigDecimal.unscaledValue().toByteArray()))
-                    .build());
+        BigDecimal v = resultset.getBigDecimal(name);
+        if (v != null) {
+            setMethod.accept(ValueCodecs.encodeDecimal(v));
         }
     }
 }
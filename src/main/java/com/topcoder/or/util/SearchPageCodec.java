@@ -0,0 +1,262 @@
+package com.topcoder.or.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.Message;
+import com.google.protobuf.WireFormat;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * Encodes and decodes the messages of the paged search methods the services
+ * add next to their search methods.
+ *
+ * <p>
+ * The messages have the following schema, written and read directly with the
+ * protobuf wire codec so that the rows reuse the response message of the
+ * search method, and its mapper, without new generated classes:
+ * </p>
+ *
+ * <pre>
+ * message SearchPageRequest {
+ *   bytes filter = 1;              // the FilterCodec bytes, as in FilterProto.filter
+ *   int32 page_size = 2;
+ *   string continuation_token = 3; // empty for the first page
+ * }
+ * message SearchPageResponse {
+ *   Rows rows = 1;                 // the response message of the search method
+ *   string continuation_token = 2; // empty after the last page
+ * }
+ * </pre>
+ */
+public final class SearchPageCodec {
+
+    private static final int REQUEST_FILTER = 1;
+    private static final int REQUEST_PAGE_SIZE = 2;
+    private static final int REQUEST_CONTINUATION_TOKEN = 3;
+
+    private static final int RESPONSE_ROWS = 1;
+    private static final int RESPONSE_CONTINUATION_TOKEN = 2;
+
+    private SearchPageCodec() {
+    }
+
+    /**
+     * The request for one page of a search.
+     */
+    public static final class Request {
+        private final ByteString filter;
+        private final int pageSize;
+        private final String continuationToken;
+
+        /**
+         * Creates a request.
+         *
+         * @param filter            the FilterCodec bytes of the filter
+         * @param pageSize          the maximum number of rows of the page
+         * @param continuationToken the token of the previous page, null for the
+         *                          first page
+         */
+        public Request(ByteString filter, int pageSize, String continuationToken) {
+            this.filter = filter == null ? ByteString.EMPTY : filter;
+            this.pageSize = pageSize;
+            this.continuationToken = continuationToken == null || continuationToken.isEmpty() ? null
+                    : continuationToken;
+        }
+
+        public ByteString getFilter() {
+            return filter;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        /**
+         * Returns the token of the previous page.
+         *
+         * @return the token, null for the first page
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+    }
+
+    /**
+     * One page of a search.
+     *
+     * @param <T> the response message of the search method
+     */
+    public static final class Response<T extends Message> {
+        private final T rows;
+        private final String continuationToken;
+
+        /**
+         * Creates a response.
+         *
+         * @param rows              the rows of the page
+         * @param continuationToken the token of the page, null after the last page
+         */
+        public Response(T rows, String continuationToken) {
+            this.rows = rows;
+            this.continuationToken = continuationToken == null || continuationToken.isEmpty() ? null
+                    : continuationToken;
+        }
+
+        public T getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns the token to pass to get the next page.
+         *
+         * @return the token, null after the last page
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
+        public boolean hasMore() {
+            return continuationToken != null;
+        }
+    }
+
+    /**
+     * Returns the marshaller of the page requests.
+     *
+     * @return the marshaller
+     */
+    public static MethodDescriptor.Marshaller<Request> requestMarshaller() {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(Request value) {
+                return encode(value).newInput();
+            }
+
+            @Override
+            public Request parse(InputStream stream) {
+                return decodeRequest(stream);
+            }
+        };
+    }
+
+    /**
+     * Returns the marshaller of the pages of a search.
+     *
+     * @param rows the default instance of the response message of the search
+     *             method
+     * @return the marshaller
+     */
+    public static <T extends Message> MethodDescriptor.Marshaller<Response<T>> responseMarshaller(T rows) {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(Response<T> value) {
+                return encode(value).newInput();
+            }
+
+            @Override
+            public Response<T> parse(InputStream stream) {
+                return decodeResponse(stream, rows);
+            }
+        };
+    }
+
+    /**
+     * Encode a page request.
+     *
+     * @param request the request
+     * @return the encoded bytes
+     */
+    public static ByteString encode(Request request) {
+        ByteString.Output out = ByteString.newOutput();
+        CodedOutputStream cos = CodedOutputStream.newInstance(out);
+        try {
+            if (!request.getFilter().isEmpty()) {
+                cos.writeBytes(REQUEST_FILTER, request.getFilter());
+            }
+            if (request.getPageSize() != 0) {
+                cos.writeInt32(REQUEST_PAGE_SIZE, request.getPageSize());
+            }
+            if (request.getContinuationToken() != null) {
+                cos.writeString(REQUEST_CONTINUATION_TOKEN, request.getContinuationToken());
+            }
+            cos.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteString();
+    }
+
+    /**
+     * Encode a page.
+     *
+     * @param response the page
+     * @return the encoded bytes
+     */
+    public static ByteString encode(Response<?> response) {
+        ByteString.Output out = ByteString.newOutput();
+        CodedOutputStream cos = CodedOutputStream.newInstance(out);
+        try {
+            cos.writeMessage(RESPONSE_ROWS, response.getRows());
+            if (response.getContinuationToken() != null) {
+                cos.writeString(RESPONSE_CONTINUATION_TOKEN, response.getContinuationToken());
+            }
+            cos.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteString();
+    }
+
+    private static Request decodeRequest(InputStream stream) {
+        ByteString filter = ByteString.EMPTY;
+        int pageSize = 0;
+        String continuationToken = null;
+        try {
+            CodedInputStream in = CodedInputStream.newInstance(stream);
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                case REQUEST_FILTER -> filter = in.readBytes();
+                case REQUEST_PAGE_SIZE -> pageSize = in.readInt32();
+                case REQUEST_CONTINUATION_TOKEN -> continuationToken = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw invalid("SearchPageRequest", e);
+        }
+        return new Request(filter, pageSize, continuationToken);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Message> Response<T> decodeResponse(InputStream stream, T defaultRows) {
+        Message.Builder rows = defaultRows.newBuilderForType();
+        String continuationToken = null;
+        try {
+            CodedInputStream in = CodedInputStream.newInstance(stream);
+            int tag;
+            while ((tag = in.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                case RESPONSE_ROWS -> in.readMessage(rows, ExtensionRegistryLite.getEmptyRegistry());
+                case RESPONSE_CONTINUATION_TOKEN -> continuationToken = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw invalid("SearchPageResponse", e);
+        }
+        return new Response<>((T) rows.build(), continuationToken);
+    }
+
+    private static RuntimeException invalid(String message, IOException e) {
+        return Status.INVALID_ARGUMENT.withDescription("Invalid " + message + ": " + e.getMessage()).withCause(e)
+                .asRuntimeException();
+    }
+}
@@ -0,0 +1,141 @@
+package com.topcoder.or.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Runs the searches of server-streaming calls, sending the rows one chunk per
+ * message as the chunked search reads them.
+ *
+ * <p>
+ * The search runs on a stream thread, not on the thread of the call. Before
+ * each message the stream thread waits until the call is ready, and the
+ * on-ready handler of the call wakes it up. So while the client reads slower
+ * than the database, the JDBC read is paused with at most one chunk of rows
+ * mapped in memory; the rest stay in the database cursor. A paused search
+ * keeps its connection, so at most <code>search.stream.threads</code> searches
+ * stream at once and the calls after them wait for a thread.
+ * </p>
+ */
+@Component
+public class SearchStreamer {
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    public SearchStreamer(Logger logger, @Value("${search.stream.threads:8}") int threads) {
+        this.logger = logger;
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "search-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the search on a stream thread and returns at once. The search sends
+     * its messages through the consumer it is given, which waits until the call
+     * is ready for each. The call is completed when the search returns, and
+     * failed with the status of the exception it throws. A search is stopped by
+     * the cancellation of its call.
+     *
+     * @param responseObserver the observer of a server-streaming call, before the
+     *                         method of the call returns
+     * @param search           the search, sending its messages to the consumer
+     */
+    public <T> void stream(StreamObserver<T> responseObserver, Consumer<Consumer<T>> search) {
+        FlowControl<T> flowControl = new FlowControl<>((ServerCallStreamObserver<T>) responseObserver);
+        try {
+            executor.execute(() -> flowControl.run(search));
+        } catch (RejectedExecutionException e) {
+            responseObserver.onError(Status.UNAVAILABLE.withDescription("The search streams are shut down.")
+                    .withCause(e).asRuntimeException());
+        }
+    }
+
+    /**
+     * Sends the messages of one call once it is ready.
+     */
+    private final class FlowControl<T> {
+        private final ServerCallStreamObserver<T> observer;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+
+        private FlowControl(ServerCallStreamObserver<T> observer) {
+            this.observer = observer;
+            // the handlers run on the executor of the call, never on the stream thread
+            observer.setOnReadyHandler(this::wakeUp);
+            observer.setOnCancelHandler(this::wakeUp);
+        }
+
+        private void run(Consumer<Consumer<T>> search) {
+            if (observer.isCancelled()) {
+                return;
+            }
+            try {
+                search.accept(this::send);
+                observer.onCompleted();
+            } catch (RuntimeException | Error e) {
+                if (observer.isCancelled()) {
+                    logger.debug("The search stream was cancelled by the client.");
+                    return;
+                }
+                logger.error(e.getLocalizedMessage(), e);
+                observer.onError(e instanceof StatusRuntimeException statusError ? statusError
+                        : (e instanceof IllegalArgumentException ? Status.INVALID_ARGUMENT : Status.INTERNAL)
+                                .withDescription(e.getLocalizedMessage()).withCause(e).asRuntimeException());
+            }
+        }
+
+        private void send(T message) {
+            lock.lock();
+            try {
+                // checked under the lock the handlers signal with, so no wake up is missed
+                while (!observer.isReady()) {
+                    if (observer.isCancelled()) {
+                        throw Status.CANCELLED.withDescription("The call was cancelled by the client.")
+                                .asRuntimeException();
+                    }
+                    ready.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Status.CANCELLED.withDescription("The search stream was interrupted.").withCause(e)
+                        .asRuntimeException();
+            } finally {
+                lock.unlock();
+            }
+            observer.onNext(message);
+        }
+
+        private void wakeUp() {
+            lock.lock();
+            try {
+                ready.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.topcoder.or.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each statement text is executed, to show how well the
+ * prepared statement caches of the driver and the server are reused. The first
+ * execution of a text is a miss, every later one is a hit.
+ *
+ * <p>
+ * Only statements with a bounded set of texts should be recorded, such as IN
+ * queries padded to bucketed arities, since every text is kept.
+ * </p>
+ */
+public final class StatementShapeStats {
+
+    private final Map<String, LongAdder> executions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Record one execution of the statement.
+     *
+     * @param sql the statement text
+     */
+    public void record(String sql) {
+        LongAdder counter = executions.get(sql);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = executions.putIfAbsent(sql, created);
+            if (counter == null) {
+                counter = created;
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+        } else {
+            hits.increment();
+        }
+        counter.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of executions that reused a statement text seen before.
+     *
+     * @return the hit rate between 0 and 1, 0 if nothing was recorded
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of distinct statement texts recorded.
+     *
+     * @return the number of shapes
+     */
+    public int getShapeCount() {
+        return executions.size();
+    }
+
+    /**
+     * Returns the executions of every statement text.
+     *
+     * @return the executions by statement text, sorted and unmodifiable
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        executions.forEach((sql, counter) -> result.put(sql, counter.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + getHits() + ", misses=" + getMisses() + ", hitRate=" + String.format("%.3f", getHitRate())
+                + ", shapes=" + getShapeCount();
+    }
+}
@@ -0,0 +1,81 @@
+package com.topcoder.or.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the counters of the service periodically, so the reuse of the IN
+ * statement texts, the id block fetches, the search result cache hit rates and
+ * the other counters can be followed from the logs.
+ *
+ * <p>
+ * Every source is logged on its own line as <code>name: stats</code>, using
+ * the {@link Object#toString()} of the value the source supplies. The interval
+ * is set by <code>stats.log.intervalSeconds</code>; 0 or less turns the
+ * logging off.
+ * </p>
+ */
+@Component
+public class StatsLogger {
+    private final Logger logger;
+    private final Map<String, Supplier<?>> sources = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public StatsLogger(DBAccessor dbAccessor, Logger logger,
+            @Value("${stats.log.intervalSeconds:300}") long intervalSeconds) {
+        this.logger = logger;
+        addSource("IN statements", dbAccessor::getInStatementStats);
+        if (intervalSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "stats-logger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::logStats, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Add a source of counters to log. A source added again under the same name
+     * replaces the previous one.
+     *
+     * @param name   the name the counters are logged under
+     * @param source supplies the counters to log
+     */
+    public void addSource(String name, Supplier<?> source) {
+        sources.put(name, source);
+    }
+
+    /**
+     * Logs the counters of every source, in name order. A source that fails is
+     * logged as a warning and does not stop the others.
+     */
+    public void logStats() {
+        sources.forEach((name, source) -> {
+            try {
+                logger.info("{}: {}", name, source.get());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to read the stats of " + name, e);
+            }
+        });
+    }
+}
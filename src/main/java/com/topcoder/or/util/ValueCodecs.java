@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.or.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import com.topcoder.onlinereview.grpc.payment.proto.BigDecimalProto;
+
+/**
+ * Converts dates and decimals to and from their proto messages.
+ *
+ * <p>
+ * A date becomes epoch seconds and nanos read straight from its milliseconds,
+ * keeping the nanos of a {@link java.sql.Timestamp}. A decimal keeps its exact
+ * unscaled value and scale. The amounts of prizes and payments repeat a lot, so
+ * the encodings of the first {@link #DECIMAL_CACHE_SIZE} distinct decimals are
+ * kept and shared; decimals equal in value but not in scale are different
+ * entries.
+ * </p>
+ */
+public final class ValueCodecs {
+
+    /** The largest number of decimal encodings kept. */
+    public static final int DECIMAL_CACHE_SIZE = 1024;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int NANOS_PER_MILLI = 1000000;
+
+    private static final Map<BigDecimal, BigDecimalProto> ENCODED = new ConcurrentHashMap<>();
+
+    private ValueCodecs() {
+    }
+
+    /**
+     * Returns the proto timestamp of the date.
+     *
+     * @param date the date, a {@link java.sql.Timestamp} keeps its nanos
+     * @return the timestamp
+     */
+    public static Timestamp encodeTimestamp(Date date) {
+        long millis = date.getTime();
+        int nanos = date instanceof java.sql.Timestamp timestamp ? timestamp.getNanos()
+                : (int) Math.floorMod(millis, MILLIS_PER_SECOND) * NANOS_PER_MILLI;
+        return Timestamp.newBuilder().setSeconds(Math.floorDiv(millis, MILLIS_PER_SECOND)).setNanos(nanos).build();
+    }
+
+    /**
+     * Returns the proto of the decimal, its exact unscaled value and scale.
+     *
+     * @param value the decimal
+     * @return the proto, shared with other callers
+     */
+    public static BigDecimalProto encodeDecimal(BigDecimal value) {
+        BigDecimalProto encoded = ENCODED.get(value);
+        if (encoded == null) {
+            encoded = BigDecimalProto.newBuilder()
+                    .setScale(value.scale())
+                    .setPrecision(value.precision())
+                    .setValue(ByteString.copyFrom(value.unscaledValue().toByteArray()))
+                    .build();
+            if (ENCODED.size() < DECIMAL_CACHE_SIZE) {
+                ENCODED.putIfAbsent(value, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the decimal of the proto, rounded to its precision when it has
+     * one. An unscaled value fitting in a long is read without a BigInteger,
+     * and an empty one is zero.
+     *
+     * @param serialized the proto
+     * @return the decimal
+     */
+    public static BigDecimal decodeDecimal(BigDecimalProto serialized) {
+        ByteString bytes = serialized.getValue();
+        BigDecimal value;
+        if (bytes.size() > Long.BYTES) {
+            value = new BigDecimal(new BigInteger(bytes.toByteArray()), serialized.getScale());
+        } else {
+            // big-endian two's complement, as BigInteger.toByteArray writes it; an unset value is zero
+            long unscaled = bytes.isEmpty() ? 0 : bytes.byteAt(0);
+            for (int i = 1; i < bytes.size(); i++) {
+                unscaled = (unscaled << Byte.SIZE) | (bytes.byteAt(i) & 0xFF);
+            }
+            value = BigDecimal.valueOf(unscaled, serialized.getScale());
+        }
+        int precision = serialized.getPrecision();
+        return precision > 0 && value.precision() > precision ? value.round(new MathContext(precision)) : value;
+    }
+}
@@ -0,0 +1,91 @@
+/** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
+package com.topcoder.onlinereview.component.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.StatsLogger;
+
+class DBHelperTest {
+  private final DBAccessor dbAccessor = mock(DBAccessor.class);
+  private final StatsLogger statsLogger = mock(StatsLogger.class);
+  private final DBHelper helper = new DBHelper();
+
+  DBHelperTest() {
+    ReflectionTestUtils.setField(helper, "dbAccessor", dbAccessor);
+    ReflectionTestUtils.setField(helper, "statsLogger", statsLogger);
+    when(dbAccessor.executeInNewUnitOfWork(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+  }
+
+  @AfterEach
+  void shutdown() {
+    helper.shutdown();
+  }
+
+  @Test
+  void sequenceStatsAreLogged() {
+    helper.postRun();
+    helper.getSequenceStats("upload_id_seq").recordRefill(100, 0);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Supplier<?>> source = ArgumentCaptor.forClass(Supplier.class);
+    verify(statsLogger).addSource(eq("ID sequences"), source.capture());
+    assertThat(source.getValue().get()).hasToString("{upload_id_seq=" + helper.getSequenceStats("upload_id_seq") + "}");
+  }
+
+  @Test
+  void lockedRowsAreLockFailures() {
+    SQLException locked = new SQLException("Could not do a physical-order read", "IX000", -244);
+    SQLException isamLocked = new SQLException("Could not update", "IX000", -346);
+    isamLocked.setNextException(new SQLException("ISAM error: record is locked.", "IX000", -107));
+
+    assertThat(DBHelper.isLockFailure(new CannotAcquireLockException("locked"))).isTrue();
+    assertThat(DBHelper.isLockFailure(new UncategorizedSQLException("claim", "SELECT", locked))).isTrue();
+    assertThat(DBHelper.isLockFailure(new UncategorizedSQLException("claim", "UPDATE", isamLocked))).isTrue();
+    assertThat(DBHelper.isLockFailure(new BadSqlGrammarException("claim", "SELECT",
+        new SQLException("Column not found", "IX000", -217)))).isFalse();
+    assertThat(DBHelper.isLockFailure(new IDGenerationException("failed"))).isFalse();
+  }
+
+  @Test
+  void newUnitOfWorkRunsOnTheCallerOutsideAUnitOfWork() {
+    String thread = helper.executeInNewUnitOfWork(() -> Thread.currentThread().getName());
+
+    assertThat(thread).isEqualTo(Thread.currentThread().getName());
+  }
+
+  @Test
+  void newUnitOfWorkRunsOnAClaimThreadInsideAUnitOfWork() {
+    when(dbAccessor.isInUnitOfWork()).thenReturn(true);
+
+    String thread = helper.executeInNewUnitOfWork(() -> Thread.currentThread().getName());
+
+    assertThat(thread).startsWith("id-block-claim-");
+  }
+
+  @Test
+  void claimThreadFailuresReachTheCaller() {
+    when(dbAccessor.isInUnitOfWork()).thenReturn(true);
+
+    assertThatThrownBy(() -> helper.executeInNewUnitOfWork(() -> {
+      throw new IDsExhaustedException("exhausted");
+    })).isInstanceOf(IDsExhaustedException.class);
+  }
+}
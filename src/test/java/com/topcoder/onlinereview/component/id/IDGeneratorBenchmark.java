@@ -0,0 +1,61 @@
+/** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
+package com.topcoder.onlinereview.component.id;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures handing out ids from one generator, alone and with callers on four
+ * threads at once, over an in-memory sequence whose blocks start at 1,000 ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IDGeneratorBenchmark {
+
+  private DBHelper helper;
+
+  private IDGenerator generator;
+
+  @Setup
+  public void setUp() throws IDGenerationException {
+    helper = new SequenceTable(1, 1000).newNode();
+    generator = new IDGenerator("upload_id_seq", helper);
+  }
+
+  @TearDown
+  public void tearDown() {
+    helper.shutdown();
+  }
+
+  @Benchmark
+  public long getNextID() throws IDGenerationException {
+    return generator.getNextID();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long getNextIDContended() throws IDGenerationException {
+    return generator.getNextID();
+  }
+
+  @Benchmark
+  public long[] reserve() throws IDGenerationException {
+    return generator.reserve(10);
+  }
+}
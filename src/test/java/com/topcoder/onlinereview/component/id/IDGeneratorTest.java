@@ -0,0 +1,144 @@
+/** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
+package com.topcoder.onlinereview.component.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class IDGeneratorTest {
+  private static final int THREADS = 8;
+  private static final int IDS_PER_THREAD = 5000;
+
+  private final SequenceTable table = new SequenceTable(1, 100);
+  private final List<DBHelper> nodes = new ArrayList<>();
+
+  @AfterEach
+  void shutdown() {
+    nodes.forEach(DBHelper::shutdown);
+  }
+
+  @Test
+  void reserveTakesContiguousIdsFromTheBlock() throws Exception {
+    IDGenerator generator = new IDGenerator("upload_id_seq", node());
+
+    long[] ids = generator.reserve(10);
+
+    assertThat(ids).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    assertThat(generator.getNextID()).isEqualTo(11);
+  }
+
+  @Test
+  void concurrentCallersGetUniqueIds() throws Exception {
+    IDGenerator generator = new IDGenerator("upload_id_seq", node());
+
+    Set<Long> ids = generateConcurrently(generator, generator);
+
+    assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+    assertThat(generator.getStats().getRefillCount()).isPositive();
+  }
+
+  @Test
+  void generatorsOfTwoNodesNeverShareIds() throws Exception {
+    IDGenerator first = new IDGenerator("upload_id_seq", node());
+    IDGenerator second = new IDGenerator("upload_id_seq", node());
+
+    Set<Long> ids = generateConcurrently(first, second);
+
+    assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+    assertThat(ids).allMatch(id -> id < table.getNextBlockStart());
+  }
+
+  @Test
+  void claimOnARowLockedByAnotherNodeIsRetried() throws Exception {
+    IDGenerator generator = new IDGenerator("upload_id_seq", node());
+
+    table.lockRow();
+    CompletableFuture<Long> id;
+    try {
+      id = CompletableFuture.supplyAsync(generator::getNextID);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (generator.getStats().getConflictCount() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+    } finally {
+      table.unlockRow();
+    }
+
+    assertThat(id.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(generator.getStats().getConflictCount()).isPositive();
+  }
+
+  @Test
+  void nodesContendingForTheRowGetUniqueIds() throws Exception {
+    SequenceTable smallBlocks = new SequenceTable(1, 10);
+    DBHelper firstNode = smallBlocks.newNode();
+    DBHelper secondNode = smallBlocks.newNode();
+    nodes.add(firstNode);
+    nodes.add(secondNode);
+    IDGenerator first = new IDGenerator("upload_id_seq", firstNode);
+    IDGenerator second = new IDGenerator("upload_id_seq", secondNode);
+
+    Set<Long> ids = generateConcurrently(first, second);
+
+    assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+    assertThat(ids).allMatch(id -> id < smallBlocks.getNextBlockStart());
+  }
+
+  private DBHelper node() {
+    DBHelper helper = table.newNode();
+    nodes.add(helper);
+    return helper;
+  }
+
+  /**
+   * Generates ids on all the threads at once, half of them from each
+   * generator, every fourth call reserving a few ids at a time.
+   */
+  private static Set<Long> generateConcurrently(IDGenerator first, IDGenerator second) throws Exception {
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    CyclicBarrier start = new CyclicBarrier(THREADS);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        IDGenerator generator = thread % 2 == 0 ? first : second;
+        Callable<Integer> task = () -> {
+          start.await();
+          int duplicates = 0;
+          for (int i = 0; i < IDS_PER_THREAD;) {
+            if (i % 4 == 3 && i + 3 <= IDS_PER_THREAD) {
+              for (long id : generator.reserve(3)) {
+                duplicates += ids.add(id) ? 0 : 1;
+              }
+              i += 3;
+            } else {
+              duplicates += ids.add(generator.getNextID()) ? 0 : 1;
+              i++;
+            }
+          }
+          return duplicates;
+        };
+        results.add(executor.submit(task));
+      }
+      for (Future<Integer> result : results) {
+        assertThat(result.get()).isZero();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,131 @@
+/** Copyright (C) 2005 TopCoder Inc., All Rights Reserved. */
+package com.topcoder.onlinereview.component.id;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.mockito.Answers;
+import org.mockito.invocation.Invocation;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.ResultRows;
+import com.topcoder.or.util.StatsLogger;
+
+/**
+ * A row of id_sequences in memory, read and updated by the statements of the
+ * DBHelpers it makes. Each helper stands for a node sharing the row.
+ *
+ * <p>
+ * The row is locked as Informix locks it without a lock wait: an update locks
+ * it until its unit of work ends, and reading or updating it while another
+ * thread holds the lock fails with error -244, ISAM error -107.
+ * </p>
+ */
+final class SequenceTable {
+  private static final String[] COLUMNS = { "next_block_start", "block_size", "exhausted" };
+
+  private final int blockSize;
+
+  /** The next block start, guarded by the monitor. */
+  private long nextBlockStart;
+
+  /** The lock of the row, held from an update until the end of its unit of work. */
+  private final ReentrantLock rowLock = new ReentrantLock();
+
+  SequenceTable(long nextBlockStart, int blockSize) {
+    this.nextBlockStart = nextBlockStart;
+    this.blockSize = blockSize;
+  }
+
+  synchronized long getNextBlockStart() {
+    return nextBlockStart;
+  }
+
+  /** Locks the row, as the unit of work of another node updating it does. */
+  void lockRow() {
+    rowLock.lock();
+  }
+
+  void unlockRow() {
+    rowLock.unlock();
+  }
+
+  /**
+   * Returns a new helper running its statements against the row.
+   *
+   * @return the helper, to be shut down by the caller
+   */
+  DBHelper newNode() {
+    DBHelper helper = new DBHelper();
+    ReflectionTestUtils.setField(helper, "dbAccessor", mock(DBAccessor.class, this::answer));
+    ReflectionTestUtils.setField(helper, "statsLogger", mock(StatsLogger.class));
+    helper.postRun();
+    return helper;
+  }
+
+  private Object answer(InvocationOnMock invocation) throws Throwable {
+    Object[] args = ((Invocation) invocation).getRawArguments();
+    switch (invocation.getMethod().getName()) {
+    case "executeQueryForRows":
+      return select();
+    case "executeUpdate":
+      return update((Object[]) args[1]);
+    case "executeInNewUnitOfWork":
+      try {
+        return ((Supplier<?>) args[0]).get();
+      } finally {
+        if (rowLock.isHeldByCurrentThread()) {
+          rowLock.unlock();
+        }
+      }
+    default:
+      return Answers.RETURNS_DEFAULTS.answer(invocation);
+    }
+  }
+
+  private ResultRows select() throws SQLException {
+    if (rowLock.isLocked() && !rowLock.isHeldByCurrentThread()) {
+      throw lockError();
+    }
+    long start = getNextBlockStart();
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(COLUMNS.length);
+    when(metaData.getColumnLabel(anyInt())).thenAnswer(inv -> COLUMNS[inv.<Integer>getArgument(0) - 1]);
+    when(metaData.getColumnType(anyInt())).thenReturn(Types.BIGINT);
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getMetaData()).thenReturn(metaData);
+    when(rs.next()).thenReturn(true, false);
+    when(rs.getLong(1)).thenReturn(start);
+    when(rs.getLong(2)).thenReturn((long) blockSize);
+    return ResultRows.read(rs);
+  }
+
+  /** Moves the next block start if it is still the one read, as the update statement does. */
+  private synchronized int update(Object[] parameters) {
+    if (!rowLock.isHeldByCurrentThread() && !rowLock.tryLock()) {
+      throw lockError();
+    }
+    if (nextBlockStart != (Long) parameters[3]) {
+      return 0;
+    }
+    nextBlockStart = (Long) parameters[0];
+    return 1;
+  }
+
+  private static UncategorizedSQLException lockError() {
+    SQLException error = new SQLException("Could not do a physical-order read to fetch next row.", "IX000", -244);
+    error.setNextException(new SQLException("ISAM error: record is locked.", "IX000", -107));
+    return new UncategorizedSQLException("claim", "UPDATE id_sequences", error);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.topcoder.onlinereview.component.search.filter.AbstractAssociativeFilter;
+import com.topcoder.onlinereview.component.search.filter.AbstractSimpleFilter;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+class FilterOptimizerTest {
+
+  /**
+   * The rewrite corpus: each filter with the filter it is optimized to, null
+   * when it can never match.
+   */
+  static Stream<Arguments> corpus() {
+    return Stream.of(
+        Arguments.of("nested ANDs are flattened and repeated equalities merged",
+            and(and(eq("x", 1L), eq("y", 2L)), eq("x", 1L)),
+            and(eq("x", 1L), eq("y", 2L))),
+        Arguments.of("equalities of one field under OR become one IN",
+            or(eq("x", 1L), or(eq("x", 2L), eq("x", 1L))),
+            in("x", 1L, 2L)),
+        Arguments.of("IN values are deduplicated and sorted",
+            in("x", 3L, 1L, 3L, 2L),
+            in("x", 1L, 2L, 3L)),
+        Arguments.of("IN filters of one field under AND are intersected",
+            and(in("x", 1L, 2L, 3L), in("x", 2L, 3L, 4L), eq("y", 1L)),
+            and(in("x", 2L, 3L), eq("y", 1L))),
+        Arguments.of("different equalities of one field never match together",
+            and(eq("x", 1L), eq("x", 2L)),
+            null),
+        Arguments.of("IS NULL and an equality of one field never match together",
+            and(new NullFilter("x"), eq("x", 1L)),
+            null),
+        Arguments.of("an empty between never matches",
+            new BetweenFilter("x", 1L, 3L),
+            null),
+        Arguments.of("a member of an OR that never matches is dropped",
+            or(eq("y", 5L), and(eq("x", 1L), eq("x", 2L))),
+            eq("y", 5L)),
+        Arguments.of("NOT is pushed through AND with De Morgan",
+            not(and(new GreaterThanFilter("x", 1L), new LessThanOrEqualToFilter("y", 2L))),
+            or(new LessThanOrEqualToFilter("x", 1L), new GreaterThanFilter("y", 2L))),
+        Arguments.of("NOT is pushed through OR with De Morgan",
+            not(or(new GreaterThanOrEqualToFilter("x", 1L), new LessThanFilter("y", 2L))),
+            and(new LessThanFilter("x", 1L), new GreaterThanOrEqualToFilter("y", 2L))),
+        Arguments.of("a double NOT cancels out",
+            not(not(eq("x", 1L))),
+            eq("x", 1L)),
+        Arguments.of("NOT stays on equalities, IN and NULL leaves",
+            not(or(in("x", 2L, 1L), new NullFilter("y"))),
+            and(not(in("x", 1L, 2L)), not(new NullFilter("y")))),
+        Arguments.of("string equalities are not folded, they may compare equal in the database",
+            and(eq("x", "a"), eq("x", "b")),
+            and(eq("x", "a"), eq("x", "b"))),
+        Arguments.of("repeated string equalities are deduplicated",
+            and(eq("x", "a"), eq("x", "a")),
+            eq("x", "a")),
+        Arguments.of("values of different classes are not folded",
+            and(eq("x", 1L), eq("x", 1)),
+            and(eq("x", 1L), eq("x", 1))));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("corpus")
+  void rewritesTheCorpus(String description, Filter filter, Filter expected) {
+    Filter optimized = FilterOptimizer.optimize(filter);
+
+    if (expected == null) {
+      assertThat(optimized).isNull();
+    } else {
+      assertThat(optimized).usingRecursiveComparison().isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void keepsTheMatchedRowsOfRandomFilters() {
+    Random random = new Random(20061);
+    List<Map<String, Long>> rows = new ArrayList<>();
+    Long[] values = { null, 0L, 1L, 2L, 3L };
+    for (Long x : values) {
+      for (Long y : values) {
+        rows.add(x == null ? (y == null ? Map.of() : Map.of("y", y))
+            : (y == null ? Map.of("x", x) : Map.of("x", x, "y", y)));
+      }
+    }
+    for (int i = 0; i < 5000; i++) {
+      Filter filter = randomFilter(random, 4);
+      Filter optimized = FilterOptimizer.optimize(filter);
+      for (Map<String, Long> row : rows) {
+        boolean expected = Boolean.TRUE.equals(evaluate(filter, row));
+        boolean actual = optimized != null && Boolean.TRUE.equals(evaluate(optimized, row));
+        assertThat(actual).as("%s on %s", describe(filter), row).isEqualTo(expected);
+      }
+    }
+  }
+
+  private static Filter randomFilter(Random random, int depth) {
+    int kind = random.nextInt(depth == 0 ? 8 : 11);
+    String field = random.nextBoolean() ? "x" : "y";
+    Long value = (long) random.nextInt(4);
+    switch (kind) {
+    case 0:
+    case 1:
+      return eq(field, value);
+    case 2:
+      return in(field, (long) random.nextInt(4), (long) random.nextInt(4), value);
+    case 3:
+      return new NullFilter(field);
+    case 4:
+      return new GreaterThanFilter(field, value);
+    case 5:
+      return new LessThanOrEqualToFilter(field, value);
+    case 6:
+      return new BetweenFilter(field, (long) random.nextInt(4), value);
+    case 7:
+      return new GreaterThanOrEqualToFilter(field, value);
+    case 8:
+      return not(randomFilter(random, depth - 1));
+    case 9:
+      return and(randomFilter(random, depth - 1), randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+    default:
+      return or(randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+    }
+  }
+
+  /**
+   * Evaluates the filter on a row with the SQL three-valued logic.
+   *
+   * @return true, false, or null for unknown
+   */
+  private static Boolean evaluate(Filter filter, Map<String, Long> row) {
+    if (filter instanceof NotFilter not) {
+      Boolean value = evaluate(not.getFilter(), row);
+      return value == null ? null : !value;
+    }
+    if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      boolean and = filter instanceof AndFilter;
+      Boolean result = and;
+      for (Object member : ((AbstractAssociativeFilter) filter).getFilters()) {
+        Boolean value = evaluate((Filter) member, row);
+        if (value == null) {
+          result = null;
+        } else if (value != and) {
+          return value;
+        }
+      }
+      return result;
+    }
+    if (filter instanceof NullFilter nullFilter) {
+      return row.get(nullFilter.getName()) == null;
+    }
+    if (filter instanceof InFilter in) {
+      Long value = row.get(in.getName());
+      return value == null ? null : in.getList().contains(value);
+    }
+    AbstractSimpleFilter simple = (AbstractSimpleFilter) filter;
+    Long value = row.get(simple.getName());
+    if (value == null) {
+      return null;
+    }
+    if (filter instanceof BetweenFilter) {
+      return value.compareTo((Long) simple.getLowerThreshold()) >= 0
+          && value.compareTo((Long) simple.getUpperThreshold()) <= 0;
+    }
+    int compared = value.compareTo((Long) simple.getValue());
+    if (filter instanceof EqualToFilter) {
+      return compared == 0;
+    }
+    if (filter instanceof GreaterThanFilter) {
+      return compared > 0;
+    }
+    if (filter instanceof GreaterThanOrEqualToFilter) {
+      return compared >= 0;
+    }
+    if (filter instanceof LessThanFilter) {
+      return compared < 0;
+    }
+    return compared <= 0;
+  }
+
+  private static String describe(Filter filter) {
+    if (filter instanceof NotFilter not) {
+      return "NOT " + describe(not.getFilter());
+    }
+    if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      List<String> members = new ArrayList<>();
+      for (Object member : ((AbstractAssociativeFilter) filter).getFilters()) {
+        members.add(describe((Filter) member));
+      }
+      return "(" + String.join(filter instanceof AndFilter ? " AND " : " OR ", members) + ")";
+    }
+    if (filter instanceof NullFilter nullFilter) {
+      return nullFilter.getName() + " IS NULL";
+    }
+    if (filter instanceof InFilter in) {
+      return in.getName() + " IN " + in.getList();
+    }
+    AbstractSimpleFilter simple = (AbstractSimpleFilter) filter;
+    if (filter instanceof BetweenFilter) {
+      return simple.getName() + " BETWEEN " + simple.getLowerThreshold() + " AND " + simple.getUpperThreshold();
+    }
+    return filter.getClass().getSimpleName() + "(" + simple.getName() + ", " + simple.getValue() + ")";
+  }
+
+  private static Filter eq(String name, Comparable value) {
+    return new EqualToFilter(name, value);
+  }
+
+  private static Filter in(String name, Comparable... values) {
+    return new InFilter(name, Arrays.asList(values));
+  }
+
+  private static Filter not(Filter filter) {
+    return new NotFilter(filter);
+  }
+
+  private static Filter and(Filter... filters) {
+    return new AndFilter(Arrays.asList(filters));
+  }
+
+  private static Filter or(Filter... filters) {
+    return new OrFilter(Arrays.asList(filters));
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.or.util.DBAccessor;
+
+class LikeIndexTest {
+  private static final String LOAD = "SELECT project_id, value, modify_date FROM project_info";
+  private static final String DELTA = LOAD + " WHERE modify_date >= ?";
+  private static final LikeFilter CONTAINS_ALPHA = new LikeFilter("ProjectPropertyValue", "SS:alpha");
+
+  /** Answers the load and delta queries from a list of rows, recording the queries. */
+  static class TableDBAccessor extends DBAccessor {
+    final List<Object[]> rows = new ArrayList<>();
+    final List<String> statements = new ArrayList<>();
+    final List<List<Object>> arguments = new ArrayList<>();
+    int failures;
+
+    TableDBAccessor() {
+      super(null, null, null, null, LoggerFactory.getLogger(LikeIndexTest.class));
+    }
+
+    void insert(long id, String value, long version) {
+      rows.add(new Object[] { id, value, new Timestamp(version) });
+    }
+
+    @Override
+    public void executeQuery(String query, int fetchSize, RowCallbackHandler handler, Object... args) {
+      statements.add(query);
+      arguments.add(Arrays.asList(args));
+      if (failures > 0) {
+        failures--;
+        throw new IllegalStateException("The database is down.");
+      }
+      try {
+        for (Object[] row : rows) {
+          if (args.length == 0 || ((Timestamp) row[2]).compareTo((Timestamp) args[0]) >= 0) {
+            handler.processRow(resultSet(row));
+          }
+        }
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+      ResultSet rs = mock(ResultSet.class);
+      when(rs.getLong(1)).thenReturn((Long) row[0]);
+      when(rs.getString(2)).thenReturn((String) row[1]);
+      when(rs.getObject(3)).thenReturn(row[2]);
+      return rs;
+    }
+  }
+
+  private final TableDBAccessor db = new TableDBAccessor();
+  private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+  private LikeIndex index(int maxValues) {
+    return new LikeIndex("ProjectPropertyValue", "project.project_id", "project_info", LOAD, DELTA, db, Runnable::run,
+        60000, 3600000, maxValues, clock::get);
+  }
+
+  private void advanceMillis(long millis) {
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Test
+  void resolvesContainsFiltersOnceLoaded() {
+    db.insert(1, "alpha project", 100);
+    db.insert(2, "beta", 100);
+    db.insert(3, "the alphabet", 100);
+    LikeIndex index = index(100);
+
+    index.rebuild();
+
+    assertThat(index.candidates(CONTAINS_ALPHA)).containsExactly(1L, 3L);
+    assertThat(index.candidates(new LikeFilter("ProjectPropertyValue", "EW:alpha"))).isEmpty();
+  }
+
+  @Test
+  void staleIndexFallsBackToLikeAndSynchronizesFromTheHighestVersion() {
+    db.insert(1, "alpha", 100);
+    db.insert(2, "beta", 250);
+    LikeIndex index = index(100);
+    index.rebuild();
+    // written by another node
+    db.insert(3, "alpha again", 300);
+
+    advanceMillis(60001);
+
+    assertThat(index.candidates(CONTAINS_ALPHA)).isNull();
+    assertThat(db.statements).containsExactly(LOAD, DELTA);
+    assertThat(db.arguments.get(1)).containsExactly(new Timestamp(250));
+    assertThat(index.candidates(CONTAINS_ALPHA)).containsExactly(1L, 3L);
+  }
+
+  @Test
+  void fullLoadAfterTheReloadInterval() {
+    db.insert(1, "alpha", 100);
+    LikeIndex index = index(100);
+    index.rebuild();
+    db.rows.clear();
+    db.insert(2, "alpha", 50);
+
+    advanceMillis(3600000);
+    index.tableWritten("project_info");
+
+    assertThat(db.statements).containsExactly(LOAD, LOAD);
+    assertThat(index.candidates(CONTAINS_ALPHA)).containsExactly(2L);
+  }
+
+  @Test
+  void failedSynchronizationIsRetriedAfterTheDelay() {
+    db.insert(1, "alpha", 100);
+    db.failures = 1;
+    LikeIndex index = index(100);
+
+    index.rebuild();
+    assertThat(index.candidates(CONTAINS_ALPHA)).isNull();
+    assertThat(db.statements).hasSize(1);
+
+    advanceMillis(LikeIndex.RETRY_DELAY_MILLIS);
+    assertThat(index.candidates(CONTAINS_ALPHA)).isNull();
+    assertThat(db.statements).hasSize(2);
+    assertThat(index.candidates(CONTAINS_ALPHA)).containsExactly(1L);
+  }
+
+  @Test
+  void indexPastItsMaximumIsDropped() {
+    db.insert(1, "alpha", 100);
+    db.insert(2, "beta", 100);
+    db.insert(3, "gamma", 100);
+    LikeIndex index = index(2);
+
+    index.rebuild();
+    advanceMillis(LikeIndex.RETRY_DELAY_MILLIS);
+
+    assertThat(index.isOverCapacity()).isTrue();
+    assertThat(index.candidates(CONTAINS_ALPHA)).isNull();
+    assertThat(db.statements).containsExactly(LOAD);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.topcoder.or.util.DBAccessor;
+
+/**
+ * A DBAccessor without a database: it records the statements and arguments of
+ * the queries and answers them with the given result sets. Explained queries
+ * append their statement to the explain file, as the database server would.
+ */
+class RecordingDBAccessor extends DBAccessor {
+  final List<String> statements = new ArrayList<>();
+  final List<List<Object>> arguments = new ArrayList<>();
+  private final List<ResultSet> rows;
+
+  RecordingDBAccessor(ResultSet... rows) {
+    super(null, null, null, null, LoggerFactory.getLogger(RecordingDBAccessor.class));
+    this.rows = Arrays.asList(rows);
+  }
+
+  @Override
+  public <T> List<T> executeQuery(String query, RowMapper<T> mapper, Object... args) {
+    statements.add(query);
+    arguments.add(Arrays.asList(args));
+    List<T> result = new ArrayList<>();
+    try {
+      for (ResultSet row : rows) {
+        result.add(mapper.mapRow(row, result.size()));
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+    return result;
+  }
+
+  @Override
+  public long executeQueryWithExplain(String query, String explainFile, boolean execute, Object... args) {
+    statements.add(query);
+    arguments.add(Arrays.asList(args));
+    try {
+      Files.writeString(Path.of(explainFile), "QUERY:\n" + query + "\n", StandardCharsets.ISO_8859_1,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return execute ? rows.size() : -1;
+  }
+
+  String lastStatement() {
+    return statements.get(statements.size() - 1);
+  }
+
+  List<Object> lastArguments() {
+    return arguments.get(arguments.size() - 1);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.or.util.DBAccessor;
+
+/**
+ * Measures the searches of the shipped ProjectSearchBundle from 1, 4 and 16
+ * threads sharing the bundle, over a database answering every query after
+ * {@link #QUERY_MILLIS} ms. Without a bundle-wide lock the throughput grows
+ * with the threads; the locked searches hold one lock around every search, as
+ * the bundle did before, and stay at one search per query time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBundleBenchmark {
+
+  /** The time the database takes to answer a query. */
+  private static final long QUERY_MILLIS = 1;
+
+  private static final RowMapper<Long> MAPPER = (rs, rowNum) -> rs.getLong(1);
+
+  private final Object lock = new Object();
+
+  private SearchBundle bundle;
+
+  private Filter[] filters;
+
+  @Setup
+  public void setUp() {
+    SearchBundleTest.loadConfig();
+    bundle = SearchBundleTest.projectBundle(new LatencyDBAccessor());
+    filters = new Filter[] { new EqualToFilter("ProjectStatusID", 1L),
+        new EqualToFilter("ProjectPropertyName", "Project Name"), new EqualToFilter("ProjectCategoryID", 2L) };
+  }
+
+  @Benchmark
+  @Threads(1)
+  public List<Long> search1Thread() {
+    return search();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public List<Long> search4Threads() {
+    return search();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public List<Long> search16Threads() {
+    return search();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public List<Long> lockedSearch16Threads() {
+    synchronized (lock) {
+      return search();
+    }
+  }
+
+  private List<Long> search() {
+    Filter filter = filters[(int) (Thread.currentThread().getId() % filters.length)];
+    return bundle.search(filter, MAPPER);
+  }
+
+  /** A database answering every query with no rows after the query time. */
+  private static final class LatencyDBAccessor extends DBAccessor {
+
+    private LatencyDBAccessor() {
+      super(null, null, null, null, LoggerFactory.getLogger(LatencyDBAccessor.class));
+    }
+
+    @Override
+    public <T> List<T> executeQuery(String query, RowMapper<T> mapper, Object... args) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(QUERY_MILLIS));
+      return new ArrayList<>();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.topcoder.or.util.DBAccessor;
+import com.topcoder.or.util.StatsLogger;
+
+class SearchBundleManagerTest {
+  private final StatsLogger statsLogger = mock(StatsLogger.class);
+  private final SearchBundleManager manager = new SearchBundleManager();
+
+  SearchBundleManagerTest() {
+    DBAccessor dbAccessor = mock(DBAccessor.class);
+    SearchBundleConfig config = new SearchBundleConfig();
+    config.setData(Arrays.asList(bundle("Cached Upload Search Bundle", 10), bundle("Upload Search Bundle", 0)));
+    ReflectionTestUtils.setField(manager, "searchBundleConfigList", config);
+    ReflectionTestUtils.setField(manager, "searchStrategy", new SearchStrategy(dbAccessor));
+    ReflectionTestUtils.setField(manager, "dbAccessor", dbAccessor);
+    ReflectionTestUtils.setField(manager, "statsLogger", statsLogger);
+  }
+
+  @AfterEach
+  void shutdown() {
+    manager.shutdown();
+  }
+
+  @Test
+  void resultCacheStatsAreLogged() {
+    manager.postRun();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Supplier<?>> source = ArgumentCaptor.forClass(Supplier.class);
+    verify(statsLogger).addSource(eq("Search result cache Cached Upload Search Bundle"), source.capture());
+    verifyNoMoreInteractions(statsLogger);
+    assertThat(source.getValue().get())
+        .isSameAs(manager.getSearchBundle("Cached Upload Search Bundle").getResultCache())
+        .hasToString("hits=0, misses=0, hitRate=0.000, invalidations=0, size=0, maxEntries=10");
+  }
+
+  private static SearchBundleConfig.ConfigData bundle(String name, int resultCacheSize) {
+    SearchBundleConfig.ConfigData data = new SearchBundleConfig.ConfigData();
+    data.setName(name);
+    data.setContext("SELECT upload.upload_id FROM upload WHERE");
+    data.setAlias(Map.of("UploadTypeID", "upload.upload_type_id"));
+    data.setFields(List.of("UploadTypeID"));
+    data.setResultCacheSize(resultCacheSize);
+    data.setResultCacheTtlSeconds(30);
+    return data;
+  }
+}
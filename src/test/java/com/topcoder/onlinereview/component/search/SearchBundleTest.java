@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import com.topcoder.onlinereview.component.datavalidator.NotValidator;
+import com.topcoder.onlinereview.component.datavalidator.NullValidator;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+import com.topcoder.or.util.DBAccessor;
+
+/**
+ * Pins the statements the shipped ProjectSearchBundle configuration runs.
+ */
+class SearchBundleTest {
+  private static SearchBundleConfig.ConfigData projectConfig;
+
+  @BeforeAll
+  static void loadConfig() {
+    try (GenericXmlApplicationContext context = new GenericXmlApplicationContext("classpath:searchBundle.xml")) {
+      projectConfig = context.getBean(SearchBundleConfig.class).getData().stream()
+          .filter(data -> data.getName().equals("ProjectSearchBundle"))
+          .findFirst()
+          .orElseThrow();
+    }
+  }
+
+  @Test
+  void projectsWithoutPropertiesStayExcludedWhenThePropertyJoinIsLeftOut() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+
+    projectBundle(db).search(new EqualToFilter("ProjectStatusID", 1L), (rs, i) -> null);
+
+    assertThat(db.lastStatement())
+        .contains("EXISTS (SELECT 1 FROM project_info, project_info_type_lu WHERE")
+        .doesNotContain("JOIN project_info ")
+        .doesNotContain("DISTINCT");
+  }
+
+  @Test
+  void propertyFilterJoinsThePropertiesInsteadOfTheExistsCondition() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+
+    projectBundle(db).search(new EqualToFilter("ProjectPropertyName", "Project Name"), (rs, i) -> null);
+
+    assertThat(db.lastStatement())
+        .contains("INNER JOIN project_info ON project.project_id = project_info.project_id")
+        .doesNotContain("EXISTS")
+        .contains("SELECT DISTINCT");
+  }
+
+  @Test
+  void outerJoinKeepsTheExistsConditionOfTheLeftOutPropertyJoin() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+
+    projectBundle(db).search(new EqualToFilter("TCDirectProjectID", 5L), (rs, i) -> null);
+
+    assertThat(db.lastStatement())
+        .contains("LEFT OUTER JOIN tc_direct_project")
+        .contains("EXISTS (SELECT 1 FROM project_info");
+  }
+
+  @Test
+  void likeIndexLimitsLikeFiltersInPositivePosition() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+    SearchBundle bundle = projectBundleWithLikeIndex(db);
+
+    bundle.search(new OrFilter(new LikeFilter("ProjectPropertyValue", "SS:alpha"),
+        new EqualToFilter("ProjectStatusID", 1L)), (rs, i) -> null);
+
+    assertThat(db.lastStatement()).contains("project.project_id IN (");
+    assertThat(db.lastArguments()).contains(1L, 3L);
+  }
+
+  @Test
+  void likeIndexLeavesNegatedLikeFiltersAlone() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+    SearchBundle bundle = projectBundleWithLikeIndex(db);
+
+    bundle.search(new NotFilter(new LikeFilter("ProjectPropertyValue", "SS:alpha")), (rs, i) -> null);
+
+    assertThat(db.lastStatement()).doesNotContain("project.project_id IN").doesNotContain("IS NULL");
+  }
+
+  private static SearchBundle projectBundleWithLikeIndex(RecordingDBAccessor db) {
+    LikeIndexTest.TableDBAccessor table = new LikeIndexTest.TableDBAccessor();
+    table.insert(1, "alpha project", 100);
+    table.insert(2, "beta", 100);
+    table.insert(3, "the alphabet", 100);
+    SearchBundleConfig.LikeIndexData data = projectConfig.getLikeIndexes().get(0);
+    LikeIndex likeIndex = new LikeIndex(data.getField(), data.getKeyField(), data.getTable(), data.getLoadSql(),
+        data.getDeltaSql(), table, Runnable::run);
+    SearchBundle bundle = projectBundle(db);
+    bundle.setLikeIndexes(Arrays.asList(likeIndex));
+    likeIndex.rebuild();
+    return bundle;
+  }
+
+  static SearchBundle projectBundle(DBAccessor db) {
+    SearchBundle bundle = new SearchBundle(projectConfig.getName(),
+        projectConfig.getFields().stream().collect(toMap(k -> k, k -> new NotValidator(new NullValidator()))),
+        projectConfig.getAlias(), projectConfig.getContext(), new SearchStrategy(db));
+    bundle.setOptionalJoins(projectConfig.getOptionalJoins().stream()
+        .map(j -> new JoinFragment(j.getSql(), new HashSet<>(j.getFields()), j.isMultiplying(),
+            j.getAbsentCondition()))
+        .collect(toList()));
+    return bundle;
+  }
+}
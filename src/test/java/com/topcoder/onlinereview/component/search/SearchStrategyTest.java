@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+
+class SearchStrategyTest {
+  private static final String CONTEXT =
+      "SELECT DISTINCT project.project_id AS pid, project.project_status_id FROM project WHERE ";
+
+  @Test
+  void searchPageOrdersBeforeLimitingAndReadsTheKeyColumn() throws SQLException {
+    RecordingDBAccessor db = new RecordingDBAccessor(row(10), row(20), row(30));
+    SearchStrategy strategy = new SearchStrategy(db);
+
+    SearchPage<Long> page = strategy.searchPage(CONTEXT, new EqualToFilter("project.project_status_id", 1L),
+        Map.of(), (rs, i) -> rs.getLong("pid"), "project.project_id", "pid", 2, null);
+
+    assertThat(db.lastStatement()).startsWith("SELECT FIRST 3 DISTINCT").endsWith(" ORDER BY project.project_id");
+    assertThat(page.getRows()).containsExactly(10L, 20L);
+    assertThat(page.getContinuationToken()).isEqualTo(SearchPage.encodeToken(20));
+  }
+
+  @Test
+  void searchPageContinuesAfterTheTokenKey() {
+    RecordingDBAccessor db = new RecordingDBAccessor();
+    SearchStrategy strategy = new SearchStrategy(db);
+
+    SearchPage<Long> page = strategy.searchPage(CONTEXT, new EqualToFilter("project.project_status_id", 1L),
+        Map.of(), (rs, i) -> rs.getLong("pid"), "project.project_id", "pid", 2, SearchPage.encodeToken(20));
+
+    assertThat(db.lastStatement()).contains("project.project_id > ?");
+    assertThat(db.lastArguments()).containsExactly(1L, 20L);
+    assertThat(page.hasMore()).isFalse();
+  }
+
+  @Test
+  void searchPageRejectsOrderedAndUnionContexts() {
+    SearchStrategy strategy = new SearchStrategy(new RecordingDBAccessor());
+
+    for (String context : new String[] {
+        "SELECT project_id FROM project WHERE {filter} ORDER BY create_date",
+        "SELECT project_id FROM project UNION SELECT project_id FROM project_info WHERE " }) {
+      assertThatThrownBy(() -> strategy.searchPage(context, new EqualToFilter("project_id", 1L), Map.of(),
+          (rs, i) -> rs.getLong("project_id"), "project_id", "project_id", 2, null))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void countCountsDistinctKeysOfADistinctContext() throws SQLException {
+    ResultSet count = mock(ResultSet.class);
+    when(count.getLong(1)).thenReturn(42L);
+    RecordingDBAccessor db = new RecordingDBAccessor(count);
+    SearchStrategy strategy = new SearchStrategy(db);
+
+    long result = strategy.count(CONTEXT, new EqualToFilter("project.project_status_id", 1L), Map.of(),
+        "project.project_id");
+
+    assertThat(result).isEqualTo(42L);
+    assertThat(db.lastStatement()).startsWith("SELECT COUNT(DISTINCT project.project_id) FROM project WHERE ");
+    assertThat(db.lastArguments()).containsExactly(1L);
+  }
+
+  @Test
+  void explainReadsBackOnlyThePlanOfItsStatement(@TempDir Path explainDirectory) throws IOException {
+    Files.writeString(explainDirectory.resolve("plan.out"), "QUERY:\nan earlier plan\n");
+    RecordingDBAccessor db = new RecordingDBAccessor();
+    SearchStrategy strategy = new SearchStrategy(db, explainDirectory.toString());
+
+    SearchExplanation explanation = strategy.explain("Project Search", CONTEXT,
+        new EqualToFilter("project.project_status_id", 1L), Map.of(), 0, true, "plan.out");
+
+    assertThat(explanation.getPlan()).isEqualTo("QUERY:\n" + explanation.getSql() + "\n");
+    assertThat(explanation.getRowCount()).isZero();
+  }
+
+  @Test
+  void explainRejectsFilesOutsideTheExplainDirectory(@TempDir Path explainDirectory) {
+    SearchStrategy strategy = new SearchStrategy(new RecordingDBAccessor(), explainDirectory.toString());
+
+    for (String explainFile : new String[] { "../plan.out", "..", "/etc/passwd", "sub/plan.out", "sub\\plan.out",
+        ".hidden", "" }) {
+      assertThatThrownBy(() -> strategy.resolveExplainFile(explainFile))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+    assertThat(strategy.resolveExplainFile("plan.out")).isEqualTo(explainDirectory.resolve("plan.out"));
+  }
+
+  @Test
+  void explainRejectsPlansWithoutAnExplainDirectory() {
+    SearchStrategy strategy = new SearchStrategy(new RecordingDBAccessor());
+
+    assertThatThrownBy(() -> strategy.explain("Project Search", CONTEXT,
+        new EqualToFilter("project.project_status_id", 1L), Map.of(), 0, false, "plan.out"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void readPlanCapsTheBytesRead(@TempDir Path explainDirectory) throws IOException {
+    Path planFile = explainDirectory.resolve("plan.out");
+    Files.write(planFile, new byte[3 << 20]);
+
+    assertThat(SearchStrategy.readPlan(planFile, 1 << 20)).hasSize(1 << 20);
+    assertThat(SearchStrategy.readPlan(planFile, (3 << 20) - 10)).hasSize(10);
+  }
+
+  @Test
+  void readPlanDoesNotFollowLinks(@TempDir Path explainDirectory) throws IOException {
+    Path target = Files.writeString(explainDirectory.resolve("secret"), "secret");
+    Path link = Files.createSymbolicLink(explainDirectory.resolve("plan.out"), target);
+
+    assertThat(SearchStrategy.readPlan(link, 0)).isNull();
+  }
+
+  private static ResultSet row(long key) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getLong("pid")).thenReturn(key);
+    return rs;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.onlinereview.component.search.filter.Filter;
+
+/**
+ * Compares validating filters with the compiled plan and with the filters
+ * themselves, from 8 threads sharing one bundle configuration. The filters are
+ * valid, as for almost every search; an invalid filter is validated by the
+ * filter itself either way to build the message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ValidationPlanBenchmark {
+
+  private Map<String, Object> validators;
+  private Map<String, String> aliasMap;
+  private ValidationPlan plan;
+  private Filter[] filters;
+
+  @Setup
+  public void setUp() {
+    validators = ValidationPlanTest.validators();
+    aliasMap = ValidationPlanTest.aliasMap();
+    plan = new ValidationPlan(validators, aliasMap);
+    Random random = new Random(2006);
+    filters = new Filter[256];
+    for (int i = 0; i < filters.length;) {
+      Filter filter = ValidationPlanTest.randomFilter(random, 3);
+      try {
+        if (filter.isValid(validators, aliasMap).isValid()) {
+          filters[i++] = filter;
+        }
+      } catch (IllegalArgumentException e) {
+        // a filter on an unknown field fails the search before the validation
+      }
+    }
+  }
+
+  @Benchmark
+  public int planValidate() {
+    int valid = 0;
+    for (Filter filter : filters) {
+      if (plan.validate(filter).isValid()) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+
+  @Benchmark
+  public int filterIsValid() {
+    int valid = 0;
+    for (Filter filter : filters) {
+      if (filter.isValid(validators, aliasMap).isValid()) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+}
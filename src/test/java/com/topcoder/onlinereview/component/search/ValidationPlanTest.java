@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2006 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.onlinereview.component.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.topcoder.onlinereview.component.datavalidator.LongValidator;
+import com.topcoder.onlinereview.component.datavalidator.NotValidator;
+import com.topcoder.onlinereview.component.datavalidator.NullValidator;
+import com.topcoder.onlinereview.component.datavalidator.StringValidator;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+class ValidationPlanTest {
+  private static final String[] FIELDS = { "ProjectID", "project.project_id", "Name", "name", "CreateUser", "unknown" };
+
+  static Map<String, Object> validators() {
+    Map<String, Object> validators = new HashMap<>();
+    validators.put("project.project_id", LongValidator.greaterThan(0));
+    validators.put("name", StringValidator.startsWith("a"));
+    validators.put("create_user", new NotValidator(new NullValidator()));
+    return validators;
+  }
+
+  static Map<String, String> aliasMap() {
+    Map<String, String> aliasMap = new HashMap<>();
+    aliasMap.put("ProjectID", "project.project_id");
+    aliasMap.put("Name", "name");
+    aliasMap.put("CreateUser", "create_user");
+    return aliasMap;
+  }
+
+  @Test
+  void agreesWithTheFiltersOnRandomFilters() {
+    Map<String, Object> validators = validators();
+    Map<String, String> aliasMap = aliasMap();
+    ValidationPlan plan = new ValidationPlan(validators, aliasMap);
+    Random random = new Random(2006);
+
+    for (int i = 0; i < 5000; i++) {
+      Filter filter = randomFilter(random, 3);
+
+      assertThat(outcome(() -> plan.validate(filter)))
+          .isEqualTo(outcome(() -> filter.isValid(validators, aliasMap)));
+    }
+  }
+
+  @Test
+  void fallsBackToTheFiltersWhenTheMapsCannotBeCompiled() {
+    Map<Object, Object> validators = new HashMap<>(validators());
+    validators.put(1L, LongValidator.isPositive());
+    Map<String, String> aliasMap = aliasMap();
+    ValidationPlan plan = new ValidationPlan(validators, aliasMap);
+    Filter filter = new EqualToFilter("ProjectID", -1L);
+
+    assertThat(plan.validate(filter).isValid()).isFalse();
+    assertThat(plan.validate(filter).getMessage()).isEqualTo(filter.isValid(validators, aliasMap).getMessage());
+  }
+
+  /**
+   * Describes the result of a validation, or the exception it throws for an
+   * unknown field.
+   */
+  private static String outcome(Supplier<ValidationResult> validation) {
+    try {
+      ValidationResult result = validation.get();
+      return result.isValid() ? "valid" : "invalid: " + result.getMessage();
+    } catch (IllegalArgumentException e) {
+      return "throws: " + e.getMessage();
+    }
+  }
+
+  static Filter randomFilter(Random random, int depth) {
+    String field = FIELDS[random.nextInt(FIELDS.length)];
+    boolean name = field.equalsIgnoreCase("name") || field.equals("CreateUser");
+    Comparable value = name ? (random.nextBoolean() ? "abc" : "xyz") : (long) random.nextInt(4) - 1;
+    switch (random.nextInt(depth == 0 ? 6 : 9)) {
+    case 0:
+      return new EqualToFilter(field, value);
+    case 1:
+      return new GreaterThanFilter(field, value);
+    case 2:
+      return new InFilter(field, Arrays.asList(value, name ? "abd" : (Comparable) 2L));
+    case 3:
+      return new BetweenFilter(field, value, name ? "a" : (Comparable) 0L);
+    case 4:
+      return name ? new LikeFilter(field, "SS:" + value) : new LessThanOrEqualToFilter(field, value);
+    case 5:
+      return new NullFilter(field);
+    case 6:
+      return new NotFilter(randomFilter(random, depth - 1));
+    case 7:
+      return new AndFilter(randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+    default:
+      return new OrFilter(randomFilter(random, depth - 1), randomFilter(random, depth - 1));
+    }
+  }
+}
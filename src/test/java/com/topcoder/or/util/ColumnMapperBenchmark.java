@@ -0,0 +1,51 @@
+package com.topcoder.or.util;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Compares mapping 10,000 upload rows by column index with a cached
+ * ColumnMapper plan against looking every column up by name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnMapperBenchmark {
+
+    private static final int ROWS = 10000;
+
+    private Object[][] values;
+
+    @Setup
+    public void setUp() {
+        values = UploadRows.values(ROWS);
+    }
+
+    @Benchmark
+    public List<UploadRows.Upload> mapByColumnIndex() throws SQLException {
+        RowMapper<UploadRows.Upload> mapper = UploadRows.COLUMNS.rowMapper(UploadRows.SQL, UploadRows.Upload::new,
+                b -> b);
+        return ColumnMapperTest.map(UploadRows.resultSet(values), mapper);
+    }
+
+    @Benchmark
+    public List<UploadRows.Upload> mapByName() throws SQLException {
+        return ColumnMapperTest.map(UploadRows.resultSet(values), UploadRows::mapByName);
+    }
+}
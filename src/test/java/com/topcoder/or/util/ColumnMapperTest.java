@@ -0,0 +1,79 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+
+class ColumnMapperTest {
+
+    @Test
+    void mapsTheSameRowsAsTheNameLookups() throws SQLException {
+        Object[][] values = UploadRows.values(100);
+
+        List<UploadRows.Upload> byIndex = map(UploadRows.resultSet(values),
+                UploadRows.COLUMNS.rowMapper(UploadRows.Upload::new, b -> b));
+        List<UploadRows.Upload> byName = map(UploadRows.resultSet(values), UploadRows::mapByName);
+
+        assertThat(byIndex).hasSize(100).isEqualTo(byName);
+        assertThat(byIndex.get(0).uploadDesc).isNull();
+        assertThat(byIndex.get(1).uploadDesc).isEqualTo("Upload 1");
+    }
+
+    @Test
+    void resolvesLabelsIgnoringCaseAndKeepsTheFirstOfARepeatedLabel() throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(new String[] { "ID", "Name", "id" },
+                new int[] { Types.BIGINT, Types.VARCHAR, Types.BIGINT }, new Object[][] { { 1L, "a", 2L } });
+        ColumnMapper<long[]> mapper = new ColumnMapper<long[]>().longColumn("id", (b, v) -> b[0] = v);
+
+        assertThat(mapper.resolve(rs.getMetaData())).containsExactly(1);
+    }
+
+    @Test
+    void missingColumnFailsOnTheFirstRow() {
+        ResultSet rs = InMemoryResultSet.of(new String[] { "id" }, new int[] { Types.BIGINT },
+                new Object[][] { { 1L } });
+        ColumnMapper<long[]> mapper = new ColumnMapper<long[]>().longColumn("upload_id", (b, v) -> b[0] = v);
+
+        assertThatThrownBy(() -> map(rs, mapper.rowMapper(() -> new long[1], b -> b)))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("upload_id");
+    }
+
+    @Test
+    void planIsCachedPerStatement() throws SQLException {
+        Object[][] values = UploadRows.values(1);
+        map(UploadRows.resultSet(values), UploadRows.COLUMNS.rowMapper(UploadRows.SQL, UploadRows.Upload::new,
+                b -> b));
+
+        // a result without metadata can only be mapped with the cached plan
+        ResultSet rs = UploadRows.resultSet(values);
+        ResultSet withoutMetaData = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getMetaData")) {
+                        throw new SQLException("No metadata.");
+                    }
+                    return method.invoke(rs, args);
+                });
+        List<UploadRows.Upload> rows = map(withoutMetaData,
+                UploadRows.COLUMNS.rowMapper(UploadRows.SQL, UploadRows.Upload::new, b -> b));
+
+        assertThat(rows).hasSize(1);
+    }
+
+    static <T> List<T> map(ResultSet rs, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(mapper.mapRow(rs, rows.size()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,194 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class DBAccessorTest {
+
+    /**
+     * Answers each statement with its distinct IN values in ascending order, as
+     * a query ordered by the IN column would.
+     */
+    static class ChunkRecordingDBAccessor extends DBAccessor {
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        ChunkRecordingDBAccessor() {
+            super(null, null, null, null, LoggerFactory.getLogger(DBAccessorTest.class));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> executeQuery(JdbcTemplate jdbcTemplate, QueryProfile profile, String query,
+                RowMapper<T> mapper, Object... args) {
+            statements.add(query);
+            List<Long> rows = new ArrayList<>(new TreeSet<>(List.of((Long[]) toLongs(args))));
+            if (query.contains("DESC")) {
+                Collections.reverse(rows);
+            }
+            return (List<T>) rows;
+        }
+
+        private static Long[] toLongs(Object[] args) {
+            Long[] longs = new Long[args.length];
+            for (int i = 0; i < args.length; i++) {
+                longs[i] = (Long) args[i];
+            }
+            return longs;
+        }
+    }
+
+    private static List<Long> shuffledIds(int count) {
+        List<Long> ids = LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+        Collections.shuffle(ids, new Random(42));
+        return ids;
+    }
+
+    @Test
+    void queryOrderedByTheInColumnIsChunkedInOrder() {
+        ChunkRecordingDBAccessor db = new ChunkRecordingDBAccessor();
+        List<Long> ids = shuffledIds(2000);
+
+        List<Long> rows = db.executeInQuery("SELECT review_id FROM review_comment WHERE review_id IN (%s)"
+                + " ORDER BY review_id, sort", (rs, i) -> 0L, ids);
+
+        assertThat(db.statements).hasSize(4);
+        assertThat(rows).isEqualTo(LongStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void queryOrderedByTheInColumnDescendingIsChunkedInOrder() {
+        ChunkRecordingDBAccessor db = new ChunkRecordingDBAccessor();
+        List<Long> ids = shuffledIds(2000);
+
+        List<Long> rows = db.executeInQuery("SELECT review_id FROM review WHERE review_id IN (%s)"
+                + " ORDER BY review_id DESC", (rs, i) -> 0L, ids);
+
+        List<Long> expected = LongStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList());
+        Collections.reverse(expected);
+        assertThat(db.statements).hasSize(4);
+        assertThat(rows).isEqualTo(expected);
+    }
+
+    @Test
+    void unorderedQueryIsChunked() {
+        ChunkRecordingDBAccessor db = new ChunkRecordingDBAccessor();
+        List<Long> ids = shuffledIds(2000);
+
+        List<Long> rows = db.executeInQuery("SELECT review_id FROM review WHERE review_id IN (%s)",
+                (rs, i) -> 0L, ids);
+
+        assertThat(db.statements).hasSize(4);
+        assertThat(rows).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void shortOrderedQueryRunsAsOneStatement() {
+        ChunkRecordingDBAccessor db = new ChunkRecordingDBAccessor();
+
+        db.executeInQuery("SELECT review_id FROM review WHERE review_id IN (%s) GROUP BY review_id",
+                (rs, i) -> 0L, shuffledIds(100));
+
+        assertThat(db.statements).hasSize(1);
+    }
+
+    @Test
+    void groupedQueryReadsTheValuesFromATempTable() throws Exception {
+        assertRunsWithTempTable("SELECT submission_id, COUNT(*) FROM review WHERE submission_id IN (%s)"
+                + " GROUP BY submission_id");
+    }
+
+    @Test
+    void queryOrderedByAnotherColumnReadsTheValuesFromATempTable() throws Exception {
+        assertRunsWithTempTable("SELECT ric.review_item_comment_id FROM review_item_comment ric"
+                + " INNER JOIN review_item ri ON ric.review_item_id = ri.review_item_id AND ri.review_id IN (%s)"
+                + " ORDER BY ric.review_item_id, ric.sort");
+    }
+
+    @Test
+    void orderedQueryWithValuesNoTempTableHoldsIsRejected() {
+        ChunkRecordingDBAccessor db = new ChunkRecordingDBAccessor();
+        List<Object> values = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            values.add(id % 2 == 0 ? (Object) id : (Object) (int) id);
+        }
+
+        assertThatThrownBy(() -> db.executeInQuery("SELECT submission_id, COUNT(*) FROM review"
+                + " WHERE submission_id IN (%s) GROUP BY submission_id", (rs, i) -> 0L, values))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(db.statements).isEmpty();
+    }
+
+    @Test
+    void unreportedBatchCountsMakeTheTotalUnknown() {
+        assertThat(DBAccessor.sumUpdateCounts(new int[] { 1, 2, 1 })).isEqualTo(4);
+        assertThat(DBAccessor.sumUpdateCounts(new int[] { 1, Statement.SUCCESS_NO_INFO, 1 })).isEqualTo(-1);
+        assertThat(DBAccessor.sumUpdateCounts(new int[0])).isZero();
+    }
+
+    @Test
+    void unitOfWorkHoldsAConnectionOfTheTcsDatabase() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        DBAccessor db = new DBAccessor(new JdbcTemplate(dataSource), null, null, null,
+                LoggerFactory.getLogger(DBAccessorTest.class));
+
+        assertThat(db.isInUnitOfWork()).isFalse();
+        assertThat(db.executeInUnitOfWork(db::isInUnitOfWork)).isTrue();
+        assertThat(db.isInUnitOfWork()).isFalse();
+    }
+
+    private static void assertRunsWithTempTable(String query) throws Exception {
+        Connection con = mock(Connection.class);
+        Statement ddl = mock(Statement.class);
+        PreparedStatement insert = mock(PreparedStatement.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(con.createStatement()).thenReturn(ddl);
+        when(con.prepareStatement(anyString())).thenAnswer(
+                inv -> ((String) inv.getArgument(0)).startsWith("INSERT") ? insert : select);
+        when(select.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(con));
+        DBAccessor db = new DBAccessor(jdbcTemplate, null, null, null, LoggerFactory.getLogger(DBAccessorTest.class));
+
+        List<Integer> rows = db.executeInQuery(query, (r, i) -> i, shuffledIds(2000));
+
+        assertThat(rows).containsExactly(0, 1);
+        ArgumentCaptor<String> ddlStatements = ArgumentCaptor.forClass(String.class);
+        verify(ddl, times(3)).execute(ddlStatements.capture());
+        assertThat(ddlStatements.getAllValues()).containsExactly("DROP TABLE IF EXISTS tmp_in_values",
+                "CREATE TEMP TABLE tmp_in_values (value INT8) WITH NO LOG", "DROP TABLE IF EXISTS tmp_in_values");
+        verify(insert, times(2000)).addBatch();
+        verify(con).prepareStatement(query.formatted("SELECT value FROM tmp_in_values"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.topcoder.or.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.SerializationUtils;
+
+import com.google.protobuf.ByteString;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+
+/**
+ * Compares decoding a search filter from FilterNode bytes with the legacy Java
+ * serialization. Payload sizes are printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterCodecBenchmark {
+
+    private ByteString encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        Filter filter = FilterCodecTest.sampleFilter();
+        encoded = FilterCodec.encode(filter);
+        serialized = SerializationUtils.serialize(filter);
+        System.out.printf("%nFilterNode: %d bytes, Java serialization: %d bytes%n", encoded.size(), serialized.length);
+    }
+
+    @Benchmark
+    public Filter decodeFilterNode() {
+        return FilterCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public Object decodeSerialized() {
+        return SerializationUtils.deserialize(serialized);
+    }
+
+    @Benchmark
+    public ByteString encodeFilterNode() {
+        return FilterCodec.encode(FilterCodecTest.sampleFilter());
+    }
+}
@@ -0,0 +1,115 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
+
+import com.google.protobuf.ByteString;
+import com.topcoder.onlinereview.component.search.filter.AndFilter;
+import com.topcoder.onlinereview.component.search.filter.BetweenFilter;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.Filter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanFilter;
+import com.topcoder.onlinereview.component.search.filter.GreaterThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.InFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanFilter;
+import com.topcoder.onlinereview.component.search.filter.LessThanOrEqualToFilter;
+import com.topcoder.onlinereview.component.search.filter.LikeFilter;
+import com.topcoder.onlinereview.component.search.filter.NotFilter;
+import com.topcoder.onlinereview.component.search.filter.NullFilter;
+import com.topcoder.onlinereview.component.search.filter.OrFilter;
+
+class FilterCodecTest {
+
+    /**
+     * A filter using every node type and every value type.
+     */
+    static Filter sampleFilter() {
+        return new AndFilter(List.of(
+                new EqualToFilter("ProjectId", 42L),
+                new OrFilter(List.of(
+                        new GreaterThanFilter("Count", 7),
+                        new GreaterThanOrEqualToFilter("Score", 75.5d),
+                        new LessThanFilter("Amount", new BigDecimal("1234.5600")),
+                        new LessThanOrEqualToFilter("Flag", Boolean.TRUE))),
+                new NotFilter(new NullFilter("ProjectCategoryID")),
+                new InFilter("ProjectStatusID", List.of(1L, 2L, 7L)),
+                new LikeFilter("ProjectPropertyValue", "SS:Design", '!'),
+                new BetweenFilter("CreateDate", new Date(1_700_000_000_000L), new Date(1_600_000_000_000L)),
+                new EqualToFilter("ProjectName", "Ünïcödé €")));
+    }
+
+    @Test
+    void roundTripsEveryNodeAndValueType() {
+        Filter filter = sampleFilter();
+
+        Filter decoded = FilterCodec.decode(FilterCodec.encode(filter));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(filter);
+    }
+
+    @Test
+    void encodingIsStable() {
+        ByteString encoded = FilterCodec.encode(sampleFilter());
+
+        assertThat(FilterCodec.encode(FilterCodec.decode(encoded))).isEqualTo(encoded);
+    }
+
+    @Test
+    void keepsDefaultLikeEscapeCharacter() {
+        LikeFilter filter = new LikeFilter("ScorecardName", "WC:Design*Review");
+
+        Filter decoded = FilterCodec.decode(FilterCodec.encode(filter));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(filter);
+    }
+
+    @Test
+    void isSmallerThanJavaSerialization() {
+        Filter filter = sampleFilter();
+
+        assertThat(FilterCodec.encode(filter).size()).isLessThan(SerializationUtils.serialize(filter).length);
+    }
+
+    @Test
+    void decodesLegacySerializedFilter() {
+        Filter filter = sampleFilter();
+
+        Filter decoded = FilterCodec.decode(ByteString.copyFrom(SerializationUtils.serialize(filter)));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(filter);
+    }
+
+    @Test
+    void rejectsEmptyAndMalformedBytes() {
+        assertThatThrownBy(() -> FilterCodec.decode(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FilterCodec.decode(ByteString.EMPTY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FilterCodec.decode(ByteString.copyFrom(new byte[] { 0x22, 0x7f, 0x0a })))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FilterCodec.decode(ByteString.copyFrom(new byte[] { (byte) 0xAC, (byte) 0xED, 0 })))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUnsupportedValueType() {
+        assertThatThrownBy(() -> FilterCodec.encode(new EqualToFilter("Char", 'x')))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsExcessiveNesting() {
+        Filter filter = new EqualToFilter("ProjectId", 1L);
+        for (int i = 0; i < 100; i++) {
+            filter = new NotFilter(filter);
+        }
+        ByteString encoded = FilterCodec.encode(filter);
+
+        assertThatThrownBy(() -> FilterCodec.decode(encoded)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
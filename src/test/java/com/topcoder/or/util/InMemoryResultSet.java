@@ -0,0 +1,126 @@
+package com.topcoder.or.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * A forward-only result over rows held in memory, for tests and benchmarks
+ * without a database. Columns are found by label ignoring case, scanning the
+ * labels as a driver does, so lookups by name cost what they cost there.
+ */
+final class InMemoryResultSet implements InvocationHandler {
+    private final String[] labels;
+    private final int[] types;
+    private final Object[][] rows;
+    private int row = -1;
+    private boolean wasNull;
+
+    private InMemoryResultSet(String[] labels, int[] types, Object[][] rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns a result over the rows, positioned before the first one.
+     *
+     * @param labels the column labels
+     * @param types  the {@link Types} of the columns
+     * @param rows   the values of each row, null for SQL NULL
+     * @return the result
+     */
+    static ResultSet of(String[] labels, int[] types, Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new InMemoryResultSet(labels, types, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+        switch (method.getName()) {
+        case "next":
+            return ++row < rows.length;
+        case "wasNull":
+            return wasNull;
+        case "getMetaData":
+            return metaData();
+        case "findColumn":
+            return findColumn((String) args[0]);
+        case "close":
+            return null;
+        case "isClosed":
+            return false;
+        default:
+            if (method.getName().startsWith("get") && args != null && args.length == 1) {
+                int index = args[0] instanceof String label ? findColumn(label) : (Integer) args[0];
+                return get(method.getName(), index);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private int findColumn(String label) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("The column '" + label + "' is not in the result.");
+    }
+
+    private Object get(String getter, int index) {
+        Object value = rows[row][index - 1];
+        wasNull = value == null;
+        switch (getter) {
+        case "getLong":
+            return value == null ? 0L : ((Number) value).longValue();
+        case "getInt":
+            return value == null ? 0 : ((Number) value).intValue();
+        case "getDouble":
+            return value == null ? 0d : ((Number) value).doubleValue();
+        case "getFloat":
+            return value == null ? 0f : ((Number) value).floatValue();
+        case "getBoolean":
+            return value != null && (value instanceof Boolean b ? b : ((Number) value).intValue() != 0);
+        case "getString":
+            return value == null ? null : value.toString();
+        case "getTimestamp":
+            return (Timestamp) value;
+        case "getBigDecimal":
+            return value == null ? null : value instanceof BigDecimal d ? d : new BigDecimal(value.toString());
+        default:
+            // a driver returns decimals as BigDecimal
+            if (types[index - 1] == Types.DECIMAL && value instanceof Long number) {
+                return BigDecimal.valueOf(number);
+            }
+            return value;
+        }
+    }
+
+    private ResultSetMetaData metaData() {
+        return (ResultSetMetaData) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return labels[(Integer) args[0] - 1];
+                    case "getColumnType":
+                        return types[(Integer) args[0] - 1];
+                    case "getPrecision":
+                        return types[(Integer) args[0] - 1] == Types.DECIMAL ? 10 : 0;
+                    case "getScale":
+                        return 0;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,66 @@
+package com.topcoder.or.util;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+
+/**
+ * Compares reading 10,000 upload rows into ResultRows against a row map per
+ * row, as {@code queryForList} returns them, then reading the ids and dates of
+ * every row back. Run with <code>-prof gc</code> to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultRowsBenchmark {
+
+    private static final int ROWS = 10000;
+
+    private Object[][] values;
+
+    @Setup
+    public void setUp() {
+        values = UploadRows.values(ROWS);
+    }
+
+    @Benchmark
+    public long readResultRows() throws SQLException {
+        ResultRows rows = ResultRows.read(UploadRows.resultSet(values));
+        int uploadId = rows.column("upload_id");
+        int projectId = rows.column("project_id");
+        int createDate = rows.column("create_date");
+        long sum = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            sum += rows.getLong(row, uploadId) + rows.getLong(row, projectId)
+                    + rows.getDate(row, createDate).getTime();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readRowMaps() throws SQLException {
+        List<Map<String, Object>> rows = ColumnMapperTest.map(UploadRows.resultSet(values), new ColumnMapRowMapper());
+        long sum = 0;
+        for (Map<String, Object> row : rows) {
+            sum += ((Number) row.get("upload_id")).longValue() + ((Number) row.get("project_id")).longValue()
+                    + ((java.util.Date) row.get("create_date")).getTime();
+        }
+        return sum;
+    }
+}
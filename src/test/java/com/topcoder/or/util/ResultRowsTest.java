@@ -0,0 +1,69 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+
+class ResultRowsTest {
+
+    @Test
+    void readsTheValuesOfTheRowMaps() throws SQLException {
+        Object[][] values = UploadRows.values(100);
+
+        ResultRows rows = ResultRows.read(UploadRows.resultSet(values));
+        List<Map<String, Object>> maps = ColumnMapperTest.map(UploadRows.resultSet(values), new ColumnMapRowMapper());
+
+        assertThat(rows.size()).isEqualTo(maps.size());
+        for (int row = 0; row < rows.size(); row++) {
+            Map<String, Object> map = maps.get(row);
+            for (int column = 0; column < rows.getColumnCount(); column++) {
+                Object expected = map.get(rows.getColumnLabel(column));
+                if (expected instanceof Number number) {
+                    assertThat(rows.getLong(row, column)).isEqualTo(number.longValue());
+                } else {
+                    assertThat(rows.getObject(row, column)).isEqualTo(expected);
+                }
+                assertThat(rows.isNull(row, column)).isEqualTo(expected == null);
+            }
+        }
+    }
+
+    @Test
+    void keepsIntegralDecimalsAsLongs() throws SQLException {
+        ResultRows rows = ResultRows.read(UploadRows.resultSet(UploadRows.values(1)));
+
+        assertThat(rows.getObject(0, rows.column("upload_id"))).isEqualTo(1000L);
+        assertThat(rows.getString(0, rows.column("UPLOAD_ID"))).isEqualTo("1000");
+        assertThat(rows.getDate(0, rows.column("create_date"))).isInstanceOf(Timestamp.class);
+    }
+
+    @Test
+    void missingLabelReadsAsNull() throws SQLException {
+        ResultRows rows = ResultRows.read(UploadRows.resultSet(UploadRows.values(1)));
+        int column = rows.column("submission_id");
+
+        assertThat(column).isEqualTo(ResultRows.NO_COLUMN);
+        assertThat(rows.isNull(0, column)).isTrue();
+        assertThat(rows.getObject(0, column)).isNull();
+        assertThat(rows.getLong(0, column)).isZero();
+    }
+
+    @Test
+    void nullNumbersReadAsZeroAndAreFlagged() throws SQLException {
+        ResultRows rows = ResultRows.read(InMemoryResultSet.of(new String[] { "id", "score" },
+                new int[] { Types.BIGINT, Types.DOUBLE }, new Object[][] { { null, 2.5d }, { 3L, null } }));
+
+        assertThat(rows.isNull(0, 0)).isTrue();
+        assertThat(rows.getLong(0, 0)).isZero();
+        assertThat(rows.getDouble(0, 1)).isEqualTo(2.5d);
+        assertThat(rows.isNull(1, 1)).isTrue();
+        assertThat(rows.getObject(1, 1)).isNull();
+    }
+}
@@ -0,0 +1,87 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+class SearchPageCodecTest {
+
+    private static final MethodDescriptor.Marshaller<SearchPageCodec.Request> REQUESTS = SearchPageCodec
+            .requestMarshaller();
+    private static final MethodDescriptor.Marshaller<SearchPageCodec.Response<ListValue>> PAGES = SearchPageCodec
+            .responseMarshaller(ListValue.getDefaultInstance());
+
+    @Test
+    void requestRoundTrips() {
+        ByteString filter = FilterCodec.encode(new EqualToFilter("UploadTypeID", 1L));
+
+        SearchPageCodec.Request request = REQUESTS
+                .parse(REQUESTS.stream(new SearchPageCodec.Request(filter, 50, "k1:9")));
+
+        assertThat(request.getFilter()).isEqualTo(filter);
+        assertThat(request.getPageSize()).isEqualTo(50);
+        assertThat(request.getContinuationToken()).isEqualTo("k1:9");
+    }
+
+    @Test
+    void emptyTokenIsTheFirstPage() {
+        SearchPageCodec.Request request = REQUESTS.parse(REQUESTS.stream(new SearchPageCodec.Request(null, 10, "")));
+
+        assertThat(request.getContinuationToken()).isNull();
+        assertThat(request.getFilter()).isEqualTo(ByteString.EMPTY);
+        assertThat(SearchPageCodec.encode(new SearchPageCodec.Request(null, 0, null))).isEqualTo(ByteString.EMPTY);
+    }
+
+    @Test
+    void responseCarriesTheRowsMessage() {
+        ListValue rows = ListValue.newBuilder().addValues(Value.newBuilder().setNumberValue(7))
+                .addValues(Value.newBuilder().setStringValue("eight")).build();
+
+        SearchPageCodec.Response<ListValue> page = PAGES
+                .parse(PAGES.stream(new SearchPageCodec.Response<>(rows, "k1:8")));
+        SearchPageCodec.Response<ListValue> last = PAGES
+                .parse(PAGES.stream(new SearchPageCodec.Response<>(rows, null)));
+
+        assertThat(page.getRows()).isEqualTo(rows);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.getContinuationToken()).isEqualTo("k1:8");
+        assertThat(last.getRows()).isEqualTo(rows);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() throws IOException {
+        ByteString.Output out = ByteString.newOutput();
+        CodedOutputStream cos = CodedOutputStream.newInstance(out);
+        cos.writeInt32(2, 25);
+        cos.writeString(9, "added later");
+        cos.flush();
+
+        SearchPageCodec.Request request = REQUESTS.parse(out.toByteString().newInput());
+
+        assertThat(request.getPageSize()).isEqualTo(25);
+    }
+
+    @Test
+    void malformedBytesAreInvalidArguments() {
+        ByteString truncated = SearchPageCodec.encode(new SearchPageCodec.Request(ByteString.copyFromUtf8("filter"), 5,
+                "k1:1")).substring(0, 4);
+
+        assertThatThrownBy(() -> REQUESTS.parse(truncated.newInput())).isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.INVALID_ARGUMENT);
+    }
+}
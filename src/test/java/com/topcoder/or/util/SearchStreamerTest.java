@@ -0,0 +1,228 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.topcoder.onlinereview.component.datavalidator.NotValidator;
+import com.topcoder.onlinereview.component.datavalidator.NullValidator;
+import com.topcoder.onlinereview.component.search.SearchBundle;
+import com.topcoder.onlinereview.component.search.SearchStrategy;
+import com.topcoder.onlinereview.component.search.filter.EqualToFilter;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+
+class SearchStreamerTest {
+    private static final int CHUNK_SIZE = 10;
+    private static final int ROWS = 95;
+
+    private final SearchStreamer streamer = new SearchStreamer(LoggerFactory.getLogger(SearchStreamerTest.class), 2);
+
+    /**
+     * A call whose client takes one message each time it is granted, and is not
+     * ready again until the next grant.
+     */
+    static class SlowCall extends ServerCallStreamObserver<List<Long>> {
+        final List<Long> received = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final Semaphore waiting = new Semaphore(0);
+        private volatile boolean ready;
+        private volatile boolean cancelled;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+
+        void grant() {
+            ready = true;
+            onReadyHandler.run();
+        }
+
+        void cancel() {
+            cancelled = true;
+            onCancelHandler.run();
+        }
+
+        boolean awaitWaiting() throws InterruptedException {
+            return waiting.tryAcquire(5, TimeUnit.SECONDS);
+        }
+
+        boolean pollWaiting() throws InterruptedException {
+            return waiting.tryAcquire(10, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!ready) {
+                waiting.release();
+            }
+            return ready;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public void onNext(List<Long> value) {
+            ready = false;
+            received.addAll(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            done.complete(null);
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+    }
+
+    /**
+     * Reads the ids 1 to n row by row from an in-memory cursor, recording how
+     * many rows were read but not yet received by the client.
+     */
+    static class CursorDBAccessor extends DBAccessor {
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicInteger read = new AtomicInteger();
+        final AtomicInteger peakInFlight = new AtomicInteger();
+        private final int rows;
+        private final SlowCall call;
+
+        CursorDBAccessor(int rows, SlowCall call) {
+            super(null, null, null, null, LoggerFactory.getLogger(CursorDBAccessor.class));
+            this.rows = rows;
+            this.call = call;
+        }
+
+        @Override
+        public void executeQuery(String query, int fetchSize, RowCallbackHandler handler, Object... args) {
+            Object[][] values = new Object[rows][];
+            for (int i = 0; i < rows; i++) {
+                values[i] = new Object[] { i + 1L };
+            }
+            ResultSet rs = InMemoryResultSet.of(new String[] { "upload_id" }, new int[] { Types.DECIMAL }, values);
+            try {
+                while (rs.next()) {
+                    int inFlight = read.incrementAndGet() - call.received.size();
+                    peakInFlight.accumulateAndGet(inFlight, Math::max);
+                    handler.processRow(rs);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                closed.countDown();
+            }
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        streamer.shutdown();
+    }
+
+    private void streamUploads(SlowCall call, CursorDBAccessor db) {
+        SearchBundle bundle = new SearchBundle("Upload Search Bundle",
+                Map.of("UploadTypeID", new NotValidator(new NullValidator())),
+                Map.of("UploadTypeID", "upload.upload_type_id"), "SELECT upload.upload_id FROM upload WHERE",
+                new SearchStrategy(db));
+        streamer.stream(call, send -> bundle.search(new EqualToFilter("UploadTypeID", 1L),
+                (rs, i) -> rs.getLong("upload_id"), CHUNK_SIZE, send));
+    }
+
+    @Test
+    void slowClientKeepsOneChunkInMemory() throws Exception {
+        SlowCall call = new SlowCall();
+        CursorDBAccessor db = new CursorDBAccessor(ROWS, call);
+
+        streamUploads(call, db);
+        while (!call.done.isDone()) {
+            if (call.pollWaiting()) {
+                // paused: the read stops at the chunk that waits for the client
+                assertThat(db.read.get() - call.received.size()).isLessThanOrEqualTo(CHUNK_SIZE);
+                call.grant();
+            }
+        }
+        call.done.get(5, TimeUnit.SECONDS);
+
+        assertThat(db.peakInFlight.get()).isLessThanOrEqualTo(CHUNK_SIZE);
+        assertThat(call.received).hasSize(ROWS).startsWith(1L, 2L, 3L).endsWith(ROWS - 1L, (long) ROWS);
+    }
+
+    @Test
+    void cancelledCallStopsTheRead() throws Exception {
+        SlowCall call = new SlowCall();
+        CursorDBAccessor db = new CursorDBAccessor(ROWS, call);
+
+        streamUploads(call, db);
+        assertThat(call.awaitWaiting()).isTrue();
+        call.grant();
+        assertThat(call.awaitWaiting()).isTrue();
+        call.cancel();
+
+        assertThat(db.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(call.received).hasSize(CHUNK_SIZE);
+        assertThat(db.read.get()).isEqualTo(2 * CHUNK_SIZE);
+        assertThat(call.done).isNotDone();
+    }
+
+    @Test
+    void invalidSearchFailsWithInvalidArgument() {
+        SlowCall call = new SlowCall();
+
+        streamer.stream(call, send -> {
+            throw new IllegalArgumentException("The filter is invalid.");
+        });
+
+        assertThatThrownBy(() -> call.done.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e.getCause()).getStatus().getCode())
+                .isEqualTo(Status.Code.INVALID_ARGUMENT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.topcoder.or.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class StatsLoggerTest {
+
+    @Test
+    void logsEverySourceInNameOrder() {
+        DBAccessor dbAccessor = new DBAccessor(null, null, null, null, LoggerFactory.getLogger(StatsLoggerTest.class));
+        dbAccessor.getInStatementStats().record("SELECT 1");
+        dbAccessor.getInStatementStats().record("SELECT 1");
+        Logger logger = mock(Logger.class);
+        StatsLogger statsLogger = new StatsLogger(dbAccessor, logger, 0);
+        statsLogger.addSource("ID sequence project_id_seq", () -> "refills=1");
+
+        statsLogger.logStats();
+
+        InOrder order = inOrder(logger);
+        order.verify(logger).info("{}: {}", "ID sequence project_id_seq", "refills=1");
+        order.verify(logger).info("{}: {}", "IN statements", dbAccessor.getInStatementStats());
+    }
+
+    @Test
+    void failingSourceDoesNotStopTheOthers() {
+        DBAccessor dbAccessor = new DBAccessor(null, null, null, null, LoggerFactory.getLogger(StatsLoggerTest.class));
+        Logger logger = mock(Logger.class);
+        StatsLogger statsLogger = new StatsLogger(dbAccessor, logger, 0);
+        statsLogger.addSource("A broken source", () -> {
+            throw new IllegalStateException("broken");
+        });
+
+        statsLogger.logStats();
+
+        verify(logger).warn(eq("Failed to read the stats of A broken source"), any(IllegalStateException.class));
+        verify(logger).info("{}: {}", "IN statements", dbAccessor.getInStatementStats());
+    }
+}
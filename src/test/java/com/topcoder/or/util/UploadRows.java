@@ -0,0 +1,111 @@
+package com.topcoder.or.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * The rows of an upload query, shaped like the results the services map, for
+ * the ColumnMapper and ResultRows tests and benchmarks.
+ */
+final class UploadRows {
+    static final String SQL = "SELECT upload_id, project_id, resource_id, upload_type_id, upload_status_id,"
+            + " parameter, upload_desc, create_user, create_date, modify_user, modify_date FROM upload";
+
+    static final String[] LABELS = { "upload_id", "project_id", "resource_id", "upload_type_id",
+            "upload_status_id", "parameter", "upload_desc", "create_user", "create_date", "modify_user",
+            "modify_date" };
+
+    static final int[] TYPES = { Types.DECIMAL, Types.DECIMAL, Types.DECIMAL, Types.DECIMAL, Types.DECIMAL,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP };
+
+    /** A row as a builder would hold it. */
+    static final class Upload {
+        Long uploadId;
+        Long projectId;
+        Long resourceId;
+        Long uploadTypeId;
+        Long uploadStatusId;
+        String parameter;
+        String uploadDesc;
+        String createUser;
+        com.google.protobuf.Timestamp createDate;
+        String modifyUser;
+        com.google.protobuf.Timestamp modifyDate;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Upload u && Objects.equals(uploadId, u.uploadId)
+                    && Objects.equals(projectId, u.projectId) && Objects.equals(resourceId, u.resourceId)
+                    && Objects.equals(uploadTypeId, u.uploadTypeId)
+                    && Objects.equals(uploadStatusId, u.uploadStatusId) && Objects.equals(parameter, u.parameter)
+                    && Objects.equals(uploadDesc, u.uploadDesc) && Objects.equals(createUser, u.createUser)
+                    && Objects.equals(createDate, u.createDate) && Objects.equals(modifyUser, u.modifyUser)
+                    && Objects.equals(modifyDate, u.modifyDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uploadId, projectId);
+        }
+    }
+
+    static final ColumnMapper<Upload> COLUMNS = new ColumnMapper<Upload>()
+            .longColumn("upload_id", (b, v) -> b.uploadId = v)
+            .longColumn("project_id", (b, v) -> b.projectId = v)
+            .longColumn("resource_id", (b, v) -> b.resourceId = v)
+            .longColumn("upload_type_id", (b, v) -> b.uploadTypeId = v)
+            .longColumn("upload_status_id", (b, v) -> b.uploadStatusId = v)
+            .stringColumn("parameter", (b, v) -> b.parameter = v)
+            .stringColumn("upload_desc", (b, v) -> b.uploadDesc = v)
+            .stringColumn("create_user", (b, v) -> b.createUser = v)
+            .timestampColumn("create_date", (b, v) -> b.createDate = v)
+            .stringColumn("modify_user", (b, v) -> b.modifyUser = v)
+            .timestampColumn("modify_date", (b, v) -> b.modifyDate = v);
+
+    private UploadRows() {
+    }
+
+    /**
+     * Returns the values of the rows; every seventh row has no description.
+     *
+     * @param count the number of rows
+     * @return the values of each row
+     */
+    static Object[][] values(int count) {
+        Object[][] rows = new Object[count][];
+        long time = 1_600_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[] { 1000L + i, 30000L + i % 97, 500L + i, 1L, 1L + i % 3, "submission-" + i + ".zip",
+                    i % 7 == 0 ? null : "Upload " + i, "132456", new Timestamp(time + i * 1000L), "132456",
+                    new Timestamp(time + i * 2000L) };
+        }
+        return rows;
+    }
+
+    static ResultSet resultSet(Object[][] values) {
+        return InMemoryResultSet.of(LABELS, TYPES, values);
+    }
+
+    /**
+     * Maps the current row by column name, as the services did before
+     * ColumnMapper.
+     */
+    static Upload mapByName(ResultSet rs, int rowNum) throws SQLException {
+        Upload b = new Upload();
+        ResultSetHelper.applyResultSetLong(rs, "upload_id", v -> b.uploadId = v);
+        ResultSetHelper.applyResultSetLong(rs, "project_id", v -> b.projectId = v);
+        ResultSetHelper.applyResultSetLong(rs, "resource_id", v -> b.resourceId = v);
+        ResultSetHelper.applyResultSetLong(rs, "upload_type_id", v -> b.uploadTypeId = v);
+        ResultSetHelper.applyResultSetLong(rs, "upload_status_id", v -> b.uploadStatusId = v);
+        ResultSetHelper.applyResultSetString(rs, "parameter", v -> b.parameter = v);
+        ResultSetHelper.applyResultSetString(rs, "upload_desc", v -> b.uploadDesc = v);
+        ResultSetHelper.applyResultSetString(rs, "create_user", v -> b.createUser = v);
+        ResultSetHelper.applyResultSetTimestamp(rs, "create_date", v -> b.createDate = v);
+        ResultSetHelper.applyResultSetString(rs, "modify_user", v -> b.modifyUser = v);
+        ResultSetHelper.applyResultSetTimestamp(rs, "modify_date", v -> b.modifyDate = v);
+        return b;
+    }
+}
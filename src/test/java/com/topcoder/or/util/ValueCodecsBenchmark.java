@@ -0,0 +1,92 @@
+package com.topcoder.or.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.ByteString;
+import com.topcoder.onlinereview.grpc.payment.proto.BigDecimalProto;
+
+/**
+ * Compares the decimal codecs against encoding every decimal anew and decoding
+ * it through a BigInteger, over the repeating amounts of prizes and payments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueCodecsBenchmark {
+
+    private static final int AMOUNTS = 64;
+
+    private BigDecimal[] amounts;
+
+    private BigDecimalProto[] encoded;
+
+    @Setup
+    public void setUp() {
+        amounts = new BigDecimal[AMOUNTS];
+        encoded = new BigDecimalProto[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(i * 2500L + 99, 2);
+            encoded[i] = ValueCodecs.encodeDecimal(amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public int encodeCached() {
+        int size = 0;
+        for (BigDecimal amount : amounts) {
+            size += ValueCodecs.encodeDecimal(amount).getScale();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int encodeEveryTime() {
+        int size = 0;
+        for (BigDecimal amount : amounts) {
+            size += BigDecimalProto.newBuilder()
+                    .setScale(amount.scale())
+                    .setPrecision(amount.precision())
+                    .setValue(ByteString.copyFrom(amount.unscaledValue().toByteArray()))
+                    .build()
+                    .getScale();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public long decode() {
+        long sum = 0;
+        for (BigDecimalProto serialized : encoded) {
+            sum += ValueCodecs.decodeDecimal(serialized).unscaledValue().longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long decodeThroughBigInteger() {
+        long sum = 0;
+        for (BigDecimalProto serialized : encoded) {
+            BigDecimal value = new BigDecimal(new BigInteger(serialized.getValue().toByteArray()),
+                    serialized.getScale(), new MathContext(serialized.getPrecision()));
+            sum += value.unscaledValue().longValue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package com.topcoder.or.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import com.topcoder.onlinereview.grpc.payment.proto.BigDecimalProto;
+
+class ValueCodecsTest {
+
+    @Test
+    void timestampKeepsItsNanos() {
+        java.sql.Timestamp date = java.sql.Timestamp.valueOf("2022-03-04 05:06:07.123456789");
+
+        Timestamp encoded = ValueCodecs.encodeTimestamp(date);
+
+        assertThat(encoded.getSeconds()).isEqualTo(date.getTime() / 1000);
+        assertThat(encoded.getNanos()).isEqualTo(123456789);
+    }
+
+    @Test
+    void dateBeforeTheEpochHasPositiveNanos() {
+        Timestamp encoded = ValueCodecs.encodeTimestamp(new Date(-1500));
+
+        assertThat(encoded.getSeconds()).isEqualTo(-2);
+        assertThat(encoded.getNanos()).isEqualTo(500000000);
+    }
+
+    @Test
+    void timestampBeforeTheEpochKeepsItsNanos() {
+        java.sql.Timestamp date = new java.sql.Timestamp(-1500);
+        date.setNanos(500000001);
+
+        Timestamp encoded = ValueCodecs.encodeTimestamp(date);
+
+        assertThat(encoded.getSeconds()).isEqualTo(-2);
+        assertThat(encoded.getNanos()).isEqualTo(500000001);
+    }
+
+    @Test
+    void decimalsRoundTripExactly() {
+        for (String value : new String[] { "0", "0.00", "12.50", "-12.50", "1E+3", "-0.000001",
+                "9223372036854775807", "-9223372036854775808", "123456789012345678901234567890.12" }) {
+            BigDecimal decimal = new BigDecimal(value);
+
+            BigDecimal decoded = ValueCodecs.decodeDecimal(ValueCodecs.encodeDecimal(decimal));
+
+            assertThat(decoded).isEqualTo(decimal);
+            assertThat(decoded.scale()).isEqualTo(decimal.scale());
+        }
+    }
+
+    @Test
+    void decimalsEqualInValueKeepTheirScale() {
+        assertThat(ValueCodecs.encodeDecimal(new BigDecimal("1.0")).getScale()).isEqualTo(1);
+        assertThat(ValueCodecs.encodeDecimal(new BigDecimal("1.00")).getScale()).isEqualTo(2);
+    }
+
+    @Test
+    void decodingRoundsToThePrecision() {
+        BigDecimalProto serialized = BigDecimalProto.newBuilder()
+                .setScale(3)
+                .setPrecision(3)
+                .setValue(ByteString.copyFrom(BigInteger.valueOf(12345).toByteArray()))
+                .build();
+
+        assertThat(ValueCodecs.decodeDecimal(serialized)).isEqualTo(new BigDecimal("12.3"));
+    }
+
+    @Test
+    void emptyValueDecodesToZero() {
+        BigDecimalProto serialized = BigDecimalProto.newBuilder().setScale(2).build();
+
+        assertThat(ValueCodecs.decodeDecimal(serialized)).isEqualTo(new BigDecimal("0.00"));
+    }
+}